@@ -19,6 +19,7 @@ import com.fortify.cli.app._main.cli.cmd.FCLIRootCommands;
 import com.fortify.cli.app.runner.util.FortifyCLIDefaultValueProvider;
 import com.fortify.cli.app.runner.util.FortifyCLIDynamicInitializer;
 import com.fortify.cli.app.runner.util.FortifyCLIStaticInitializer;
+import com.fortify.cli.common.metrics.helper.FcliMetricsHelper;
 import com.fortify.cli.common.rest.unirest.GenericUnirestFactory;
 import com.fortify.cli.common.variable.FcliVariableHelper;
 
@@ -58,6 +59,7 @@ public final class DefaultFortifyCLIRunner implements IFortifyCLIRunner {
     	    cl.clearExecutionResults();
     	    return cl.execute(resolvedArgs);
 	    } finally {
+	        FcliMetricsHelper.writeAndDisable();
 	        // TODO For now, this is required to ensure new connections are used for 
 	        // every fcli invocation, as otherwise we may be using older proxy settings
 	        // after proxy has been reconfigured.
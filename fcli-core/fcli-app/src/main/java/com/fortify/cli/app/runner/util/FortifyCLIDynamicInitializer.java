@@ -22,6 +22,7 @@ import org.slf4j.LoggerFactory;
 import com.fortify.cli.common.cli.cmd.AbstractRunnableCommand;
 import com.fortify.cli.common.cli.cmd.AbstractRunnableCommand.GenericOptionsArgGroup;
 import com.fortify.cli.common.cli.cmd.AbstractRunnableCommand.LogLevel;
+import com.fortify.cli.common.metrics.helper.FcliMetricsHelper;
 
 import ch.qos.logback.classic.Logger;
 import ch.qos.logback.classic.LoggerContext;
@@ -58,6 +59,7 @@ public final class FortifyCLIDynamicInitializer {
     
     private void initialize(GenericOptionsArgGroup genericOptions) {
         initializeEnvPrefix(genericOptions);
+        initializeMetrics(genericOptions);
         initializeLogging(genericOptions);
     }
     
@@ -78,6 +80,13 @@ public final class FortifyCLIDynamicInitializer {
         }
     }
 
+    private void initializeMetrics(GenericOptionsArgGroup genericOptions) {
+        var metricsFormat = genericOptions.getMetricsFormat();
+        if ( metricsFormat!=null ) {
+            FcliMetricsHelper.enable(metricsFormat, genericOptions.getMetricsFile());
+        }
+    }
+
     private void configureLogFile(Logger rootLogger, String logFile) {
         LoggerContext loggerContext = rootLogger.getLoggerContext();
         FileAppender<ILoggingEvent> fileAppender = new FileAppender<ILoggingEvent>();
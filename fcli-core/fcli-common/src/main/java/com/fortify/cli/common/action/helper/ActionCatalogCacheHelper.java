@@ -0,0 +1,151 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.action.helper;
+
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fortify.cli.common.action.helper.ActionLoaderHelper.ActionSource;
+import com.fortify.cli.common.action.helper.ActionLoaderHelper.ActionValidationHandler;
+import com.fortify.cli.common.crypto.helper.impl.PublicKeyTrustStore;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.util.FcliBuildPropertiesHelper;
+import com.fortify.cli.common.util.FcliDataHelper;
+
+import lombok.SneakyThrows;
+
+/**
+ * This class manages a persistent catalog of action summaries for each action zip file,
+ * stored in the fcli state directory. Loading action summaries requires parsing, validating
+ * and potentially verifying the signature of every action in every action zip file, so
+ * caching these summaries avoids repeating this for every 'action list' invocation.
+ * Cache entries are keyed by a hash of the zip contents, fcli version and trusted public
+ * keys, such that entries are automatically invalidated if any of these change. Cache
+ * entries for imported actions are also explicitly cleared on 'action import/reset'.
+ * As the cache is stored in the fcli state directory, the FCLI_STATE_DIR environment
+ * variable can be used to store the cache in an alternative location, which may be
+ * outside of the fcli data directory.
+ */
+final class ActionCatalogCacheHelper {
+    private static final Logger LOG = LoggerFactory.getLogger(ActionCatalogCacheHelper.class);
+    private ActionCatalogCacheHelper() {}
+
+    /**
+     * Get the action summaries for the given {@link ActionSource}, either from cache
+     * or by invoking the given summaries loader with the action zip contents.
+     */
+    static final List<ObjectNode> getSummaries(ActionSource source, ActionValidationHandler actionValidationHandler, Function<byte[], List<ObjectNode>> summariesLoader) {
+        var contents = readContents(source);
+        if ( contents==null ) { return new ArrayList<>(); }
+        var cacheName = source.getCacheName();
+        if ( cacheName==null ) { return summariesLoader.apply(contents); }
+        var hash = hash(source, actionValidationHandler, contents);
+        var result = readCache(cacheName, hash);
+        if ( result==null ) {
+            result = summariesLoader.apply(contents);
+            writeCache(cacheName, hash, result);
+        }
+        return result;
+    }
+
+    /**
+     * Clear the catalog cache entry for the given cache name.
+     */
+    static final void clear(String cacheName) {
+        try {
+            Files.deleteIfExists(cachePath(cacheName));
+        } catch ( Exception e ) {
+            LOG.debug("Error clearing action catalog cache entry "+cacheName, e);
+        }
+    }
+
+    @SneakyThrows
+    private static final byte[] readContents(ActionSource source) {
+        try ( InputStream is = source.getInputStreamSupplier().get() ) {
+            return is==null ? null : is.readAllBytes();
+        }
+    }
+
+    private static final List<ObjectNode> readCache(String cacheName, String hash) {
+        try {
+            var cachePath = cachePath(cacheName);
+            if ( Files.exists(cachePath) ) {
+                var entry = JsonHelper.getObjectMapper().readValue(cachePath.toFile(), ObjectNode.class);
+                if ( entry!=null && hash.equals(entry.path("hash").asText()) && entry.get("summaries") instanceof ArrayNode ) {
+                    var result = new ArrayList<ObjectNode>();
+                    entry.get("summaries").forEach(s->result.add((ObjectNode)s));
+                    return result;
+                }
+            }
+        } catch ( Exception e ) {
+            LOG.debug("Ignoring invalid action catalog cache entry "+cacheName, e);
+        }
+        return null;
+    }
+
+    private static final void writeCache(String cacheName, String hash, List<ObjectNode> summaries) {
+        try {
+            var entry = JsonHelper.getObjectMapper().createObjectNode();
+            entry.put("hash", hash);
+            entry.set("summaries", summaries.stream().collect(JsonHelper.arrayNodeCollector()));
+            var cachePath = cachePath(cacheName);
+            Files.createDirectories(cachePath.getParent());
+            // Write to a temporary file first, such that concurrent fcli invocations
+            // never see partially written cache entries
+            var tmpPath = Files.createTempFile(cachePath.getParent(), cacheName, ".tmp");
+            try {
+                JsonHelper.getObjectMapper().writeValue(tmpPath.toFile(), entry);
+                Files.move(tmpPath, cachePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmpPath);
+            }
+        } catch ( Exception e ) {
+            LOG.debug("Error writing action catalog cache entry "+cacheName, e);
+        }
+    }
+
+    @SneakyThrows
+    private static final String hash(ActionSource source, ActionValidationHandler actionValidationHandler, byte[] contents) {
+        var digest = MessageDigest.getInstance("SHA-256");
+        update(digest, FcliBuildPropertiesHelper.getFcliBuildInfo());
+        if ( source.getMetadata().isCustom() ) {
+            // Signature status for custom actions depends on trusted public keys
+            actionValidationHandler.getExtraPublicKeys().forEach(k->update(digest, k));
+            PublicKeyTrustStore.INSTANCE.fingerprints().forEach(f->update(digest, f));
+        }
+        digest.update(contents);
+        return String.format("%064X", new BigInteger(1, digest.digest()));
+    }
+
+    private static final void update(MessageDigest digest, String value) {
+        digest.update((value==null ? "" : value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte)0);
+    }
+
+    static final Path cachePath(String cacheName) {
+        return FcliDataHelper.getFcliStatePath().resolve("action").resolve("cache").resolve(cacheName+".json");
+    }
+}
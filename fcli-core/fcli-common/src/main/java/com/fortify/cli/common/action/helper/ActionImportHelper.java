@@ -45,6 +45,7 @@ public class ActionImportHelper {
     @SneakyThrows
     public static ArrayNode importAction(String type, String externalSource, String action, ActionValidationHandler actionValidationHandler) {
         var result = JsonHelper.getObjectMapper().createArrayNode();
+        ActionCatalogCacheHelper.clear(ActionSource.importedCacheName(type));
         try ( var fs = createOutputZipFileSystem(type) ) {
             var actionLoadResult = new ActionLoader(ActionSource.externalActionSources(externalSource), actionValidationHandler)
                     .load(action);
@@ -57,6 +58,7 @@ public class ActionImportHelper {
     public static ArrayNode importZip(String type, String zip, ActionValidationHandler actionValidationHandler) {
         var result = JsonHelper.getObjectMapper().createArrayNode();
         var loader = new ActionLoader(null, actionValidationHandler);
+        ActionCatalogCacheHelper.clear(ActionSource.importedCacheName(type));
         try ( var fs = createOutputZipFileSystem(type); var is = createZipFileInputStream(zip) ) {
             ZipHelper.processZipEntries(is, (zis, entry)->
                 importAction(fs, result, loader, zis, entry));
@@ -132,6 +134,7 @@ public class ActionImportHelper {
                     .streamAsJson(ActionSource.importedActionSources(type), ActionValidationHandler.IGNORE)
                     .collect(JsonHelper.arrayNodeCollector());
             Files.delete(zipPath);
+            ActionCatalogCacheHelper.clear(ActionSource.importedCacheName(type));
             return result;
         }
     }
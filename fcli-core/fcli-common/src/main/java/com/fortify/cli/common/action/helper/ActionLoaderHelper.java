@@ -12,6 +12,7 @@
  */
 package com.fortify.cli.common.action.helper;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
@@ -79,7 +80,23 @@ public class ActionLoaderHelper {
     }
     
     public static final Stream<ObjectNode> streamAsJson(List<ActionSource> sources, ActionValidationHandler actionValidationHandler) {
-        return _stream(sources, actionValidationHandler, ActionLoadResult::getSummaryObjectNode, o->o.get("name").asText());
+        Map<String, ObjectNode> result = new HashMap<>();
+        for ( var source : sources ) {
+            ActionCatalogCacheHelper.getSummaries(source, actionValidationHandler, contents->loadSummaries(source, contents, actionValidationHandler))
+                .forEach(summary->result.putIfAbsent(summary.get("name").asText(), summary));
+        }
+        return result.values().stream()
+                .sorted((a,b)->a.get("name").asText().compareTo(b.get("name").asText()));
+    }
+    
+    private static final List<ObjectNode> loadSummaries(ActionSource source, byte[] contents, ActionValidationHandler actionValidationHandler) {
+        List<ObjectNode> result = new ArrayList<>();
+        new ActionLoader(List.of(source.withContents(contents)), actionValidationHandler)
+            .processActions(loadResult->{
+                result.add(loadResult.getSummaryObjectNode());
+                return Break.FALSE;
+            });
+        return result;
     }
     
     private static final <T> Stream<T> _stream(List<ActionSource> sources, ActionValidationHandler actionValidationHandler, Function<ActionLoadResult, T> asTypeFunction, Function<T, String> nameFunction) {
@@ -343,6 +360,8 @@ public class ActionLoaderHelper {
     public static final class ActionSource {
         private final Supplier<InputStream> inputStreamSupplier;
         private final ActionMetadata metadata;
+        /** Name of the {@link ActionCatalogCacheHelper} entry for this source, or null if not cacheable */
+        private final String cacheName;
         
         public static final List<ActionSource> defaultActionSources(String type) {
             var result = new ArrayList<ActionSource>();
@@ -374,19 +393,27 @@ public class ActionLoaderHelper {
         }
         
         private static final ActionSource external(String source) {
-            return new ActionSource(()->createSourceInputStream(source, true), ActionMetadata.create(true));
+            return new ActionSource(()->createSourceInputStream(source, true), ActionMetadata.create(true), null);
         }
         
         private static final ActionSource imported(String type) {
-            return new ActionSource(customActionsInputStreamSupplier(type), ActionMetadata.create(true));
+            return new ActionSource(customActionsInputStreamSupplier(type), ActionMetadata.create(true), importedCacheName(type));
         }
         
         private static final ActionSource builtin(String type) {
-            return new ActionSource(builtinActionsInputStreamSupplier(type), ActionMetadata.create(false));
+            return new ActionSource(builtinActionsInputStreamSupplier(type), ActionMetadata.create(false), "builtin-"+type.toLowerCase());
         }
         
         private static final ActionSource common(String type) {
-            return new ActionSource(commonActionsInputStreamSupplier(), ActionMetadata.create(false));
+            return new ActionSource(commonActionsInputStreamSupplier(), ActionMetadata.create(false), "common");
+        }
+        
+        static final String importedCacheName(String type) {
+            return "imported-"+type.toLowerCase();
+        }
+        
+        private final ActionSource withContents(byte[] contents) {
+            return new ActionSource(()->new ByteArrayInputStream(contents), metadata, cacheName);
         }
         
         @SneakyThrows
@@ -34,4 +34,12 @@ import lombok.NoArgsConstructor;
 public final class ActionStepAppend extends AbstractActionStepUpdateProperty {
     @JsonPropertyDescription("Optional SpEL template expression: Property name to be added or updated in the data object specified by 'name'. If specified, 'name' is considered to be an object, otherwise 'name' is considered to be an array.")
     @JsonProperty(required = false) private TemplateExpression property;
+    
+    @JsonPropertyDescription("Optional boolean: If true, values are appended to an array that is backed by a temporary file rather than being kept in memory, allowing 'write' steps to stream array contents straight to the output. Such arrays can only be written (directly or through a value template) or queried for their size; they cannot be combined with 'property'. Defaults to false.")
+    @JsonProperty(required = false) private boolean stream;
+    
+    @Override
+    protected void _postLoad(Action action) {
+        Action.throwIf(stream && property!=null, this, ()->"Action append stream property cannot be combined with property");
+    }
 }
\ No newline at end of file
@@ -38,8 +38,13 @@ public final class ActionStepForEach extends AbstractActionStepForEach {
     
     @JsonPropertyDescription("Required SpEL template expression if 'processor' not specified: Array of values to be iterated over.")
     @JsonProperty(required = false) private TemplateExpression values;
-    
-    public final void _postLoad(Action action) {}
+
+    @JsonPropertyDescription("Optional integer: Maximum number of records to be processed concurrently. If larger than 1, each record is processed on a separate thread using an isolated copy of the data as available when starting the forEach step; any 'set', 'append' and 'unset' updates, 'write', 'progress' and 'warn' output and 'check' results are applied in original record order once all preceding records have been processed. As such, updates made by one record are not visible while processing other records. 'fcli' steps are always executed one at a time, and forEach steps nested in the forEach block of an 'fcli' step are processed sequentially unless the 'fcli' step itself is processed as part of a parallel forEach record. Defaults to 1 (sequential processing).")
+    @JsonProperty(required = false) private Integer parallel;
+
+    public final void _postLoad(Action action) {
+        Action.throwIf(parallel!=null && parallel<1, this, ()->"Action forEach parallel property must be a positive integer");
+    }
     
     @FunctionalInterface
     public static interface IActionStepForEachProcessor {
@@ -12,8 +12,8 @@
  */
 package com.fortify.cli.common.action.model;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.function.Function;
 
 import org.springframework.expression.ParseException;
 
@@ -21,15 +21,17 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyDescription;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
-import com.fasterxml.jackson.databind.node.ValueNode;
 import com.formkiq.graalvm.annotations.Reflectable;
-import com.fortify.cli.common.json.JsonHelper.AbstractJsonNodeWalker;
+import com.fortify.cli.common.json.JsonHelper;
 import com.fortify.cli.common.spring.expression.SpelHelper;
 import com.fortify.cli.common.spring.expression.wrapper.TemplateExpression;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
 
 /**
  * This class describes an output, which can be either a top-level output
@@ -44,35 +46,125 @@ public final class ActionValueTemplate implements IActionElement {
     @JsonPropertyDescription("Required object|string: Text or structured JSON contents, where each text node is assumed to be a template expression.")
     @JsonProperty(required = true) private JsonNode contents;
     
-    /** Cached mapping from text node property path to corresponding TemplateExpression instance */  
-    @JsonIgnore private final Map<String, TemplateExpression> valueExpressions = new LinkedHashMap<>();
+    /** Compiled representation of the template contents, as generated by {@link #postLoad(Action)} */  
+    @JsonIgnore private ICompiledNode compiledContents;
     
     /**
      * This method checks whether required name and contents are not blank or null, then
-     * walks the given contents to parse each text node as a {@link TemplateExpression},
-     * caching the resulting {@link TemplateExpression} instance in the {@link #valueExpressions}
-     * map, throwing an exception if the text node cannot be parsed as a {@link TemplateExpression}.
+     * compiles the given contents into a tree of {@link ICompiledNode} instances, parsing
+     * each text node as a {@link TemplateExpression} and throwing an exception if the text 
+     * node cannot be parsed as a {@link TemplateExpression}. Text nodes that represent
+     * constant values, and containers consisting of only constant values, are folded into
+     * pre-built {@link JsonNode} instances, such that rendering this value template only
+     * needs to evaluate non-constant expressions.
      */
     public final void postLoad(Action action) {
         Action.checkNotBlank("(partial) output name", name, this);
         Action.checkNotNull("(partial) output contents", contents, this);
-        new ContentsWalker().walk(contents);
+        compiledContents = compile(contents);
     }
     
-    private final class ContentsWalker extends AbstractJsonNodeWalker<Void, Void> {
+    /**
+     * Render this value template, using the given function to evaluate the
+     * {@link TemplateExpression} for each non-constant text node.
+     */
+    public final JsonNode render(Function<TemplateExpression, JsonNode> expressionEvaluator) {
+        return compiledContents.render(expressionEvaluator);
+    }
+    
+    private final ICompiledNode compile(JsonNode node) {
+        if ( node instanceof ObjectNode ) {
+            return compileObject((ObjectNode)node);
+        } else if ( node instanceof ArrayNode ) {
+            return compileArray((ArrayNode)node);
+        } else if ( node instanceof TextNode ) {
+            return compileExpression(node.asText());
+        } else {
+            return new ConstantNode(node);
+        }
+    }
+    
+    private final ICompiledNode compileObject(ObjectNode node) {
+        var names = new ArrayList<String>(node.size());
+        var values = new ArrayList<ICompiledNode>(node.size());
+        node.fields().forEachRemaining(e->{
+            names.add(e.getKey());
+            values.add(compile(e.getValue()));
+        });
+        if ( values.stream().allMatch(ConstantNode.class::isInstance) ) {
+            return new ConstantContainerNode(node);
+        }
+        return expressionEvaluator->{
+            var result = JsonHelper.getObjectMapper().createObjectNode();
+            for ( int i=0; i<names.size(); i++ ) {
+                result.set(names.get(i), values.get(i).render(expressionEvaluator));
+            }
+            return result;
+        };
+    }
+    
+    private final ICompiledNode compileArray(ArrayNode node) {
+        var values = new ArrayList<ICompiledNode>(node.size());
+        node.elements().forEachRemaining(e->values.add(compile(e)));
+        if ( values.stream().allMatch(ConstantNode.class::isInstance) ) {
+            return new ConstantContainerNode(node);
+        }
+        return expressionEvaluator->{
+            var result = JsonHelper.getObjectMapper().createArrayNode();
+            values.forEach(v->result.add(v.render(expressionEvaluator)));
+            return result;
+        };
+    }
+    
+    private final ICompiledNode compileExpression(String expr) {
+        try {
+            var expression = SpelHelper.parseTemplateExpression(expr);
+            var constantValue = SpelHelper.getTemplateExpressionConstantValue(expr);
+            if ( constantValue.isEmpty() ) {
+                return expressionEvaluator->expressionEvaluator.apply(expression);
+            } else if ( constantValue.get() instanceof String ) {
+                return new ConstantNode(new TextNode(((String)constantValue.get()).replace("\\n", "\n")));
+            } else {
+                return new ConstantNode(JsonHelper.getObjectMapper().valueToTree(constantValue.get()));
+            }
+        } catch (ParseException e) {
+            throw new ActionValidationException(String.format("Error parsing template expression '%s'", expr), ActionValueTemplate.this, e);
+        }
+    }
+    
+    /**
+     * Interface representing a compiled (part of a) value template, rendering
+     * a new {@link JsonNode} on every invocation.
+     */
+    @FunctionalInterface
+    private static interface ICompiledNode {
+        JsonNode render(Function<TemplateExpression, JsonNode> expressionEvaluator);
+    }
+    
+    /**
+     * Constant value node; as value nodes are immutable, the same instance
+     * is shared between all renderings.
+     */
+    @RequiredArgsConstructor
+    private static class ConstantNode implements ICompiledNode {
+        private final JsonNode value;
         @Override
-        protected Void getResult() { return null; }
+        public JsonNode render(Function<TemplateExpression, JsonNode> expressionEvaluator) {
+            return value;
+        }
+    }
+    
+    /**
+     * Container consisting of only constant values; as containers may be updated
+     * by action steps, a copy is returned on every rendering.
+     */
+    private static final class ConstantContainerNode extends ConstantNode {
+        public ConstantContainerNode(JsonNode value) {
+            super(value);
+        }
         @Override
-        protected void walkValue(Void state, String path, JsonNode parent, ValueNode node) {
-            if ( node instanceof TextNode ) {
-                var expr = node.asText();
-                try {
-                    valueExpressions.put(path, SpelHelper.parseTemplateExpression(expr));
-                } catch (ParseException e) {
-                    throw new ActionValidationException(String.format("Error parsing template expression '%s'", expr), ActionValueTemplate.this, e);
-                }
-            }
-            super.walkValue(state, path, parent, node);
+        public JsonNode render(Function<TemplateExpression, JsonNode> expressionEvaluator) {
+            return super.render(expressionEvaluator).deepCopy();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,236 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.action.runner;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fortify.cli.common.json.JsonHelper;
+
+/**
+ * This class creates array and object nodes that are layered on top of an existing 
+ * base node, without copying the base node. Appended array elements and updated object
+ * properties are stored in the overlay node only, such that the base node is never 
+ * modified. This allows parallel forEach records to update arrays and objects that 
+ * are shared between records, without copying the full array or object for every
+ * record. Other modifications, like removing elements, first copy the base node 
+ * contents into the overlay node.<br/>
+ * <br/>
+ * Overlay nodes are not thread-safe, and callers must guarantee that the base node 
+ * isn't modified while the overlay node is in use.
+ */
+final class ActionOverlayNodes {
+    private ActionOverlayNodes() {}
+    
+    static final ArrayNode overlay(ArrayNode base) {
+        return new ArrayNode(getNodeFactory(), new OverlayList(base));
+    }
+    
+    static final ObjectNode overlay(ObjectNode base) {
+        return new ObjectNode(getNodeFactory(), new OverlayMap(base));
+    }
+    
+    private static final JsonNodeFactory getNodeFactory() {
+        return JsonHelper.getObjectMapper().getNodeFactory();
+    }
+    
+    private static final class OverlayList extends AbstractList<JsonNode> {
+        private ArrayNode base;
+        private int baseSize;
+        private List<JsonNode> local = new ArrayList<>();
+        
+        private OverlayList(ArrayNode base) {
+            this.base = base;
+            this.baseSize = base.size();
+        }
+        
+        @Override
+        public JsonNode get(int index) {
+            Objects.checkIndex(index, size());
+            return index<baseSize ? base.get(index) : local.get(index-baseSize);
+        }
+        
+        @Override
+        public int size() {
+            return baseSize+local.size();
+        }
+        
+        @Override
+        public void add(int index, JsonNode element) {
+            if ( index!=size() ) { materialize(); }
+            local.add(index-baseSize, element);
+            modCount++;
+        }
+        
+        @Override
+        public JsonNode set(int index, JsonNode element) {
+            if ( index<baseSize ) { materialize(); }
+            return local.set(index-baseSize, element);
+        }
+        
+        @Override
+        public JsonNode remove(int index) {
+            if ( index<baseSize ) { materialize(); }
+            modCount++;
+            return local.remove(index-baseSize);
+        }
+        
+        private void materialize() {
+            if ( base!=null ) {
+                var all = new ArrayList<JsonNode>(size());
+                for ( int i=0 ; i<baseSize ; i++ ) { all.add(base.get(i)); }
+                all.addAll(local);
+                local = all;
+                base = null;
+                baseSize = 0;
+            }
+        }
+    }
+    
+    private static final class OverlayMap extends AbstractMap<String, JsonNode> {
+        private ObjectNode base;
+        /** Updated and added properties; contains all properties once materialized */
+        private Map<String, JsonNode> local = new LinkedHashMap<>();
+        /** Number of properties in {@link #local} that don't exist in {@link #base} */
+        private int addedCount = 0;
+        
+        private OverlayMap(ObjectNode base) {
+            this.base = base;
+        }
+        
+        @Override
+        public JsonNode get(Object key) {
+            var result = local.get(key);
+            return result!=null || base==null || !(key instanceof String) ? result : base.get((String)key);
+        }
+        
+        @Override
+        public boolean containsKey(Object key) {
+            return local.containsKey(key) || (base!=null && key instanceof String && base.has((String)key));
+        }
+        
+        @Override
+        public JsonNode put(String key, JsonNode value) {
+            var previous = get(key);
+            if ( base!=null && previous==null ) { addedCount++; }
+            local.put(key, value);
+            return previous;
+        }
+        
+        @Override
+        public JsonNode remove(Object key) {
+            materialize();
+            return local.remove(key);
+        }
+        
+        @Override
+        public void clear() {
+            base = null;
+            addedCount = 0;
+            local.clear();
+        }
+        
+        @Override
+        public int size() {
+            return base==null ? local.size() : base.size()+addedCount;
+        }
+        
+        @Override
+        public Set<Entry<String, JsonNode>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, JsonNode>> iterator() {
+                    return base==null ? local.entrySet().iterator() : new OverlayIterator();
+                }
+                
+                @Override
+                public int size() {
+                    return OverlayMap.this.size();
+                }
+            };
+        }
+        
+        private void materialize() {
+            if ( base!=null ) {
+                var all = new LinkedHashMap<String, JsonNode>();
+                base.fields().forEachRemaining(e->all.put(e.getKey(), e.getValue()));
+                all.putAll(local);
+                local = all;
+                base = null;
+                addedCount = 0;
+            }
+        }
+        
+        /**
+         * Iterate over base properties in original order, replacing any updated values,
+         * followed by added properties.
+         */
+        private final class OverlayIterator implements Iterator<Entry<String, JsonNode>> {
+            private final Iterator<Entry<String, JsonNode>> baseIterator = base.fields();
+            private final Iterator<Entry<String, JsonNode>> localIterator = local.entrySet().iterator();
+            private final ObjectNode iteratedBase = base;
+            private Entry<String, JsonNode> next;
+            
+            @Override
+            public boolean hasNext() {
+                while ( next==null ) {
+                    if ( baseIterator.hasNext() ) {
+                        var key = baseIterator.next().getKey();
+                        next = new OverlayEntry(key);
+                    } else if ( localIterator.hasNext() ) {
+                        var entry = localIterator.next();
+                        if ( !iteratedBase.has(entry.getKey()) ) { next = entry; }
+                    } else {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            
+            @Override
+            public Entry<String, JsonNode> next() {
+                if ( !hasNext() ) { throw new NoSuchElementException(); }
+                var result = next;
+                next = null;
+                return result;
+            }
+        }
+        
+        private final class OverlayEntry extends SimpleEntry<String, JsonNode> {
+            private static final long serialVersionUID = 1L;
+
+            private OverlayEntry(String key) {
+                super(key, OverlayMap.this.get(key));
+            }
+            
+            @Override
+            public JsonNode setValue(JsonNode value) {
+                put(getKey(), value);
+                return super.setValue(value);
+            }
+        }
+    }
+}
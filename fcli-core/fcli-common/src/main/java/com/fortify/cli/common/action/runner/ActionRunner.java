@@ -18,12 +18,23 @@ import java.io.PrintStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -35,8 +46,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.expression.spel.SpelEvaluationException;
 import org.springframework.expression.spel.support.SimpleEvaluationContext;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.BooleanNode;
 import com.fasterxml.jackson.databind.node.DoubleNode;
@@ -45,6 +58,7 @@ import com.fasterxml.jackson.databind.node.IntNode;
 import com.fasterxml.jackson.databind.node.LongNode;
 import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.POJONode;
 import com.fasterxml.jackson.databind.node.TextNode;
 import com.fasterxml.jackson.databind.node.ValueNode;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
@@ -68,7 +82,6 @@ import com.fortify.cli.common.action.model.ActionStepSet;
 import com.fortify.cli.common.action.model.ActionStepUnset;
 import com.fortify.cli.common.action.model.ActionStepWrite;
 import com.fortify.cli.common.action.model.ActionValidationException;
-import com.fortify.cli.common.action.model.ActionValueTemplate;
 import com.fortify.cli.common.action.model.IActionStepIfSupplier;
 import com.fortify.cli.common.action.model.IActionStepValueSupplier;
 import com.fortify.cli.common.action.runner.ActionRunner.IActionRequestHelper.ActionRequestDescriptor;
@@ -78,7 +91,7 @@ import com.fortify.cli.common.cli.util.SimpleOptionsParser;
 import com.fortify.cli.common.cli.util.SimpleOptionsParser.IOptionDescriptor;
 import com.fortify.cli.common.cli.util.SimpleOptionsParser.OptionsParseResult;
 import com.fortify.cli.common.json.JsonHelper;
-import com.fortify.cli.common.json.JsonHelper.JsonNodeDeepCopyWalker;
+import com.fortify.cli.common.metrics.helper.FcliMetricsHelper;
 import com.fortify.cli.common.output.product.IProductHelper;
 import com.fortify.cli.common.output.transform.IInputTransformer;
 import com.fortify.cli.common.progress.helper.IProgressWriterI18n;
@@ -95,6 +108,7 @@ import com.fortify.cli.common.spring.expression.SpelEvaluator;
 import com.fortify.cli.common.spring.expression.SpelHelper;
 import com.fortify.cli.common.spring.expression.wrapper.TemplateExpression;
 import com.fortify.cli.common.util.JavaHelper;
+import com.fortify.cli.common.util.OutputCollector.Output;
 import com.fortify.cli.common.util.StringUtils;
 
 import kong.unirest.HttpRequest;
@@ -116,6 +130,8 @@ import picocli.CommandLine;
 public class ActionRunner implements AutoCloseable {
     /** Jackson {@link ObjectMapper} used for various JSON-related operations */
     private static final ObjectMapper objectMapper = JsonHelper.getObjectMapper();
+    /** Jackson {@link ObjectWriter} used for writing pretty-printed JSON output without closing the target stream */
+    private static final ObjectWriter prettyWriter = objectMapper.writerWithDefaultPrettyPrinter().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     /** Jackson {@link ObjectMapper} used for formatting steps in logging/exception messages */
     private static final ObjectMapper yamlObjectMapper = new ObjectMapper(new YAMLFactory());
     /** Logger */
@@ -149,8 +165,23 @@ public class ActionRunner implements AutoCloseable {
     private final PrintStream stdout = System.out;
     /** Save original stderr for delayed output operations */
     private final PrintStream stderr = System.err;
+    /** Streamed arrays created by 'append' steps, to be closed when closing this runner */
+    private final List<ActionStreamedArray> streamedArrays = new ArrayList<>();
+    /** Executor shared by all parallel forEach steps; the number of concurrently processed
+     *  records is limited by each forEach step, and threads are created on demand. */
+    private final ExecutorService parallelForEachExecutor = Executors.newCachedThreadPool(r->{
+        var thread = new Thread(r, "fcli-action-forEach");
+        thread.setDaemon(true);
+        return thread;
+    });
     @Builder.Default private int exitCode = 0;
-    @Builder.Default private boolean exitRequested = false;
+    // Set if the delayed console writer returned by run() hasn't been invoked yet; as callers
+    // may close this runner before invoking that writer, streamed arrays referenced by delayed
+    // console writers are only closed after they have been written.
+    @Builder.Default private boolean delayedConsoleWriterPending = false;
+    @Builder.Default private boolean closed = false;
+    // Read by parallel forEach worker threads, but only updated from the main thread
+    @Builder.Default private volatile boolean exitRequested = false;
     
     public final Callable<Integer> run(String[] args) {
         initializeCheckStatuses();
@@ -165,7 +196,12 @@ public class ActionRunner implements AutoCloseable {
             new ActionStepsProcessor(globalData, null).processSteps();
             progressWriter.writeProgress("Action processing finished");
         }
-        return ()->{
+        delayedConsoleWriterPending = true;
+        return this::writeDelayedConsoleOutput;
+    }
+    
+    private final Integer writeDelayedConsoleOutput() {
+        try {
             delayedConsoleWriterRunnables.forEach(Runnable::run);
             if ( !checkStatuses.isEmpty() ) {
                 checkStatuses.entrySet().forEach(
@@ -177,7 +213,10 @@ public class ActionRunner implements AutoCloseable {
                 }
             }
             return exitCode;
-        };
+        } finally {
+            delayedConsoleWriterPending = false;
+            if ( closed ) { streamedArrays.forEach(ActionStreamedArray::close); }
+        }
     }
     
     private void initializeCheckStatuses() {
@@ -203,7 +242,15 @@ public class ActionRunner implements AutoCloseable {
     }
 
     public final void close() {
-        requestHelpers.values().forEach(IActionRequestHelper::close);
+        closed = true;
+        try {
+            parallelForEachExecutor.shutdownNow();
+            requestHelpers.values().forEach(IActionRequestHelper::close);
+        } finally {
+            // Delete streamed array temporary files, even if closing request helpers failed,
+            // unless they're still needed by the delayed console writer returned by run().
+            if ( !delayedConsoleWriterPending ) { streamedArrays.forEach(ActionStreamedArray::close); }
+        }
     }
     
     private final void configureSpelEvaluator(SimpleEvaluationContext context) {
@@ -381,10 +428,21 @@ public class ActionRunner implements AutoCloseable {
     private final class ActionStepsProcessor {
         private final ObjectNode localData;
         private final ActionStepsProcessor parent;
+        /** Parallel forEach iteration that this processor is part of, or null if not
+         *  processing a parallel forEach record */
+        private final ParallelForEachIteration iteration;
+        /** Containers copied by replayed parallel forEach operations while a parallel 
+         *  forEach step is being processed on this processor, or null otherwise */
+        private Set<JsonNode> replayContainers;
         
         public ActionStepsProcessor(ObjectNode localData, ActionStepsProcessor parent) {
+            this(localData, parent, parent==null ? null : parent.iteration);
+        }
+        
+        private ActionStepsProcessor(ObjectNode localData, ActionStepsProcessor parent, ParallelForEachIteration iteration) {
             this.localData = localData;
             this.parent = parent;
+            this.iteration = iteration;
         }
 
         private final void processSteps() {
@@ -397,40 +455,40 @@ public class ActionRunner implements AutoCloseable {
         
         private final void processStep(ActionStep step) {
             if ( _if(step) ) {
-                processStepSupplier(step::getProgress, this::processProgressStep);
-                processStepSupplier(step::getWarn, this::processWarnStep);
-                processStepSupplier(step::getDebug, this::processDebugStep);
-                processStepSupplier(step::get_throw, this::processThrowStep);
-                processStepSupplier(step::get_exit, this::processExitStep);
-                processStepSupplier(step::getRequests, this::processRequestsStep);
-                processStepSupplier(step::getForEach, this::processForEachStep);
-                processStepEntries(step::getFcli, this::processFcliStep);
-                processStepEntries(step::getSet, this::processSetStep);
-                processStepEntries(step::getAppend, this::processAppendStep);
-                processStepEntries(step::getUnset, this::processUnsetStep);
-                processStepEntries(step::getCheck, this::processCheckStep);
-                processStepEntries(step::getWrite, this::processWriteStep);
-                processStepEntries(step::getSteps, this::processStep);
+                processStepSupplier("progress", step::getProgress, this::processProgressStep);
+                processStepSupplier("warn", step::getWarn, this::processWarnStep);
+                processStepSupplier("debug", step::getDebug, this::processDebugStep);
+                processStepSupplier("throw", step::get_throw, this::processThrowStep);
+                processStepSupplier("exit", step::get_exit, this::processExitStep);
+                processStepSupplier("requests", step::getRequests, this::processRequestsStep);
+                processStepSupplier("forEach", step::getForEach, this::processForEachStep);
+                processStepEntries("fcli", step::getFcli, this::processFcliStep);
+                processStepEntries("set", step::getSet, this::processSetStep);
+                processStepEntries("append", step::getAppend, this::processAppendStep);
+                processStepEntries("unset", step::getUnset, this::processUnsetStep);
+                processStepEntries("check", step::getCheck, this::processCheckStep);
+                processStepEntries("write", step::getWrite, this::processWriteStep);
+                processStepEntries("steps", step::getSteps, this::processStep);
             }
         }
         
-        private <T> void processStepEntries(Supplier<List<T>> supplier, Consumer<T> consumer) {
+        private <T> void processStepEntries(String name, Supplier<List<T>> supplier, Consumer<T> consumer) {
             var list = supplier.get();
-            if ( list!=null ) { list.forEach(value->processStep(value, consumer)); }
+            if ( list!=null ) { list.forEach(value->processStep(name, value, consumer)); }
         }
         
-        private <T> void processStepSupplier(Supplier<T> supplier, Consumer<T> consumer) {
-            processStep(supplier.get(), consumer);
+        private <T> void processStepSupplier(String name, Supplier<T> supplier, Consumer<T> consumer) {
+            processStep(name, supplier.get(), consumer);
         }
         
-        private <T> void processStep(T value, Consumer<T> consumer) {
+        private <T> void processStep(String name, T value, Consumer<T> consumer) {
             if ( _if(value) ) {
                 String valueString = null;
                 if ( LOG.isDebugEnabled() ) {
                     valueString = getStepAsString(valueString, value);
                     LOG.debug("Start processing:\n"+valueString);
                 }
-                try {
+                try ( var timer = FcliMetricsHelper.timer("action.step."+name) ) {
                     consumer.accept(value);
                 } catch ( Exception e ) {
                     if ( e instanceof StepProcessingException ) {
@@ -461,7 +519,7 @@ public class ActionRunner implements AutoCloseable {
         }
         
         private final boolean _if(Object o) {
-            if (exitRequested || o==null) { return false; }
+            if (isExitRequested() || o==null) { return false; }
             if (o instanceof IActionStepIfSupplier ) {
                 var _if = ((IActionStepIfSupplier) o).get_if();
                 if ( _if!=null ) {
@@ -482,7 +540,9 @@ public class ActionRunner implements AutoCloseable {
             var property = append.getProperty();
             var currentValue = localData.get(name);
             var valueToAppend = getValue(append);
-            if ( property==null ) {
+            if ( append.isStream() || getStreamedArray(currentValue)!=null ) {
+                runOrDefer(p->p.appendToStreamedArray(name, valueToAppend));
+            } else if ( property==null ) {
                 appendToArray(name, currentValue, valueToAppend);
             } else {
                 appendToObject(name, currentValue, spelEvaluator.evaluate(property, localData, String.class), valueToAppend);
@@ -496,13 +556,43 @@ public class ActionRunner implements AutoCloseable {
             if ( !currentValue.isArray() ) {
                 throw new IllegalStateException("Cannot append value to non-array node "+currentValue.getNodeType());
             } else {
+                currentValue = getUpdatableContainer(currentValue);
                 if ( valueToAppend!=null ) {
                     ((ArrayNode)currentValue).add(valueToAppend);
                 }
-                setDataValue(name, currentValue); // Update copies in parents
+                // Update copies in parents
+                updateDataValue(name, currentValue, p->p.appendToArray(name, p.localData.get(name), valueToAppend));
+            }
+        }
+        
+        /**
+         * Append the given value to the {@link ActionStreamedArray} with the given name,
+         * creating a new streamed array if no value with the given name exists yet. As 
+         * streamed arrays are shared between processors rather than being copied, this
+         * is always invoked on the processor that owns any parallel forEach step, in
+         * original record order.
+         */
+        private void appendToStreamedArray(String name, JsonNode valueToAppend) {
+            var currentValue = localData.get(name);
+            var streamedArray = getStreamedArray(currentValue);
+            if ( currentValue==null ) {
+                streamedArray = new ActionStreamedArray();
+                streamedArrays.add(streamedArray);
+                setDataValue(name, new POJONode(streamedArray));
+            } else if ( streamedArray==null ) {
+                throw new IllegalStateException("Cannot stream value to non-streamed node "+currentValue.getNodeType());
+            }
+            if ( valueToAppend!=null ) {
+                streamedArray.append(valueToAppend);
             }
         }
         
+        private ActionStreamedArray getStreamedArray(JsonNode node) {
+            return node instanceof POJONode && ((POJONode)node).getPojo() instanceof ActionStreamedArray
+                    ? (ActionStreamedArray)((POJONode)node).getPojo()
+                    : null;
+        }
+        
         private void appendToObject(String name, JsonNode currentValue, String property, JsonNode valueToAppend) {
             if ( currentValue==null ) {
                 currentValue = objectMapper.createObjectNode();
@@ -510,11 +600,35 @@ public class ActionRunner implements AutoCloseable {
             if ( !currentValue.isObject() ) {
                 throw new IllegalStateException(String.format("Cannot append value to non-object node "+currentValue.getNodeType()));
             } else {
+                currentValue = getUpdatableContainer(currentValue);
                 if ( valueToAppend!=null ) {
                     ((ObjectNode)currentValue).set(property, valueToAppend);
                 }
-                setDataValue(name, currentValue); // Update copies in parents
+                // Update copies in parents
+                updateDataValue(name, currentValue, p->p.appendToObject(name, p.localData.get(name), property, valueToAppend));
+            }
+        }
+        
+        /**
+         * Containers like arrays and objects may be shared between concurrently processed
+         * parallel forEach records, so containers must not be updated in place while such
+         * records are being processed. If this processor is processing a parallel forEach
+         * record, this method returns a record-specific overlay container. If a parallel 
+         * forEach step is being processed by this processor, operations replayed from
+         * completed records update a copy of the container, created once per forEach step.
+         * Otherwise, this method simply returns the given container.
+         */
+        private JsonNode getUpdatableContainer(JsonNode container) {
+            if ( replayContainers!=null ) {
+                if ( replayContainers.contains(container) ) { return container; }
+                var result = container.isArray()
+                        ? objectMapper.createArrayNode().addAll((ArrayNode)container)
+                        : JsonHelper.shallowCopy((ObjectNode)container);
+                replayContainers.add(result);
+                if ( iteration!=null ) { iteration.addUpdatableContainer(result); }
+                return result;
             }
+            return iteration==null ? container : iteration.getUpdatableContainer(container);
         }
 
         private void processUnsetStep(ActionStepUnset unset) {
@@ -522,6 +636,16 @@ public class ActionRunner implements AutoCloseable {
         }
 
         private void setDataValue(String name, JsonNode value) {
+            updateDataValue(name, value, p->p.setDataValue(name, value));
+        }
+        
+        /**
+         * Update the given data value in the current and parent processors. If we're
+         * processing a parallel forEach record, the given replay operation will be 
+         * invoked on the processor that owns the parallel forEach step once all 
+         * records have been processed.
+         */
+        private void updateDataValue(String name, JsonNode value, Consumer<ActionStepsProcessor> replay) {
             if ( LOG.isDebugEnabled() ) {
                 LOG.debug(String.format("Set %s: %s", name, value.toPrettyString()));
             }
@@ -533,12 +657,25 @@ public class ActionRunner implements AutoCloseable {
                 throw new IllegalStateException("Action steps are not allowed to modify 'parameters'");
             }
             localData.set(name, value);
-            if ( parent!=null ) { parent.setDataValue(name, value); }
+            if ( parent!=null ) { parent.updateDataValue(name, value, replay); }
+            else if ( iteration!=null ) { iteration.defer(replay); }
         }
         
         private void unsetDataValue(String name) {
             localData.remove(name);
             if ( parent!=null ) { parent.unsetDataValue(name); }
+            else if ( iteration!=null ) { iteration.defer(p->p.unsetDataValue(name)); }
+        }
+        
+        /**
+         * Run the given operation on the current processor, or, if we're processing a
+         * parallel forEach record, defer the operation until all records have been
+         * processed. This is used for operations that need to be executed in original 
+         * record order, like writing output.
+         */
+        private void runOrDefer(Consumer<ActionStepsProcessor> operation) {
+            if ( iteration!=null ) { iteration.defer(operation); }
+            else { operation.accept(this); }
         }
         
         private JsonNode getValue(IActionStepValueSupplier supplier) {
@@ -551,18 +688,32 @@ public class ActionRunner implements AutoCloseable {
 
         private JsonNode getValue(TemplateExpression valueExpression) {
             var value = spelEvaluator.evaluate(valueExpression, localData, Object.class);
-            return objectMapper.valueToTree(value);
+            return valueToTree(value);
         }
         
         private final JsonNode getTemplateValue(String templateName) {
-            var valueTemplateDescriptor = action.getValueTemplatesByName().get(templateName);
-            var outputRawContents = valueTemplateDescriptor.getContents();
-            return new JsonNodeOutputWalker(spelEvaluator, valueTemplateDescriptor, localData).walk(outputRawContents);
+            return action.getValueTemplatesByName().get(templateName).render(this::getTemplateExpressionValue);
+        }
+        
+        private final JsonNode getTemplateExpressionValue(TemplateExpression expression) {
+            try {
+                var rawResult = spelEvaluator.evaluate(expression, localData, Object.class);
+                if ( rawResult instanceof CharSequence ) {
+                    rawResult = new TextNode(((String)rawResult).replace("\\n", "\n"));
+                }
+                return valueToTree(rawResult);
+            } catch ( SpelEvaluationException e ) {
+                throw new RuntimeException("Error evaluating action expression "+expression.getExpressionString(), e);
+            }
         }
         
         private void processWriteStep(ActionStepWrite write) {
             var to = spelEvaluator.evaluate(write.getTo(), localData, String.class);
-            var value = asString(getValue(write));
+            var value = getValue(write);
+            runOrDefer(p->p.write(to, value));
+        }
+        
+        private void write(String to, JsonNode value) {
             try {
                 switch (to.toLowerCase()) {
                 case "stdout": delayedConsoleWriterRunnables.add(createRunner(stdout, value)); break;
@@ -577,29 +728,48 @@ public class ActionRunner implements AutoCloseable {
         private Runnable createRunner(PrintStream out, String output) {
             return ()->out.print(output);
         }
+        
+        private Runnable createRunner(PrintStream out, JsonNode output) {
+            return ()->{
+                try {
+                    write(out, output);
+                } catch (IOException e) {
+                    throw new RuntimeException("Error writing action output", e);
+                }
+            };
+        }
 
-        private void write(File file, String output) throws IOException {
+        private void write(File file, JsonNode output) throws IOException {
             try ( var out = new PrintStream(file, StandardCharsets.UTF_8) ) {
-                out.println(output);
+                write(out, output);
+                out.println();
             }
         }
 
-        private final String asString(Object output) {
+        /**
+         * Write the given output to the given {@link PrintStream}. Text nodes are written
+         * as-is, any other nodes are written as pretty-printed JSON through a generator 
+         * that writes directly to the given stream, rather than first rendering the full 
+         * JSON output to a string. Together with {@link ActionStreamedArray}, this avoids 
+         * large outputs like SARIF reports being held in memory.
+         */
+        private void write(PrintStream out, JsonNode output) throws IOException {
             if ( output instanceof TextNode ) {
-                return ((TextNode)output).asText();
-            } else if ( output instanceof JsonNode ) {
-                return ((JsonNode)output).toPrettyString();
+                out.print(output.asText());
             } else {
-                return output.toString();
+                prettyWriter.writeValue(out, output);
             }
-        }  
+            out.flush();
+        }
 
         private void processProgressStep(TemplateExpression progress) {
-            progressWriter.writeProgress(spelEvaluator.evaluate(progress, localData, String.class));
+            var message = spelEvaluator.evaluate(progress, localData, String.class);
+            runOrDefer(p->progressWriter.writeProgress(message));
         }
         
         private void processWarnStep(TemplateExpression progress) {
-            progressWriter.writeWarning(spelEvaluator.evaluate(progress, localData, String.class));
+            var warning = spelEvaluator.evaluate(progress, localData, String.class);
+            runOrDefer(p->progressWriter.writeWarning(warning));
         }
         
         private void processDebugStep(TemplateExpression progress) {
@@ -611,22 +781,54 @@ public class ActionRunner implements AutoCloseable {
         }
         
         private void processExitStep(TemplateExpression exitCodeExpression) {
-            exitCode = spelEvaluator.evaluate(exitCodeExpression, localData, Integer.class);
-            exitRequested = true;
+            exit(spelEvaluator.evaluate(exitCodeExpression, localData, Integer.class));
+        }
+        
+        /**
+         * Request action exit with the given exit code. If we're processing a parallel
+         * forEach record, this only stops processing of the current record (and the
+         * submission of any further records); the actual exit is deferred until all
+         * preceding records have been replayed, to match sequential processing.
+         */
+        private void exit(int code) {
+            if ( iteration!=null ) {
+                iteration.requestExit();
+                iteration.defer(p->p.exit(code));
+            } else {
+                exitCode = code;
+                exitRequested = true;
+            }
+        }
+        
+        private boolean isExitRequested() {
+            return exitRequested || (iteration!=null && iteration.isExitRequested());
         }
         
         private void processForEachStep(ActionStepForEach forEach) {
+            var parallel = forEach.getParallel();
+            // If we're processing records of an fcli step, we hold the fcli lock, so any 
+            // fcli steps in parallel records would block; see processFcliStep().
+            if ( parallel==null || parallel<2 || Thread.holdsLock(rootCommandLine) ) {
+                processForEachStep(forEach, node->processForEachStepNode(forEach, node));
+            } else {
+                try ( var parallelProcessor = new ParallelForEachProcessor(forEach, parallel) ) {
+                    processForEachStep(forEach, parallelProcessor::submit);
+                    parallelProcessor.complete();
+                }
+            }
+        }
+        
+        private void processForEachStep(ActionStepForEach forEach, Function<JsonNode, Boolean> nodeProcessor) {
             var processorExpression = forEach.getProcessor();
             var valuesExpression = forEach.getValues();
             if ( processorExpression!=null ) {
                 var processor = spelEvaluator.evaluate(processorExpression, localData, IActionStepForEachProcessor.class);
-                if ( processor!=null ) { processor.process(node->processForEachStepNode(forEach, node)); }
+                if ( processor!=null ) { processor.process(nodeProcessor); }
             } else if ( valuesExpression!=null ) {
                 var values = spelEvaluator.evaluate(valuesExpression, localData, ArrayNode.class);
                 if ( values!=null ) { 
-                    // Process values until processForEachStepNode() returns false
-                    JsonHelper.stream(values)
-                        .allMatch(value->processForEachStepNode(forEach, value));
+                    // Process values until nodeProcessor returns false
+                    JsonHelper.stream(values).allMatch(nodeProcessor::apply);
                 }
             }
         }
@@ -652,31 +854,42 @@ public class ActionRunner implements AutoCloseable {
                     ? spelEvaluator.evaluate(passIf, localData, Boolean.class)
                     : !spelEvaluator.evaluate(failIf, localData, Boolean.class);
             var currentStatus = pass ? CheckStatus.PASS : CheckStatus.FAIL;
-            checkStatuses.compute(displayName, (name,oldStatus)->CheckStatus.combine(oldStatus, currentStatus));
+            runOrDefer(p->checkStatuses.compute(displayName, (name,oldStatus)->CheckStatus.combine(oldStatus, currentStatus)));
         }
         
         private void processFcliStep(ActionStepFcli fcli) {
             var args = spelEvaluator.evaluate(fcli.getArgs(), localData, String.class);
-            progressWriter.writeProgress("Executing fcli %s", args);
-            var cmdExecutor = new FcliCommandExecutor(rootCommandLine, args);
-            Consumer<ObjectNode> recordConsumer = null;
-            var forEach = fcli.getForEach();
             var name = fcli.getName();
+            var collectRecords = fcli.getForEach()!=null || StringUtils.isNotBlank(name);
             if ( StringUtils.isNotBlank(name) ) {
                 setDataValue(name, objectMapper.createArrayNode());
             }
-            if ( forEach!=null || StringUtils.isNotBlank(name) ) {
-                if ( !cmdExecutor.canCollectRecords() ) {
+            var recordConsumer = collectRecords ? new FcliRecordConsumer(fcli) : null;
+            // Picocli command instances, output redirection and record collection are
+            // shared by all fcli commands, so fcli commands must never run concurrently, 
+            // even if invoked from parallel forEach steps. Outside of parallel forEach 
+            // records, we process records while the command is running, without holding
+            // all records in memory; any parallel forEach steps nested in the fcli forEach 
+            // block are processed sequentially to avoid blocking on the lock. Within
+            // parallel forEach records, we don't want to block other records while 
+            // processing nested steps, so we collect the records while holding the lock, 
+            // and process them once the command has completed.
+            var bufferedRecords = recordConsumer!=null && iteration!=null ? new ArrayList<ObjectNode>() : null;
+            Output output;
+            synchronized (rootCommandLine) {
+                progressWriter.writeProgress("Executing fcli %s", args);
+                var cmdExecutor = new FcliCommandExecutor(rootCommandLine, args);
+                if ( collectRecords && !cmdExecutor.canCollectRecords() ) {
                     throw new IllegalStateException("Can't use forEach or name on fcli command: "+args);
-                } else {
-                    recordConsumer = new FcliRecordConsumer(fcli);
                 }
+                // TODO Implement optional output suppression
+                output = cmdExecutor.execute(bufferedRecords!=null ? bufferedRecords::add : recordConsumer, true);
             }
-            
-            // TODO Implement optional output suppression
-            var output = cmdExecutor.execute(recordConsumer, true);
-            delayedConsoleWriterRunnables.add(createRunner(System.err, output.getErr()));
-            delayedConsoleWriterRunnables.add(createRunner(System.out, output.getOut()));
+            if ( bufferedRecords!=null ) { bufferedRecords.forEach(recordConsumer); }
+            runOrDefer(p->{
+                delayedConsoleWriterRunnables.add(createRunner(System.err, output.getErr()));
+                delayedConsoleWriterRunnables.add(createRunner(System.out, output.getOut()));
+            });
             if ( output.getExitCode() >0 ) { 
                 throw new StepProcessingException("Fcli command returned non-zero exit code "+output.getExitCode()); 
             }
@@ -794,6 +1007,154 @@ public class ActionRunner implements AutoCloseable {
                         this::processFailure, newData);
             };
         }
+        
+        /**
+         * This class processes forEach records concurrently on the shared parallel forEach
+         * executor, each using a separate {@link ActionStepsProcessor} instance operating on 
+         * a shallow copy of the data as available when the forEach step was started. At most
+         * the configured number of records are processed concurrently, and at most twice that
+         * number of records are pending. Deferred data updates and output operations for each
+         * record are replayed on the current processor in the same order as the records were
+         * submitted, as soon as all preceding records have been replayed.
+         */
+        private final class ParallelForEachProcessor implements AutoCloseable {
+            private final ActionStepForEach forEach;
+            private final int maxPending;
+            private final Semaphore running;
+            private final ObjectNode baseData = JsonHelper.shallowCopy(localData);
+            private final Set<JsonNode> previousReplayContainers = replayContainers;
+            private final Deque<Future<ParallelForEachIteration>> pending = new ArrayDeque<>();
+            private volatile boolean exitRequested = false;
+            
+            public ParallelForEachProcessor(ActionStepForEach forEach, int parallel) {
+                this.forEach = forEach;
+                this.maxPending = 2*parallel;
+                this.running = new Semaphore(parallel);
+                // Containers in baseData are shared with records being processed, so
+                // replayed operations must update copies of these containers.
+                replayContainers = Collections.newSetFromMap(new IdentityHashMap<>());
+            }
+            
+            private boolean submit(JsonNode node) {
+                if ( exitRequested || isExitRequested() ) { return false; }
+                var iteration = new ParallelForEachIteration(ActionStepsProcessor.this, ()->exitRequested=true);
+                var processor = new ActionStepsProcessor(JsonHelper.shallowCopy(baseData), null, iteration);
+                processor.setDataValue(forEach.getName(), node);
+                var breakIf = forEach.getBreakIf();
+                if ( breakIf!=null && spelEvaluator.evaluate(breakIf, processor.localData, Boolean.class) ) {
+                    pending.add(CompletableFuture.completedFuture(iteration));
+                    return false;
+                }
+                acquire();
+                pending.add(parallelForEachExecutor.submit(()->{
+                    try {
+                        if ( processor._if(forEach) ) {
+                            processor.processSteps(forEach.get_do());
+                        }
+                        return iteration;
+                    } finally {
+                        running.release();
+                    }
+                }));
+                return true;
+            }
+            
+            /**
+             * Replay all completed records in original order, and wait until another record
+             * may be submitted.
+             */
+            private void acquire() {
+                while ( !pending.isEmpty() && (pending.size()>=maxPending || pending.peek().isDone()) ) {
+                    replayNext();
+                }
+                try {
+                    running.acquire();
+                } catch ( InterruptedException e ) {
+                    Thread.currentThread().interrupt();
+                    throw new StepProcessingException("Interrupted while processing forEach records", e);
+                }
+            }
+            
+            /**
+             * Wait for all remaining records to be processed, and replay the deferred operations
+             * for each record. If any of the replayed records requested an exit, operations for
+             * subsequent records are discarded, similar to sequential processing where these
+             * records would never have been processed.
+             */
+            private void complete() {
+                while ( !pending.isEmpty() ) { replayNext(); }
+            }
+            
+            private void replayNext() {
+                var iteration = getIteration(pending.poll());
+                if ( !isExitRequested() ) { iteration.replay(); }
+            }
+            
+            private ParallelForEachIteration getIteration(Future<ParallelForEachIteration> future) {
+                try {
+                    return future.get();
+                } catch ( InterruptedException e ) {
+                    Thread.currentThread().interrupt();
+                    throw new StepProcessingException("Interrupted while processing forEach records", e);
+                } catch ( ExecutionException e ) {
+                    var cause = e.getCause();
+                    throw cause instanceof RuntimeException 
+                        ? (RuntimeException)cause 
+                        : new StepProcessingException(cause);
+                }
+            }
+            
+            @Override
+            public void close() {
+                replayContainers = previousReplayContainers;
+                pending.forEach(f->f.cancel(true));
+            }
+        }
+    }
+    
+    /**
+     * This class holds the state for processing a single parallel forEach record;
+     * data updates and output operations are collected in {@link #deferredOperations}
+     * for later replay on the target processor, and {@link #updatableContainers} keeps 
+     * track of array and object nodes that have been created for this record, to avoid
+     * concurrent updates to containers shared between records. Shared containers are
+     * never copied; instead, record-specific overlay nodes as provided by 
+     * {@link ActionOverlayNodes} hold any appended elements and properties.
+     */
+    @RequiredArgsConstructor
+    private final class ParallelForEachIteration {
+        private final ActionStepsProcessor target;
+        /** Invoked when an exit step is processed for this record */
+        private final Runnable onExit;
+        private final List<Consumer<ActionStepsProcessor>> deferredOperations = new ArrayList<>();
+        private final Set<JsonNode> updatableContainers = Collections.newSetFromMap(new IdentityHashMap<>());
+        @Getter private volatile boolean exitRequested = false;
+        
+        private void requestExit() {
+            exitRequested = true;
+            onExit.run();
+        }
+        
+        private void defer(Consumer<ActionStepsProcessor> operation) {
+            deferredOperations.add(operation);
+        }
+        
+        private void replay() {
+            deferredOperations.forEach(op->op.accept(target));
+        }
+        
+        private JsonNode getUpdatableContainer(JsonNode container) {
+            if ( updatableContainers.contains(container) ) { return container; }
+            var result = container.isArray()
+                    ? ActionOverlayNodes.overlay((ArrayNode)container)
+                    : ActionOverlayNodes.overlay((ObjectNode)container);
+            updatableContainers.add(result);
+            return result;
+        }
+        
+        private void addUpdatableContainer(JsonNode container) {
+            updatableContainers.add(container);
+        }
     }
     
     private final class ActionStepRequestsProcessor {
@@ -905,7 +1266,7 @@ public class ActionRunner implements AutoCloseable {
             private final IUnirestInstanceSupplier unirestInstanceSupplier;
             private final IProductHelper productHelper;
             private UnirestInstance unirestInstance;
-            public final UnirestInstance getUnirestInstance() {
+            public final synchronized UnirestInstance getUnirestInstance() {
                 if ( unirestInstance==null ) {
                     unirestInstance = unirestInstanceSupplier.getUnirestInstance();
                 }
@@ -995,29 +1356,25 @@ public class ActionRunner implements AutoCloseable {
         return result;
     }
     
-    @RequiredArgsConstructor
-    private static final class JsonNodeOutputWalker extends JsonNodeDeepCopyWalker {
-        private final ISpelEvaluator spelEvaluator;
-        private final ActionValueTemplate outputDescriptor;
-        private final ObjectNode data;
-        @Override
-        protected JsonNode copyValue(JsonNode state, String path, JsonNode parent, ValueNode node) {
-            if ( !(node instanceof TextNode) ) {
-                return super.copyValue(state, path, parent, node);
-            } else {
-                TemplateExpression expression = outputDescriptor.getValueExpressions().get(path);
-                if ( expression==null ) { throw new RuntimeException("No expression for "+path); }
-                try {
-                    var rawResult = spelEvaluator.evaluate(expression, data, Object.class);
-                    if ( rawResult instanceof CharSequence ) {
-                        rawResult = new TextNode(((String)rawResult).replace("\\n", "\n"));
-                    }
-                    return objectMapper.valueToTree(rawResult);
-                } catch ( SpelEvaluationException e ) {
-                    throw new RuntimeException("Error evaluating action expression "+expression.getExpressionString(), e);
-                }
-            }
-        }
+    /**
+     * Convert the given value to a {@link JsonNode}. As opposed to {@link ObjectMapper#valueToTree(Object)},
+     * {@link ActionStreamedArray} instances are wrapped in a {@link POJONode} rather than being
+     * converted into an in-memory {@link ArrayNode}, such that they are only streamed when the
+     * resulting node is written. As this method is invoked for every expression in every
+     * rendered value template, common value types are converted directly rather than going
+     * through Jackson serialization and deserialization.
+     */
+    private static final JsonNode valueToTree(Object value) {
+        if ( value instanceof ActionStreamedArray ) { return new POJONode(value); }
+        // Value nodes are immutable, so no need to copy
+        if ( value instanceof ValueNode ) { return (ValueNode)value; }
+        if ( value instanceof JsonNode ) { return ((JsonNode)value).deepCopy(); }
+        if ( value instanceof String ) { return TextNode.valueOf((String)value); }
+        if ( value instanceof Boolean ) { return BooleanNode.valueOf((Boolean)value); }
+        if ( value instanceof Integer ) { return IntNode.valueOf((Integer)value); }
+        if ( value instanceof Long ) { return LongNode.valueOf((Long)value); }
+        if ( value instanceof Double ) { return DoubleNode.valueOf((Double)value); }
+        return objectMapper.valueToTree(value);
     }
     
     public static final class StepProcessingException extends RuntimeException {
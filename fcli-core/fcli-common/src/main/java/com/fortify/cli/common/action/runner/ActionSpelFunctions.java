@@ -18,8 +18,12 @@ import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -33,6 +37,7 @@ import org.jsoup.safety.Safelist;
 
 import com.formkiq.graalvm.annotations.Reflectable;
 import com.fortify.cli.common.json.JSONDateTimeConverter;
+import com.fortify.cli.common.metrics.helper.FcliMetricsHelper;
 import com.fortify.cli.common.util.StringUtils;
 
 import lombok.NoArgsConstructor;
@@ -42,6 +47,14 @@ public class ActionSpelFunctions {
     private static final String CODE_START = "\n===== CODE START =====\n";
     private static final String CODE_END   = "\n===== CODE END =====\n";
     private static final Pattern CODE_PATTERN = Pattern.compile(String.format("%s(.*?)%s", CODE_START, CODE_END), Pattern.DOTALL);
+    private static final Pattern ESCAPED_NEWLINE_PATTERN = Pattern.compile("\\\\n");
+    /** Maximum number of entries in each of the HTML conversion caches below */
+    private static final int HTML_CACHE_SIZE = 1000;
+    // Report actions invoke the HTML conversion functions for every issue, often on
+    // identical rule descriptions or recommendations, so we cache conversion results.
+    private static final Map<String, String> htmlToTextCache = _createCache();
+    private static final Map<String, String> cleanRuleDescriptionCache = _createCache();
+    private static final Map<String, String> cleanIssueDescriptionCache = _createCache();
     private static final Pattern uriPartsPattern = Pattern.compile("^(?<serverUrl>(?:(?<protocol>[A-Za-z]+):)?(\\/{0,3})(?<host>[0-9.\\-A-Za-z]+)(?::(?<port>\\d+))?)(?<path>\\/(?<relativePath>[^?#]*))?(?:\\?(?<query>[^#]*))?(?:#(?<fragment>.*))?$");
     
     public static final String join(String separator, List<Object> elts) {
@@ -100,8 +113,35 @@ public class ActionSpelFunctions {
      */
     public static final String htmlToText(String html) {
         if( html==null ) { return null; }
-        Document document = _asDocument(html);
-        return _htmlToText(document);
+        return _cached(htmlToTextCache, html, h->_htmlToText(_asDocument(h)));
+    }
+    
+    private static final Map<String, String> _createCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > HTML_CACHE_SIZE;
+            }
+        });
+    }
+    
+    /**
+     * Return the cached result for the given input, or compute and cache the result if 
+     * not yet cached. Note that we don't use {@link Map#computeIfAbsent(Object, Function)},
+     * as that would block other threads (like parallel forEach records) while computing 
+     * the result.
+     */
+    private static final String _cached(Map<String, String> cache, String input, Function<String, String> f) {
+        var result = cache.get(input);
+        if ( result==null ) {
+            FcliMetricsHelper.increment("action.htmlCache.misses");
+            result = f.apply(input);
+            cache.put(input, result);
+        } else {
+            FcliMetricsHelper.increment("action.htmlCache.hits");
+        }
+        return result;
     }
 
     private static final Document _asDocument(String html) {
@@ -124,7 +164,7 @@ public class ActionSpelFunctions {
         // Remove all HTML tags. Note that for now, this keeps escaped characters like &gt;
         // We may want to have separate methods or method parameter to allow for escaped
         // characters to be unescaped.
-        var s = Jsoup.clean(document.html().replaceAll("\\\\n", "\n"), "", Safelist.none(), new Document.OutputSettings().prettyPrint(false));
+        var s = Jsoup.clean(ESCAPED_NEWLINE_PATTERN.matcher(document.html()).replaceAll("\n"), "", Safelist.none(), new Document.OutputSettings().prettyPrint(false));
         
         var sb = new StringBuilder();
         // Remove CODE_START and CODE_END fences
@@ -154,6 +194,10 @@ public class ActionSpelFunctions {
     
     public static final String cleanRuleDescription(String description) {
         if( description==null ) { return ""; }
+        return _cached(cleanRuleDescriptionCache, description, ActionSpelFunctions::_cleanRuleDescription);
+    }
+    
+    private static final String _cleanRuleDescription(String description) {
         Document document = _asDocument(description);
         var paragraphs = document.select("Paragraph");
         for ( var p : paragraphs ) {
@@ -171,6 +215,10 @@ public class ActionSpelFunctions {
     
     public static final String cleanIssueDescription(String description) {
         if( description==null ) { return ""; }
+        return _cached(cleanIssueDescriptionCache, description, ActionSpelFunctions::_cleanIssueDescription);
+    }
+    
+    private static final String _cleanIssueDescription(String description) {
         Document document = _asDocument(description);
         document.select("AltParagraph").remove();
         return _htmlToText(document);
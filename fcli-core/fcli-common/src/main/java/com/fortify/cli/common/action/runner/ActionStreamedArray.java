@@ -0,0 +1,121 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.action.runner;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.formkiq.graalvm.annotations.Reflectable;
+import com.fortify.cli.common.json.JsonHelper;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * This class represents an array that is populated through action 'append' steps
+ * with 'stream: true'. Rather than keeping all array elements in memory, elements
+ * are written to a temporary file (one JSON document per line) as they are appended.
+ * When an instance of this class is serialized, for example by an action 'write'
+ * step, array elements are read back one by one and written straight to the given
+ * {@link JsonGenerator}, such that memory usage doesn't grow with the number of 
+ * array elements.<br/>
+ * <br/>
+ * Apart from being written, the only operation supported on instances of this
+ * class from action expressions is {@link #size()}. The temporary file is deleted
+ * when the owning {@link ActionRunner} is closed, or once delayed console output
+ * has been written if that happens after closing the runner, after which instances
+ * can no longer be serialized.
+ */
+@Reflectable
+public final class ActionStreamedArray extends JsonSerializable.Base implements AutoCloseable {
+    @Getter(AccessLevel.PACKAGE) private final File file;
+    private BufferedWriter writer;
+    private boolean closed = false;
+    private int size = 0;
+    
+    ActionStreamedArray() {
+        try {
+            this.file = File.createTempFile("fcli-action-", ".jsonl");
+            this.file.deleteOnExit();
+            this.writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+        } catch ( IOException e ) {
+            throw new UncheckedIOException("Error creating temporary file for streamed array", e);
+        }
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    synchronized void append(JsonNode value) {
+        if ( closed ) { throw new IllegalStateException("Cannot append to closed streamed array"); }
+        try {
+            writer.write(JsonHelper.getObjectMapper().writeValueAsString(value));
+            writer.newLine();
+            size++;
+        } catch ( IOException e ) {
+            throw new UncheckedIOException("Error writing streamed array element", e);
+        }
+    }
+    
+    @Override
+    public synchronized void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        if ( closed ) { throw new IllegalStateException("Cannot serialize closed streamed array"); }
+        writer.flush();
+        gen.writeStartArray();
+        try ( var elements = JsonHelper.getObjectMapper().readerFor(JsonNode.class).<JsonNode>readValues(file) ) {
+            while ( elements.hasNext() ) {
+                gen.writeTree(elements.next());
+            }
+        }
+        gen.writeEndArray();
+    }
+    
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+        serialize(gen, serializers);
+    }
+    
+    /**
+     * Close the underlying temporary file writer and delete the temporary file; 
+     * any subsequent appends or serialization attempts will fail.
+     */
+    @Override
+    public synchronized void close() {
+        if ( !closed ) {
+            closed = true;
+            try {
+                writer.close();
+            } catch ( IOException e ) {
+                throw new UncheckedIOException("Error closing streamed array", e);
+            } finally {
+                writer = null;
+                file.delete();
+            }
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("[%d streamed elements]", size);
+    }
+}
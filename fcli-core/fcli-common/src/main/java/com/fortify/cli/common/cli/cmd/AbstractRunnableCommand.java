@@ -17,8 +17,10 @@ import java.util.Map;
 import java.util.concurrent.Callable;
 
 import com.fortify.cli.common.cli.mixin.ICommandAware;
+import com.fortify.cli.common.metrics.helper.FcliMetricsFormat;
 
 import ch.qos.logback.classic.Level;
+import lombok.AccessLevel;
 import lombok.Getter;
 import picocli.CommandLine.ArgGroup;
 import picocli.CommandLine.Model.CommandSpec;
@@ -39,7 +41,7 @@ import picocli.CommandLine.Spec;
  */
 public abstract class AbstractRunnableCommand implements Callable<Integer> {
     // Have picocli inject the CommandSpec representing the current command
-    @Spec private CommandSpec commandSpec;
+    @Spec @Getter(AccessLevel.PROTECTED) private CommandSpec commandSpec;
     
     // Boolean indicating whether mixins have already been initialized by
     // the initMixins() method
@@ -111,5 +113,11 @@ public abstract class AbstractRunnableCommand implements Callable<Integer> {
         
         @Option(names = "--log-level")
         @Getter private LogLevel logLevel;
+        
+        @Option(names = "--metrics")
+        @Getter private FcliMetricsFormat metricsFormat;
+        
+        @Option(names = "--metrics-file")
+        @Getter private File metricsFile;
     }
 }
@@ -12,9 +12,25 @@
  *******************************************************************************/
 package com.fortify.cli.common.crypto.helper;
 
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
-import java.io.StringWriter;
-import java.io.Writer;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
 
 import org.jasypt.encryption.pbe.StandardPBEStringEncryptor;
 import org.jasypt.iv.RandomIvGenerator;
@@ -22,10 +38,9 @@ import org.jasypt.iv.RandomIvGenerator;
 import com.fortify.cli.common.util.EnvHelper;
 import com.fortify.cli.common.util.StringUtils;
 
-import lombok.RequiredArgsConstructor;
-
 public class EncryptionHelper {
     private static final StandardPBEStringEncryptor encryptor = createAES256TextEncryptor();
+    private static final SecureRandom secureRandom = new SecureRandom();
     public static final String encrypt(String source) {
         if ( source==null ) { return null; }
         return encryptor.encrypt(source);
@@ -50,16 +65,219 @@ public class EncryptionHelper {
         return userPassword+"ds$%YTjdwaf#$47672dfdsGVFDa";
     }
     
-    @RequiredArgsConstructor
-    // TODO Can we optimize this to not buffer the full contents before encrypting and writing the output?
-    public static final class EncryptWriter extends StringWriter {
-        private final Writer originalWriter;
+    /**
+     * Return an {@link OutputStream} that encrypts all data written to it before writing
+     * it to the given {@link OutputStream}. As opposed to {@link #encrypt(String)}, which
+     * requires the full contents to be available in memory, data is encrypted in chunks 
+     * of {@value StreamingCipher#CHUNK_SIZE} bytes using AES-GCM, with a key that is derived 
+     * once per stream. Data written through this stream can be read back through 
+     * {@link #decryptingInputStream(InputStream)}.
+     */
+    public static final OutputStream encryptingOutputStream(OutputStream out) throws IOException {
+        return new EncryptOutputStream(out);
+    }
+    
+    /**
+     * Return an {@link InputStream} that lazily decrypts data produced by an
+     * {@link #encryptingOutputStream(OutputStream)} while reading from the given 
+     * {@link InputStream}. Each chunk is authenticated before being returned; an 
+     * {@link IOException} is thrown if the data has been tampered with or truncated.
+     */
+    public static final InputStream decryptingInputStream(InputStream in) throws IOException {
+        return new DecryptInputStream(in);
+    }
+    
+    /**
+     * Check whether the given (mark-supporting) {@link InputStream} starts with the header 
+     * written by {@link #encryptingOutputStream(OutputStream)}, without consuming any data.
+     * This allows for distinguishing chunked data from data encrypted through 
+     * {@link #encrypt(String)}, which never contains the header characters.
+     */
+    public static final boolean isStreamEncrypted(InputStream in) throws IOException {
+        var header = StreamingCipher.HEADER;
+        in.mark(header.length);
+        try {
+            return Arrays.equals(header, in.readNBytes(header.length));
+        } finally {
+            in.reset();
+        }
+    }
+    
+    /**
+     * Chunked AES-GCM encryption; the stream header contains a random salt used to 
+     * derive the AES key from the fcli encryption password, and a random nonce prefix. 
+     * Each chunk is encrypted with a nonce consisting of this prefix and the chunk 
+     * index, and the final chunk is marked through its additional authenticated data, 
+     * such that reordered, removed or appended chunks are detected on decryption.
+     */
+    private static final class StreamingCipher {
+        static final int CHUNK_SIZE = 64*1024;
+        static final byte[] HEADER = "FCLI-AEAD-1\n".getBytes(StandardCharsets.US_ASCII);
+        private static final int SALT_LENGTH = 16;
+        private static final int NONCE_PREFIX_LENGTH = 8;
+        private static final int TAG_LENGTH = 16;
+        private static final int KEY_ITERATIONS = 10000;
+        private static final byte[] AAD_INTERMEDIATE = {0};
+        private static final byte[] AAD_FINAL = {1};
+        private final Cipher cipher;
+        private SecretKey key;
+        private byte[] noncePrefix;
+        private int chunkIndex = 0;
+        
+        StreamingCipher() throws IOException {
+            try {
+                this.cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            } catch ( GeneralSecurityException e ) {
+                throw new IOException("Error initializing cipher", e);
+            }
+        }
+        
+        void init(byte[] salt, byte[] noncePrefix) throws IOException {
+            try {
+                var spec = new PBEKeySpec(getEncryptPassword().toCharArray(), salt, KEY_ITERATIONS, 256);
+                var keyBytes = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+                this.key = new SecretKeySpec(keyBytes, "AES");
+                this.noncePrefix = noncePrefix;
+            } catch ( GeneralSecurityException e ) {
+                throw new IOException("Error deriving encryption key", e);
+            }
+        }
+        
+        byte[] doChunk(int mode, byte[] data, int len, boolean isFinal) throws IOException {
+            if ( chunkIndex==Integer.MAX_VALUE ) { throw new IOException("Too many chunks"); }
+            var nonce = ByteBuffer.allocate(NONCE_PREFIX_LENGTH+4).put(noncePrefix).putInt(chunkIndex++).array();
+            try {
+                cipher.init(mode, key, new GCMParameterSpec(TAG_LENGTH*8, nonce));
+                cipher.updateAAD(isFinal ? AAD_FINAL : AAD_INTERMEDIATE);
+                return cipher.doFinal(data, 0, len);
+            } catch ( GeneralSecurityException e ) {
+                throw new IOException("Error processing encrypted chunk "+(chunkIndex-1), e);
+            }
+        }
+    }
+    
+    private static final class EncryptOutputStream extends OutputStream {
+        private final StreamingCipher cipher = new StreamingCipher();
+        private final DataOutputStream out;
+        private final byte[] buffer = new byte[StreamingCipher.CHUNK_SIZE];
+        private int count = 0;
+        private boolean closed = false;
+        
+        EncryptOutputStream(OutputStream out) throws IOException {
+            this.out = new DataOutputStream(out);
+            var salt = randomBytes(StreamingCipher.SALT_LENGTH);
+            var noncePrefix = randomBytes(StreamingCipher.NONCE_PREFIX_LENGTH);
+            cipher.init(salt, noncePrefix);
+            this.out.write(StreamingCipher.HEADER);
+            this.out.write(salt);
+            this.out.write(noncePrefix);
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            if ( count==buffer.length ) { writeChunk(false); }
+            buffer[count++] = (byte)b;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while ( len>0 ) {
+                if ( count==buffer.length ) { writeChunk(false); }
+                int n = Math.min(len, buffer.length-count);
+                System.arraycopy(b, off, buffer, count, n);
+                count += n; off += n; len -= n;
+            }
+        }
         
         @Override
         public void close() throws IOException {
-            originalWriter.write(encrypt(getBuffer().toString()));
-            originalWriter.flush();
-            originalWriter.close();
+            if ( !closed ) {
+                closed = true;
+                try ( out ) {
+                    writeChunk(true);
+                }
+            }
+        }
+        
+        // As we only know whether a chunk is the final chunk once the stream is being
+        // closed, a full buffer is only written once more data is being written.
+        private void writeChunk(boolean isFinal) throws IOException {
+            var encrypted = cipher.doChunk(Cipher.ENCRYPT_MODE, buffer, count, isFinal);
+            out.writeInt(encrypted.length);
+            out.write(encrypted);
+            count = 0;
+        }
+    }
+    
+    private static final class DecryptInputStream extends InputStream {
+        private final StreamingCipher cipher = new StreamingCipher();
+        private final DataInputStream in;
+        private byte[] chunk = new byte[0];
+        private int pos = 0;
+        private boolean finalChunkRead = false;
+        
+        DecryptInputStream(InputStream in) throws IOException {
+            this.in = new DataInputStream(in.markSupported() ? in : new BufferedInputStream(in));
+            if ( !Arrays.equals(StreamingCipher.HEADER, this.in.readNBytes(StreamingCipher.HEADER.length)) ) {
+                throw new IOException("Invalid encrypted stream header");
+            }
+            var salt = this.in.readNBytes(StreamingCipher.SALT_LENGTH);
+            var noncePrefix = this.in.readNBytes(StreamingCipher.NONCE_PREFIX_LENGTH);
+            cipher.init(salt, noncePrefix);
+        }
+        
+        @Override
+        public int read() throws IOException {
+            return fill() ? chunk[pos++] & 0xff : -1;
         }
+        
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if ( len==0 ) { return 0; }
+            if ( !fill() ) { return -1; }
+            int n = Math.min(len, chunk.length-pos);
+            System.arraycopy(chunk, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+        
+        private boolean fill() throws IOException {
+            while ( pos==chunk.length ) {
+                if ( finalChunkRead ) { return false; }
+                int len;
+                try {
+                    len = in.readInt();
+                } catch ( EOFException e ) {
+                    throw new IOException("Encrypted stream has been truncated", e);
+                }
+                if ( len<0 || len>StreamingCipher.CHUNK_SIZE+StreamingCipher.TAG_LENGTH ) {
+                    throw new IOException("Invalid encrypted chunk length: "+len);
+                }
+                var encrypted = in.readNBytes(len);
+                // The final chunk is the only chunk that may be followed by end of stream
+                finalChunkRead = isEndOfStream();
+                chunk = cipher.doChunk(Cipher.DECRYPT_MODE, encrypted, encrypted.length, finalChunkRead);
+                pos = 0;
+            }
+            return true;
+        }
+        
+        private boolean isEndOfStream() throws IOException {
+            in.mark(1);
+            var eos = in.read()==-1;
+            in.reset();
+            return eos;
+        }
+    }
+    
+    private static final byte[] randomBytes(int length) {
+        var result = new byte[length];
+        secureRandom.nextBytes(result);
+        return result;
     }
 }
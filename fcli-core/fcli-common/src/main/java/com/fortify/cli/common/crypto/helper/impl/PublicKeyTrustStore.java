@@ -81,6 +81,19 @@ public final class PublicKeyTrustStore {
                 .filter(Objects::nonNull);
     }
     
+    /**
+     * @return Sorted fingerprints of all public keys in the trust store, 
+     *         or an empty stream if no public keys have been imported.
+     */
+    public final Stream<String> fingerprints() {
+        var publicKeysPath = publicKeysPath();
+        return !FcliDataHelper.exists(publicKeysPath) 
+                ? Stream.empty()
+                : FcliDataHelper.listFilesInDir(publicKeysPath, true)
+                    .map(path->path.getFileName().toString())
+                    .sorted();
+    }
+    
     private static final Path publicKeyPath(String fingerprint) {
         return publicKeysPath().resolve(fingerprint);
     }
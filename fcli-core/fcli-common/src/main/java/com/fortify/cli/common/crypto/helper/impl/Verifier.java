@@ -14,12 +14,14 @@ package com.fortify.cli.common.crypto.helper.impl;
 
 import java.io.File;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.security.MessageDigest;
 import java.security.PublicKey;
 import java.security.Signature;
 import java.security.spec.X509EncodedKeySpec;
 import java.util.Base64;
+import java.util.function.Consumer;
 
 import com.fortify.cli.common.crypto.helper.SignatureHelper.PublicKeyDescriptor;
 import com.fortify.cli.common.crypto.helper.SignatureHelper.SignatureStatus;
@@ -59,6 +61,14 @@ public final class Verifier {
         return verify(new DataSignatureUpdater(data, charset), expectedSignature);
     }
     
+    /**
+     * Create an {@link IncrementalVerifier} for verifying the given expected signature
+     * against data that is provided incrementally, for example while downloading a file.
+     */
+    public final IncrementalVerifier incrementalVerifier(String expectedSignature) {
+        return new IncrementalVerifier(publicKey()==null ? null : createSignature(), expectedSignature);
+    }
+    
     @SneakyThrows
     private final SignatureStatus verify(ISignatureUpdater updater, String expectedSignature) {
         if ( publicKey()==null ) { return SignatureStatus.NO_PUBLIC_KEY; }
@@ -92,6 +102,23 @@ public final class Verifier {
         return pub;
     }
 
+    @RequiredArgsConstructor
+    public final class IncrementalVerifier implements Consumer<ByteBuffer> {
+        private final Signature signature;
+        private final String expectedSignature;
+        
+        @Override @SneakyThrows
+        public void accept(ByteBuffer data) {
+            if ( signature!=null ) { signature.update(data); }
+        }
+        
+        public SignatureStatus verify() {
+            return signature==null 
+                    ? SignatureStatus.NO_PUBLIC_KEY 
+                    : verifySignature(signature, expectedSignature);
+        }
+    }
+
     @SneakyThrows
     public String publicKeyFingerPrint() {
         var publicKey = publicKey();
@@ -0,0 +1,304 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.metrics.helper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fortify.cli.common.json.JsonHelper;
+
+/**
+ * This class collects fcli performance metrics, like per-endpoint HTTP request
+ * counts, latency histograms and bytes transferred, generic counters like the
+ * number of pages loaded or number of retries, and timers that record the time
+ * spent in for example SpEL evaluation, transformations and output writing.
+ * Metrics are only collected after {@link #enable(FcliMetricsFormat, File)} has
+ * been invoked, usually based on the generic --metrics option; if not enabled,
+ * all recording methods return immediately.<br/>
+ * <br/>
+ * Note that timers are inclusive; for example, the time recorded for input
+ * transformations includes any SpEL evaluations and HTTP requests performed
+ * by these transformations, and timers may overlap when operations run
+ * concurrently.
+ */
+public final class FcliMetricsHelper {
+    private static final Logger LOG = LoggerFactory.getLogger(FcliMetricsHelper.class);
+    /** Upper bounds (in milliseconds) of our request latency histogram buckets; last bucket is unbounded */
+    private static final long[] LATENCY_BUCKETS_MILLIS = {10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+    private static final Pattern ID_SEGMENT_PATTERN = Pattern.compile("/(?:\\d+|[0-9a-fA-F-]{32,36})(?=/|$)");
+    private static final Timer NO_OP_TIMER = ()->{};
+    private static final Map<String, RequestMetrics> requests = new ConcurrentSkipListMap<>();
+    private static final Map<String, LongAdder> counters = new ConcurrentSkipListMap<>();
+    private static final Map<String, TimerMetrics> timers = new ConcurrentSkipListMap<>();
+    private static volatile boolean enabled = false;
+    private static FcliMetricsFormat format;
+    private static File file;
+
+    private FcliMetricsHelper() {}
+
+    /**
+     * Timer returned by {@link FcliMetricsHelper#timer(String)}, to be
+     * closed once the operation being timed has completed.
+     */
+    @FunctionalInterface
+    public static interface Timer extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Enable metrics collection, clearing any previously collected metrics. Metrics
+     * will be written in the given format to the given file (or stderr if file is null)
+     * when {@link #writeAndDisable()} is invoked.
+     */
+    public static final void enable(FcliMetricsFormat format, File file) {
+        clear();
+        FcliMetricsHelper.format = format==null ? FcliMetricsFormat.table : format;
+        FcliMetricsHelper.file = file;
+        enabled = true;
+    }
+
+    public static final boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * If metrics collection is enabled, write the collected metrics to the configured
+     * file or stderr, then disable metrics collection.
+     */
+    public static final void writeAndDisable() {
+        if ( enabled ) {
+            enabled = false;
+            var output = format();
+            if ( file==null ) {
+                System.err.print(output);
+                System.err.flush();
+            } else {
+                try {
+                    Files.writeString(file.toPath(), output);
+                } catch ( IOException e ) {
+                    LOG.warn("Unable to write metrics to "+file, e);
+                }
+            }
+            clear();
+        }
+    }
+
+    public static final void increment(String name) {
+        increment(name, 1);
+    }
+
+    public static final void increment(String name, long delta) {
+        if ( enabled ) {
+            counters.computeIfAbsent(name, n->new LongAdder()).add(delta);
+        }
+    }
+
+    /**
+     * Start a timer with the given name; the returned {@link Timer} should be
+     * closed once the operation being timed has completed, for example using
+     * a try-with-resources block.
+     */
+    public static final Timer timer(String name) {
+        if ( !enabled ) { return NO_OP_TIMER; }
+        var start = System.nanoTime();
+        return ()->recordNanos(name, System.nanoTime()-start);
+    }
+
+    /**
+     * Record the given duration under the given timer name; this can for example
+     * be used to record the time spent in {@link Thread#sleep(long)}.
+     */
+    public static final void recordMillis(String name, long durationMillis) {
+        recordNanos(name, durationMillis*1_000_000);
+    }
+
+    public static final void recordNanos(String name, long durationNanos) {
+        if ( enabled ) {
+            timers.computeIfAbsent(name, n->new TimerMetrics()).record(durationNanos);
+        }
+    }
+
+    /**
+     * Record an HTTP request. The endpoint is derived from the given URL or path
+     * by removing any scheme, host, port and query string, and replacing numeric
+     * and UUID-like path segments with <code>{id}</code>, such that requests for
+     * different entities are aggregated. Status should be -1 if no response was
+     * received, bytes in/out should be -1 if unknown.
+     */
+    public static final void recordRequest(String method, String urlOrPath, int status, long durationNanos, long bytesOut, long bytesIn) {
+        if ( enabled ) {
+            var key = method+" "+getEndpoint(urlOrPath);
+            requests.computeIfAbsent(key, k->new RequestMetrics()).record(status, durationNanos, bytesOut, bytesIn);
+        }
+    }
+
+    static final String getEndpoint(String urlOrPath) {
+        var path = urlOrPath==null ? "" : urlOrPath.replaceFirst("^[a-zA-Z]+://[^/]*", "").replaceFirst("[?#].*$", "");
+        return ID_SEGMENT_PATTERN.matcher(path).replaceAll("/{id}");
+    }
+
+    private static final void clear() {
+        requests.clear();
+        counters.clear();
+        timers.clear();
+    }
+
+    static final String format() {
+        switch (format) {
+        case json: return formatJson();
+        case openmetrics: return formatOpenMetrics();
+        default: return formatTable();
+        }
+    }
+
+    private static final String formatTable() {
+        var sw = new StringWriter();
+        var pw = new PrintWriter(sw);
+        pw.println("HTTP requests:");
+        pw.printf("  %-60s %7s %6s %10s %8s %8s %8s %12s %12s%n", "Endpoint", "Count", "Errors", "Total (ms)", "P50 (ms)", "P90 (ms)", "Max (ms)", "Bytes out", "Bytes in");
+        requests.forEach((k,v)->pw.printf("  %-60s %7d %6d %10d %8s %8s %8d %12d %12d%n", k, v.count.sum(), v.errors.sum(),
+                toMillis(v.totalNanos.sum()), v.getPercentileMillis(0.5), v.getPercentileMillis(0.9), toMillis(v.maxNanos.get()), v.bytesOut.sum(), v.bytesIn.sum()));
+        pw.println("Counters:");
+        counters.forEach((k,v)->pw.printf("  %-60s %12d%n", k, v.sum()));
+        pw.println("Timers:");
+        pw.printf("  %-60s %7s %10s %8s%n", "Name", "Count", "Total (ms)", "Max (ms)");
+        timers.forEach((k,v)->pw.printf("  %-60s %7d %10d %8d%n", k, v.count.sum(), toMillis(v.totalNanos.sum()), toMillis(v.maxNanos.get())));
+        pw.flush();
+        return sw.toString();
+    }
+
+    private static final String formatJson() {
+        var result = JsonHelper.getObjectMapper().createObjectNode();
+        var requestsNode = result.putArray("requests");
+        requests.forEach((k,v)->{
+            var node = requestsNode.addObject().put("endpoint", k)
+                .put("count", v.count.sum()).put("errors", v.errors.sum())
+                .put("totalMillis", toMillis(v.totalNanos.sum())).put("maxMillis", toMillis(v.maxNanos.get()))
+                .put("bytesOut", v.bytesOut.sum()).put("bytesIn", v.bytesIn.sum());
+            var histogram = node.putObject("histogram");
+            for ( int i=0; i<v.buckets.length(); i++ ) {
+                histogram.put(i<LATENCY_BUCKETS_MILLIS.length ? "le"+LATENCY_BUCKETS_MILLIS[i] : "inf", v.buckets.get(i));
+            }
+        });
+        var countersNode = result.putObject("counters");
+        counters.forEach((k,v)->countersNode.put(k, v.sum()));
+        var timersNode = result.putObject("timers");
+        timers.forEach((k,v)->timersNode.putObject(k)
+                .put("count", v.count.sum()).put("totalMillis", toMillis(v.totalNanos.sum())).put("maxMillis", toMillis(v.maxNanos.get())));
+        return result.toPrettyString()+"\n";
+    }
+
+    private static final String formatOpenMetrics() {
+        var sb = new StringBuilder();
+        sb.append("# TYPE fcli_http_requests counter\n");
+        requests.forEach((k,v)->sb.append("fcli_http_requests_total").append(labels(k)).append(' ').append(v.count.sum()).append('\n'));
+        sb.append("# TYPE fcli_http_request_errors counter\n");
+        requests.forEach((k,v)->sb.append("fcli_http_request_errors_total").append(labels(k)).append(' ').append(v.errors.sum()).append('\n'));
+        sb.append("# TYPE fcli_http_request_duration_seconds histogram\n");
+        requests.forEach((k,v)->{
+            long cumulative = 0;
+            for ( int i=0; i<v.buckets.length(); i++ ) {
+                cumulative += v.buckets.get(i);
+                var le = i<LATENCY_BUCKETS_MILLIS.length ? String.valueOf(LATENCY_BUCKETS_MILLIS[i]/1000.0) : "+Inf";
+                sb.append("fcli_http_request_duration_seconds_bucket").append(labels(k, "le", le)).append(' ').append(cumulative).append('\n');
+            }
+            sb.append("fcli_http_request_duration_seconds_sum").append(labels(k)).append(' ').append(v.totalNanos.sum()/1e9).append('\n');
+            sb.append("fcli_http_request_duration_seconds_count").append(labels(k)).append(' ').append(v.count.sum()).append('\n');
+        });
+        sb.append("# TYPE fcli_http_request_bytes counter\n");
+        requests.forEach((k,v)->{
+            sb.append("fcli_http_request_bytes_total").append(labels(k, "direction", "out")).append(' ').append(v.bytesOut.sum()).append('\n');
+            sb.append("fcli_http_request_bytes_total").append(labels(k, "direction", "in")).append(' ').append(v.bytesIn.sum()).append('\n');
+        });
+        sb.append("# TYPE fcli_events counter\n");
+        counters.forEach((k,v)->sb.append("fcli_events_total{name=\"").append(k).append("\"} ").append(v.sum()).append('\n'));
+        sb.append("# TYPE fcli_duration_seconds summary\n");
+        timers.forEach((k,v)->{
+            sb.append("fcli_duration_seconds_sum{name=\"").append(k).append("\"} ").append(v.totalNanos.sum()/1e9).append('\n');
+            sb.append("fcli_duration_seconds_count{name=\"").append(k).append("\"} ").append(v.count.sum()).append('\n');
+        });
+        return sb.append("# EOF\n").toString();
+    }
+
+    private static final String labels(String requestKey, String... extraLabels) {
+        var idx = requestKey.indexOf(' ');
+        var sb = new StringBuilder("{method=\"").append(requestKey.substring(0, idx))
+                .append("\",endpoint=\"").append(requestKey.substring(idx+1).replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        for ( int i=0; i<extraLabels.length; i+=2 ) {
+            sb.append(',').append(extraLabels[i]).append("=\"").append(extraLabels[i+1]).append('"');
+        }
+        return sb.append('}').toString();
+    }
+
+    private static final long toMillis(long nanos) {
+        return nanos/1_000_000;
+    }
+
+    private static class TimerMetrics {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void record(long durationNanos) {
+            count.increment();
+            totalNanos.add(durationNanos);
+            maxNanos.accumulate(durationNanos);
+        }
+    }
+
+    private static final class RequestMetrics extends TimerMetrics {
+        final LongAdder errors = new LongAdder();
+        final LongAdder bytesOut = new LongAdder();
+        final LongAdder bytesIn = new LongAdder();
+        final AtomicLongArray buckets = new AtomicLongArray(LATENCY_BUCKETS_MILLIS.length+1);
+
+        void record(int status, long durationNanos, long bytesOut, long bytesIn) {
+            record(durationNanos);
+            if ( status<200 || status>=400 ) { errors.increment(); }
+            if ( bytesOut>0 ) { this.bytesOut.add(bytesOut); }
+            if ( bytesIn>0 ) { this.bytesIn.add(bytesIn); }
+            var millis = toMillis(durationNanos);
+            int bucket = 0;
+            while ( bucket<LATENCY_BUCKETS_MILLIS.length && millis>LATENCY_BUCKETS_MILLIS[bucket] ) { bucket++; }
+            buckets.incrementAndGet(bucket);
+        }
+
+        /**
+         * Return the upper bound of the histogram bucket containing the given
+         * percentile, or '>' followed by the largest bucket bound if the
+         * percentile falls within the unbounded bucket.
+         */
+        String getPercentileMillis(double percentile) {
+            var threshold = Math.ceil(count.sum()*percentile);
+            long cumulative = 0;
+            for ( int i=0; i<LATENCY_BUCKETS_MILLIS.length; i++ ) {
+                cumulative += buckets.get(i);
+                if ( cumulative>=threshold ) { return "<="+LATENCY_BUCKETS_MILLIS[i]; }
+            }
+            return ">"+LATENCY_BUCKETS_MILLIS[LATENCY_BUCKETS_MILLIS.length-1];
+        }
+    }
+}
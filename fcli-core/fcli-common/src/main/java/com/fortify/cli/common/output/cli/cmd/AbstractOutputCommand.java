@@ -18,23 +18,36 @@ import java.util.List;
 import com.fortify.cli.common.cli.cmd.AbstractRunnableCommand;
 import com.fortify.cli.common.output.cli.mixin.IOutputHelper;
 import com.fortify.cli.common.output.writer.ISingularSupplier;
+import com.fortify.cli.common.session.helper.MultiSessionHelper;
 
 public abstract class AbstractOutputCommand extends AbstractRunnableCommand implements ISingularSupplier, IOutputHelperSupplier {
     private static final List<Class<?>> supportedInterfaces = Arrays.asList(
             IBaseRequestSupplier.class, 
-            IJsonNodeSupplier.class);
+            IJsonNodeSupplier.class,
+            IJsonNodeStreamSupplier.class);
     @Override
     public final Integer call() {
         initMixins();
         IOutputHelper outputHelper = getOutputHelper();
+        List<String> sessionNames = MultiSessionHelper.getSessionNames(getCommandSpec());
+        if ( sessionNames.isEmpty() ) {
+            write(outputHelper);
+        } else {
+            outputHelper.writeForSessions(sessionNames, ()->write(outputHelper));
+        }
+        return 0;
+    }
+    
+    private void write(IOutputHelper outputHelper) {
         if ( isInstance(IBaseRequestSupplier.class) ) {
             outputHelper.write(((IBaseRequestSupplier)this).getBaseRequest());
         } else if ( isInstance(IJsonNodeSupplier.class) ) {
             outputHelper.write(((IJsonNodeSupplier)this).getJsonNode());
+        } else if ( isInstance(IJsonNodeStreamSupplier.class) ) {
+            outputHelper.write(((IJsonNodeStreamSupplier)this).getJsonNodeStream());
         } else {
             throw new IllegalStateException(this.getClass().getName()+" must implement exactly one of "+supportedInterfaces);
         }
-        return 0;
     }
     
     private boolean isInstance(Class<?> clazz) {
@@ -0,0 +1,26 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.output.cli.cmd;
+
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Commands implementing this interface provide their output records as a
+ * {@link Stream}, allowing records to be generated lazily while they are
+ * being written, rather than collecting all records in memory first.
+ */
+public interface IJsonNodeStreamSupplier {
+    Stream<JsonNode> getJsonNodeStream();
+}
@@ -12,8 +12,10 @@
  *******************************************************************************/
 package com.fortify.cli.common.output.cli.mixin;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
@@ -48,6 +50,7 @@ import picocli.CommandLine.Mixin;
 
 public abstract class AbstractOutputHelperMixin implements IOutputHelper {
     @Mixin private CommandHelperMixin commandHelper;
+    private volatile IOutputWriter sessionsOutputWriter;
     
     public IProductHelper getProductHelper() {
         return commandHelper.getCommandAs(IProductHelperSupplier.class)
@@ -88,6 +91,36 @@ public abstract class AbstractOutputHelperMixin implements IOutputHelper {
         createOutputWriter().write(jsonNode);
     }
     
+    /**
+     * Write the records provided by the given {@link Stream} using the output 
+     * writer created by the {@link #createOutputWriter()} method. Records are
+     * consumed from the stream while being written.
+     */
+    @Override
+    public final void write(Stream<JsonNode> records) {
+        createOutputWriter().write(records);
+    }
+    
+    /**
+     * Run the given session writer for each of the given session names, using the 
+     * output writer created by the {@link #createOutputWriter()} method to combine 
+     * the records written by each session writer into a single output. See 
+     * {@link IOutputWriter#writeForSessions(List, Runnable)} for details. While
+     * the session writers are running, all write methods use this same output
+     * writer, as creating a new output writer would update the (shared) basic 
+     * output configuration from multiple threads.
+     */
+    @Override
+    public final void writeForSessions(List<String> sessionNames, Runnable sessionWriter) {
+        var outputWriter = createOutputWriter();
+        this.sessionsOutputWriter = outputWriter;
+        try {
+            outputWriter.writeForSessions(sessionNames, sessionWriter);
+        } finally {
+            this.sessionsOutputWriter = null;
+        }
+    }
+    
     /**
      * This method simply gets a {@link JsonNode} instance from the given 
      * {@link JsonNodeHolder}, then calls the {@link #write(JsonNode)} method 
@@ -263,6 +296,17 @@ public abstract class AbstractOutputHelperMixin implements IOutputHelper {
                 ()->{throw new IllegalStateException(cmd.getClass().getName()+" must implement IOutputWriterFactorySupplier, or use an IOutputHelper implementation that provides an output factory");});
     }
 
+    /**
+     * This method returns the names of the record properties required for producing
+     * the configured output, as returned by {@link IOutputWriter#getRequiredRecordPropertyNames()},
+     * or null if these cannot be determined. This allows for restricting the set of 
+     * properties returned by the server.
+     * @return Required record property names, or null if all properties may be required
+     */
+    public final Set<String> getRequiredRecordPropertyNames() {
+        return createOutputWriter().getRequiredRecordPropertyNames();
+    }
+
     /**
      * This method retrieves an {@link IOutputWriterFactory} by calling the
      * {@link #getOutputWriterFactory()} method, then returns the {@link IOutputWriter} 
@@ -271,7 +315,8 @@ public abstract class AbstractOutputHelperMixin implements IOutputHelper {
      * @return {@link IOutputWriter} instance retrieved from an {@link IOutputWriterFactory} instance
      */
     private final IOutputWriter createOutputWriter() {
-        return getOutputWriterFactory().createOutputWriter(getOutputConfig());
+        var result = sessionsOutputWriter;
+        return result!=null ? result : getOutputWriterFactory().createOutputWriter(getOutputConfig());
     }
     
     /** 
@@ -12,6 +12,9 @@
  *******************************************************************************/
 package com.fortify.cli.common.output.cli.mixin;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fortify.cli.common.json.JsonNodeHolder;
 import com.fortify.cli.common.output.product.IProductHelper;
@@ -25,4 +28,6 @@ public interface IOutputHelper extends IBasicOutputConfigSupplier, IOutputWriter
     void write(HttpRequest<?> baseRequest);
     void write(JsonNodeHolder jsonNodeHolder);
     void write(JsonNode jsonNode);
+    void write(Stream<JsonNode> records);
+    void writeForSessions(List<String> sessionNames, Runnable sessionWriter);
 }
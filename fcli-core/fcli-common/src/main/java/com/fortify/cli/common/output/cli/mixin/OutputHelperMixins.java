@@ -187,6 +187,10 @@ public class OutputHelperMixins {
     public static class Start extends TableNoQuery {
         public static final String CMD_NAME = "start";
     }
+    
+    public static class StartBatch extends TableNoQuery {
+        public static final String CMD_NAME = "start-batch";
+    }
 
 
     public static class Pause extends TableNoQuery {
@@ -207,6 +211,10 @@ public class OutputHelperMixins {
     public static class Upload extends TableNoQuery {
         public static final String CMD_NAME = "upload";
     }
+    
+    public static class UploadBatch extends TableNoQuery {
+        public static final String CMD_NAME = "upload-batch";
+    }
 
 
     public static class Download extends TableNoQuery {
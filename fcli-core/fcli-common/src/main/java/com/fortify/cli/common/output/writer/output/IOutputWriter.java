@@ -12,6 +12,10 @@
  *******************************************************************************/
 package com.fortify.cli.common.output.writer.output;
 
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fortify.cli.common.rest.paging.INextPageRequestProducer;
 import com.fortify.cli.common.rest.paging.INextPageUrlProducer;
@@ -22,6 +26,12 @@ import kong.unirest.HttpResponse;
 public interface IOutputWriter {
 
     void write(JsonNode jsonNode);
+    
+    /**
+     * Write the records provided by the given {@link Stream}, consuming
+     * the stream while writing records.
+     */
+    void write(Stream<JsonNode> records);
 
     void write(HttpRequest<?> httpRequest);
 
@@ -30,5 +40,23 @@ public interface IOutputWriter {
     void write(HttpRequest<?> httpRequest, INextPageUrlProducer nextPageUrlProducer);
 
     void write(HttpResponse<JsonNode> httpResponse);
+    
+    /**
+     * Run the given session writer concurrently for each of the given session names,
+     * combining all records written by the session writer into the output produced
+     * by this {@link IOutputWriter}, with each record being tagged with the session 
+     * name. The session writer is expected to write records through any other
+     * {@link IOutputWriter} instance created for the current command.
+     */
+    void writeForSessions(List<String> sessionNames, Runnable sessionWriter);
+    
+    /**
+     * Return the names of the record properties required for producing
+     * the output, or null if these cannot be determined, in which case
+     * all record properties may be required.
+     */
+    default Set<String> getRequiredRecordPropertyNames() {
+        return null;
+    }
 
 }
\ No newline at end of file
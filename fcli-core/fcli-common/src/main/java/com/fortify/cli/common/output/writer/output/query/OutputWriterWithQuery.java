@@ -12,6 +12,9 @@
  *******************************************************************************/
 package com.fortify.cli.common.output.writer.output.query;
 
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fortify.cli.common.output.OutputFormat;
 import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
@@ -21,6 +24,7 @@ import com.fortify.cli.common.output.query.QueryExpression;
 import com.fortify.cli.common.output.writer.output.standard.IOutputOptions;
 import com.fortify.cli.common.output.writer.output.standard.StandardOutputConfig;
 import com.fortify.cli.common.output.writer.output.standard.StandardOutputWriter;
+import com.fortify.cli.common.spring.expression.SpelRootPropertyNamesCollector;
 
 import picocli.CommandLine.Model.CommandSpec;
 
@@ -46,4 +50,21 @@ public class OutputWriterWithQuery extends StandardOutputWriter {
         return queryExpression==null || queryExpression.matches(record)
                 ? record : null;
     }
+    
+    /**
+     * Return the names of the record properties required by the output format,
+     * combined with the names of the record properties accessed by the query
+     * expression, or null if either of these cannot be determined.
+     */
+    @Override
+    public Set<String> getRequiredRecordPropertyNames() {
+        var result = super.getRequiredRecordPropertyNames();
+        QueryExpression queryExpression = queryExpressionSupplier.getQueryExpression();
+        if ( result==null || queryExpression==null ) { return result; }
+        var queryPropertyNames = SpelRootPropertyNamesCollector.getRootPropertyNames(queryExpression.getExpression());
+        if ( queryPropertyNames==null ) { return null; }
+        result = new LinkedHashSet<>(result);
+        result.addAll(queryPropertyNames);
+        return result;
+    }
 }
@@ -18,7 +18,12 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.Writer;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +32,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeType;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.metrics.helper.FcliMetricsHelper;
 import com.fortify.cli.common.output.OutputFormat;
 import com.fortify.cli.common.output.transform.IActionCommandResultSupplier;
 import com.fortify.cli.common.output.writer.CommandSpecMessageResolver;
@@ -42,7 +49,9 @@ import com.fortify.cli.common.rest.paging.INextPageRequestProducer;
 import com.fortify.cli.common.rest.paging.INextPageUrlProducer;
 import com.fortify.cli.common.rest.paging.PagingHelper;
 import com.fortify.cli.common.rest.unirest.IfFailureHandler;
+import com.fortify.cli.common.session.helper.MultiSessionHelper;
 import com.fortify.cli.common.util.PicocliSpecHelper;
+import com.fortify.cli.common.util.StringUtils;
 import com.fortify.cli.common.variable.DefaultVariablePropertyName;
 import com.fortify.cli.common.variable.EncryptVariable;
 import com.fortify.cli.common.variable.FcliVariableHelper;
@@ -52,6 +61,7 @@ import kong.unirest.HttpResponse;
 import lombok.Builder;
 import lombok.Data;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import picocli.CommandLine.Model.CommandSpec;
 
@@ -62,8 +72,11 @@ public class StandardOutputWriter implements IOutputWriter {
     private final CommandSpec commandSpec;
     private final IOutputOptions outputOptions;
     private final IMessageResolver messageResolver;
+    private boolean multiSession = false;
     private static IRecordWriter recordCollector;
     private static boolean suppressOutput;
+    private static final ThreadLocal<SessionRecordWriter> sessionRecordWriter = new ThreadLocal<>();
+    private static final String SESSION_PROPERTY_NAME = "session";
     
     public StandardOutputWriter(CommandSpec commandSpec, IOutputOptions outputOptions, StandardOutputConfig defaultOutputConfig) {
         // Make sure that we get the CommandSpec for the actual command being invoked,
@@ -98,17 +111,29 @@ public class StandardOutputWriter implements IOutputWriter {
      */
     @Override
     public void write(JsonNode jsonNode) {
-        try ( IRecordWriter recordWriter = new OutputAndVariableRecordWriter() ) {
+        try ( IRecordWriter recordWriter = createRecordWriter() ) {
             writeRecords(recordWriter, jsonNode);
         }
     }
 
+    /**
+     * Write the records provided by the given {@link Stream} to the configured output(s).
+     * Each record is individually transformed and written while consuming the stream, so 
+     * (depending on output format) records don't need to be held in memory.
+     */
+    @Override
+    public void write(Stream<JsonNode> records) {
+        try ( IRecordWriter recordWriter = createRecordWriter(); records ) {
+            records.forEach(record->writeRecords(recordWriter, record));
+        }
+    }
+
     /**
      * Write the output of the given {@link HttpRequest} to the configured output(s)
      */
     @Override
     public void write(HttpRequest<?> httpRequest) {
-        try ( IRecordWriter recordWriter = new OutputAndVariableRecordWriter() ) {
+        try ( IRecordWriter recordWriter = createRecordWriter() ) {
             writeRecords(recordWriter, httpRequest);
         }
     }
@@ -120,7 +145,7 @@ public class StandardOutputWriter implements IOutputWriter {
      */
     @Override
     public void write(HttpRequest<?> httpRequest, INextPageUrlProducer nextPageUrlProducer) {
-        try ( IRecordWriter recordWriter = new OutputAndVariableRecordWriter() ) {
+        try ( IRecordWriter recordWriter = createRecordWriter() ) {
             if ( nextPageUrlProducer==null ) {
                 writeRecords(recordWriter, httpRequest);
             } else {
@@ -136,7 +161,7 @@ public class StandardOutputWriter implements IOutputWriter {
      */
     @Override
     public void write(HttpRequest<?> httpRequest, INextPageRequestProducer nextPageRequestProducer) {
-        try ( IRecordWriter recordWriter = new OutputAndVariableRecordWriter() ) {
+        try ( IRecordWriter recordWriter = createRecordWriter() ) {
             if ( nextPageRequestProducer==null ) {
                 writeRecords(recordWriter, httpRequest);
             } else {
@@ -150,11 +175,73 @@ public class StandardOutputWriter implements IOutputWriter {
      */
     @Override
     public void write(HttpResponse<JsonNode> httpResponse) {
-        try ( IRecordWriter recordWriter = new OutputAndVariableRecordWriter() ) {
+        try ( IRecordWriter recordWriter = createRecordWriter() ) {
             writeRecords(recordWriter, httpResponse);
         }
     }
     
+    /**
+     * Run the given session writer concurrently for each of the given session names,
+     * through {@link MultiSessionHelper#runForSessions(List, java.util.function.Consumer)}.
+     * While a session writer is running, any {@link StandardOutputWriter} instance used
+     * on the same thread writes records to a single, shared {@link OutputAndVariableRecordWriter}
+     * owned by this instance, after adding a 'session' property to each record. Note that 
+     * all session writers run on the same command and mixin instances, so any lazily 
+     * initialized state that depends on the session must be managed per session, for 
+     * example through {@link MultiSessionHelper#getOrCreateForCurrentSession(java.util.Map, java.util.function.Supplier)}.
+     */
+    @Override
+    public void writeForSessions(List<String> sessionNames, Runnable sessionWriter) {
+        this.multiSession = true;
+        try ( IRecordWriter recordWriter = new OutputAndVariableRecordWriter() ) {
+            MultiSessionHelper.runForSessions(sessionNames, sessionName->{
+                sessionRecordWriter.set(new SessionRecordWriter(recordWriter, sessionName));
+                try {
+                    sessionWriter.run();
+                } finally {
+                    sessionRecordWriter.remove();
+                }
+            });
+        }
+    }
+    
+    /**
+     * Return the names of the record properties accessed by the configured
+     * output format and options. This method returns null if all record 
+     * properties may be required, for example if records are being stored
+     * in a variable or collected by an action, or if the output format 
+     * outputs all record properties.
+     */
+    @Override
+    public Set<String> getRequiredRecordPropertyNames() {
+        if ( recordCollector!=null || outputOptions==null || outputOptions.getVariableStoreConfig()!=null ) {
+            return null;
+        }
+        String options = outputOptions.getOutputFormatConfig()==null
+                ? null 
+                : outputOptions.getOutputFormatConfig().getOptions();
+        if ( StringUtils.isBlank(options) ) {
+            options = messageResolver.getMessageString("output."+outputFormat.getMessageKey()+".options");
+        }
+        if ( StringUtils.isBlank(options) ) { return null; }
+        var result = outputFormat.getRecordWriterFactory().getRequiredPropertyNames(options);
+        if ( result!=null && sessionRecordWriter.get()!=null ) {
+            // The session property is added by us, so shouldn't be requested from the server
+            result = result.stream().filter(name->!SESSION_PROPERTY_NAME.equals(name)).collect(Collectors.toCollection(LinkedHashSet::new));
+        }
+        return result;
+    }
+    
+    /**
+     * Create the {@link IRecordWriter} for writing records; this returns the {@link SessionRecordWriter}
+     * for the current thread if running in multi-session mode, or a new {@link OutputAndVariableRecordWriter}
+     * otherwise.
+     */
+    private final IRecordWriter createRecordWriter() {
+        var result = sessionRecordWriter.get();
+        return result!=null ? result : new OutputAndVariableRecordWriter();
+    }
+    
     /**
      * Write records returned by the given {@link HttpRequest} to the given
      * {@link IRecordWriter}.
@@ -214,7 +301,9 @@ public class StandardOutputWriter implements IOutputWriter {
      * @param jsonNode
      */
     private final void writeRecords(IRecordWriter recordWriter, JsonNode jsonNode) {
-        jsonNode = outputConfig.applyInputTransformations(outputFormat, jsonNode);
+        try ( var timer = FcliMetricsHelper.timer("output.transform.input") ) {
+            jsonNode = outputConfig.applyInputTransformations(outputFormat, jsonNode);
+        }
         if ( jsonNode!=null ) {
             if ( jsonNode.isArray() ) {
                 jsonNode.elements().forEachRemaining(record->writeRecord(recordWriter, record));
@@ -238,19 +327,39 @@ public class StandardOutputWriter implements IOutputWriter {
     @SneakyThrows // TODO Do we want to use SneakyThrows?
     private final void writeRecord(IRecordWriter recordWriter, JsonNode record) {
         // TODO Add null checks in case any input or record transformation returns null?
-        record = record==null ? null : outputConfig.applyRecordTransformations(outputFormat, record);
-        record = record==null ? null : applyRecordOutputFilters(outputFormat, record);
+        try ( var timer = FcliMetricsHelper.timer("output.transform.record") ) {
+            record = record==null ? null : outputConfig.applyRecordTransformations(outputFormat, record);
+            record = record==null ? null : addSessionProperty(record);
+            record = record==null ? null : applyRecordOutputFilters(outputFormat, record);
+        }
         if ( record!=null ) {
             JsonNodeType nodeType = record.getNodeType();
-            switch ( nodeType ) {
-            case ARRAY: if(record.size()>0) recordWriter.writeRecord((ObjectNode) new ObjectMapper().readTree(record.get(0).toString())); break;
-            case OBJECT: recordWriter.writeRecord((ObjectNode) record); break;
-            case NULL: case MISSING: break;
-            default: throw new RuntimeException("Invalid node type: "+nodeType);
+            try ( var timer = FcliMetricsHelper.timer("output.write") ) {
+                switch ( nodeType ) {
+                case ARRAY: if(record.size()>0) recordWriter.writeRecord((ObjectNode) new ObjectMapper().readTree(record.get(0).toString())); break;
+                case OBJECT: recordWriter.writeRecord((ObjectNode) record); break;
+                case NULL: case MISSING: break;
+                default: throw new RuntimeException("Invalid node type: "+nodeType);
+                }
             }
         }
     }
     
+    /**
+     * If running in multi-session mode, return a copy of the given record with the 
+     * current session name added as the first property, allowing the session name 
+     * to be used in queries and output options. Otherwise, the given record is 
+     * returned as-is.
+     */
+    private static final JsonNode addSessionProperty(JsonNode record) {
+        var writer = sessionRecordWriter.get();
+        if ( writer==null || !record.isObject() ) { return record; }
+        var result = JsonHelper.getObjectMapper().createObjectNode();
+        result.put(SESSION_PROPERTY_NAME, writer.sessionName);
+        result.setAll((ObjectNode)record);
+        return result;
+    }
+    
     /**
      * Return the {@link StandardOutputConfig} from the current command if the command
      * implements {@link IOutputConfigSupplier}, otherwise return the provided default
@@ -341,6 +450,29 @@ public class StandardOutputWriter implements IOutputWriter {
         }
     }
     
+    /**
+     * {@link IRecordWriter} implementation used in multi-session mode, writing records
+     * for a single session to a shared {@link IRecordWriter}. As multiple sessions are 
+     * processed concurrently, writes to the shared record writer are synchronized. The
+     * shared record writer is closed by {@link StandardOutputWriter#writeForSessions(List, Runnable)}
+     * once all sessions have been processed, so {@link #close()} doesn't do anything.
+     */
+    @RequiredArgsConstructor
+    private static final class SessionRecordWriter implements IRecordWriter {
+        private final IRecordWriter sharedRecordWriter;
+        private final String sessionName;
+        
+        @Override
+        public void writeRecord(ObjectNode record) {
+            synchronized (sharedRecordWriter) {
+                sharedRecordWriter.writeRecord(record);
+            }
+        }
+        
+        @Override
+        public void close() {}
+    }
+    
     /**
      * Abstract base class for {@link OutputRecordWriter} and {@link VariableRecordWriter},
      * providing common functionality.
@@ -400,6 +532,7 @@ public class StandardOutputWriter implements IOutputWriter {
          * @return
          */
         protected boolean isSingularOutput() {
+            if ( multiSession ) { return false; }
             Object cmd = commandSpec.userObject();
             return cmd instanceof ISingularSupplier
                     ? ((ISingularSupplier)cmd).isSingular()
@@ -451,6 +584,11 @@ public class StandardOutputWriter implements IOutputWriter {
             String options = outputOptions==null || outputOptions.getOutputFormatConfig()==null
                     ? null 
                     : outputOptions.getOutputFormatConfig().getOptions();
+            if ( multiSession && StringUtils.isBlank(options) && outputFormat!=OutputFormat.expr && outputFormat!=OutputFormat.json_properties ) {
+                // Include the session property in any default output columns
+                String defaultOptions = messageResolver.getMessageString("output."+outputFormat.getMessageKey()+".options");
+                options = StringUtils.isBlank(defaultOptions) ? null : SESSION_PROPERTY_NAME+","+defaultOptions;
+            }
             return createRecordWriterConfigBuilder()
                     .writer(writer)
                     .options(options)
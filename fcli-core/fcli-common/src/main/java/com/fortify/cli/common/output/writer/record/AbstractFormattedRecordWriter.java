@@ -15,8 +15,12 @@ package com.fortify.cli.common.output.writer.record;
 import java.io.Writer;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import org.springframework.expression.Expression;
 import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -27,10 +31,12 @@ import com.fortify.cli.common.output.OutputFormat;
 import com.fortify.cli.common.output.transform.IActionCommandResultSupplier;
 import com.fortify.cli.common.output.transform.PropertyPathFormatter;
 import com.fortify.cli.common.output.transform.flatten.FlattenTransformer;
+import com.fortify.cli.common.spring.expression.SpelRootPropertyNamesCollector;
 import com.fortify.cli.common.util.StringUtils;
 
 public abstract class AbstractFormattedRecordWriter extends AbstractRecordWriter {
     private static final JsonNode NA_NODE = new TextNode("N/A");
+    private static final SpelExpressionParser SPEL_PARSER = new SpelExpressionParser();
     
     private final List<String> fieldPaths;
     
@@ -55,6 +61,23 @@ public abstract class AbstractFormattedRecordWriter extends AbstractRecordWriter
         writeFormattedRecord(getFormattedRecord(record));
     }
     
+    /**
+     * Return the names of the root record properties accessed by the field paths in
+     * the given options, or null if options are blank (meaning that all record
+     * properties will be output) or any of the field paths cannot be analyzed.
+     */
+    public static final Set<String> getRequiredPropertyNames(String options) {
+        if ( StringUtils.isBlank(options) ) { return null; }
+        try {
+            List<Expression> expressions = getFieldPaths(options.replaceAll("\\s", "")).stream()
+                    .map(SPEL_PARSER::parseExpression)
+                    .collect(Collectors.toList());
+            return SpelRootPropertyNamesCollector.getRootPropertyNames(expressions);
+        } catch ( Exception e ) {
+            return null;
+        }
+    }
+    
     protected Writer getWriter() {
         return getConfig().getWriter();
     }
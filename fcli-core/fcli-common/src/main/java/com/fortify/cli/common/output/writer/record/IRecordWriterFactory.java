@@ -12,6 +12,17 @@
  *******************************************************************************/
 package com.fortify.cli.common.output.writer.record;
 
+import java.util.Set;
+
 public interface IRecordWriterFactory {
     public IRecordWriter createRecordWriter(RecordWriterConfig config);
+    
+    /**
+     * Return the names of the record properties accessed by record writers
+     * created with the given options, or null if these cannot be determined
+     * (for example because the record writer outputs all record properties).
+     */
+    public default Set<String> getRequiredPropertyNames(String options) {
+        return null;
+    }
 }
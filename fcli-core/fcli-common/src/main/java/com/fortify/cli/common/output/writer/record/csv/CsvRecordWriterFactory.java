@@ -12,6 +12,9 @@
  *******************************************************************************/
 package com.fortify.cli.common.output.writer.record.csv;
 
+import java.util.Set;
+
+import com.fortify.cli.common.output.writer.record.AbstractFormattedRecordWriter;
 import com.fortify.cli.common.output.writer.record.IRecordWriter;
 import com.fortify.cli.common.output.writer.record.IRecordWriterFactory;
 import com.fortify.cli.common.output.writer.record.RecordWriterConfig;
@@ -26,5 +29,9 @@ public class CsvRecordWriterFactory implements IRecordWriterFactory {
     public IRecordWriter createRecordWriter(RecordWriterConfig config) {
         return new CsvRecordWriter(csvType, config);
     }
-
+    
+    @Override
+    public Set<String> getRequiredPropertyNames(String options) {
+        return AbstractFormattedRecordWriter.getRequiredPropertyNames(options);
+    }
 }
@@ -12,6 +12,7 @@
  *******************************************************************************/
 package com.fortify.cli.common.output.writer.record.expr;
 
+import java.util.Set;
 import java.util.stream.Stream;
 
 import org.springframework.expression.Expression;
@@ -24,6 +25,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fortify.cli.common.json.JsonHelper;
 import com.fortify.cli.common.output.writer.record.AbstractRecordWriter;
 import com.fortify.cli.common.output.writer.record.RecordWriterConfig;
+import com.fortify.cli.common.spring.expression.SpelRootPropertyNamesCollector;
 import com.fortify.cli.common.spring.expression.validator.AbstractSimpleSpelNodeValidator;
 
 import lombok.SneakyThrows;
@@ -38,7 +40,19 @@ public class ExprRecordWriter extends AbstractRecordWriter {
         new OutputExpressionValidator(this.expression).visit();
     }
 
-    private Expression getExpression(String expressionTemplate) {
+    /**
+     * Return the names of the root record properties accessed by the given
+     * expression template, or null if these cannot be determined.
+     */
+    public static final Set<String> getRequiredPropertyNames(String expressionTemplate) {
+        try {
+            return SpelRootPropertyNamesCollector.getRootPropertyNames(getExpression(expressionTemplate));
+        } catch ( Exception e ) {
+            return null;
+        }
+    }
+
+    private static final Expression getExpression(String expressionTemplate) {
         try {
             return parser.parseExpression(
                     insertControlCharacters(expressionTemplate), 
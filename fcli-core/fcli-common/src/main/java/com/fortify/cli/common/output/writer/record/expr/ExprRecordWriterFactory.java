@@ -12,6 +12,8 @@
  *******************************************************************************/
 package com.fortify.cli.common.output.writer.record.expr;
 
+import java.util.Set;
+
 import com.fortify.cli.common.output.writer.record.IRecordWriter;
 import com.fortify.cli.common.output.writer.record.IRecordWriterFactory;
 import com.fortify.cli.common.output.writer.record.RecordWriterConfig;
@@ -21,4 +23,9 @@ public class ExprRecordWriterFactory implements IRecordWriterFactory {
     public IRecordWriter createRecordWriter(RecordWriterConfig config) {
         return new ExprRecordWriter(config);
     }
+    
+    @Override
+    public Set<String> getRequiredPropertyNames(String options) {
+        return ExprRecordWriter.getRequiredPropertyNames(options);
+    }
 }
@@ -12,6 +12,9 @@
  *******************************************************************************/
 package com.fortify.cli.common.output.writer.record.json;
 
+import java.util.Set;
+
+import com.fortify.cli.common.output.writer.record.AbstractFormattedRecordWriter;
 import com.fortify.cli.common.output.writer.record.IRecordWriter;
 import com.fortify.cli.common.output.writer.record.IRecordWriterFactory;
 import com.fortify.cli.common.output.writer.record.RecordWriterConfig;
@@ -22,5 +25,9 @@ public class JsonRecordWriterFactory implements IRecordWriterFactory {
     public IRecordWriter createRecordWriter(RecordWriterConfig config) {
         return new JsonRecordWriter(config);
     }
-
+    
+    @Override
+    public Set<String> getRequiredPropertyNames(String options) {
+        return AbstractFormattedRecordWriter.getRequiredPropertyNames(options);
+    }
 }
@@ -12,6 +12,9 @@
  *******************************************************************************/
 package com.fortify.cli.common.output.writer.record.table;
 
+import java.util.Set;
+
+import com.fortify.cli.common.output.writer.record.AbstractFormattedRecordWriter;
 import com.fortify.cli.common.output.writer.record.IRecordWriter;
 import com.fortify.cli.common.output.writer.record.IRecordWriterFactory;
 import com.fortify.cli.common.output.writer.record.RecordWriterConfig;
@@ -27,4 +30,9 @@ public class TableRecordWriterFactory implements IRecordWriterFactory {
     public IRecordWriter createRecordWriter(RecordWriterConfig config) {
         return new TableRecordWriter(tableType, config);
     }
+    
+    @Override
+    public Set<String> getRequiredPropertyNames(String options) {
+        return AbstractFormattedRecordWriter.getRequiredPropertyNames(options);
+    }
 }
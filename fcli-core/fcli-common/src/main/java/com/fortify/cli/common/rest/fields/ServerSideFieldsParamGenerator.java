@@ -0,0 +1,78 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.rest.fields;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This class generates the value for a server-side 'fields' request parameter,
+ * based on the set of record properties required for producing the output. 
+ * Commands explicitly register the record properties that can be mapped to
+ * server-side fields, as record properties may also be generated client-side,
+ * for example by record transformers or embedders. If any of the required record
+ * properties hasn't been registered, this class will return null to indicate 
+ * that all fields should be retrieved.
+ */
+public final class ServerSideFieldsParamGenerator {
+    private final Map<String, Set<String>> propertyFields = new HashMap<>();
+    private final Set<String> alwaysRequiredFields = new LinkedHashSet<>();
+    
+    /**
+     * Register server-side fields that should always be retrieved, for example
+     * because they are required by record transformers or embedders.
+     */
+    public final ServerSideFieldsParamGenerator always(String... serverSideFields) {
+        alwaysRequiredFields.addAll(Arrays.asList(serverSideFields));
+        return this;
+    }
+    
+    /**
+     * Register record properties that directly correspond to a server-side
+     * field with the same name.
+     */
+    public final ServerSideFieldsParamGenerator addDirect(String... propertyNames) {
+        for ( var propertyName : propertyNames ) {
+            add(propertyName, propertyName);
+        }
+        return this;
+    }
+    
+    /**
+     * Register the server-side fields required for producing the given record property.
+     */
+    public final ServerSideFieldsParamGenerator add(String propertyName, String... serverSideFields) {
+        propertyFields.computeIfAbsent(propertyName, p->new LinkedHashSet<>()).addAll(Arrays.asList(serverSideFields));
+        return this;
+    }
+    
+    /**
+     * Return the comma-separated list of server-side fields required for producing
+     * the given record properties, or null if the given record properties are null
+     * or contain any properties that haven't been registered.
+     */
+    public final String getServerSideFieldsParamValue(Collection<String> requiredPropertyNames) {
+        if ( requiredPropertyNames==null || requiredPropertyNames.isEmpty() ) { return null; }
+        var result = new LinkedHashSet<String>(alwaysRequiredFields);
+        for ( var propertyName : requiredPropertyNames ) {
+            var fields = propertyFields.get(propertyName);
+            if ( fields==null ) { return null; }
+            result.addAll(fields);
+        }
+        return String.join(",", result);
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.rest.fields.cli.mixin;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fortify.cli.common.cli.mixin.CommandHelperMixin;
+import com.fortify.cli.common.output.cli.mixin.AbstractOutputHelperMixin;
+import com.fortify.cli.common.rest.fields.IServerSideFieldsParamGeneratorSupplier;
+import com.fortify.cli.common.rest.unirest.IHttpRequestUpdater;
+import com.fortify.cli.common.util.StringUtils;
+
+import kong.unirest.HttpRequest;
+import lombok.Getter;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Model.CommandSpec;
+
+/**
+ * This mixin adds a 'fields' request parameter, restricting the set of fields
+ * returned by the server to those required for producing the requested output,
+ * as determined by the output format, output options and query expression. The
+ * command must implement {@link IServerSideFieldsParamGeneratorSupplier} to
+ * define which record properties can be mapped to server-side fields.
+ */
+@Command
+public class ServerSideFieldsParamMixin implements IHttpRequestUpdater {
+    private static final Logger LOG = LoggerFactory.getLogger(ServerSideFieldsParamMixin.class);
+    private static final String PARAM_NAME = "fields";
+    @Getter @Mixin private CommandHelperMixin commandHelper;
+    
+    @Override
+    public final HttpRequest<?> updateRequest(HttpRequest<?> request) {
+        IServerSideFieldsParamGeneratorSupplier generatorSupplier = 
+                getCommandHelper().getCommandAs(IServerSideFieldsParamGeneratorSupplier.class)
+                .orElseThrow(()->new RuntimeException("Command must implement IServerSideFieldsParamGeneratorSupplier: "+getCommandHelper().getCommand().getClass().getName()));
+        var paramValue = generatorSupplier.getServerSideFieldsParamGenerator()
+                .getServerSideFieldsParamValue(getOutputHelper().getRequiredRecordPropertyNames());
+        if ( StringUtils.isBlank(paramValue) ) {
+            LOG.debug("Not adding "+PARAM_NAME+" parameter");
+            return request;
+        } else {
+            LOG.debug("Adding "+PARAM_NAME+" parameter with value: {}", paramValue);
+            return request.queryString(PARAM_NAME, paramValue);
+        }
+    }
+    
+    private final AbstractOutputHelperMixin getOutputHelper() {
+        CommandSpec spec = commandHelper.getCommandSpec();
+        CommandSpec outputHelperMixin = spec.mixins().get("outputHelper");
+        if ( outputHelperMixin==null ) {
+            throw new RuntimeException("Command must provide outputHelper mixin: "+spec.userObject().getClass().getName());
+        }
+        return (AbstractOutputHelperMixin)outputHelperMixin.userObject();
+    }
+}
@@ -15,6 +15,7 @@ package com.fortify.cli.common.rest.paging;
 import java.util.function.Consumer;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fortify.cli.common.metrics.helper.FcliMetricsHelper;
 
 import kong.unirest.Header;
 import kong.unirest.HttpRequest;
@@ -38,7 +39,10 @@ public class PagingHelper {
      */
     @SuppressWarnings("unchecked") // TODO Can we get rid of these warnings in a better way?
     public static final <R extends JsonNode> PagedList<R> pagedRequest(HttpRequest<?> request, INextPageUrlProducer nextPageUrlProducer, Class<R> returnType) {
-        return request.asPaged(r->r.asObject(returnType), response->nextPageUrlProducer.getNextPageUrl(request, response));
+        return request.asPaged(r->{
+                FcliMetricsHelper.increment("paging.pages");
+                return r.asObject(returnType);
+            }, response->nextPageUrlProducer.getNextPageUrl(request, response));
     }
     
     /**
@@ -74,6 +78,7 @@ public class PagingHelper {
     public static final void processPages(HttpRequest<?> initialRequest, INextPageRequestProducer nextPageRequestProducer, Consumer<HttpResponse<JsonNode>> consumer) {
         var currentRequest = initialRequest;
         while ( currentRequest!=null ) {
+           FcliMetricsHelper.increment("paging.pages");
            HttpResponse<JsonNode> response = currentRequest.asObject(JsonNode.class);
            consumer.accept(response);
            currentRequest = nextPageRequestProducer.getNextPageRequest(initialRequest, response);
@@ -0,0 +1,270 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.rest.query;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.CompoundExpression;
+import org.springframework.expression.spel.ast.InlineList;
+import org.springframework.expression.spel.ast.Literal;
+import org.springframework.expression.spel.ast.MethodReference;
+import org.springframework.expression.spel.ast.OpAnd;
+import org.springframework.expression.spel.ast.OpEQ;
+import org.springframework.expression.spel.ast.OpGE;
+import org.springframework.expression.spel.ast.OpGT;
+import org.springframework.expression.spel.ast.OpLE;
+import org.springframework.expression.spel.ast.OpLT;
+import org.springframework.expression.spel.ast.OpNE;
+import org.springframework.expression.spel.ast.OpOr;
+import org.springframework.expression.spel.ast.Operator;
+import org.springframework.expression.spel.ast.OperatorMatches;
+
+import com.fortify.cli.common.spring.expression.AbstractSpelNodeVisitor;
+import com.fortify.cli.common.spring.expression.SpelNodeHelper;
+import com.fortify.cli.common.util.JavaHelper;
+
+import lombok.Getter;
+
+/**
+ * This class splits a SpEL query expression into a list of {@link Term}s that
+ * can potentially be pushed down to the server, and a list of residual expressions
+ * that can only be evaluated client-side. Terms are taken from the top-level
+ * conjunction of the expression (i.e., the operands of any top-level {@link OpAnd}
+ * nodes), and represent comparisons between a qualified property name and one or
+ * more literal values:
+ * <ul>
+ *  <li>Comparison operators (==, !=, &gt;, &gt;=, &lt;, &lt;=) with a property on
+ *      one side and a literal on the other</li>
+ *  <li>Disjunctions (||) of equality comparisons on the same property</li>
+ *  <li>Inline list membership, i.e. <code>{'a','b'}.contains(prop)</code></li>
+ *  <li>Regular expressions consisting of only plain alternatives,
+ *      i.e. <code>prop matches 'a|b'</code></li>
+ * </ul>
+ * Server-side query parameter generators decide which of these terms can be
+ * expressed in the server-side query syntax for a given endpoint; any terms
+ * that cannot be expressed are simply left for client-side evaluation. Note
+ * that the full query expression is always evaluated client-side, so server-side
+ * filters are only used to reduce the amount of data being transferred.
+ */
+public final class ServerSideQueryPlan {
+    private static final Logger LOG = LoggerFactory.getLogger(ServerSideQueryPlan.class);
+    // This should match any characters/sequences that have a special meaning in regex (apart from '|'),
+    // unless they have been escaped.
+    private static final Pattern SPECIAL_REGEX_CHAR_PATTERN = Pattern.compile("(?<!\\\\)(?:\\\\\\\\)*[\\[\\].+*?^$(){}]|(?<=\\\\)[\\d\\w]");
+    // This should match an escaped '|', representing a literal '|' character rather than an alternative.
+    private static final Pattern ESCAPED_ALTERNATION_PATTERN = Pattern.compile("\\\\\\|");
+    @Getter private final List<Term> terms = new ArrayList<>();
+    @Getter private final List<String> residualExpressions = new ArrayList<>();
+
+    private ServerSideQueryPlan(Expression expression) {
+        new ServerSideQueryPlanSpelNodeVisitor(expression).visit();
+        LOG.debug("Server-side query plan for {}: terms: {}, residual: {}", expression.getExpressionString(), terms, residualExpressions);
+    }
+
+    public static final ServerSideQueryPlan plan(Expression expression) {
+        return new ServerSideQueryPlan(expression);
+    }
+
+    public static enum TermOperator { EQ, NE, GT, GE, LT, LE, IN }
+
+    /**
+     * A single comparison between the given property path and one or more literal
+     * values; the list of values contains a single value for all operators except
+     * {@link TermOperator#IN}. Values are represented as {@link String}, {@link Number}
+     * or {@link Boolean} instances, depending on the literal type used in the
+     * query expression.
+     */
+    public record Term(String propertyPath, TermOperator operator, List<Object> values) {
+        /**
+         * Return the list of values that the property must be equal to (any of) for this
+         * term to evaluate to true. For {@link TermOperator#EQ} and {@link TermOperator#IN},
+         * this simply returns the term values. Other operators can only be converted if
+         * the complete set of possible (non-null) property values is known; if the given
+         * domain is not null, this method returns the domain values that match this
+         * term. Note that in SpEL, null values are considered to be smaller than any 
+         * other value, so !=, &lt; and &lt;= comparisons match null property values. As 
+         * null values can't be included in the list of matching values, such terms can't
+         * be converted, even for boolean literals. If this term cannot be converted, or 
+         * doesn't match any domain values, an empty optional is returned.
+         */
+        public Optional<List<String>> getMatchingValues(Collection<String> domain) {
+            return getMatchingValues(domain, true);
+        }
+        
+        /**
+         * Same as {@link #getMatchingValues(Collection)}, but if the given nullable
+         * flag is false, the caller guarantees that the property always has a non-null
+         * value, allowing terms that also match null values to be converted as well.
+         */
+        public Optional<List<String>> getMatchingValues(Collection<String> domain, boolean nullable) {
+            List<String> result = null;
+            if ( operator==TermOperator.EQ || operator==TermOperator.IN ) {
+                result = values.stream().map(Object::toString).collect(Collectors.toList());
+            } else if ( domain!=null && !(nullable && isMatchingNull()) ) {
+                result = domain.stream().filter(this::matches).collect(Collectors.toList());
+            }
+            return result==null || result.isEmpty() ? Optional.empty() : Optional.of(result);
+        }
+
+        /**
+         * Return whether this term matches null property values when evaluated by SpEL.
+         */
+        public boolean isMatchingNull() {
+            return operator==TermOperator.NE || operator==TermOperator.LT || operator==TermOperator.LE;
+        }
+
+        private boolean matches(String domainValue) {
+            var literal = values.get(0);
+            int cmp;
+            if ( literal instanceof Number ) {
+                try {
+                    cmp = new BigDecimal(domainValue).compareTo(new BigDecimal(literal.toString()));
+                } catch ( NumberFormatException e ) {
+                    return false;
+                }
+            } else {
+                cmp = domainValue.compareTo(literal.toString());
+            }
+            switch (operator) {
+            case NE: return cmp!=0;
+            case GT: return cmp>0;
+            case GE: return cmp>=0;
+            case LT: return cmp<0;
+            case LE: return cmp<=0;
+            default: return cmp==0;
+            }
+        }
+    }
+
+    private final class ServerSideQueryPlanSpelNodeVisitor extends AbstractSpelNodeVisitor {
+        public ServerSideQueryPlanSpelNodeVisitor(Expression expression) {
+            super(expression);
+        }
+
+        @Override
+        protected void visit(SpelNode node) {
+            if ( node instanceof OpAnd ) {
+                visitChildren(node);
+            } else {
+                var term = term(node);
+                if ( term.isPresent() ) {
+                    terms.add(term.get());
+                } else {
+                    residualExpressions.add(node.toStringAST());
+                }
+            }
+        }
+
+        private Optional<Term> term(SpelNode node) {
+            if ( node instanceof OpEQ ) { return comparison((Operator)node, TermOperator.EQ, TermOperator.EQ); }
+            if ( node instanceof OpNE ) { return comparison((Operator)node, TermOperator.NE, TermOperator.NE); }
+            if ( node instanceof OpGT ) { return comparison((Operator)node, TermOperator.GT, TermOperator.LT); }
+            if ( node instanceof OpGE ) { return comparison((Operator)node, TermOperator.GE, TermOperator.LE); }
+            if ( node instanceof OpLT ) { return comparison((Operator)node, TermOperator.LT, TermOperator.GT); }
+            if ( node instanceof OpLE ) { return comparison((Operator)node, TermOperator.LE, TermOperator.GE); }
+            if ( node instanceof OpOr ) { return or((OpOr)node); }
+            if ( node instanceof OperatorMatches ) { return matches((OperatorMatches)node); }
+            if ( node instanceof CompoundExpression ) { return inlineListContains((CompoundExpression)node); }
+            return Optional.empty();
+        }
+
+        /**
+         * Convert the given comparison into a {@link Term}, using the given
+         * reverse operator if the literal is the left operand.
+         */
+        private Optional<Term> comparison(Operator node, TermOperator operator, TermOperator reverseOperator) {
+            var leftProperty = SpelNodeHelper.qualifiedPropertyName(node.getLeftOperand());
+            var rightProperty = SpelNodeHelper.qualifiedPropertyName(node.getRightOperand());
+            var leftValue = literalValue(node.getLeftOperand());
+            var rightValue = literalValue(node.getRightOperand());
+            if ( leftProperty.isPresent() && rightValue.isPresent() ) {
+                return Optional.of(new Term(leftProperty.get(), operator, List.of(rightValue.get())));
+            } else if ( rightProperty.isPresent() && leftValue.isPresent() ) {
+                return Optional.of(new Term(rightProperty.get(), reverseOperator, List.of(leftValue.get())));
+            }
+            return Optional.empty();
+        }
+
+        /**
+         * Convert the given {@link OpOr} node into an {@link TermOperator#IN} term
+         * if both operands represent equality terms on the same property.
+         */
+        private Optional<Term> or(OpOr node) {
+            var left = term(node.getLeftOperand()).filter(this::isEqualityTerm).orElse(null);
+            var right = term(node.getRightOperand()).filter(this::isEqualityTerm).orElse(null);
+            if ( left==null || right==null || !left.propertyPath().equals(right.propertyPath()) ) {
+                return Optional.empty();
+            }
+            var values = new LinkedHashSet<Object>(left.values());
+            values.addAll(right.values());
+            return Optional.of(new Term(left.propertyPath(), TermOperator.IN, new ArrayList<>(values)));
+        }
+
+        private Optional<Term> matches(OperatorMatches node) {
+            var propertyName = SpelNodeHelper.qualifiedPropertyName(node.getLeftOperand()).orElse(null);
+            var regex = literalValue(node.getRightOperand()).map(Object::toString).orElse(null);
+            if ( propertyName==null || regex==null || SPECIAL_REGEX_CHAR_PATTERN.matcher(regex).find() 
+                    || ESCAPED_ALTERNATION_PATTERN.matcher(regex).find() ) {
+                return Optional.empty();
+            }
+            List<Object> values = Arrays.asList((Object[])regex.replaceAll("\\\\", "").split("\\|", -1));
+            // Empty alternatives match empty property values, which can't be expressed server-side
+            if ( values.stream().anyMatch(v->v.toString().isEmpty()) ) {
+                return Optional.empty();
+            }
+            return Optional.of(new Term(propertyName, TermOperator.IN, values));
+        }
+
+        private Optional<Term> inlineListContains(CompoundExpression node) {
+            if ( node.getChildCount()==2 ) {
+                var inlineList = JavaHelper.as(node.getChild(0), InlineList.class).orElse(null);
+                var methodReference = JavaHelper.as(node.getChild(1), MethodReference.class).orElse(null);
+                if ( inlineList!=null && methodReference!=null
+                        && methodReference.getName().equals("contains") && methodReference.getChildCount()==1 ) {
+                    var propertyName = SpelNodeHelper.qualifiedPropertyName(methodReference.getChild(0));
+                    var values = SpelNodeHelper.childrenStream(inlineList).map(this::literalValue).collect(Collectors.toList());
+                    if ( propertyName.isPresent() && values.stream().allMatch(Optional::isPresent) ) {
+                        return Optional.of(new Term(propertyName.get(), TermOperator.IN,
+                                values.stream().map(Optional::get).collect(Collectors.toList())));
+                    }
+                }
+            }
+            return Optional.empty();
+        }
+
+        private boolean isEqualityTerm(Term term) {
+            return term.operator()==TermOperator.EQ || term.operator()==TermOperator.IN;
+        }
+
+        /**
+         * Return the literal value for the given node, or an empty optional
+         * if the given node is not a {@link Literal} or represents a null literal.
+         */
+        private Optional<Object> literalValue(SpelNode node) {
+            return JavaHelper.as(node, Literal.class)
+                    .map(l->l.getLiteralValue().getValue());
+        }
+    }
+}
@@ -20,6 +20,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.rest.unirest.config.UnirestMetricsConfigurer;
 
 import kong.unirest.Unirest;
 import kong.unirest.UnirestInstance;
@@ -37,6 +38,8 @@ public final class GenericUnirestFactory {
     public static final UnirestInstance createUnirestInstance() {
         UnirestInstance instance = Unirest.spawnInstance();
         instance.config().setObjectMapper(new JacksonObjectMapper(JsonHelper.getObjectMapper()));
+        UnirestMetricsConfigurer.configure(instance);
+        StreamingMultipartUploadHelper.configure(instance);
         return instance;
     }
     
@@ -57,7 +60,7 @@ public final class GenericUnirestFactory {
      * method.
      * @return
      */
-    public static final UnirestInstance getUnirestInstance(String key, Consumer<UnirestInstance> configurer) {
+    public static final synchronized UnirestInstance getUnirestInstance(String key, Consumer<UnirestInstance> configurer) {
         UnirestInstance instance = instances.get(key);
         if ( instance==null ) {
             instance = createUnirestInstance();
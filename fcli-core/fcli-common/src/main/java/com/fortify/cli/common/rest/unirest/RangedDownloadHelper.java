@@ -0,0 +1,495 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.rest.unirest;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.util.EnvHelper;
+import com.fortify.cli.common.util.StringUtils;
+
+import kong.unirest.HttpRequest;
+import kong.unirest.ProgressMonitor;
+import kong.unirest.RawResponse;
+import kong.unirest.UnirestException;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+
+/**
+ * This class downloads a file using HTTP Range requests if supported by the server,
+ * falling back to a regular single-stream download if not. For ranged downloads,
+ * the file is split into up to {@link #maxSegments} segments that are downloaded in
+ * parallel and written directly to their position in a partial download file. Download
+ * progress is recorded in a state file next to the partial download file, allowing
+ * failed segment requests to be retried and interrupted downloads to be resumed by a
+ * subsequent invocation for the same destination file, provided that the remote file
+ * didn't change in the meantime. Upon completion, the length of the partial download
+ * file is verified before it's moved to the destination file.<br/>
+ * <br/>
+ * As a single download may result in multiple requests, this class takes a supplier
+ * for new, fully configured requests rather than a single request instance. The default
+ * maximum number of segments can be configured through the FCLI_DOWNLOAD_SEGMENTS
+ * environment variable.<br/>
+ * <br/>
+ * An optional {@link #contentListener} can be configured to process the downloaded
+ * contents while downloading, for example to calculate a digest or signature without
+ * having to read the downloaded file again afterwards. The content listener is always
+ * invoked in content order, from the thread that made the next contiguous block of 
+ * contents available; for ranged downloads, this block is read back from the partial
+ * download file, which should usually still be available in the file system cache.
+ */
+@Builder
+public final class RangedDownloadHelper {
+    private static final Logger LOG = LoggerFactory.getLogger(RangedDownloadHelper.class);
+    private static final Pattern CONTENT_RANGE_PATTERN = Pattern.compile("bytes\\s+\\d+-\\d+/(\\d+)");
+    private static final int DEFAULT_MAX_SEGMENTS = 4;
+    private static final long MIN_SEGMENT_SIZE = 4L*1024*1024;
+    private static final long STATE_SAVE_INTERVAL = 1024L*1024;
+    private static final int BUFFER_SIZE = 64*1024;
+    private static final int MAX_ATTEMPTS = 3;
+    /** Supplier for new download requests, invoked for every (partial) request */
+    private final Supplier<? extends HttpRequest<?>> requestSupplier;
+    /** Optional progress monitor */
+    private final ProgressMonitor progressMonitor;
+    @Builder.Default private final int maxSegments = getDefaultMaxSegments();
+    /** Optional listener for processing downloaded contents, invoked in content order */
+    private final Consumer<ByteBuffer> contentListener;
+
+    /**
+     * Download the file to the given destination. If the initial response doesn't
+     * have a 200 or 206 status code, for example 202 to indicate that the file isn't
+     * available yet, nothing is written and the status code is returned to allow
+     * the caller to retry later.
+     * @return HTTP status code of the initial response
+     */
+    @SneakyThrows
+    public final int download(File dest) {
+        var target = new DownloadTarget(dest.getAbsoluteFile().toPath());
+        ProbeResult probe;
+        try {
+            probe = execute(newRequest().headerReplace("Range", "bytes=0-0"), raw->probe(raw, target));
+        } catch ( UnexpectedHttpResponseException e ) {
+            // Some servers return 416 for ranged requests on an empty file
+            if ( e.getStatus()!=416 ) { throw e; }
+            probe = new ProbeResult(execute(newRequest(), raw->streamFull(raw, target)), -1, null);
+        }
+        if ( probe.status()==206 ) {
+            if ( probe.total()<0 ) {
+                // Unknown total length, so we can't determine segments
+                execute(newRequest(), raw->streamFull(raw, target));
+            } else {
+                new RangedDownload(target, probe.total(), probe.validator()).download();
+            }
+        }
+        if ( probe.status()==200 || probe.status()==206 ) { target.complete(); }
+        return probe.status();
+    }
+
+    /**
+     * Convenience method for downloading a file using the given request supplier
+     * and progress monitor.
+     */
+    public static final File download(Supplier<? extends HttpRequest<?>> requestSupplier, ProgressMonitor progressMonitor, File dest) {
+        builder().requestSupplier(requestSupplier).progressMonitor(progressMonitor).build().download(dest);
+        return dest;
+    }
+
+    private final HttpRequest<?> newRequest() {
+        // Ranges apply to the encoded representation, so we explicitly request
+        // the unencoded representation to allow ranges to be combined.
+        return requestSupplier.get().headerReplace("Accept-Encoding", "identity");
+    }
+
+    private final ProbeResult probe(RawResponse raw, DownloadTarget target) throws IOException {
+        var status = raw.getStatus();
+        if ( status==200 ) {
+            // Server doesn't support ranges and returned full contents, so we just
+            // use this response rather than requesting the full contents again.
+            streamFull(raw, target);
+        } else if ( status==206 ) {
+            var matcher = CONTENT_RANGE_PATTERN.matcher(Objects.toString(raw.getHeaders().getFirst("Content-Range"), ""));
+            var total = matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+            var validator = raw.getHeaders().getFirst("ETag");
+            if ( StringUtils.isBlank(validator) ) { validator = raw.getHeaders().getFirst("Last-Modified"); }
+            return new ProbeResult(status, total, StringUtils.isBlank(validator) ? null : validator);
+        }
+        return new ProbeResult(status, -1, null);
+    }
+
+    private final int streamFull(RawResponse raw, DownloadTarget target) throws IOException {
+        var status = raw.getStatus();
+        if ( status==200 ) {
+            target.reset();
+            long total = parseLong(raw.getHeaders().getFirst("Content-Length"));
+            try ( var channel = FileChannel.open(target.getPartFile(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                  var is = raw.getContent() ) {
+                var progress = new AtomicLong();
+                var feeder = new ContentFeeder(channel, progress::get);
+                copy(is, channel, 0, Long.MAX_VALUE, n->{
+                    updateProgress(target, progress.addAndGet(n), total);
+                    feeder.advance();
+                });
+            }
+            if ( total>=0 ) { target.verifyLength(total); }
+        }
+        return status;
+    }
+
+    private final void updateProgress(DownloadTarget target, long bytesWritten, long totalBytes) {
+        if ( progressMonitor!=null ) {
+            progressMonitor.accept("file", target.getDest().getFileName().toString(), bytesWritten, totalBytes);
+        }
+    }
+
+    /**
+     * Copy at most the given number of bytes from the given input stream to the given
+     * channel, starting at the given position. If the input stream provides more data
+     * than the given limit, an exception is thrown without writing the excess data,
+     * to avoid overwriting data beyond the given limit.
+     */
+    private static final long copy(InputStream is, FileChannel channel, long position, long limit, IBytesWrittenListener listener) throws IOException {
+        var buffer = new byte[BUFFER_SIZE];
+        long written = 0;
+        int read;
+        while ( (read=is.read(buffer, 0, (int)Math.min(buffer.length, Math.max(1, limit-written))))!=-1 ) {
+            if ( written+read>limit ) {
+                throw new IllegalStateException("Server returned more data than requested");
+            }
+            var bb = ByteBuffer.wrap(buffer, 0, read);
+            while ( bb.hasRemaining() ) {
+                written += channel.write(bb, position+written);
+            }
+            listener.bytesWritten(read);
+        }
+        return written;
+    }
+
+    /**
+     * Execute the given request, passing the raw response to the given handler.
+     * Unirest would wrap any exceptions thrown by the handler in an error response
+     * or {@link UnirestException}, so we capture such exceptions and rethrow them
+     * as-is after the request has completed.
+     */
+    private static final <T> T execute(HttpRequest<?> request, IRawResponseHandler<T> handler) throws Exception {
+        var exception = new Exception[1];
+        var result = request.asObject(raw->{
+            try {
+                return handler.handle(raw);
+            } catch ( Exception e ) {
+                exception[0] = e;
+                return null;
+            }
+        }).getBody();
+        if ( exception[0]!=null ) { throw exception[0]; }
+        return result;
+    }
+
+    private static final int getDefaultMaxSegments() {
+        try {
+            var value = Integer.parseInt(EnvHelper.envOrDefault("FCLI_DOWNLOAD_SEGMENTS", ()->String.valueOf(DEFAULT_MAX_SEGMENTS)));
+            return Math.max(1, value);
+        } catch ( NumberFormatException e ) {
+            return DEFAULT_MAX_SEGMENTS;
+        }
+    }
+
+    private static final long parseLong(String s) {
+        try {
+            return StringUtils.isBlank(s) ? -1 : Long.parseLong(s.trim());
+        } catch ( NumberFormatException e ) {
+            return -1;
+        }
+    }
+
+    private static record ProbeResult(int status, long total, String validator) {}
+
+    @FunctionalInterface
+    private static interface IRawResponseHandler<T> {
+        T handle(RawResponse raw) throws Exception;
+    }
+
+    @FunctionalInterface
+    private static interface IBytesWrittenListener {
+        void bytesWritten(long count) throws IOException;
+    }
+
+    /**
+     * This class feeds contents to the configured {@link #contentListener} in
+     * content order, reading the contents that have become available since the
+     * previous invocation from the given channel. Available contents are 
+     * determined by the given supplier, which should return the length of the
+     * contiguous block of contents that has been written starting at position 0. 
+     */
+    @RequiredArgsConstructor
+    private final class ContentFeeder {
+        private final FileChannel channel;
+        private final LongSupplier contiguousLengthSupplier;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private long fed = 0;
+
+        final synchronized void advance() throws IOException {
+            if ( contentListener==null ) { return; }
+            long available;
+            while ( (available=contiguousLengthSupplier.getAsLong()-fed)>0 ) {
+                buffer.clear().limit((int)Math.min(buffer.capacity(), available));
+                int read = channel.read(buffer, fed);
+                if ( read<=0 ) { break; }
+                buffer.flip();
+                contentListener.accept(buffer.asReadOnlyBuffer());
+                fed += read;
+            }
+        }
+    }
+
+    /**
+     * This class manages the files associated with a single download destination;
+     * the partial download file, the state file, and the destination file itself.
+     */
+    @RequiredArgsConstructor
+    private static final class DownloadTarget {
+        @Getter private final Path dest;
+
+        final Path getPartFile() { return dest.resolveSibling(dest.getFileName()+".part"); }
+        final Path getStateFile() { return dest.resolveSibling(dest.getFileName()+".part.json"); }
+
+        final void reset() throws IOException {
+            Files.deleteIfExists(getStateFile());
+            Files.deleteIfExists(getPartFile());
+        }
+
+        final void verifyLength(long expectedLength) throws IOException {
+            var actualLength = Files.size(getPartFile());
+            if ( actualLength!=expectedLength ) {
+                throw new IllegalStateException(String.format("Downloaded file size (%d bytes) doesn't match expected size (%d bytes)", actualLength, expectedLength));
+            }
+        }
+
+        final void complete() throws IOException {
+            var partFile = getPartFile();
+            if ( !Files.exists(partFile) ) { Files.createFile(partFile); }
+            try {
+                Files.move(partFile, dest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch ( AtomicMoveNotSupportedException e ) {
+                Files.move(partFile, dest, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.deleteIfExists(getStateFile());
+        }
+    }
+
+    /**
+     * This class performs a ranged download for a single {@link DownloadTarget},
+     * based on the total length and validator (ETag or Last-Modified header)
+     * returned by the initial ranged request.
+     */
+    private final class RangedDownload {
+        private final DownloadTarget target;
+        private final long total;
+        private final String validator;
+        private final List<Segment> segments;
+        private final AtomicLong progress;
+        private volatile FileChannel channel;
+
+        RangedDownload(DownloadTarget target, long total, String validator) throws IOException {
+            this.target = target;
+            this.total = total;
+            this.validator = validator;
+            this.segments = loadOrCreateSegments();
+            this.progress = new AtomicLong(segments.stream().mapToLong(s->s.done).sum());
+        }
+
+        final void download() throws Exception {
+            try ( var channel = FileChannel.open(target.getPartFile(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE) ) {
+                this.channel = channel;
+                try {
+                    var feeder = new ContentFeeder(channel, this::getContiguousLength);
+                    var pending = segments.stream().filter(s->!s.isComplete()).toList();
+                    if ( pending.size()<=1 ) {
+                        for ( var segment : pending ) { downloadSegment(channel, feeder, segment); }
+                    } else {
+                        downloadSegments(channel, feeder, pending);
+                    }
+                    // Feed any contents downloaded by a previous, interrupted download
+                    feeder.advance();
+                } finally {
+                    saveState();
+                }
+            }
+            target.verifyLength(total);
+        }
+
+        private final long getContiguousLength() {
+            long result = 0;
+            for ( var segment : segments ) {
+                result += segment.done;
+                if ( !segment.isComplete() ) { break; }
+            }
+            return result;
+        }
+
+        private final void downloadSegments(FileChannel channel, ContentFeeder feeder, List<Segment> pending) throws Exception {
+            var executor = Executors.newFixedThreadPool(pending.size());
+            try {
+                var futures = new ArrayList<Future<?>>();
+                for ( var segment : pending ) {
+                    futures.add(executor.submit(()->{ downloadSegment(channel, feeder, segment); return null; }));
+                }
+                for ( var future : futures ) {
+                    try {
+                        future.get();
+                    } catch ( ExecutionException e ) {
+                        throw e.getCause() instanceof Exception ? (Exception)e.getCause() : e;
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        private final void downloadSegment(FileChannel channel, ContentFeeder feeder, Segment segment) throws Exception {
+            for ( int attempt=1; !segment.isComplete(); attempt++ ) {
+                try {
+                    var range = String.format("bytes=%d-%d", segment.start+segment.done, segment.end);
+                    execute(newRequest().headerReplace("Range", range), raw->writeSegment(raw, channel, feeder, segment));
+                } catch ( IOException | UnirestException e ) {
+                    if ( attempt>=MAX_ATTEMPTS ) { throw e; }
+                    LOG.debug("Error downloading segment, retrying", e);
+                    saveState();
+                    Thread.sleep(1000L*attempt);
+                }
+            }
+            saveState();
+        }
+
+        private final Void writeSegment(RawResponse raw, FileChannel channel, ContentFeeder feeder, Segment segment) throws IOException {
+            if ( raw.getStatus()!=206 ) {
+                throw new IllegalStateException("Server returned unexpected status for ranged request: "+raw.getStatus());
+            }
+            var unsaved = new AtomicLong();
+            try ( var is = raw.getContent() ) {
+                copy(is, channel, segment.start+segment.done, segment.length()-segment.done, n->{
+                    segment.done += n;
+                    updateProgress(target, progress.addAndGet(n), total);
+                    feeder.advance();
+                    if ( unsaved.addAndGet(n)>=STATE_SAVE_INTERVAL ) {
+                        unsaved.set(0);
+                        saveState();
+                    }
+                });
+            }
+            if ( !segment.isComplete() ) {
+                throw new IOException("Incomplete response for ranged request");
+            }
+            return null;
+        }
+
+        private final List<Segment> loadOrCreateSegments() throws IOException {
+            var result = loadSegments();
+            if ( result==null ) {
+                target.reset();
+                result = new ArrayList<>();
+                int count = (int)Math.max(1, Math.min(maxSegments, (total+MIN_SEGMENT_SIZE-1)/MIN_SEGMENT_SIZE));
+                long segmentSize = (total+count-1)/count;
+                for ( long start=0; start<total; start+=segmentSize ) {
+                    result.add(new Segment(start, Math.min(total, start+segmentSize)-1));
+                }
+            }
+            return result;
+        }
+
+        private final List<Segment> loadSegments() {
+            var stateFile = target.getStateFile().toFile();
+            if ( validator==null || !stateFile.isFile() || !Files.exists(target.getPartFile()) ) { return null; }
+            try {
+                var state = JsonHelper.getObjectMapper().readValue(stateFile, ObjectNode.class);
+                if ( state.path("total").asLong()!=total || !validator.equals(state.path("validator").asText()) ) {
+                    return null;
+                }
+                var result = new ArrayList<Segment>();
+                state.withArray("segments").forEach(s->{
+                    var segment = new Segment(s.path("start").asLong(), s.path("end").asLong());
+                    segment.done = s.path("done").asLong();
+                    result.add(segment);
+                });
+                LOG.debug("Resuming download of {} from {}", target.getDest(), stateFile);
+                return result;
+            } catch ( Exception e ) {
+                LOG.debug("Ignoring invalid download state file "+stateFile, e);
+                return null;
+            }
+        }
+
+        private final synchronized void saveState() {
+            // Without validator, we can't reliably determine whether a partial
+            // download can be resumed, so we don't store any state.
+            if ( validator==null ) { return; }
+            try {
+                // Make sure that all data accounted for in the state file has actually
+                // been written to disk before saving the state file.
+                var channel = this.channel;
+                if ( channel!=null && channel.isOpen() ) { channel.force(false); }
+                var state = JsonHelper.getObjectMapper().createObjectNode();
+                state.put("total", total);
+                state.put("validator", validator);
+                var segmentsArray = state.putArray("segments");
+                segments.forEach(s->segmentsArray.addObject()
+                        .put("start", s.start)
+                        .put("end", s.end)
+                        .put("done", s.done));
+                JsonHelper.getObjectMapper().writeValue(target.getStateFile().toFile(), state);
+            } catch ( Exception e ) {
+                LOG.debug("Error saving download state file "+target.getStateFile(), e);
+            }
+        }
+    }
+
+    /**
+     * Single download segment; start and end are inclusive as in HTTP Range headers.
+     * Segment state is only updated by the thread downloading the segment, but may be
+     * read by other threads when saving download state.
+     */
+    @RequiredArgsConstructor
+    private static final class Segment {
+        private final long start;
+        private final long end;
+        private volatile long done;
+
+        final long length() { return end-start+1; }
+        final boolean isComplete() { return done>=length(); }
+    }
+}
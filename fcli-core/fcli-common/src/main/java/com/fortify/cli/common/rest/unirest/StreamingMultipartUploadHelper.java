@@ -0,0 +1,230 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.rest.unirest;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.protocol.HttpContext;
+
+import kong.unirest.HttpRequest;
+import kong.unirest.HttpRequestWithBody;
+import kong.unirest.ProgressMonitor;
+import kong.unirest.RequestBodyEntity;
+import kong.unirest.UnirestInstance;
+import lombok.Builder;
+
+/**
+ * This class uploads a single file as a multipart/form-data request. Unirest
+ * multipart requests copy file contents in 4KB blocks, invoking the progress
+ * monitor for every block, and don't allow for processing the contents while
+ * uploading. Instead, this class writes the multipart body through a custom
+ * entity that reads the file through a {@link FileChannel} into a single
+ * {@value #BUFFER_SIZE}-byte buffer, passes every buffer to the optional
+ * {@link #contentListener}, for example to calculate a checksum, and records
+ * the number of bytes written in an atomic counter that can be polled through
+ * {@link #getBytesWritten()}. The optional progress monitor is invoked at most
+ * every {@value #PROGRESS_INTERVAL_MILLIS} ms, and upon completion. As the
+ * entity length is known up front, requests are sent with a Content-Length
+ * header rather than using chunked transfer encoding.<br/>
+ * <br/>
+ * As Unirest doesn't support custom request entities, upload requests are
+ * marked with a header identifying the upload, and an Apache HttpClient
+ * request interceptor registered through {@link #configure(UnirestInstance)}
+ * replaces the request entity. Note that Apache HttpClient only exposes the
+ * connection as an {@link OutputStream}, so file contents can't be transferred
+ * to the socket directly using {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)}.
+ * As Unirest only sees an empty placeholder body, Unirest interceptors can
+ * use {@link #getContentLength(HttpRequest)} to get the actual request size.
+ */
+@Builder
+public final class StreamingMultipartUploadHelper {
+    private static final String UPLOAD_ID_HEADER = "X-Fcli-Upload-Id";
+    private static final ConcurrentMap<String, StreamingMultipartEntity> PENDING_ENTITIES = new ConcurrentHashMap<>();
+    private static final int BUFFER_SIZE = 256*1024;
+    private static final long PROGRESS_INTERVAL_MILLIS = 200;
+    /** File to be uploaded */
+    private final File file;
+    /** Name of the multipart form field, defaults to 'file' */
+    @Builder.Default private final String fieldName = "file";
+    /** Optional progress monitor */
+    private final ProgressMonitor progressMonitor;
+    /** Optional listener for processing uploaded contents, invoked in content order */
+    private final Consumer<ByteBuffer> contentListener;
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    /**
+     * Register the request interceptor that handles streaming uploads on the
+     * given {@link UnirestInstance}. This needs to be invoked before the first
+     * request is made on the given instance.
+     */
+    public static final void configure(UnirestInstance unirest) {
+        unirest.config().addInterceptor(StreamingMultipartUploadHelper::replaceEntity);
+    }
+
+    /**
+     * Upload the file using the given request, passing the request with
+     * multipart body to the given function for execution.
+     */
+    public final <R> R upload(HttpRequestWithBody request, Function<RequestBodyEntity, R> executor) {
+        var entity = new StreamingMultipartEntity();
+        var uploadId = UUID.randomUUID().toString();
+        PENDING_ENTITIES.put(uploadId, entity);
+        try {
+            var result = executor.apply(request
+                    .header(UPLOAD_ID_HEADER, uploadId)
+                    .headerReplace("Content-Type", entity.getContentType().getValue())
+                    .body(new byte[0]));
+            if ( PENDING_ENTITIES.containsKey(uploadId) ) {
+                throw new IllegalStateException("Streaming uploads not configured on Unirest instance, file not uploaded: "+file);
+            }
+            return result;
+        } finally {
+            PENDING_ENTITIES.remove(uploadId);
+        }
+    }
+
+    /**
+     * Convenience method for uploading the given file as 'file' form field,
+     * using the given request, progress monitor and executor function.
+     */
+    public static final <R> R upload(HttpRequestWithBody request, File file, ProgressMonitor progressMonitor, Function<RequestBodyEntity, R> executor) {
+        return builder().file(file).progressMonitor(progressMonitor).build().upload(request, executor);
+    }
+
+    /**
+     * @return Number of file bytes written by the current or last upload
+     */
+    public final long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    /**
+     * @return Content length of the multipart body that will be sent for the
+     *         given streaming upload request, or -1 if the given request isn't
+     *         a pending streaming upload request
+     */
+    public static final long getContentLength(HttpRequest<?> request) {
+        var uploadId = request.getHeaders().getFirst(UPLOAD_ID_HEADER);
+        var entity = uploadId.isBlank() ? null : PENDING_ENTITIES.get(uploadId);
+        return entity==null ? -1 : entity.getContentLength();
+    }
+
+    private static final void replaceEntity(org.apache.http.HttpRequest request, HttpContext context) {
+        var header = request.getFirstHeader(UPLOAD_ID_HEADER);
+        if ( header!=null ) {
+            request.removeHeaders(UPLOAD_ID_HEADER);
+            var entity = PENDING_ENTITIES.remove(header.getValue());
+            if ( entity!=null && request instanceof HttpEntityEnclosingRequest ) {
+                ((HttpEntityEnclosingRequest)request).setEntity(entity);
+            }
+        }
+    }
+
+    /**
+     * Repeatable entity that writes the multipart body, consisting of a single
+     * file part, to the output stream provided by Apache HttpClient.
+     */
+    private final class StreamingMultipartEntity extends AbstractHttpEntity {
+        private final long fileLength = file.length();
+        private final byte[] header;
+        private final byte[] trailer;
+        private long lastProgressNanos;
+
+        private StreamingMultipartEntity() {
+            var boundary = UUID.randomUUID().toString().replace("-", "");
+            setContentType("multipart/form-data; boundary="+boundary);
+            this.header = String.format("--%s\r\nContent-Disposition: form-data; name=\"%s\"; filename=\"%s\"\r\nContent-Type: application/octet-stream\r\n\r\n",
+                    boundary, fieldName, file.getName().replace("\"", "%22")).getBytes(StandardCharsets.UTF_8);
+            this.trailer = String.format("\r\n--%s--\r\n", boundary).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public long getContentLength() {
+            return header.length+fileLength+trailer.length;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new SequenceInputStream(Collections.enumeration(List.of(
+                    new ByteArrayInputStream(header),
+                    Files.newInputStream(file.toPath()),
+                    new ByteArrayInputStream(trailer))));
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            bytesWritten.set(0);
+            lastProgressNanos = System.nanoTime();
+            out.write(header);
+            try ( var channel = FileChannel.open(file.toPath(), StandardOpenOption.READ) ) {
+                var buffer = ByteBuffer.allocate((int)Math.max(1, Math.min(BUFFER_SIZE, fileLength)));
+                long remaining = fileLength;
+                while ( remaining>0 ) {
+                    buffer.clear().limit((int)Math.min(buffer.capacity(), remaining));
+                    while ( buffer.hasRemaining() ) {
+                        if ( channel.read(buffer)<0 ) { throw new IOException("File was truncated during upload: "+file); }
+                    }
+                    buffer.flip();
+                    out.write(buffer.array(), 0, buffer.limit());
+                    if ( contentListener!=null ) { contentListener.accept(buffer); }
+                    remaining -= buffer.limit();
+                    updateProgress(fileLength-remaining, remaining==0);
+                }
+            }
+            out.write(trailer);
+            out.flush();
+        }
+
+        private void updateProgress(long written, boolean force) {
+            bytesWritten.set(written);
+            if ( progressMonitor!=null ) {
+                var now = System.nanoTime();
+                if ( force || now-lastProgressNanos>=TimeUnit.MILLISECONDS.toNanos(PROGRESS_INTERVAL_MILLIS) ) {
+                    lastProgressNanos = now;
+                    progressMonitor.accept(fieldName, file.getName(), written, fileLength);
+                }
+            }
+        }
+    }
+}
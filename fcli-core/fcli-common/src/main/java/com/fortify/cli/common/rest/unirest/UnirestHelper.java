@@ -13,7 +13,8 @@
 package com.fortify.cli.common.rest.unirest;
 
 import java.io.File;
-import java.nio.file.StandardCopyOption;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
 
 import com.fortify.cli.common.http.proxy.helper.ProxyHelper;
 
@@ -22,8 +23,19 @@ import com.fortify.cli.common.http.proxy.helper.ProxyHelper;
  */
 public class UnirestHelper {
     public static final File download(String fcliModule, String url, File dest) {
-        GenericUnirestFactory.getUnirestInstance(fcliModule, u->ProxyHelper.configureProxy(u, fcliModule, url))
-                .get(url).asFile(dest.getAbsolutePath(), StandardCopyOption.REPLACE_EXISTING).getBody();
+        return download(fcliModule, url, dest, null);
+    }
+    
+    /**
+     * Download the given URL to the given destination file, passing the downloaded
+     * contents to the given (optional) content listener while downloading.
+     */
+    public static final File download(String fcliModule, String url, File dest, Consumer<ByteBuffer> contentListener) {
+        var unirest = GenericUnirestFactory.getUnirestInstance(fcliModule, u->ProxyHelper.configureProxy(u, fcliModule, url));
+        RangedDownloadHelper.builder()
+            .requestSupplier(()->unirest.get(url))
+            .contentListener(contentListener)
+            .build().download(dest);
         return dest;
     }
 }
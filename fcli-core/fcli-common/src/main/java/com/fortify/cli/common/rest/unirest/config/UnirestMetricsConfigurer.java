@@ -0,0 +1,110 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.rest.unirest.config;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import com.fortify.cli.common.metrics.helper.FcliMetricsHelper;
+import com.fortify.cli.common.rest.unirest.StreamingMultipartUploadHelper;
+
+import kong.unirest.Body;
+import kong.unirest.BodyPart;
+import kong.unirest.Config;
+import kong.unirest.HttpRequest;
+import kong.unirest.HttpRequestSummary;
+import kong.unirest.HttpResponse;
+import kong.unirest.Interceptor;
+import kong.unirest.UnirestException;
+import kong.unirest.UnirestInstance;
+
+/**
+ * This class allows for registering an {@link Interceptor} that records
+ * request metrics through {@link FcliMetricsHelper}, if metrics collection
+ * is enabled. Bytes in are based on the Content-Length response header if
+ * available, or the size of String or byte[] response bodies; bytes out are
+ * based on the size of String, byte[] and File request body parts, or the
+ * multipart body size for {@link StreamingMultipartUploadHelper} uploads.
+ */
+public class UnirestMetricsConfigurer {
+    public static final void configure(UnirestInstance unirestInstance) {
+        if ( FcliMetricsHelper.isEnabled() ) {
+            unirestInstance.config().interceptor(MetricsInterceptor.INSTANCE);
+        }
+    }
+    
+    private static final class MetricsInterceptor implements Interceptor {
+        private static final MetricsInterceptor INSTANCE = new MetricsInterceptor();
+        // Requests are executed synchronously, so we can track request start
+        // time and size per thread.
+        private final ThreadLocal<long[]> startAndBytesOut = new ThreadLocal<>();
+        
+        @Override
+        public void onRequest(HttpRequest<?> request, Config config) {
+            startAndBytesOut.set(new long[] {System.nanoTime(), getSize(request)});
+        }
+        
+        @Override
+        public void onResponse(HttpResponse<?> response, HttpRequestSummary requestSummary, Config config) {
+            record(requestSummary, response.getStatus(), getSize(response));
+        }
+        
+        @Override
+        public HttpResponse<?> onFail(Exception e, HttpRequestSummary requestSummary, Config config) throws UnirestException {
+            record(requestSummary, -1, -1);
+            throw (e instanceof UnirestException) ? (UnirestException)e : new UnirestException(e); 
+        }
+        
+        private void record(HttpRequestSummary requestSummary, int status, long bytesIn) {
+            var data = startAndBytesOut.get();
+            startAndBytesOut.remove();
+            if ( data!=null ) {
+                FcliMetricsHelper.recordRequest(requestSummary.getHttpMethod().name(), requestSummary.getUrl(), 
+                        status, System.nanoTime()-data[0], data[1], bytesIn);
+            }
+        }
+        
+        private long getSize(HttpRequest<?> request) {
+            // Streaming uploads use a placeholder body that is replaced by the actual entity later on
+            var streamingContentLength = StreamingMultipartUploadHelper.getContentLength(request);
+            return streamingContentLength>=0 ? streamingContentLength : request.getBody().map(this::getSize).orElse(0L);
+        }
+        
+        private long getSize(Body body) {
+            if ( body.isMultiPart() ) {
+                return body.multiParts().stream().mapToLong(p->Math.max(0, getSize(p))).sum();
+            }
+            return body.uniPart()==null ? 0 : getSize(body.uniPart());
+        }
+        
+        private long getSize(BodyPart<?> part) {
+            return getSize(part.getValue());
+        }
+        
+        private long getSize(HttpResponse<?> response) {
+            var contentLength = response.getHeaders().getFirst("Content-Length");
+            try {
+                return contentLength.isBlank() ? getSize(response.getBody()) : Long.parseLong(contentLength.trim());
+            } catch ( NumberFormatException e ) {
+                return -1;
+            }
+        }
+        
+        private long getSize(Object value) {
+            if ( value instanceof String ) { return ((String)value).getBytes(StandardCharsets.UTF_8).length; }
+            if ( value instanceof byte[] ) { return ((byte[])value).length; }
+            if ( value instanceof File ) { return ((File)value).length(); }
+            return -1;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.metrics.helper.FcliMetricsHelper;
 import com.fortify.cli.common.output.transform.IActionCommandResultSupplier;
 import com.fortify.cli.common.rest.wait.WaitType.AnyOrAll;
 import com.fortify.cli.common.rest.wait.WaitType.LoopType;
@@ -89,6 +90,8 @@ public class WaitHelper {
             boolean continueWait = true;
             while ( timeout.isAfter(OffsetDateTime.now()) && (continueWait = continueWait(recordsWithWaitStatus, anyOrAll)) ) {
                 try {
+                    FcliMetricsHelper.increment("wait.polls");
+                    FcliMetricsHelper.recordMillis("wait.sleep", intervalMillis);
                     Thread.sleep(intervalMillis);
                 } catch (InterruptedException e) {
                     throw new RuntimeException("Wait operation interrupted", e);
@@ -12,8 +12,11 @@
  *******************************************************************************/
 package com.fortify.cli.common.session.cli.mixin;
 
+import java.util.List;
+
 import com.fortify.cli.common.session.helper.ISessionDescriptor;
 import com.fortify.cli.common.session.helper.ISessionDescriptorSupplier;
+import com.fortify.cli.common.session.helper.MultiSessionHelper;
 
 import picocli.CommandLine.Mixin;
 
@@ -24,9 +27,28 @@ public abstract class AbstractSessionDescriptorSupplierMixin<D extends ISessionD
         return getSessionDescriptor(getSessionName());
     }
     
+    /**
+     * Return the session name to be used for the current command. When running in
+     * multi-session mode, this returns the session name for the current thread as
+     * provided by {@link MultiSessionHelper}. If multiple sessions were specified
+     * but the command doesn't support multi-session mode, an exception is thrown.
+     */
     public final String getSessionName() {
+        var currentSessionName = MultiSessionHelper.getCurrentSessionName();
+        if ( currentSessionName!=null ) { return currentSessionName; }
+        if ( !getSessionNames().isEmpty() ) {
+            throw new IllegalArgumentException("Option --sessions is not supported on this command");
+        }
         return sessionNameMixin.getSessionName();
     }
     
+    /**
+     * Return the session names specified through the --sessions option,
+     * or an empty list if this option wasn't specified. 
+     */
+    public final List<String> getSessionNames() {
+        return sessionNameMixin.getSessionNames();
+    }
+    
     protected abstract D getSessionDescriptor(String sessionName);
 }
@@ -12,6 +12,8 @@
  *******************************************************************************/
 package com.fortify.cli.common.session.cli.mixin;
 
+import java.util.List;
+
 import lombok.Getter;
 import picocli.CommandLine.ArgGroup;
 import picocli.CommandLine.Option;
@@ -24,10 +26,15 @@ public class SessionNameMixin {
         static class SessionNameArgGroup {
             @Option(names = {"--session"}, required = true, defaultValue="default")
             private String sessionName;
+            @Option(names = {"--sessions"}, required = false, split = ",")
+            private List<String> sessionNames;
         }
         protected String getSessionName() {
             return nameOptions.sessionName;
         }
+        protected List<String> getSessionNames() {
+            return nameOptions.sessionNames==null ? List.of() : nameOptions.sessionNames;
+        }
     }
     
     public static class OptionalLoginOption {
@@ -0,0 +1,107 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.session.helper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.fortify.cli.common.session.cli.mixin.AbstractSessionDescriptorSupplierMixin;
+import com.fortify.cli.common.util.ConcurrentTasks;
+
+import picocli.CommandLine.Model.CommandSpec;
+
+/**
+ * This class provides functionality for running a command against multiple sessions
+ * concurrently, as specified through the --sessions option. While running an action
+ * for a given session through {@link #runForSessions(List, Consumer)}, the session 
+ * name returned by {@link #getCurrentSessionName()} takes precedence over any session 
+ * name specified on the command line, causing all session-based mixins to use that 
+ * session on the current thread.
+ */
+public final class MultiSessionHelper {
+    private static final int MAX_THREADS = 8;
+    private static final ThreadLocal<String> currentSessionName = new ThreadLocal<>();
+    private MultiSessionHelper() {}
+    
+    /**
+     * Return the name of the session that the current thread is running against,
+     * or null if not running in multi-session mode.
+     */
+    public static final String getCurrentSessionName() {
+        return currentSessionName.get();
+    }
+    
+    /**
+     * Return the value for the current session from the given map, creating it through
+     * the given supplier if not yet present. As command and mixin instances are shared
+     * between session threads in multi-session mode, this allows for lazily creating
+     * any state that must not be shared between sessions, like embedders that cache 
+     * server data. The given map must be thread-safe, for example a ConcurrentHashMap.
+     */
+    public static final <T> T getOrCreateForCurrentSession(Map<String, T> valuesBySessionName, Supplier<T> supplier) {
+        var sessionName = getCurrentSessionName();
+        return valuesBySessionName.computeIfAbsent(sessionName==null ? "" : sessionName, k->supplier.get());
+    }
+    
+    /**
+     * Return the session names specified through the --sessions option on any of
+     * the session-based mixins of the given command, or an empty list if the 
+     * --sessions option wasn't specified.
+     */
+    public static final List<String> getSessionNames(CommandSpec commandSpec) {
+        var result = new ArrayList<String>();
+        addSessionNames(result, commandSpec);
+        return result;
+    }
+    
+    /**
+     * Run the given action concurrently for each of the given session names, with 
+     * {@link #getCurrentSessionName()} returning the applicable session name while
+     * the action is running. This method waits for all actions to complete; if any
+     * of the actions throws an exception, the first exception (in session order) 
+     * is rethrown.
+     */
+    public static final void runForSessions(List<String> sessionNames, Consumer<String> action) {
+        try ( var concurrentTasks = new ConcurrentTasks(Math.max(1, Math.min(MAX_THREADS, sessionNames.size()))) ) {
+            sessionNames.stream()
+                .distinct()
+                .map(sessionName->concurrentTasks.submit(()->run(sessionName, action)))
+                .toList()
+                .forEach(ConcurrentTasks.Task::get);
+        }
+    }
+    
+    private static final Void run(String sessionName, Consumer<String> action) {
+        currentSessionName.set(sessionName);
+        try {
+            action.accept(sessionName);
+            return null;
+        } finally {
+            currentSessionName.remove();
+        }
+    }
+    
+    private static final void addSessionNames(List<String> result, CommandSpec spec) {
+        for ( var mixin : spec.mixins().values() ) {
+            if ( mixin.userObject() instanceof AbstractSessionDescriptorSupplierMixin<?> sessionMixin ) {
+                sessionMixin.getSessionNames().stream()
+                    .filter(name->!result.contains(name))
+                    .forEach(result::add);
+            }
+            addSessionNames(result, mixin);
+        }
+    }
+}
@@ -33,6 +33,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.metrics.helper.FcliMetricsHelper;
 import com.fortify.cli.common.util.StringUtils;
 
 import lombok.RequiredArgsConstructor;
@@ -82,7 +83,9 @@ public enum SpelEvaluator implements ISpelEvaluator {
     }
     
     private static final <R> R evaluate(EvaluationContext context, Expression expression, Object input, Class<R> returnClass) {
-        return unwrapSpelExpressionResult(expression.getValue(context, input, returnClass), returnClass);
+        try ( var timer = FcliMetricsHelper.timer("spel.evaluate") ) {
+            return unwrapSpelExpressionResult(expression.getValue(context, input, returnClass), returnClass);
+        }
     }
     
     @SuppressWarnings("unchecked")
@@ -13,8 +13,12 @@
 package com.fortify.cli.common.spring.expression;
 
 import java.lang.reflect.Method;
+import java.util.Optional;
 
+import org.springframework.expression.common.LiteralExpression;
 import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.ast.Literal;
+import org.springframework.expression.spel.standard.SpelExpression;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.SimpleEvaluationContext;
 
@@ -31,6 +35,20 @@ public final class SpelHelper {
     public static final TemplateExpression parseTemplateExpression(String s) {
         return new TemplateExpression(parser.parseExpression(s, templateContext));
     }
+    /**
+     * Return the constant value of the given template expression string if it consists 
+     * of only literal text, or of a single non-null SpEL literal like ${1} or ${'x'}.
+     * For any other template expressions, an empty optional is returned.
+     */
+    public static final Optional<Object> getTemplateExpressionConstantValue(String s) {
+        var expression = parser.parseExpression(s, templateContext);
+        if ( expression instanceof LiteralExpression ) {
+            return Optional.ofNullable(((LiteralExpression)expression).getValue());
+        } else if ( expression instanceof SpelExpression && ((SpelExpression)expression).getAST() instanceof Literal ) {
+            return Optional.ofNullable(((Literal)((SpelExpression)expression).getAST()).getLiteralValue().getValue());
+        }
+        return Optional.empty();
+    }
     public static final void registerFunctions(SimpleEvaluationContext context, Class<?> clazz) {
         for ( Method m : clazz.getDeclaredMethods() ) {
             context.setVariable(m.getName(), m);
@@ -0,0 +1,112 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.spring.expression;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.expression.Expression;
+import org.springframework.expression.common.CompositeStringExpression;
+import org.springframework.expression.spel.SpelNode;
+import org.springframework.expression.spel.ast.CompoundExpression;
+import org.springframework.expression.spel.ast.MethodReference;
+import org.springframework.expression.spel.ast.PropertyOrFieldReference;
+import org.springframework.expression.spel.ast.VariableReference;
+
+/**
+ * This class collects the names of all root object properties referenced by one
+ * or more SpEL expressions, for example to determine which properties need to be
+ * retrieved from the server for evaluating these expressions. For an expression
+ * like <code>a.b=='x' &amp;&amp; #fn(c)</code>, this would return a and c. If any
+ * of the expressions access the root object in a way that doesn't allow for
+ * determining the properties being accessed, like <code>#root</code>,
+ * <code>#this</code> or method calls on the root object, the
+ * {@link #getRootPropertyNames(Collection)} method returns null.<br/>
+ * <br/>
+ * Note that the returned set may contain property names that are not actually
+ * root properties, for example properties referenced in selection or projection
+ * expressions.
+ */
+public final class SpelRootPropertyNamesCollector {
+    private final Set<String> rootPropertyNames = new LinkedHashSet<>();
+    private boolean unresolvable = false;
+
+    private SpelRootPropertyNamesCollector() {}
+
+    /**
+     * Return the root property names referenced by the given expressions,
+     * or null if these cannot be determined.
+     */
+    public static final Set<String> getRootPropertyNames(Collection<Expression> expressions) {
+        var collector = new SpelRootPropertyNamesCollector();
+        expressions.forEach(e->collector.new Visitor(e).visit());
+        return collector.unresolvable ? null : collector.rootPropertyNames;
+    }
+
+    /**
+     * Return the root property names referenced by the given expression,
+     * or null if these cannot be determined.
+     */
+    public static final Set<String> getRootPropertyNames(Expression expression) {
+        return getRootPropertyNames(Set.of(expression));
+    }
+
+    private final class Visitor extends AbstractSpelNodeVisitor {
+        public Visitor(Expression expression) {
+            super(expression);
+        }
+
+        @Override
+        protected void visit(Expression expression) {
+            if ( expression instanceof CompositeStringExpression ) {
+                Stream.of(((CompositeStringExpression)expression).getExpressions()).forEach(this::visit);
+            } else {
+                super.visit(expression);
+            }
+        }
+
+        @Override
+        protected void visit(SpelNode node) {
+            if ( node instanceof PropertyOrFieldReference ) {
+                rootPropertyNames.add(((PropertyOrFieldReference)node).getName());
+            } else if ( node instanceof VariableReference ) {
+                var name = node.toStringAST();
+                if ( "#root".equals(name) || "#this".equals(name) ) { unresolvable = true; }
+            } else if ( node instanceof MethodReference ) {
+                // Method invoked on root object
+                unresolvable = true;
+            } else if ( node instanceof CompoundExpression ) {
+                visit(node.getChild(0));
+                for ( int i=1 ; i < node.getChildCount() ; i++ ) {
+                    visitChained(node.getChild(i));
+                }
+            } else {
+                visitChildren(node);
+            }
+        }
+
+        /**
+         * Visit a non-first child of a {@link CompoundExpression}; property references
+         * are evaluated against the result of the previous child, so we skip these,
+         * but we do visit any children like method arguments or indexer expressions,
+         * which are evaluated against the root object.
+         */
+        private void visitChained(SpelNode node) {
+            if ( !(node instanceof PropertyOrFieldReference) ) {
+                visitChildren(node);
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fortify.cli.common.util.ConcurrentTasks.Task;
+
+import lombok.SneakyThrows;
+
+/**
+ * This class provides utility methods for batch commands that process multiple
+ * entries listed in a YAML or JSON manifest file, like uploading multiple files.
+ * Batch commands usually load the manifest through {@link #loadManifest(File, Class)},
+ * resolve and validate all entries through {@link #resolveEntries(List, Function)}
+ * before processing any of them, and then process all entries through
+ * {@link #processEntries(List, int, Function, Function, Function, String)}.
+ */
+public final class BatchHelper {
+    private static final int MAX_LOOKUP_THREADS = 8;
+    private BatchHelper() {}
+
+    /**
+     * Load the entries from the given YAML or JSON manifest file, throwing an
+     * exception if the manifest file can't be read or doesn't contain any entries.
+     */
+    @SneakyThrows
+    public static final <E> List<E> loadManifest(File manifestFile, Class<E[]> type) {
+        if ( !manifestFile.canRead() ) {
+            throw new IllegalArgumentException("Could not read manifest file: "+manifestFile.getPath());
+        }
+        var entries = List.of(new ObjectMapper(new YAMLFactory()).readValue(manifestFile, type));
+        if ( entries.isEmpty() ) {
+            throw new IllegalArgumentException("Manifest file doesn't contain any entries: "+manifestFile.getPath());
+        }
+        return entries;
+    }
+
+    /**
+     * Resolve the given file name from a manifest entry, relative to the directory
+     * containing the given manifest file, throwing an exception if the resolved file
+     * can't be read. The given entry name is used for the exception message only.
+     */
+    public static final File resolveFile(File manifestFile, String entryName, String fileName) {
+        var file = new File(fileName);
+        if ( !file.isAbsolute() ) { file = new File(manifestFile.getAbsoluteFile().getParentFile(), fileName); }
+        if ( !file.canRead() ) {
+            throw new IllegalArgumentException("Could not read file for "+entryName+": "+file.getPath());
+        }
+        return file;
+    }
+
+    /**
+     * Resolve the given entries concurrently using the given resolver, for example to
+     * look up and validate the server-side entities referenced by each entry. If any
+     * of the entries can't be resolved, the corresponding exception is rethrown.
+     */
+    public static final <E,R> List<R> resolveEntries(List<E> entries, Function<E,R> resolver) {
+        try ( var tasks = new ConcurrentTasks(Math.min(MAX_LOOKUP_THREADS, entries.size())) ) {
+            var resolveTasks = entries.stream()
+                    .map(e->tasks.submit(()->resolver.apply(e)))
+                    .collect(Collectors.toList());
+            return resolveTasks.stream().map(Task::get).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Process the given entries concurrently using the given processor, with at most
+     * the given number of entries being processed at the same time, and return the
+     * results in the same order as the given entries. This method waits for all
+     * entries to be processed, even if some of them fail. If any entries failed, an
+     * exception is thrown listing all failures and successful results; the given
+     * failure message format takes the number of failures, the total number of
+     * entries, the list of failures, and the list of successful results as formatted
+     * by the given result name function.
+     */
+    public static final <E,R> List<R> processEntries(List<E> entries, int maxConcurrent, Function<E,R> processor,
+            Function<E,String> entryName, Function<R,String> resultName, String failureMessageFormat) {
+        var results = new ArrayList<R>();
+        var failures = new ArrayList<String>();
+        try ( var tasks = new ConcurrentTasks(Math.max(1, Math.min(maxConcurrent, entries.size()))) ) {
+            var processTasks = entries.stream()
+                    .map(e->tasks.submit(()->processor.apply(e)))
+                    .collect(Collectors.toList());
+            for ( int i=0 ; i<processTasks.size() ; i++ ) {
+                try {
+                    results.add(processTasks.get(i).get());
+                } catch ( Exception e ) {
+                    failures.add(String.format("%s: %s", entryName.apply(entries.get(i)), e.getMessage()));
+                }
+            }
+        }
+        if ( !failures.isEmpty() ) {
+            var succeeded = results.stream().map(resultName).collect(Collectors.joining(","));
+            throw new IllegalStateException(String.format(failureMessageFormat,
+                    failures.size(), entries.size(), String.join("\n  ", failures),
+                    StringUtils.isBlank(succeeded) ? "none" : succeeded));
+        }
+        return results;
+    }
+}
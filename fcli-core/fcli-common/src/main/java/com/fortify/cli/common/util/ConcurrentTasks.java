@@ -0,0 +1,73 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.util;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+
+/**
+ * This class allows for running independent tasks, like server lookups that
+ * don't depend on each other, concurrently. Tasks are submitted through the
+ * {@link #submit(Supplier)} method, which returns a {@link Task} that allows
+ * for retrieving the task result once it's needed; any exception thrown by the
+ * task is rethrown (unwrapped) by {@link Task#get()}. Instances should be used
+ * in a try-with-resources block, to make sure that the underlying threads are
+ * released once all results have been retrieved:
+ * <pre>
+ * try ( var tasks = new ConcurrentTasks(4) ) {
+ *     var a = tasks.submit(()-&gt;lookupA());
+ *     var b = tasks.submit(()-&gt;lookupB());
+ *     doSomething(a.get(), b.get());
+ * }
+ * </pre>
+ */
+public final class ConcurrentTasks implements AutoCloseable {
+    private final ExecutorService executor;
+    
+    public ConcurrentTasks(int maxThreads) {
+        this.executor = Executors.newFixedThreadPool(maxThreads);
+    }
+    
+    public final <T> Task<T> submit(Supplier<T> supplier) {
+        return new Task<>(executor.submit(supplier::get));
+    }
+    
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+    
+    @RequiredArgsConstructor
+    public static final class Task<T> {
+        private final Future<T> future;
+        
+        /**
+         * Wait for the task to complete and return its result. If the task threw an
+         * exception, this method rethrows that exception.
+         */
+        @SneakyThrows
+        public final T get() {
+            try {
+                return future.get();
+            } catch ( ExecutionException e ) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -13,9 +13,10 @@
 package com.fortify.cli.common.util;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.file.CopyOption;
@@ -27,13 +28,20 @@ import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.zip.ZipFile;
 
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
@@ -44,6 +52,8 @@ import lombok.SneakyThrows;
 //      but potentially some methods or the full class could be moved to the common module.
 public final class FileUtils {
     public static final Set<PosixFilePermission> execPermissions = PosixFilePermissions.fromString("rwxr-xr-x");
+    private static final int EXTRACT_MAX_THREADS = 8;
+    private static final int EXTRACT_BUFFER_SIZE = 64*1024;
     private FileUtils() {}
     
     @SneakyThrows
@@ -140,7 +150,8 @@ public final class FileUtils {
     public static final Function<Path,Path> defaultExtractPathResolver(Path targetPath, Function<Path,Path> sourcePathRewriter) {
         return sourcePath->{
             var newSourcePath = sourcePathRewriter==null ? sourcePath : sourcePathRewriter.apply(sourcePath);
-            var resolvedPath = targetPath.resolve(newSourcePath);
+            // Normalize before checking, as Path::startsWith doesn't take '..' segments into account
+            var resolvedPath = targetPath.resolve(newSourcePath).normalize();
             if (!resolvedPath.startsWith(targetPath.normalize())) {
                 // see: https://snyk.io/research/zip-slip-vulnerability
                 throw new RuntimeException("Entry with an illegal path: " + sourcePath);
@@ -154,21 +165,77 @@ public final class FileUtils {
         extractZip(zipFile, defaultExtractPathResolver(targetDir, null));
     }
     
+    /**
+     * Extract the given zip file, using the given extract path resolver to determine
+     * the target path for each zip entry. As opposed to tar.gz files, zip entries are
+     * individually compressed and can be accessed randomly through the zip central 
+     * directory, so we extract file entries in parallel. All directories are created
+     * up-front on the current thread to avoid directory creation races.
+     */
     @SneakyThrows
     public static final void extractZip(File zipFile, Function<Path, Path> extractPathResolver) {
-        try (FileInputStream fis = new FileInputStream(zipFile); ZipInputStream zipIn = new ZipInputStream(fis)) {
-            for (ZipEntry ze; (ze = zipIn.getNextEntry()) != null; ) {
+        try ( ZipFile zf = new ZipFile(zipFile) ) {
+            // Use map to have last entry win if zip file contains duplicate entries, like ZipInputStream
+            Map<Path, ZipEntry> fileEntries = new LinkedHashMap<>(); 
+            for ( var entries = zf.entries(); entries.hasMoreElements(); ) {
+                var ze = entries.nextElement();
                 Path resolvedPath = extractPathResolver.apply(Path.of(ze.getName())).normalize();
                 if (ze.isDirectory()) {
                     Files.createDirectories(resolvedPath);
                 } else {
                     Files.createDirectories(resolvedPath.getParent());
-                    Files.copy(zipIn, resolvedPath, StandardCopyOption.REPLACE_EXISTING);
+                    fileEntries.put(resolvedPath, ze);
+                }
+            }
+            runParallel(fileEntries.entrySet(), e->extractZipEntry(zf, e.getValue(), e.getKey()));
+        }
+    }
+    
+    private static final void extractZipEntry(ZipFile zf, ZipEntry ze, Path resolvedPath) throws IOException {
+        try ( var is = zf.getInputStream(ze); var raf = new RandomAccessFile(resolvedPath.toFile(), "rw") ) {
+            // Preallocate file if size is known, and truncate afterwards in case the
+            // file already existed or actual size doesn't match the recorded size.
+            if ( ze.getSize()>0 ) { raf.setLength(ze.getSize()); }
+            var channel = raf.getChannel();
+            var buffer = new byte[EXTRACT_BUFFER_SIZE];
+            long position = 0;
+            for ( int read; (read = is.read(buffer))!=-1; ) {
+                var bb = ByteBuffer.wrap(buffer, 0, read);
+                while ( bb.hasRemaining() ) { position += channel.write(bb, position); }
+            }
+            channel.truncate(position);
+        }
+    }
+    
+    private static final <T> void runParallel(Collection<T> items, IOConsumer<T> consumer) throws Exception {
+        int threads = Math.min(EXTRACT_MAX_THREADS, Runtime.getRuntime().availableProcessors());
+        if ( threads<=1 || items.size()<=1 ) {
+            for ( var item : items ) { consumer.accept(item); }
+        } else {
+            var executor = Executors.newFixedThreadPool(threads);
+            try {
+                var futures = new ArrayList<Future<?>>();
+                for ( var item : items ) {
+                    futures.add(executor.submit(()->{ consumer.accept(item); return null; }));
                 }
+                for ( var future : futures ) {
+                    try {
+                        future.get();
+                    } catch ( ExecutionException e ) {
+                        throw e.getCause() instanceof Exception ? (Exception)e.getCause() : e;
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
             }
         }
     }
     
+    @FunctionalInterface
+    private static interface IOConsumer<T> {
+        void accept(T t) throws IOException;
+    }
+    
     @SneakyThrows
     public static final void extractTarGZ(File tgzFile, Path targetDir) {
         extractTarGZ(tgzFile, defaultExtractPathResolver(targetDir, null));
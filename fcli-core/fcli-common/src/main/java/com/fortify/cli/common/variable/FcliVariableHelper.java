@@ -12,26 +12,39 @@
  *******************************************************************************/
 package com.fortify.cli.common.variable;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Date;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.formkiq.graalvm.annotations.Reflectable;
 import com.fortify.cli.common.crypto.helper.EncryptionHelper;
 import com.fortify.cli.common.json.JsonHelper;
 import com.fortify.cli.common.json.JsonNodeHolder;
 import com.fortify.cli.common.util.FcliDataHelper;
-import com.fortify.cli.common.util.StringUtils;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -42,9 +55,11 @@ import lombok.SneakyThrows;
 
 // TODO This class could probably use some cleanup
 public final class FcliVariableHelper {
+    private static final Logger LOG = LoggerFactory.getLogger(FcliVariableHelper.class);
     private static final ObjectMapper objectMapper = new ObjectMapper();
     private static final Pattern variableNamePattern = Pattern.compile("^[a-zA-Z0-9_]+$");
-    private static final Pattern variableReferencePattern = Pattern.compile("^(-{1,2}[\\-_a-zA-Z0-9]{1,}=){0,1}::([a-zA-Z0-9_]+)::(.*)$");
+    private static final Pattern indexablePropertyNamePattern = Pattern.compile("^[a-zA-Z_$][a-zA-Z0-9_$]*$");
+    private static final int MAX_INDEX_DEPTH = 5;
     private FcliVariableHelper() {}
     
     @Data @EqualsAndHashCode(callSuper = true) @Builder 
@@ -79,27 +94,206 @@ public final class FcliVariableHelper {
         }
     }
     
-    @SneakyThrows // TODO Do we want to use SneakyThrows?
     public static final JsonNode getVariableContents(String variableName, boolean failIfUnavailable) {
+        VariableDescriptor descriptor = getAccessedVariableDescriptor(variableName, failIfUnavailable);
+        return descriptor==null ? null : readVariableContents(descriptor, failIfUnavailable);
+    }
+    
+    /**
+     * Get the record at the given index from an array-based variable, without parsing 
+     * any subsequent records or holding any preceding records in memory. This returns 
+     * null if the variable contents is not an array, or if the given index is out of 
+     * range.
+     */
+    public static final JsonNode getVariableRecord(String variableName, int index, boolean failIfUnavailable) {
+        VariableDescriptor descriptor = getAccessedVariableDescriptor(variableName, failIfUnavailable);
+        return descriptor==null ? null : readVariableRecord(descriptor, index, failIfUnavailable);
+    }
+    
+    static final JsonNode readVariableContents(VariableDescriptor descriptor, boolean failIfUnavailable) {
+        return readVariableContents(descriptor, failIfUnavailable, objectMapper::readTree);
+    }
+    
+    static final JsonNode readVariableRecord(VariableDescriptor descriptor, int index, boolean failIfUnavailable) {
+        return readVariableContents(descriptor, failIfUnavailable, parser->{
+            if ( parser.nextToken()!=JsonToken.START_ARRAY ) { return null; }
+            for ( int i=0; i<index; i++ ) {
+                if ( !isArrayElementStart(parser.nextToken()) ) { return null; }
+                parser.skipChildren();
+            }
+            JsonNode record = isArrayElementStart(parser.nextToken()) ? objectMapper.readTree(parser) : null;
+            return record!=null && record.isContainerNode() ? record : null;
+        });
+    }
+    
+    /**
+     * Get the variable contents as a stream of records; for array-based variables, records
+     * are parsed lazily while consuming the stream. The returned stream must be closed
+     * to release the underlying file. Similar to {@link #getVariableContents(String, boolean)},
+     * the variable is deleted if an error occurs while reading the variable contents, either
+     * immediately or while consuming the stream.
+     */
+    public static final Stream<JsonNode> getVariableContentsStream(String variableName, boolean failIfUnavailable) {
+        VariableDescriptor descriptor = getAccessedVariableDescriptor(variableName, failIfUnavailable);
+        if ( descriptor==null ) { return Stream.empty(); }
+        JsonParser parser = null;
+        try {
+            getVariableContentsPathIfExists(descriptor.getName(), failIfUnavailable);
+            parser = openVariableContents(descriptor);
+            if ( parser==null ) { return Stream.empty(); }
+            if ( parser.nextToken()!=JsonToken.START_ARRAY ) {
+                try ( JsonParser p = parser ) {
+                    JsonNode contents = objectMapper.readTree(p);
+                    return contents==null ? Stream.empty() : Stream.of(contents);
+                }
+            }
+        } catch ( Exception e ) {
+            if ( parser!=null ) { closeQuietly(parser); }
+            handleReadError(descriptor, failIfUnavailable, e);
+            return Stream.empty();
+        }
+        final JsonParser arrayParser = parser;
+        Spliterator<JsonNode> spliterator = new Spliterators.AbstractSpliterator<JsonNode>(Long.MAX_VALUE, Spliterator.ORDERED|Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super JsonNode> action) {
+                JsonNode record;
+                try {
+                    if ( !isArrayElementStart(arrayParser.nextToken()) ) { return false; }
+                    record = objectMapper.readTree(arrayParser);
+                } catch ( Exception e ) {
+                    closeQuietly(arrayParser);
+                    handleReadError(descriptor, failIfUnavailable, e);
+                    return false;
+                }
+                action.accept(record);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(()->closeQuietly(arrayParser));
+    }
+    
+    private static final <T> T readVariableContents(VariableDescriptor descriptor, boolean failIfUnavailable, IVariableContentsReader<T> reader) {
+        getVariableContentsPathIfExists(descriptor.getName(), failIfUnavailable);
+        try ( JsonParser parser = openVariableContents(descriptor) ) {
+            return parser==null ? null : reader.read(parser);
+        } catch ( Exception e ) {
+            return handleReadError(descriptor, failIfUnavailable, e);
+        }
+    }
+    
+    /**
+     * Delete the variable described by the given descriptor after an error occurred while
+     * reading its contents, throwing an exception if failIfUnavailable is true. Otherwise,
+     * this method returns null. 
+     */
+    private static final <T> T handleReadError(VariableDescriptor descriptor, boolean failIfUnavailable, Exception e) {
+        FcliDataHelper.deleteDir(getVariablePath(descriptor.getName()), true);
+        conditionalThrow(failIfUnavailable, ()->new IllegalStateException("Error reading variable descriptor or contents, data has been deleted", e));
+        // TODO Log warning message
+        return null;
+    }
+    
+    private static final VariableDescriptor getAccessedVariableDescriptor(String variableName, boolean failIfUnavailable) {
         VariableDescriptor descriptor = getVariableDescriptor(variableName, failIfUnavailable);
         if ( descriptor==null ) { return null; }
         descriptor.setAccessed(new Date());
-        Path variablePath = getVariableContentsPathIfExists(variableName, failIfUnavailable);
-        try {
-            String variableContents = FcliDataHelper.readFile(variablePath, failIfUnavailable);
-            if ( descriptor.encrypted ) {
-                variableContents = EncryptionHelper.decrypt(variableContents);
+        getVariableContentsPathIfExists(variableName, failIfUnavailable);
+        return saveVariableDescriptor(descriptor);
+    }
+    
+    /**
+     * Open a {@link JsonParser} for the contents of the variable described by the given
+     * descriptor, or return null if no contents are available. Encrypted contents are 
+     * decrypted while parsing, unless they were stored by an older fcli version that 
+     * encrypted the full contents as a single string.
+     */
+    private static final JsonParser openVariableContents(VariableDescriptor descriptor) throws IOException {
+        Path variablePath = getVariableContentsAbsolutePath(descriptor.getName());
+        if ( !Files.isReadable(variablePath) ) { return null; }
+        InputStream in = new BufferedInputStream(Files.newInputStream(variablePath));
+        if ( descriptor.encrypted ) {
+            if ( EncryptionHelper.isStreamEncrypted(in) ) {
+                in = EncryptionHelper.decryptingInputStream(in);
+            } else {
+                try ( InputStream legacyIn = in ) {
+                    return objectMapper.createParser(EncryptionHelper.decrypt(new String(legacyIn.readAllBytes(), StandardCharsets.UTF_8)));
+                }
             }
-            saveVariableDescriptor(descriptor);
-            return variableContents==null ? null : objectMapper.readValue(variableContents, JsonNode.class);
+        }
+        return objectMapper.createParser(in);
+    }
+    
+    /**
+     * Read the property value index for the given singular variable, as written by 
+     * {@link #saveVariableIndex(VariableDescriptor, JsonNode)}. This returns null if 
+     * the variable is not singular, or if no (valid) index is available, in which 
+     * case callers should fall back to evaluating the variable contents.
+     */
+    static final ObjectNode readVariableIndex(VariableDescriptor descriptor) {
+        Path indexPath = getVariableIndexRelativePath(descriptor.getName());
+        if ( !descriptor.isSingular() || !FcliDataHelper.isReadable(indexPath) ) { return null; }
+        try {
+            return descriptor.isEncrypted() 
+                    ? FcliDataHelper.readSecuredFile(indexPath, ObjectNode.class, true)
+                    : FcliDataHelper.readFile(indexPath, ObjectNode.class, true);
         } catch ( Exception e ) {
-            FcliDataHelper.deleteDir(variablePath.getParent(), true);
-            conditionalThrow(failIfUnavailable, ()->new IllegalStateException("Error reading variable descriptor or contents, data has been deleted", e));
-            // TODO Log warning message
+            LOG.debug("Error reading index for variable "+descriptor.getName(), e);
             return null;
         }
     }
     
+    /**
+     * Save a property value index for the given singular variable record, mapping
+     * the property path of every nested textual, numeric or boolean property value 
+     * to the value that would be returned when resolving that property path, such 
+     * that ::variable::property references can be resolved without loading the 
+     * variable contents. The index is encrypted if the variable is encrypted.
+     */
+    private static final void saveVariableIndex(VariableDescriptor descriptor, JsonNode record) {
+        if ( record==null || !record.isObject() ) { return; }
+        ObjectNode index = objectMapper.createObjectNode();
+        addIndexEntries(index, null, record, 0);
+        Path indexPath = getVariableIndexRelativePath(descriptor.getName());
+        if ( descriptor.isEncrypted() ) {
+            FcliDataHelper.saveSecuredFile(indexPath, index, false);
+        } else {
+            FcliDataHelper.saveFile(indexPath, index, false);
+        }
+    }
+    
+    private static final void addIndexEntries(ObjectNode index, String parentPath, JsonNode node, int depth) {
+        if ( depth>MAX_INDEX_DEPTH ) { return; }
+        node.fields().forEachRemaining(field->{
+            String name = field.getKey();
+            JsonNode value = field.getValue();
+            if ( !indexablePropertyNamePattern.matcher(name).matches() ) { return; }
+            String path = parentPath==null ? name : parentPath+"."+name;
+            if ( value.isObject() ) {
+                addIndexEntries(index, path, value, depth+1);
+            } else if ( value.isTextual() || value.isNumber() || value.isBoolean() ) {
+                // This matches the String conversion applied by SpEL on unwrapped JSON values
+                index.put(path, value.isBoolean() ? String.valueOf(value.booleanValue()) : value.isNumber() ? value.numberValue().toString() : value.textValue());
+            }
+        });
+    }
+    
+    private static final boolean isArrayElementStart(JsonToken token) {
+        return token!=null && token!=JsonToken.END_ARRAY;
+    }
+    
+    private static final void closeQuietly(JsonParser parser) {
+        try {
+            parser.close();
+        } catch ( IOException e ) {
+            // TODO Log warning message
+        }
+    }
+    
+    @FunctionalInterface
+    private static interface IVariableContentsReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+    
     public static final VariableDescriptor save(String variableName, String defaultPropertyName, JsonNode variableContents, boolean singular, boolean encrypt) {
         checkVariableName(variableName);
         VariableDescriptor descriptor = createVariableDescriptor(variableName, defaultPropertyName, singular, encrypt);
@@ -112,34 +306,30 @@ public final class FcliVariableHelper {
         checkVariableName(variableName);
         VariableDescriptor descriptor = createVariableDescriptor(variableName, defaultPropertyName, singular, encrypt);
         saveVariableDescriptor(descriptor);
-        VariableContentsWriter vcw = new VariableContentsWriter(getVariableContentsAbsolutePath(variableName).toString());
-        return encrypt ? new EncryptionHelper.EncryptWriter(vcw) : vcw;
+        Files.deleteIfExists(getVariableIndexAbsolutePath(variableName));
+        return new VariableContentsWriter(getVariableContentsAbsolutePath(variableName).toString(), encrypt, 
+                !singular ? null : contents->saveVariableIndex(descriptor, parseIndexSource(contents)));
     }
     
+    /**
+     * Resolve all ::variable::propertyPath references in the given arguments; see
+     * {@link FcliVariableResolver} for details.
+     */
     public static final String[] resolveVariables(String[] args) {
-        return Stream.of(args).map(FcliVariableHelper::resolveVariable).toArray(String[]::new);
+        return new FcliVariableResolver().resolveVariables(args);
     }
     
     public static final String resolveVariable(String arg) {
-        Matcher matcher = variableReferencePattern.matcher(arg);
-        if (matcher.matches()) {
-            String variableName = matcher.group(2);
-            String propertyPath = getVariablePropertyPathOrDefault(variableName, matcher.group(3));
-            JsonNode contents = getVariableContents(variableName, true);
-            String value = JsonHelper.evaluateSpelExpression(contents, propertyPath, String.class);
-            if ( value==null ) {
-                throw new IllegalArgumentException(String.format("Property path '%s' for variable '%s' resolves to null", propertyPath, variableName));
-            }
-            return matcher.group(1)!=null ? matcher.group(1)+value : value;
-        }
-        return arg;
+        return resolveVariables(new String[] {arg})[0];
     }
     
-    private static final String getVariablePropertyPathOrDefault(String variableName, String propertyPath) {
-        if ( StringUtils.isNotBlank(propertyPath) ) { return propertyPath; }
-        String defaultPropertyName = getVariableDescriptor(variableName, true).getDefaultPropertyName();
-        if ( StringUtils.isNotBlank(defaultPropertyName) ) { return defaultPropertyName; }
-        throw new IllegalArgumentException("No property name specified for variable "+variableName+", and no default property name available");
+    private static final JsonNode parseIndexSource(String contents) {
+        try {
+            return objectMapper.readTree(contents);
+        } catch ( Exception e ) {
+            LOG.debug("Error parsing variable contents for indexing", e);
+            return null;
+        }
     }
     
     private static final void checkVariableName(String variableName) {
@@ -161,7 +351,7 @@ public final class FcliVariableHelper {
     }
     
     @SneakyThrows // TODO Do we want to use SneakyThrows? 
-    private static final VariableDescriptor saveVariableDescriptor(VariableDescriptor descriptor) {
+    static final VariableDescriptor saveVariableDescriptor(VariableDescriptor descriptor) {
         String variableDescriptorString = objectMapper.writeValueAsString(descriptor);
         FcliDataHelper.saveFile(getVariableDescriptorRelativePath(descriptor.getName()), variableDescriptorString, true);
         return descriptor;
@@ -169,11 +359,11 @@ public final class FcliVariableHelper {
     
     @SneakyThrows // TODO Do we want to use SneakyThrows?
     private static void saveVariableContents(VariableDescriptor descriptor, JsonNode variableContents) {
-        String variableContentsString = objectMapper.writeValueAsString(variableContents);
-        if ( descriptor.encrypted ) {
-            variableContentsString = EncryptionHelper.encrypt(variableContentsString);
-        }
-        FcliDataHelper.saveFile(getVariableContentsRelativePath(descriptor.getName()), variableContentsString, true);
+        Path variableContentsPath = getVariableContentsAbsolutePath(descriptor.getName());
+        Files.createDirectories(variableContentsPath.getParent());
+        Files.deleteIfExists(getVariableIndexAbsolutePath(descriptor.getName()));
+        objectMapper.writeValue(new VariableContentsWriter(variableContentsPath.toString(), descriptor.encrypted, null), variableContents);
+        if ( descriptor.isSingular() ) { saveVariableIndex(descriptor, variableContents); }
     }
 
     @SneakyThrows // TODO Do we want to use SneakyThrows?
@@ -251,4 +441,12 @@ public final class FcliVariableHelper {
     private static final Path getVariableContentsAbsolutePath(String variableName) {
         return FcliDataHelper.getFcliHomePath().resolve(getVariableContentsRelativePath(variableName));
     }
+    
+    private static final Path getVariableIndexRelativePath(String variableName) {
+        return getVariablePath(variableName).resolve("index.json");
+    }
+    
+    private static final Path getVariableIndexAbsolutePath(String variableName) {
+        return FcliDataHelper.getFcliHomePath().resolve(getVariableIndexRelativePath(variableName));
+    }
 }
@@ -0,0 +1,137 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.variable;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.util.StringUtils;
+import com.fortify.cli.common.variable.FcliVariableHelper.VariableDescriptor;
+
+/**
+ * This class resolves <code>::variable::propertyPath</code> references in fcli 
+ * command-line arguments. Each referenced variable descriptor is loaded only once
+ * per resolver instance, and variable contents are loaded lazily and cached, such 
+ * that multiple references to the same variable don't require repeatedly reading,
+ * decrypting and parsing the variable data. Property paths are resolved as follows:
+ * <ul>
+ *  <li>For singular variables, simple property paths like <code>id</code> or 
+ *      <code>application.name</code> are looked up in the property value index 
+ *      stored next to the variable contents, if available</li>
+ *  <li>Simple property paths on a single array element, like <code>get(0).id</code>
+ *      or <code>[0].id</code>, are evaluated on that element only, without 
+ *      loading the remainder of the array</li>
+ *  <li>Any other property paths are evaluated on the full variable contents</li>
+ * </ul>
+ * Variable descriptors are updated with the last access date only once, after all
+ * arguments have been resolved.
+ */
+final class FcliVariableResolver {
+    private static final Pattern variableReferencePattern = Pattern.compile("^(-{1,2}[\\-_a-zA-Z0-9]{1,}=){0,1}::([a-zA-Z0-9_]+)::(.*)$");
+    private static final Pattern simplePropertyPathPattern = Pattern.compile("^[a-zA-Z_$][a-zA-Z0-9_$]*(?:\\??\\.[a-zA-Z_$][a-zA-Z0-9_$]*)*$");
+    private static final Pattern indexedPropertyPathPattern = Pattern.compile("^(?:\\[(\\d{1,9})\\]|get\\((\\d{1,9})\\))\\??\\.([a-zA-Z0-9_$]+(?:\\??\\.[a-zA-Z0-9_$]+|\\[\\d+\\])*)$");
+    private final Map<String, ResolvedVariable> variables = new HashMap<>();
+    
+    public final String[] resolveVariables(String[] args) {
+        try {
+            return Stream.of(args).map(this::resolveVariable).toArray(String[]::new);
+        } finally {
+            var accessed = new Date();
+            variables.values().forEach(v->v.updateAccessed(accessed));
+        }
+    }
+    
+    private final String resolveVariable(String arg) {
+        Matcher matcher = variableReferencePattern.matcher(arg);
+        if (matcher.matches()) {
+            String variableName = matcher.group(2);
+            var variable = variables.computeIfAbsent(variableName, ResolvedVariable::new);
+            String propertyPath = variable.getPropertyPathOrDefault(matcher.group(3));
+            String value = variable.evaluate(propertyPath);
+            if ( value==null ) {
+                throw new IllegalArgumentException(String.format("Property path '%s' for variable '%s' resolves to null", propertyPath, variableName));
+            }
+            return matcher.group(1)!=null ? matcher.group(1)+value : value;
+        }
+        return arg;
+    }
+    
+    private static final class ResolvedVariable {
+        private final VariableDescriptor descriptor;
+        private final Map<Integer, JsonNode> records = new HashMap<>();
+        private ObjectNode index;
+        private boolean indexLoaded = false;
+        private JsonNode contents;
+        private boolean contentsAccessed = false;
+        
+        private ResolvedVariable(String variableName) {
+            this.descriptor = FcliVariableHelper.getVariableDescriptor(variableName, true);
+        }
+        
+        private String getPropertyPathOrDefault(String propertyPath) {
+            if ( StringUtils.isNotBlank(propertyPath) ) { return propertyPath; }
+            String defaultPropertyName = descriptor.getDefaultPropertyName();
+            if ( StringUtils.isNotBlank(defaultPropertyName) ) { return defaultPropertyName; }
+            throw new IllegalArgumentException("No property name specified for variable "+descriptor.getName()+", and no default property name available");
+        }
+        
+        private String evaluate(String propertyPath) {
+            contentsAccessed = true;
+            if ( simplePropertyPathPattern.matcher(propertyPath).matches() ) {
+                JsonNode indexedValue = getIndex()==null ? null : index.get(propertyPath.replace("?.", "."));
+                if ( indexedValue!=null ) { return indexedValue.asText(); }
+            }
+            Matcher matcher = indexedPropertyPathPattern.matcher(propertyPath);
+            if ( contents==null && matcher.matches() ) {
+                int recordIndex = Integer.parseInt(matcher.group(1)!=null ? matcher.group(1) : matcher.group(2));
+                JsonNode record = records.computeIfAbsent(recordIndex, i->FcliVariableHelper.readVariableRecord(descriptor, i, true));
+                // If the record cannot be loaded, we fall back to full evaluation to
+                // have any errors reported in the same way as for other expressions
+                if ( record!=null ) {
+                    return JsonHelper.evaluateSpelExpression(record, matcher.group(3), String.class);
+                }
+            }
+            return JsonHelper.evaluateSpelExpression(getContents(), propertyPath, String.class);
+        }
+        
+        private ObjectNode getIndex() {
+            if ( !indexLoaded ) {
+                index = FcliVariableHelper.readVariableIndex(descriptor);
+                indexLoaded = true;
+            }
+            return index;
+        }
+        
+        private JsonNode getContents() {
+            if ( contents==null ) {
+                contents = FcliVariableHelper.readVariableContents(descriptor, true);
+                records.clear();
+            }
+            return contents;
+        }
+        
+        private void updateAccessed(Date accessed) {
+            if ( contentsAccessed ) {
+                descriptor.setAccessed(accessed);
+                FcliVariableHelper.saveVariableDescriptor(descriptor);
+            }
+        }
+    }
+}
@@ -1,22 +1,49 @@
 package com.fortify.cli.common.variable;
 
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.function.Consumer;
 
+import com.fortify.cli.common.crypto.helper.EncryptionHelper;
+
+/**
+ * {@link Writer} implementation for writing (optionally encrypted) variable contents.
+ * Contents are written to a temporary file that replaces the actual contents file
+ * once this writer is closed, such that the existing variable contents remain
+ * available for reading while writing new contents, for example when filtering
+ * a variable and storing the results in the same variable.
+ */
 public class VariableContentsWriter extends Writer{
-    private FileOutputStream fos;
+    private final Path targetPath;
+    private final Path tmpPath;
+    private boolean closed = false;
+    private OutputStream os;
     private OutputStreamWriter osw;
     private PrintWriter pw;
+    // If a contents consumer is configured, we collect the contents written to the
+    // variable, and pass them to the consumer once this writer is closed. This is 
+    // only used for singular variables, which should be reasonably small.
+    private Consumer<String> contentsConsumer;
+    private StringBuilder contents;
     
     
-    public VariableContentsWriter(String filePath) throws FileNotFoundException{
-        fos = new FileOutputStream(filePath);
-        osw =  new OutputStreamWriter(fos, StandardCharsets.UTF_8);
+    public VariableContentsWriter(String filePath, boolean encrypt, Consumer<String> contentsConsumer) throws IOException{
+        this.contentsConsumer = contentsConsumer;
+        this.contents = contentsConsumer==null ? null : new StringBuilder();
+        this.targetPath = Path.of(filePath);
+        this.tmpPath = Files.createTempFile(targetPath.getParent(), targetPath.getFileName().toString(), ".tmp");
+        var fos = Files.newOutputStream(tmpPath);
+        os = new BufferedOutputStream(encrypt ? EncryptionHelper.encryptingOutputStream(fos) : fos);
+        osw =  new OutputStreamWriter(os, StandardCharsets.UTF_8);
         pw = new PrintWriter(osw);
     }
 
@@ -24,6 +51,7 @@ public class VariableContentsWriter extends Writer{
     @Override
     public void write(char[] cbuf, int off, int len) throws IOException {
         pw.write(cbuf, off, len);
+        if ( contents!=null ) { contents.append(cbuf, off, len); }
         
     }
 
@@ -37,9 +65,26 @@ public class VariableContentsWriter extends Writer{
 
     @Override
     public void close() throws IOException {
+        if ( closed ) { return; }
+        closed = true;
+        var error = pw.checkError(); // PrintWriter doesn't throw exceptions on write errors
         pw.close();
         osw.close();
-        fos.close();
+        os.close();
+        if ( error ) {
+            Files.deleteIfExists(tmpPath);
+            throw new IOException("Error writing variable contents to "+targetPath);
+        }
+        try {
+            Files.move(tmpPath, targetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch ( AtomicMoveNotSupportedException e ) {
+            Files.move(tmpPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if ( contentsConsumer!=null ) {
+            var consumer = contentsConsumer;
+            contentsConsumer = null;
+            consumer.accept(contents.toString());
+        }
     }
     
     
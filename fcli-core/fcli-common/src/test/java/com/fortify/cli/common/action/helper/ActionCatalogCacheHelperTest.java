@@ -0,0 +1,148 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.action.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fortify.cli.common.action.helper.ActionLoaderHelper.ActionSource;
+import com.fortify.cli.common.action.helper.ActionLoaderHelper.ActionValidationHandler;
+import com.fortify.cli.common.util.EnvHelper;
+
+public class ActionCatalogCacheHelperTest {
+    private static final String TYPE = "test";
+    private static final String STATE_DIR_PROPERTY = EnvHelper.envSystemPropertyName("FCLI_STATE_DIR");
+    private static final String DATA_DIR_PROPERTY = EnvHelper.envSystemPropertyName("FCLI_DATA_DIR");
+    private static final String ACTION = String.join("\n",
+            "$schema: https://fortify.github.io/fcli/schemas/action/fcli-action-schema-dev.json",
+            "author: Test",
+            "usage:",
+            "  header: Test action %s",
+            "  description: Test",
+            "steps:",
+            "  - set:",
+            "    - name: x",
+            "      value: y",
+            "");
+    private final AtomicInteger loadCount = new AtomicInteger();
+    @TempDir Path tempDir;
+    private Path cachePath;
+
+    @BeforeEach
+    public void setDirs() throws Exception {
+        System.setProperty(DATA_DIR_PROPERTY, tempDir.resolve("data").toString());
+        // State directory may be outside of the fcli data directory
+        System.setProperty(STATE_DIR_PROPERTY, tempDir.resolve("state").toString());
+        Files.createDirectories(ActionLoaderHelper.customActionsZipPath(TYPE).getParent());
+        cachePath = ActionCatalogCacheHelper.cachePath(ActionSource.importedCacheName(TYPE));
+    }
+
+    @AfterEach
+    public void clearDirs() {
+        System.clearProperty(STATE_DIR_PROPERTY);
+        System.clearProperty(DATA_DIR_PROPERTY);
+    }
+
+    @Test
+    public void testCacheStoredInStateDir() throws Exception {
+        writeZip("a1");
+        assertEquals(List.of("a1"), getNames());
+        assertTrue(cachePath.startsWith(tempDir.resolve("state")));
+        assertTrue(Files.exists(cachePath));
+        try ( var files = Files.list(cachePath.getParent()) ) {
+            assertEquals(1, files.count(), "Temporary cache files must be removed");
+        }
+    }
+
+    @Test
+    public void testInvalidateOnContentChange() throws Exception {
+        writeZip("a1");
+        getSummaries();
+        getSummaries();
+        assertEquals(1, loadCount.get());
+        // Update zip contents without using ActionImportHelper, so cache isn't explicitly cleared
+        writeZip("a1", "a2");
+        getSummaries();
+        getSummaries();
+        assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    public void testInvalidCacheEntryIgnored() throws Exception {
+        writeZip("a1");
+        getSummaries();
+        Files.writeString(cachePath, "{ invalid");
+        getSummaries();
+        assertEquals(2, loadCount.get());
+        getSummaries();
+        assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    public void testClearOnImportAndReset() throws Exception {
+        var actionFile = tempDir.resolve("a1.yaml");
+        Files.writeString(actionFile, String.format(ACTION, "a1"));
+        ActionImportHelper.importAction(TYPE, null, actionFile.toString(), ActionValidationHandler.IGNORE);
+        assertEquals(List.of("a1"), getNames());
+        assertTrue(Files.exists(cachePath));
+
+        var action2File = tempDir.resolve("a2.yaml");
+        Files.writeString(action2File, String.format(ACTION, "a2"));
+        ActionImportHelper.importAction(TYPE, null, action2File.toString(), ActionValidationHandler.IGNORE);
+        assertFalse(Files.exists(cachePath));
+        assertEquals(List.of("a1", "a2"), getNames());
+        assertTrue(Files.exists(cachePath));
+
+        ActionImportHelper.reset(TYPE);
+        assertFalse(Files.exists(cachePath));
+        assertEquals(List.of(), getNames());
+    }
+
+    private List<String> getNames() {
+        return ActionLoaderHelper.streamAsJson(ActionSource.importedActionSources(TYPE), ActionValidationHandler.IGNORE)
+                .map(s->s.get("name").asText().replaceAll("\\.yaml$", ""))
+                .collect(Collectors.toList());
+    }
+
+    private List<ObjectNode> getSummaries() {
+        return ActionCatalogCacheHelper.getSummaries(ActionSource.importedActionSources(TYPE).get(0), ActionValidationHandler.IGNORE,
+                contents->{ loadCount.incrementAndGet(); return new ArrayList<>(); });
+    }
+
+    private void writeZip(String... names) throws Exception {
+        try ( var zos = new ZipOutputStream(Files.newOutputStream(ActionLoaderHelper.customActionsZipPath(TYPE))) ) {
+            for ( var name : names ) {
+                zos.putNextEntry(new ZipEntry(name+".yaml"));
+                zos.write(String.format(ACTION, name).getBytes(StandardCharsets.UTF_8));
+                zos.closeEntry();
+            }
+        }
+    }
+}
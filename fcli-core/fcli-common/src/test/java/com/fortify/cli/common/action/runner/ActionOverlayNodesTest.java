@@ -0,0 +1,58 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.action.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fortify.cli.common.json.JsonHelper;
+
+public class ActionOverlayNodesTest {
+    @Test
+    public void testArrayOverlay() {
+        var base = JsonHelper.getObjectMapper().createArrayNode().add(1).add(2);
+        var overlay = ActionOverlayNodes.overlay(base);
+        overlay.add(3).add(4);
+        assertEquals("[1,2,3,4]", overlay.toString());
+        assertEquals("[1,2]", base.toString());
+        overlay.set(0, 0);
+        overlay.remove(3);
+        assertEquals("[0,2,3]", overlay.toString());
+        assertEquals("[1,2]", base.toString());
+    }
+
+    @Test
+    public void testObjectOverlay() {
+        var base = JsonHelper.getObjectMapper().createObjectNode().put("a", 1).put("b", 2);
+        var overlay = ActionOverlayNodes.overlay(base);
+        overlay.put("c", 3).put("a", 0);
+        assertEquals(List.of("a", "b", "c"), fieldNames(overlay));
+        assertEquals("{\"a\":0,\"b\":2,\"c\":3}", overlay.toString());
+        assertEquals(3, overlay.size());
+        assertEquals("{\"a\":1,\"b\":2}", base.toString());
+        overlay.remove("b");
+        assertEquals("{\"a\":0,\"c\":3}", overlay.toString());
+        assertEquals("{\"a\":1,\"b\":2}", base.toString());
+    }
+
+    private static List<String> fieldNames(ObjectNode node) {
+        var result = new ArrayList<String>();
+        node.fieldNames().forEachRemaining(result::add);
+        return result;
+    }
+}
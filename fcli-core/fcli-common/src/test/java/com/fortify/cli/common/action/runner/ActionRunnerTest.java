@@ -0,0 +1,304 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.action.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.POJONode;
+import com.fortify.cli.common.action.helper.ActionLoaderHelper;
+import com.fortify.cli.common.action.helper.ActionLoaderHelper.ActionSource;
+import com.fortify.cli.common.action.helper.ActionLoaderHelper.ActionValidationHandler;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.output.cli.cmd.AbstractOutputCommand;
+import com.fortify.cli.common.output.cli.cmd.IJsonNodeSupplier;
+import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
+import com.fortify.cli.common.progress.helper.ProgressWriterI18n;
+import com.fortify.cli.common.progress.helper.ProgressWriterType;
+
+import lombok.Getter;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Option;
+
+public class ActionRunnerTest {
+    private static final String ACTION_HEADER = String.join("\n",
+            "$schema: https://fortify.github.io/fcli/schemas/action/fcli-action-schema-dev.json",
+            "author: Test",
+            "usage:",
+            "  header: Test",
+            "  description: Test",
+            "steps:",
+            "");
+    private final PrintStream orgStdout = System.out;
+    private final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+    private ObjectNode globalData;
+    @TempDir Path tempDir;
+
+    @BeforeEach
+    public void redirectStdout() {
+        System.setOut(new PrintStream(stdout, true, StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    public void restoreStdout() {
+        System.setOut(orgStdout);
+    }
+
+    @Test
+    public void testParallelForEachOrderAndMerge() throws Exception {
+        var exitCode = run(
+            "  - fcli:",
+            "    - name: records",
+            "      args: records --count 50",
+            "  - set:",
+            "    - name: byName",
+            "      value: ${{'existing':'value'}}",
+            "  - forEach:",
+            "      values: ${records}",
+            "      name: r",
+            "      parallel: 8",
+            "      do:",
+            "        - fcli:",
+            "          - name: nested",
+            "            args: records --count ${r.id%5}",
+            "        - set:",
+            "          - name: last",
+            "            value: ${r.id}",
+            "        - append:",
+            "          - name: ids",
+            "            value: ${r.id}",
+            "          - name: nestedCounts",
+            "            value: ${nested.size()}",
+            "          - name: byName",
+            "            property: ${r.name}",
+            "            value: ${r.id}",
+            "        - write:",
+            "          - to: stdout",
+            "            value: \"${r.id},\"");
+        assertEquals(0, exitCode);
+        var expectedIds = IntStream.range(0, 50).boxed().collect(Collectors.toList());
+        assertEquals(expectedIds, ints(globalData.get("ids")));
+        assertEquals(expectedIds.stream().map(i->i%5).collect(Collectors.toList()), ints(globalData.get("nestedCounts")));
+        assertEquals(49, globalData.get("last").asInt());
+        var byName = globalData.get("byName");
+        assertEquals("value", byName.get("existing").asText());
+        var expectedNames = new ArrayList<String>(List.of("existing"));
+        expectedIds.forEach(i->expectedNames.add("record"+i));
+        var actualNames = new ArrayList<String>();
+        byName.fieldNames().forEachRemaining(actualNames::add);
+        assertEquals(expectedNames, actualNames);
+        assertEquals(expectedIds.size()+1, byName.size());
+        expectedIds.forEach(i->assertEquals(i, byName.get("record"+i).asInt()));
+        assertEquals(expectedIds.stream().map(i->i+",").collect(Collectors.joining()), stdout.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testParallelForEachManyRecords() throws Exception {
+        // Records are replayed incrementally while later records are still being processed
+        var exitCode = run(
+            "  - fcli:",
+            "    - name: records",
+            "      args: records --count 2000",
+            "  - set:",
+            "    - name: ids",
+            "      value: ${{-1}}",
+            "  - forEach:",
+            "      values: ${records}",
+            "      name: r",
+            "      parallel: 4",
+            "      do:",
+            "        - append:",
+            "          - name: ids",
+            "            value: ${r.id}",
+            "          - name: byName",
+            "            property: ${r.name}",
+            "            value: ${ids.size()}");
+        assertEquals(0, exitCode);
+        var expectedIds = IntStream.range(-1, 2000).boxed().collect(Collectors.toList());
+        assertEquals(expectedIds, ints(globalData.get("ids")));
+        var byName = globalData.get("byName");
+        assertEquals(2000, byName.size());
+        // Each record only sees the data as available when the forEach step was started
+        IntStream.range(0, 2000).forEach(i->assertEquals(2, byName.get("record"+i).asInt()));
+    }
+
+    @Test
+    public void testNestedParallelFcliSteps() throws Exception {
+        // Nested fcli steps used to deadlock, as the outer fcli step would hold the
+        // fcli lock while waiting for parallel forEach records to complete.
+        var exitCode = assertTimeoutPreemptively(Duration.ofSeconds(60), ()->run(
+            "  - fcli:",
+            "    - name: records",
+            "      args: records --count 4",
+            "  - fcli:",
+            "    - args: records --count 3",
+            "      forEach:",
+            "        name: o",
+            "        do:",
+            "          - forEach:",
+            "              values: ${records}",
+            "              name: i",
+            "              parallel: 4",
+            "              do:",
+            "                - fcli:",
+            "                  - args: records --count 2",
+            "                    forEach:",
+            "                      name: n",
+            "                      do:",
+            "                        - append:",
+            "                          - name: nested",
+            "                            value: ${o.id}:${i.id}:${n.id}"));
+        assertEquals(0, exitCode);
+        var expected = new ArrayList<String>();
+        for ( int o=0; o<3; o++ ) { for ( int i=0; i<4; i++ ) { for ( int n=0; n<2; n++ ) {
+            expected.add(o+":"+i+":"+n);
+        } } }
+        assertEquals(expected, JsonHelper.stream((ArrayNode)globalData.get("nested")).map(JsonNode::asText).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testExitFromParallelForEach() throws Exception {
+        var exitCode = run(
+            "  - fcli:",
+            "    - name: records",
+            "      args: records --count 50",
+            "  - forEach:",
+            "      values: ${records}",
+            "      name: r",
+            "      parallel: 4",
+            "      do:",
+            "        - append:",
+            "          - name: ids",
+            "            value: ${r.id}",
+            "        - if: ${r.id>=5}",
+            "          exit: ${r.id-2}",
+            "        - append:",
+            "          - name: completed",
+            "            value: ${r.id}",
+            "  - set:",
+            "    - name: afterForEach",
+            "      value: true");
+        assertEquals(3, exitCode);
+        assertEquals(List.of(0,1,2,3,4,5), ints(globalData.get("ids")));
+        assertEquals(List.of(0,1,2,3,4), ints(globalData.get("completed")));
+        assertFalse(globalData.has("afterForEach"));
+    }
+
+    @Test
+    public void testStreamedArrayDeletedOnClose() throws Exception {
+        // Delayed console writer is invoked after closing the runner, like AbstractActionRunCommand does
+        assertStreamedArrayWrittenAndDeleted(false);
+    }
+
+    @Test
+    public void testStreamedArrayDeletedOnCloseAfterConsoleOutput() throws Exception {
+        assertStreamedArrayWrittenAndDeleted(true);
+    }
+
+    private void assertStreamedArrayWrittenAndDeleted(boolean writeConsoleOutputBeforeClose) throws Exception {
+        var exitCode = run(writeConsoleOutputBeforeClose,
+            "  - fcli:",
+            "    - name: records",
+            "      args: records --count 10",
+            "  - forEach:",
+            "      values: ${records}",
+            "      name: r",
+            "      parallel: 4",
+            "      do:",
+            "        - append:",
+            "          - name: streamed",
+            "            value: ${r.id}",
+            "            stream: true",
+            "  - write:",
+            "    - to: stdout",
+            "      value: ${streamed}");
+        assertEquals(0, exitCode);
+        assertEquals("[0,1,2,3,4,5,6,7,8,9]", stdout.toString(StandardCharsets.UTF_8).replaceAll("\\s", ""));
+        var streamed = (ActionStreamedArray)((POJONode)globalData.get("streamed")).getPojo();
+        assertEquals(10, streamed.size());
+        assertFalse(streamed.getFile().exists());
+    }
+
+    private Integer run(String... steps) throws Exception {
+        return run(false, steps);
+    }
+
+    private Integer run(boolean writeConsoleOutputBeforeClose, String... steps) throws Exception {
+        var actionFile = tempDir.resolve("test.yaml");
+        Files.writeString(actionFile, ACTION_HEADER+String.join("\n", steps)+"\n");
+        var action = ActionLoaderHelper
+                .load(ActionSource.externalActionSources(actionFile.toString()), actionFile.toString(), ActionValidationHandler.IGNORE)
+                .getAction();
+        try ( var progressWriter = new ProgressWriterI18n(ProgressWriterType.none, k->null);
+              var runner = ActionRunner.builder()
+                .action(action)
+                .progressWriter(progressWriter)
+                .rootCommandLine(new CommandLine(new TestRootCommand()))
+                .onValidationErrors(r->new IllegalArgumentException(r.getValidationErrors().toString()))
+                .build() )
+        {
+            var result = runner.run(new String[] {});
+            globalData = runner.getGlobalData();
+            if ( writeConsoleOutputBeforeClose ) { return result.call(); }
+            runner.close();
+            return result.call();
+        }
+    }
+
+    private static final List<Integer> ints(JsonNode array) {
+        return JsonHelper.stream((ArrayNode)array).map(JsonNode::asInt).collect(Collectors.toList());
+    }
+
+    @Command(name = "fcli", subcommands = TestRecordsCommand.class)
+    public static final class TestRootCommand {}
+
+    @Command(name = "records")
+    public static final class TestRecordsCommand extends AbstractOutputCommand implements IJsonNodeSupplier {
+        @Getter @Mixin private OutputHelperMixins.List outputHelper;
+        @Option(names = "--count") private int count;
+
+        @Override
+        public JsonNode getJsonNode() {
+            var result = JsonHelper.getObjectMapper().createArrayNode();
+            IntStream.range(0, count).forEach(i->result.addObject().put("id", i).put("name", "record"+i));
+            return result;
+        }
+
+        @Override
+        public boolean isSingular() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.action.runner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.POJONode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.fortify.cli.common.json.JsonHelper;
+
+public class ActionStreamedArrayTest {
+    @Test
+    public void testAppendAndSerialize() throws Exception {
+        try ( var array = new ActionStreamedArray() ) {
+            assertEquals(0, array.size());
+            assertEquals("[]", serialize(array));
+            array.append(new IntNode(1));
+            array.append(new TextNode("two"));
+            array.append(JsonHelper.getObjectMapper().createObjectNode().put("three", 3));
+            assertEquals(3, array.size());
+            assertEquals("[1,\"two\",{\"three\":3}]", serialize(array));
+            // Serializing doesn't consume elements, and more elements can be appended
+            array.append(new IntNode(4));
+            assertEquals("[1,\"two\",{\"three\":3},4]", serialize(array));
+            // Streamed arrays are wrapped in POJONode when stored in action data
+            assertEquals("{\"a\":[1,\"two\",{\"three\":3},4]}",
+                    JsonHelper.getObjectMapper().writeValueAsString(
+                            JsonHelper.getObjectMapper().createObjectNode().set("a", new POJONode(array))));
+            assertEquals("[4 streamed elements]", array.toString());
+        }
+    }
+
+    @Test
+    public void testCloseDeletesFile() throws Exception {
+        var array = new ActionStreamedArray();
+        array.append(new IntNode(1));
+        var file = array.getFile();
+        assertTrue(file.exists());
+        array.close();
+        assertFalse(file.exists());
+        assertEquals(1, array.size());
+        assertThrows(IllegalStateException.class, ()->array.append(new IntNode(2)));
+        var e = assertThrows(JsonMappingException.class, ()->serialize(array));
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        // Closing multiple times is allowed
+        array.close();
+    }
+
+    private static final String serialize(ActionStreamedArray array) throws Exception {
+        return JsonHelper.getObjectMapper().writeValueAsString(array);
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.crypto.helper;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class EncryptionHelperTest {
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 65535, 65536, 65537, 200000})
+    public void testStreamRoundTrip(int size) throws Exception {
+        var data = randomBytes(size);
+        var encrypted = encrypt(data);
+        assertTrue(EncryptionHelper.isStreamEncrypted(new BufferedInputStream(new ByteArrayInputStream(encrypted))));
+        assertArrayEquals(data, decrypt(encrypted));
+    }
+    
+    @Test
+    public void testStringEncryptedNotDetectedAsStream() throws Exception {
+        var encrypted = EncryptionHelper.encrypt("test").getBytes(StandardCharsets.US_ASCII);
+        assertFalse(EncryptionHelper.isStreamEncrypted(new BufferedInputStream(new ByteArrayInputStream(encrypted))));
+    }
+    
+    @Test
+    public void testTamperedStreamRejected() throws Exception {
+        var encrypted = encrypt(randomBytes(1000));
+        encrypted[encrypted.length-20] ^= 1;
+        assertThrows(IOException.class, ()->decrypt(encrypted));
+    }
+    
+    @Test
+    public void testTruncatedStreamRejected() throws Exception {
+        var encrypted = encrypt(randomBytes(150000));
+        // Remove the final chunk (containing 150000-2*65536 bytes of plain text)
+        var truncated = Arrays.copyOf(encrypted, encrypted.length-(150000-2*65536+16+4));
+        assertThrows(IOException.class, ()->decrypt(truncated));
+    }
+    
+    private static byte[] encrypt(byte[] data) throws IOException {
+        var bos = new ByteArrayOutputStream();
+        try ( var out = EncryptionHelper.encryptingOutputStream(bos) ) {
+            out.write(data);
+        }
+        return bos.toByteArray();
+    }
+    
+    private static byte[] decrypt(byte[] data) throws IOException {
+        try ( var in = EncryptionHelper.decryptingInputStream(new ByteArrayInputStream(data)) ) {
+            return in.readAllBytes();
+        }
+    }
+    
+    private static byte[] randomBytes(int size) {
+        var result = new byte[size];
+        new Random(size).nextBytes(result);
+        return result;
+    }
+}
@@ -0,0 +1,212 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.metrics.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fortify.cli.common.json.JsonHelper;
+
+public class FcliMetricsHelperTest {
+    private static final String ENDPOINT = "GET /api/v1/projectVersions/{id}/issues";
+    @TempDir Path tempDir;
+
+    @AfterEach
+    public void disable() {
+        // Make sure that metrics collection is disabled for subsequent tests
+        FcliMetricsHelper.enable(FcliMetricsFormat.table, tempDir.resolve("cleanup.txt").toFile());
+        FcliMetricsHelper.writeAndDisable();
+    }
+
+    @Test
+    public void testGetEndpoint() {
+        assertEquals("/api/v1/projectVersions/{id}/issues", FcliMetricsHelper.getEndpoint("https://ssc.example.com:8443/api/v1/projectVersions/123/issues?limit=50&start=0"));
+        assertEquals("/ssc/api/v1/projectVersions/{id}", FcliMetricsHelper.getEndpoint("http://localhost/ssc/api/v1/projectVersions/123#fragment"));
+        assertEquals("/api/v3/releases/{id}/vulnerabilities/{id}", FcliMetricsHelper.getEndpoint("/api/v3/releases/42/vulnerabilities/3f2504e0-4f89-11d3-9a0c-0305e82c3301"));
+        assertEquals("/api/v3/releases/{id}/vulnerabilities/{id}", FcliMetricsHelper.getEndpoint("/api/v3/releases/42/vulnerabilities/3f2504e04f8911d39a0c0305e82c3301"));
+        // Non-id segments that contain digits are left as-is
+        assertEquals("/api/v1/v2/x1/{id}", FcliMetricsHelper.getEndpoint("/api/v1/v2/x1/7"));
+        assertEquals("/api/v1/bulk", FcliMetricsHelper.getEndpoint("/api/v1/bulk"));
+        assertEquals("", FcliMetricsHelper.getEndpoint("https://ssc.example.com"));
+        assertEquals("", FcliMetricsHelper.getEndpoint(null));
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        write(FcliMetricsFormat.json, ()->FcliMetricsHelper.increment("counter"));
+        assertFalse(FcliMetricsHelper.isEnabled());
+        FcliMetricsHelper.increment("counter");
+        FcliMetricsHelper.recordMillis("timer", 10);
+        FcliMetricsHelper.recordRequest("GET", "/api/v1/bulk", 200, 1_000_000, 1, 1);
+        FcliMetricsHelper.timer("timer").close();
+        var json = JsonHelper.getObjectMapper().readTree(FcliMetricsHelper.format());
+        assertEquals(0, json.get("requests").size());
+        assertEquals(0, json.get("counters").size());
+        assertEquals(0, json.get("timers").size());
+    }
+
+    @Test
+    public void testTableFormat() throws Exception {
+        var output = write(FcliMetricsFormat.table, this::recordSampleMetrics);
+        var lines = output.lines().collect(Collectors.toList());
+        assertEquals("HTTP requests:", lines.get(0));
+        assertEquals(List.of(ENDPOINT.split(" ")[0], ENDPOINT.split(" ")[1], "3", "1", "15215", "<=250", ">10000", "15000", "300", "1000"),
+                columns(lines.stream().filter(l->l.contains(ENDPOINT)).findFirst().get()));
+        assertEquals(List.of("POST", "/api/v1/bulk", "1", "1", "0", "<=10", "<=10", "0", "0", "0"),
+                columns(lines.stream().filter(l->l.contains("/api/v1/bulk")).findFirst().get()));
+        assertTrue(lines.contains("Counters:"));
+        assertEquals(List.of("pages", "7"), columns(lines.stream().filter(l->l.trim().startsWith("pages")).findFirst().get()));
+        assertTrue(lines.contains("Timers:"));
+        assertEquals(List.of("spel", "2", "40", "30"), columns(lines.stream().filter(l->l.trim().startsWith("spel")).findFirst().get()));
+    }
+
+    @Test
+    public void testJsonFormat() throws Exception {
+        var json = JsonHelper.getObjectMapper().readTree(write(FcliMetricsFormat.json, this::recordSampleMetrics));
+        var requests = json.get("requests");
+        assertEquals(2, requests.size());
+        // Requests are sorted by method and endpoint
+        assertEquals(ENDPOINT, requests.get(0).get("endpoint").asText());
+        var request = requests.get(0);
+        assertEquals(3, request.get("count").asLong());
+        assertEquals(1, request.get("errors").asLong());
+        assertEquals(15215, request.get("totalMillis").asLong());
+        assertEquals(15000, request.get("maxMillis").asLong());
+        assertEquals(300, request.get("bytesOut").asLong());
+        assertEquals(1000, request.get("bytesIn").asLong());
+        var histogram = request.get("histogram");
+        assertEquals(11, histogram.size());
+        assertEquals(1, histogram.get("le10").asLong());
+        assertEquals(1, histogram.get("le250").asLong());
+        assertEquals(1, histogram.get("inf").asLong());
+        assertEquals(0, histogram.get("le10000").asLong());
+        assertEquals("POST /api/v1/bulk", requests.get(1).get("endpoint").asText());
+        assertEquals(1, requests.get(1).get("errors").asLong());
+        assertEquals(7, json.get("counters").get("pages").asLong());
+        assertEquals(1, json.get("counters").get("retries").asLong());
+        var timer = json.get("timers").get("spel");
+        assertEquals(2, timer.get("count").asLong());
+        assertEquals(40, timer.get("totalMillis").asLong());
+        assertEquals(30, timer.get("maxMillis").asLong());
+    }
+
+    @Test
+    public void testOpenMetricsFormat() throws Exception {
+        var output = write(FcliMetricsFormat.openmetrics, this::recordSampleMetrics);
+        var labels = "{method=\"GET\",endpoint=\"/api/v1/projectVersions/{id}/issues\"";
+        var lines = output.lines().collect(Collectors.toList());
+        assertTrue(lines.contains("fcli_http_requests_total"+labels+"} 3"));
+        assertTrue(lines.contains("fcli_http_request_errors_total"+labels+"} 1"));
+        // Histogram buckets are cumulative
+        assertTrue(lines.contains("fcli_http_request_duration_seconds_bucket"+labels+",le=\"0.01\"} 1"));
+        assertTrue(lines.contains("fcli_http_request_duration_seconds_bucket"+labels+",le=\"0.1\"} 1"));
+        assertTrue(lines.contains("fcli_http_request_duration_seconds_bucket"+labels+",le=\"0.25\"} 2"));
+        assertTrue(lines.contains("fcli_http_request_duration_seconds_bucket"+labels+",le=\"10.0\"} 2"));
+        assertTrue(lines.contains("fcli_http_request_duration_seconds_bucket"+labels+",le=\"+Inf\"} 3"));
+        assertTrue(lines.contains("fcli_http_request_duration_seconds_sum"+labels+"} 15.215"));
+        assertTrue(lines.contains("fcli_http_request_duration_seconds_count"+labels+"} 3"));
+        assertTrue(lines.contains("fcli_http_request_bytes_total"+labels+",direction=\"out\"} 300"));
+        assertTrue(lines.contains("fcli_http_request_bytes_total"+labels+",direction=\"in\"} 1000"));
+        assertTrue(lines.contains("fcli_events_total{name=\"pages\"} 7"));
+        assertTrue(lines.contains("fcli_duration_seconds_sum{name=\"spel\"} 0.04"));
+        assertTrue(lines.contains("fcli_duration_seconds_count{name=\"spel\"} 2"));
+        // Every metric family has a single TYPE line, and output ends with EOF marker
+        assertEquals(6, lines.stream().filter(l->l.startsWith("# TYPE")).count());
+        assertEquals("# EOF", lines.get(lines.size()-1));
+    }
+
+    @Test
+    public void testOpenMetricsLabelEscaping() throws Exception {
+        var output = write(FcliMetricsFormat.openmetrics, ()->
+            FcliMetricsHelper.recordRequest("GET", "/api/a\"b\\c", 200, 1_000_000, -1, -1));
+        assertTrue(output.contains("fcli_http_requests_total{method=\"GET\",endpoint=\"/api/a\\\"b\\\\c\"} 1"));
+    }
+
+    @Test
+    public void testConcurrentAggregation() throws Exception {
+        var json = JsonHelper.getObjectMapper().readTree(write(FcliMetricsFormat.json, ()->{
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            for ( int i=0; i<1000; i++ ) {
+                var id = i;
+                executor.submit(()->{
+                    FcliMetricsHelper.recordRequest("GET", "/api/v1/projectVersions/"+id, 200, (id%20)*1_000_000L, 1, 2);
+                    FcliMetricsHelper.increment("pages");
+                    try ( var timer = FcliMetricsHelper.timer("transform") ) {}
+                });
+            }
+            executor.shutdown();
+            await(executor);
+        }));
+        var request = json.get("requests").get(0);
+        assertEquals("GET /api/v1/projectVersions/{id}", request.get("endpoint").asText());
+        assertEquals(1000, request.get("count").asLong());
+        assertEquals(0, request.get("errors").asLong());
+        assertEquals(1000, request.get("bytesOut").asLong());
+        assertEquals(2000, request.get("bytesIn").asLong());
+        assertEquals(19, request.get("maxMillis").asLong());
+        // 0-10 ms: 11 of every 20 requests; 11-19 ms: 9 of every 20 requests
+        assertEquals(550, request.get("histogram").get("le10").asLong());
+        assertEquals(450, request.get("histogram").get("le25").asLong());
+        assertEquals(1000, json.get("counters").get("pages").asLong());
+        assertEquals(1000, json.get("timers").get("transform").get("count").asLong());
+    }
+
+    private void recordSampleMetrics() {
+        var url = "https://ssc.example.com/api/v1/projectVersions/%s/issues?limit=%s";
+        FcliMetricsHelper.recordRequest("GET", String.format(url, 1, 10), 200, 5_000_000, 100, 200);
+        FcliMetricsHelper.recordRequest("GET", String.format(url, 2, 20), 404, 210_000_000, 200, 800);
+        FcliMetricsHelper.recordRequest("GET", String.format(url, 3, 30), 200, 15_000_000_000L, -1, -1);
+        FcliMetricsHelper.recordRequest("POST", "/api/v1/bulk", -1, 500_000, -1, -1);
+        FcliMetricsHelper.increment("pages");
+        FcliMetricsHelper.increment("pages", 6);
+        FcliMetricsHelper.increment("retries");
+        FcliMetricsHelper.recordMillis("spel", 10);
+        FcliMetricsHelper.recordNanos("spel", 30_000_000);
+    }
+
+    private String write(FcliMetricsFormat format, Runnable recorder) throws Exception {
+        var file = tempDir.resolve("metrics-"+format.name());
+        FcliMetricsHelper.enable(format, file.toFile());
+        assertTrue(FcliMetricsHelper.isEnabled());
+        recorder.run();
+        FcliMetricsHelper.writeAndDisable();
+        assertFalse(FcliMetricsHelper.isEnabled());
+        return Files.readString(file);
+    }
+
+    private static final List<String> columns(String line) {
+        return Stream.of(line.trim().split("\\s+")).collect(Collectors.toList());
+    }
+
+    private static final void await(ExecutorService executor) {
+        try {
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.rest.fields;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class ServerSideFieldsParamGeneratorTest {
+    private final ServerSideFieldsParamGenerator generator = new ServerSideFieldsParamGenerator()
+            .always("id", "hidden", "id")
+            .add("visibility", "hidden", "removed", "hidden")
+            .add("visibility", "suppressed")
+            .addDirect("id", "name", "severity", "name");
+
+    @Test
+    public void testFieldsParamValue() {
+        assertEquals("id,hidden,name", generator.getServerSideFieldsParamValue(List.of("name")));
+        assertEquals("id,hidden,severity,name", generator.getServerSideFieldsParamValue(List.of("severity", "name", "id")));
+        assertEquals("id,hidden,removed,suppressed,name", generator.getServerSideFieldsParamValue(List.of("visibility", "name")));
+    }
+
+    @Test
+    public void testUnregisteredProperty() {
+        assertNull(generator.getServerSideFieldsParamValue(List.of("name", "details")));
+    }
+
+    @Test
+    public void testNoRequiredProperties() {
+        assertNull(generator.getServerSideFieldsParamValue(null));
+        assertNull(generator.getServerSideFieldsParamValue(List.of()));
+    }
+}
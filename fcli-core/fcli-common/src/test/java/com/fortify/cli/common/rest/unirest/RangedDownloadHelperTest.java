@@ -0,0 +1,169 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.rest.unirest;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import kong.unirest.Unirest;
+import kong.unirest.UnirestInstance;
+
+public class RangedDownloadHelperTest {
+    private static final Pattern RANGE_PATTERN = Pattern.compile("bytes=(\\d+)-(\\d+)");
+    private static final byte[] CONTENTS = new byte[10*1024*1024+123];
+    static { new Random(1).nextBytes(CONTENTS); }
+    private final AtomicInteger rangeRequests = new AtomicInteger();
+    private final AtomicInteger fullRequests = new AtomicInteger();
+    private HttpServer server;
+    private UnirestInstance unirest;
+    @TempDir Path tempDir;
+
+    @BeforeEach
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ranged", e->handle(e, true));
+        server.createContext("/plain", e->handle(e, false));
+        server.createContext("/overflow", this::handleOverflow);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.start();
+        unirest = Unirest.spawnInstance();
+        unirest.config().defaultBaseUrl("http://127.0.0.1:"+server.getAddress().getPort());
+    }
+
+    @AfterEach
+    public void stop() {
+        unirest.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testRangedDownload() throws Exception {
+        var dest = tempDir.resolve("ranged.bin");
+        var digest = MessageDigest.getInstance("SHA-256");
+        var status = RangedDownloadHelper.builder()
+                .requestSupplier(()->unirest.get("/ranged"))
+                .maxSegments(3)
+                .contentListener(digest::update)
+                .build().download(dest.toFile());
+        assertEquals(206, status);
+        assertArrayEquals(CONTENTS, Files.readAllBytes(dest));
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(CONTENTS), digest.digest());
+        assertEquals(4, rangeRequests.get()); // Probe + 3 segments
+        assertEquals(0, fullRequests.get());
+        assertFalse(Files.exists(tempDir.resolve("ranged.bin.part")));
+        assertFalse(Files.exists(tempDir.resolve("ranged.bin.part.json")));
+    }
+
+    @Test
+    public void testPlainDownload() throws Exception {
+        var dest = tempDir.resolve("plain.bin");
+        RangedDownloadHelper.download(()->unirest.get("/plain"), null, dest.toFile());
+        assertArrayEquals(CONTENTS, Files.readAllBytes(dest));
+        assertEquals(1, fullRequests.get());
+    }
+
+    @Test
+    public void testResumeDownload() throws Exception {
+        var dest = tempDir.resolve("resume.bin");
+        var half = CONTENTS.length/2;
+        var part = new byte[half];
+        System.arraycopy(CONTENTS, 0, part, 0, half);
+        Files.write(tempDir.resolve("resume.bin.part"), part);
+        Files.writeString(tempDir.resolve("resume.bin.part.json"), String.format(
+            "{\"total\":%d,\"validator\":\"\\\"v1\\\"\",\"segments\":[{\"start\":0,\"end\":%d,\"done\":%d},{\"start\":%d,\"end\":%d,\"done\":0}]}",
+            CONTENTS.length, half-1, half, half, CONTENTS.length-1));
+        var digest = MessageDigest.getInstance("SHA-256");
+        RangedDownloadHelper.builder()
+                .requestSupplier(()->unirest.get("/ranged"))
+                .contentListener(digest::update)
+                .build().download(dest.toFile());
+        assertArrayEquals(CONTENTS, Files.readAllBytes(dest));
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(CONTENTS), digest.digest());
+        assertEquals(2, rangeRequests.get()); // Probe + remaining segment
+    }
+
+    @Test
+    public void testOverflowDoesntCorruptNextSegment() throws Exception {
+        var dest = tempDir.resolve("overflow.bin");
+        var helper = RangedDownloadHelper.builder()
+                .requestSupplier(()->unirest.get("/overflow"))
+                .maxSegments(2)
+                .build();
+        var e = assertThrows(IllegalStateException.class, ()->helper.download(dest.toFile()));
+        assertEquals("Server returned more data than requested", e.getMessage());
+        // Any data written to the part file must match the expected contents; excess
+        // data for the first segment must not have been written into the second segment.
+        var part = Files.readAllBytes(tempDir.resolve("overflow.bin.part"));
+        for ( int i=0; i<part.length; i++ ) {
+            if ( part[i]!=0 && part[i]!=CONTENTS[i] ) { fail("Unexpected data at offset "+i); }
+        }
+    }
+
+    /**
+     * Return the requested range followed by some unexpected data.
+     */
+    private void handleOverflow(HttpExchange e) throws IOException {
+        var matcher = RANGE_PATTERN.matcher(e.getRequestHeaders().getFirst("Range"));
+        matcher.matches();
+        int start = Integer.parseInt(matcher.group(1));
+        int end = Integer.parseInt(matcher.group(2));
+        var excess = new byte[Math.min(1024, CONTENTS.length-end-1)];
+        for ( int i=0; i<excess.length; i++ ) { excess[i] = (byte)~CONTENTS[end+1+i]; }
+        e.getResponseHeaders().add("Content-Range", String.format("bytes %d-%d/%d", start, end, CONTENTS.length));
+        e.getResponseHeaders().add("ETag", "\"v1\"");
+        e.sendResponseHeaders(206, end-start+1+excess.length);
+        try ( var os = e.getResponseBody() ) { 
+            os.write(CONTENTS, start, end-start+1);
+            os.write(excess);
+        }
+    }
+
+    private void handle(HttpExchange e, boolean supportsRanges) throws IOException {
+        var range = e.getRequestHeaders().getFirst("Range");
+        var matcher = range==null ? null : RANGE_PATTERN.matcher(range);
+        if ( supportsRanges && matcher!=null && matcher.matches() ) {
+            rangeRequests.incrementAndGet();
+            int start = Integer.parseInt(matcher.group(1));
+            int end = Integer.parseInt(matcher.group(2));
+            e.getResponseHeaders().add("Content-Range", String.format("bytes %d-%d/%d", start, end, CONTENTS.length));
+            e.getResponseHeaders().add("ETag", "\"v1\"");
+            e.sendResponseHeaders(206, end-start+1);
+            try ( var os = e.getResponseBody() ) { os.write(CONTENTS, start, end-start+1); }
+        } else {
+            fullRequests.incrementAndGet();
+            e.sendResponseHeaders(200, CONTENTS.length);
+            try ( var os = e.getResponseBody() ) { os.write(CONTENTS); }
+        }
+    }
+}
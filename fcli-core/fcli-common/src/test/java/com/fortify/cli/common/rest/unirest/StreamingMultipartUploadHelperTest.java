@@ -0,0 +1,155 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.rest.unirest;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.metrics.helper.FcliMetricsFormat;
+import com.fortify.cli.common.metrics.helper.FcliMetricsHelper;
+import com.fortify.cli.common.rest.unirest.config.UnirestMetricsConfigurer;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import kong.unirest.Unirest;
+import kong.unirest.UnirestInstance;
+
+public class StreamingMultipartUploadHelperTest {
+    private static final byte[] CONTENTS = new byte[3*1024*1024+123];
+    static { new Random(1).nextBytes(CONTENTS); }
+    private final AtomicReference<Headers> requestHeaders = new AtomicReference<>();
+    private final AtomicReference<byte[]> requestBody = new AtomicReference<>();
+    private HttpServer server;
+    private UnirestInstance unirest;
+    @TempDir Path tempDir;
+
+    @BeforeEach
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/upload", this::handle);
+        server.start();
+        unirest = Unirest.spawnInstance();
+        unirest.config().defaultBaseUrl("http://127.0.0.1:"+server.getAddress().getPort());
+    }
+
+    @AfterEach
+    public void stop() {
+        unirest.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testUpload() throws Exception {
+        StreamingMultipartUploadHelper.configure(unirest);
+        var file = tempDir.resolve("upload \"1\".bin");
+        Files.write(file, CONTENTS);
+        var digest = MessageDigest.getInstance("SHA-256");
+        var lastProgress = new AtomicLong();
+        var helper = StreamingMultipartUploadHelper.builder()
+                .file(file.toFile())
+                .progressMonitor((field, fileName, written, total)->lastProgress.set(written))
+                .contentListener(digest::update)
+                .build();
+        var response = helper.upload(unirest.post("/upload"), r->r.asString().getBody());
+        assertEquals("OK", response);
+        assertEquals(CONTENTS.length, helper.getBytesWritten());
+        assertEquals(CONTENTS.length, lastProgress.get());
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(CONTENTS), digest.digest());
+
+        var headers = requestHeaders.get();
+        var body = requestBody.get();
+        assertNull(headers.getFirst("Transfer-Encoding"));
+        assertNull(headers.getFirst("X-Fcli-Upload-Id"));
+        assertEquals(String.valueOf(body.length), headers.getFirst("Content-Length"));
+        var boundary = headers.getFirst("Content-Type").replaceFirst("multipart/form-data; boundary=", "");
+        var expected = new ByteArrayOutputStream();
+        expected.write(("--"+boundary+"\r\nContent-Disposition: form-data; name=\"file\"; filename=\"upload %221%22.bin\"\r\n"
+                +"Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        expected.write(CONTENTS);
+        expected.write(("\r\n--"+boundary+"--\r\n").getBytes(StandardCharsets.UTF_8));
+        assertArrayEquals(expected.toByteArray(), body);
+    }
+
+    @Test
+    public void testGetContent() throws Exception {
+        var entity = new AtomicReference<HttpEntity>();
+        StreamingMultipartUploadHelper.configure(unirest);
+        unirest.config().addInterceptor((request, context)->entity.set(((HttpEntityEnclosingRequest)request).getEntity()));
+        var file = tempDir.resolve("upload.bin");
+        Files.write(file, CONTENTS);
+        StreamingMultipartUploadHelper.upload(unirest.post("/upload"), file.toFile(), null, r->r.asString().getBody());
+        try ( var is = entity.get().getContent() ) {
+            assertArrayEquals(requestBody.get(), is.readAllBytes());
+        }
+        assertEquals(requestBody.get().length, entity.get().getContentLength());
+    }
+
+    @Test
+    public void testMetricsBytesOut() throws Exception {
+        var metricsFile = tempDir.resolve("metrics.json");
+        FcliMetricsHelper.enable(FcliMetricsFormat.json, metricsFile.toFile());
+        try {
+            UnirestMetricsConfigurer.configure(unirest);
+            StreamingMultipartUploadHelper.configure(unirest);
+            var file = tempDir.resolve("upload.bin");
+            Files.write(file, CONTENTS);
+            StreamingMultipartUploadHelper.upload(unirest.post("/upload"), file.toFile(), null, r->r.asString().getBody());
+        } finally {
+            FcliMetricsHelper.writeAndDisable();
+        }
+        var request = JsonHelper.getObjectMapper().readTree(metricsFile.toFile()).get("requests").get(0);
+        assertEquals("POST /upload", request.get("endpoint").asText());
+        assertEquals(requestBody.get().length, request.get("bytesOut").asLong());
+    }
+
+    @Test
+    public void testUploadNotConfigured() throws Exception {
+        var file = tempDir.resolve("upload.bin");
+        Files.write(file, Arrays.copyOf(CONTENTS, 10));
+        assertThrows(IllegalStateException.class, ()->
+            StreamingMultipartUploadHelper.upload(unirest.post("/upload"), file.toFile(), null, r->r.asString().getBody()));
+    }
+
+    private void handle(HttpExchange e) throws IOException {
+        try ( var is = e.getRequestBody() ) {
+            requestHeaders.set(e.getRequestHeaders());
+            requestBody.set(is.readAllBytes());
+        }
+        var response = "OK".getBytes(StandardCharsets.UTF_8);
+        e.sendResponseHeaders(200, response.length);
+        try ( var os = e.getResponseBody() ) { os.write(response); }
+    }
+}
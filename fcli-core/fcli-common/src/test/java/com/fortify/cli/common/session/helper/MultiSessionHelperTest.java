@@ -0,0 +1,87 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.session.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.fortify.cli.common.session.cli.mixin.SessionNameMixin;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.MutuallyExclusiveArgsException;
+
+public class MultiSessionHelperTest {
+    @Test
+    public void testGetOrCreateForCurrentSession() throws Exception {
+        var sessionNames = List.of("s1", "s2", "s3");
+        Map<String, StringBuilder> valuesBySessionName = new ConcurrentHashMap<>();
+        var createCount = new AtomicInteger();
+        // Make sure that all sessions are running concurrently
+        var latch = new CountDownLatch(sessionNames.size());
+        MultiSessionHelper.runForSessions(sessionNames, sessionName->{
+            latch.countDown();
+            await(latch);
+            for ( int i=0; i<100; i++ ) {
+                MultiSessionHelper.getOrCreateForCurrentSession(valuesBySessionName, ()->{
+                    createCount.incrementAndGet();
+                    return new StringBuilder();
+                }).append(sessionName);
+            }
+        });
+        assertEquals(sessionNames.size(), createCount.get());
+        for ( var sessionName : sessionNames ) {
+            assertEquals(sessionName.repeat(100), valuesBySessionName.get(sessionName).toString());
+        }
+    }
+
+    @Test
+    public void testGetOrCreateWithoutMultiSession() {
+        Map<String, Object> valuesBySessionName = new ConcurrentHashMap<>();
+        assertNull(MultiSessionHelper.getCurrentSessionName());
+        var value = MultiSessionHelper.getOrCreateForCurrentSession(valuesBySessionName, Object::new);
+        assertSame(value, MultiSessionHelper.getOrCreateForCurrentSession(valuesBySessionName, Object::new));
+        assertEquals(1, valuesBySessionName.size());
+    }
+
+    @Test
+    public void testSessionAndSessionsOptionsConflict() {
+        var cmd = new CommandLine(new TestCommand());
+        assertThrows(MutuallyExclusiveArgsException.class, ()->cmd.parseArgs("--session", "s1", "--sessions", "s2,s3"));
+    }
+
+    private static final void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Command(name = "test")
+    private static final class TestCommand {
+        @Mixin private SessionNameMixin.OptionalOption sessionNameMixin;
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.spring.expression;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.expression.Expression;
+import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+public class SpelRootPropertyNamesCollectorTest {
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser();
+
+    @Test
+    public void testPropertyReferences() {
+        assertEquals(Set.of("a"), names("a"));
+        assertEquals(Set.of("a", "c"), names("a.b=='x' && #fn(c)"));
+        assertEquals(Set.of("a"), names("a?.b?.c"));
+        assertEquals(Set.of("a", "b"), names("a.toUpperCase() + b.substring(1)"));
+        assertEquals(Set.of("a", "b"), names("a.substring(b.length())"));
+        assertEquals(Set.of("a", "b"), names("a[b]"));
+        assertEquals(Set.of("a", "b"), names("a ?: b"));
+        assertEquals(Set.of(), names("'literal' + 1"));
+        assertEquals(Set.of(), names("#var.property"));
+    }
+
+    @Test
+    public void testMultipleExpressions() {
+        var result = SpelRootPropertyNamesCollector.getRootPropertyNames(List.of(parse("a.x"), parse("b"), parse("a.y")));
+        assertEquals(List.of("a", "b"), List.copyOf(result));
+    }
+
+    @Test
+    public void testTemplateExpression() {
+        var expression = PARSER.parseExpression("Name: ${name}, Location: ${location.file}:${location.line}", new TemplateParserContext("${", "}"));
+        assertEquals(Set.of("name", "location"), SpelRootPropertyNamesCollector.getRootPropertyNames(expression));
+    }
+
+    @Test
+    public void testSelectionAndProjection() {
+        // Properties referenced in selection/projection expressions may be reported as root properties
+        assertTrue(names("items.?[severity>3]").contains("items"));
+        assertTrue(names("items.![name]").contains("items"));
+    }
+
+    @Test
+    public void testUnresolvable() {
+        assertNull(names("#root"));
+        assertNull(names("#root.a"));
+        assertNull(names("#this.a"));
+        assertNull(names("a + toString()"));
+        assertNull(SpelRootPropertyNamesCollector.getRootPropertyNames(List.of(parse("a"), parse("#root"))));
+    }
+
+    private static final Set<String> names(String expression) {
+        var result = SpelRootPropertyNamesCollector.getRootPropertyNames(parse(expression));
+        return result==null ? null : Stream.of(result.toArray(String[]::new)).collect(Collectors.toSet());
+    }
+
+    private static final Expression parse(String expression) {
+        return PARSER.parseExpression(expression);
+    }
+}
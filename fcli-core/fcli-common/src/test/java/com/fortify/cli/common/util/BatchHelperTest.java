@@ -0,0 +1,71 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+public class BatchHelperTest {
+    @TempDir Path tempDir;
+
+    @Test
+    public void testLoadManifestAndResolveFile() throws Exception {
+        var manifest = tempDir.resolve("manifest.yaml");
+        Files.writeString(manifest, "- name: a\n  file: a.txt\n- name: b\n  file: b.txt\n");
+        Files.writeString(tempDir.resolve("a.txt"), "a");
+        var entries = BatchHelper.loadManifest(manifest.toFile(), TestEntry[].class);
+        assertEquals(List.of("a", "b"), entries.stream().map(TestEntry::getName).toList());
+        assertEquals(tempDir.resolve("a.txt").toFile(), BatchHelper.resolveFile(manifest.toFile(), "a", "a.txt"));
+        var e = assertThrows(IllegalArgumentException.class, ()->BatchHelper.resolveFile(manifest.toFile(), "entry b", "b.txt"));
+        assertEquals("Could not read file for entry b: "+tempDir.resolve("b.txt"), e.getMessage());
+    }
+
+    @Test
+    public void testEmptyManifest() throws Exception {
+        var manifest = tempDir.resolve("manifest.json");
+        Files.writeString(manifest, "[]");
+        assertThrows(IllegalArgumentException.class, ()->BatchHelper.loadManifest(manifest.toFile(), TestEntry[].class));
+    }
+
+    @Test
+    public void testProcessEntriesAggregatesFailures() {
+        var processed = ConcurrentHashMap.<Integer>newKeySet();
+        var entries = List.of(1, 2, 3, 4, 5);
+        var e = assertThrows(IllegalStateException.class, ()->BatchHelper.processEntries(entries, 2, i->{
+            processed.add(i);
+            if ( i%2==0 ) { throw new IllegalArgumentException("failed"+i); }
+            return "result"+i;
+        }, i->"entry"+i, r->r, "Error processing %d of %d entries:\n  %s\nSucceeded: %s"));
+        // All entries are processed, even if some of them fail
+        assertEquals(5, processed.size());
+        assertEquals("Error processing 2 of 5 entries:\n  entry2: failed2\n  entry4: failed4\nSucceeded: result1,result3,result5", e.getMessage());
+        assertEquals(List.of("result1", "result2"), BatchHelper.processEntries(List.of(1, 2), 4, i->"result"+i, i->"entry"+i, r->r, "%d %d %s %s"));
+    }
+
+    @Data @NoArgsConstructor
+    public static final class TestEntry {
+        private String name;
+        private String file;
+    }
+}
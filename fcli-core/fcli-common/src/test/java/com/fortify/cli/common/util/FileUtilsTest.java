@@ -0,0 +1,138 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class FileUtilsTest {
+    @TempDir Path tempDir;
+
+    @Test
+    public void testExtractZipNestedDirs() throws Exception {
+        var random = new Random(1);
+        var entries = new LinkedHashMap<String, byte[]>();
+        entries.put("bin/", null);
+        entries.put("bin/tool", bytes(random, 100));
+        entries.put("empty.txt", new byte[0]);
+        entries.put("large.bin", bytes(random, 1024*1024+17));
+        // Parent directories of these entries are not explicitly listed in the zip file
+        for ( int i=0 ; i<50 ; i++ ) {
+            entries.put(String.format("lib/%d/nested/%d/file%d.jar", i%3, i%7, i), bytes(random, random.nextInt(200_000)));
+        }
+        entries.put("lib/empty/", null);
+        var targetDir = tempDir.resolve("target");
+        // Existing files must be fully replaced, even if larger than the zip entry
+        Files.createDirectories(targetDir.resolve("bin"));
+        Files.write(targetDir.resolve("bin/tool"), new byte[10_000]);
+        FileUtils.extractZip(createZip(entries).toFile(), targetDir);
+        for ( var e : entries.entrySet() ) {
+            var path = targetDir.resolve(e.getKey());
+            if ( e.getValue()==null ) {
+                assertTrue(Files.isDirectory(path), e.getKey());
+            } else {
+                assertArrayEquals(e.getValue(), Files.readAllBytes(path), e.getKey());
+            }
+        }
+        try ( var files = Files.walk(targetDir) ) {
+            assertEquals(entries.values().stream().filter(v->v!=null).count(), files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    public void testExtractZipWithPathResolver() throws Exception {
+        var entries = new LinkedHashMap<String, byte[]>();
+        entries.put("root/a.txt", new byte[] {1});
+        entries.put("root/b/c.txt", new byte[] {2});
+        var targetDir = tempDir.resolve("target");
+        FileUtils.extractZip(createZip(entries).toFile(), 
+                FileUtils.defaultExtractPathResolver(targetDir, p->p.subpath(1, p.getNameCount())));
+        assertArrayEquals(new byte[] {1}, Files.readAllBytes(targetDir.resolve("a.txt")));
+        assertArrayEquals(new byte[] {2}, Files.readAllBytes(targetDir.resolve("b/c.txt")));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"../evil.txt", "dir/../../evil.txt", "dir/../../target-evil/evil.txt"})
+    public void testExtractZipSlip(String entryName) throws Exception {
+        var entries = new LinkedHashMap<String, byte[]>();
+        for ( int i=0 ; i<20 ; i++ ) { entries.put("dir/file"+i+".txt", new byte[] {(byte)i}); }
+        entries.put(entryName, new byte[] {1});
+        var targetDir = tempDir.resolve("target");
+        var e = assertThrows(RuntimeException.class, ()->FileUtils.extractZip(createZip(entries).toFile(), targetDir));
+        assertTrue(e.getMessage().contains("illegal path"), e.getMessage());
+        assertFalse(Files.exists(targetDir.resolve(entryName).normalize()));
+        // All entries are validated before extracting any files
+        assertFalse(Files.exists(targetDir.resolve("dir/file0.txt")));
+    }
+
+    @Test
+    public void testExtractZipFailure() throws Exception {
+        var entries = new LinkedHashMap<String, byte[]>();
+        for ( int i=0 ; i<100 ; i++ ) { entries.put("dir/file"+i+".txt", new byte[100_000]); }
+        // File entry that conflicts with a directory; extracting this entry fails
+        entries.put("dir/conflict/", null);
+        entries.put("dir/conflict", new byte[] {1});
+        for ( int i=100 ; i<200 ; i++ ) { entries.put("dir/file"+i+".txt", new byte[100_000]); }
+        var zip = createZip(entries);
+        var targetDir = tempDir.resolve("target");
+        var threadsBefore = Thread.activeCount();
+        assertThrows(IOException.class, ()->FileUtils.extractZip(zip.toFile(), targetDir));
+        assertTrue(Files.isDirectory(targetDir.resolve("dir/conflict")));
+        // Extraction threads must have been stopped
+        for ( int i=0 ; i<50 && Thread.activeCount()>threadsBefore ; i++ ) { Thread.sleep(100); }
+        assertTrue(Thread.activeCount()<=threadsBefore);
+        // Zip file must have been closed, allowing for the extraction to be retried
+        entries.remove("dir/conflict");
+        var retryDir = tempDir.resolve("retry");
+        FileUtils.extractZip(createZip(entries).toFile(), retryDir);
+        try ( var files = Files.list(retryDir.resolve("dir")) ) {
+            assertEquals(201, files.count());
+        }
+        Files.delete(zip);
+    }
+
+    private Path createZip(Map<String, byte[]> entries) throws IOException {
+        var zip = Files.createTempFile(tempDir, "test", ".zip");
+        try ( var zos = new ZipOutputStream(Files.newOutputStream(zip)) ) {
+            for ( var e : entries.entrySet() ) {
+                zos.putNextEntry(new ZipEntry(e.getKey()));
+                if ( e.getValue()!=null ) { zos.write(e.getValue()); }
+                zos.closeEntry();
+            }
+        }
+        return zip;
+    }
+
+    private static final byte[] bytes(Random random, int size) {
+        var result = new byte[size];
+        random.nextBytes(result);
+        return result;
+    }
+}
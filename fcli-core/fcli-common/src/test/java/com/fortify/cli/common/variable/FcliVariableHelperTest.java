@@ -0,0 +1,114 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.variable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fortify.cli.common.util.EnvHelper;
+
+public class FcliVariableHelperTest {
+    private static final String DATA_DIR_PROPERTY = EnvHelper.envSystemPropertyName("FCLI_DATA_DIR");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int RECORD_COUNT = 10000;
+    @TempDir Path tempDir;
+
+    @BeforeEach
+    public void setDataDir() {
+        System.setProperty(DATA_DIR_PROPERTY, tempDir.toString());
+    }
+
+    @AfterEach
+    public void clearDataDir() {
+        System.clearProperty(DATA_DIR_PROPERTY);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testFilterVariableInPlace(boolean encrypt) throws Exception {
+        FcliVariableHelper.save("x", "id", createRecords(), false, encrypt);
+        // Similar to 'fcli util variable contents x -q ... --store x', the new contents
+        // writer is opened after opening the (lazy) contents stream for the same variable.
+        try ( var stream = FcliVariableHelper.getVariableContentsStream("x", true) ) {
+            var writer = FcliVariableHelper.getVariableContentsWriter("x", "id", false, encrypt);
+            try ( var generator = MAPPER.createGenerator(writer) ) {
+                generator.writeStartArray();
+                stream.filter(r->r.get("id").asInt()%2==0).forEach(r->writeTree(generator, r));
+                generator.writeEndArray();
+            }
+        }
+        var contents = FcliVariableHelper.getVariableContents("x", true);
+        assertEquals(RECORD_COUNT/2, contents.size());
+        assertTrue(IntStream.range(0, contents.size()).allMatch(i->contents.get(i).get("id").asInt()==i*2));
+        try ( var files = Files.list(FcliVariableHelper.getVariablesPath().resolve("x")) ) {
+            assertFalse(files.anyMatch(p->p.toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    public void testStreamReadErrorDeletesVariable() throws Exception {
+        FcliVariableHelper.save("x", "id", createRecords(), false, false);
+        Files.writeString(getContentsPath("x"), "[{\"id\":0},{\"id\":1},{\"id\":");
+        try ( var stream = FcliVariableHelper.getVariableContentsStream("x", true) ) {
+            var e = assertThrows(IllegalStateException.class, ()->stream.collect(Collectors.toList()));
+            assertTrue(e.getMessage().contains("data has been deleted"));
+        }
+        assertFalse(FcliVariableHelper.exists("x"));
+    }
+
+    @Test
+    public void testStreamReadErrorWithoutFailure() throws Exception {
+        FcliVariableHelper.save("x", "id", createRecords(), false, false);
+        Files.writeString(getContentsPath("x"), "[{\"id\":0},{\"id\":1},{\"id\":");
+        try ( var stream = FcliVariableHelper.getVariableContentsStream("x", false) ) {
+            assertEquals(2, stream.count());
+        }
+        assertFalse(FcliVariableHelper.exists("x"));
+    }
+
+    private static final Path getContentsPath(String variableName) {
+        return FcliVariableHelper.getVariablesPath().resolve(variableName).resolve("contents.json");
+    }
+
+    private static final ArrayNode createRecords() {
+        var result = MAPPER.createArrayNode();
+        IntStream.range(0, RECORD_COUNT).forEach(i->result.addObject().put("id", i).put("name", "record"+i));
+        return result;
+    }
+
+    private static final void writeTree(JsonGenerator generator, JsonNode node) {
+        try {
+            generator.writeTree(node);
+        } catch ( Exception e ) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.common.variable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.util.EnvHelper;
+
+public class FcliVariableResolverTest {
+    private static final String DATA_DIR_PROPERTY = EnvHelper.envSystemPropertyName("FCLI_DATA_DIR");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String RECORD = "{"
+            + "\"id\": 123, \"name\": \"app \\\"1\\\"\", \"empty\": \"\", \"long\": 12345678901234, \"big\": 123456789012345678901234567890,"
+            + "\"negative\": -42, \"double\": 1.0, \"fraction\": 0.1, \"exponent\": 1.5e20, \"small\": 1e-7,"
+            + "\"enabled\": true, \"disabled\": false, \"nullValue\": null, \"array\": [1, 2], \"a-b\": \"invalid name\","
+            + "\"application\": {\"id\": 7, \"name\": \"app\", \"owner\": {\"email\": \"x@example.com\", \"active\": true}},"
+            + "\"l1\": {\"l2\": {\"l3\": {\"l4\": {\"l5\": {\"v\": 5, \"l6\": {\"v\": 6, \"l7\": {\"v\": 7}}}}}}}"
+            + "}";
+    private static final List<String> PATHS = List.of(
+            "id", "name", "empty", "long", "big", "negative", "double", "fraction", "exponent", "small", "enabled", "disabled",
+            "application.id", "application.name", "application.owner.email", "application.owner.active", 
+            "application?.name", "application?.owner?.email", "l1.l2.l3.l4.l5.v", "l1.l2.l3.l4.l5.l6.v", "l1.l2.l3.l4.l5.l6.l7.v", 
+            "l1?.l2?.l3?.l4?.l5?.l6?.l7?.v", "array.size()", "name.toUpperCase()", "application.toString()");
+    @TempDir Path tempDir;
+
+    @BeforeEach
+    public void setDataDir() {
+        System.setProperty(DATA_DIR_PROPERTY, tempDir.toString());
+    }
+
+    @AfterEach
+    public void clearDataDir() {
+        System.clearProperty(DATA_DIR_PROPERTY);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testIndexMatchesSpelEvaluation(boolean encrypt) throws Exception {
+        var record = MAPPER.readTree(RECORD);
+        FcliVariableHelper.save("x", "id", record, true, encrypt);
+        assertIndexMatchesSpelEvaluation(record, encrypt);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testIndexMatchesSpelEvaluationForWriter(boolean encrypt) throws Exception {
+        try ( var writer = FcliVariableHelper.getVariableContentsWriter("x", "id", true, encrypt) ) {
+            writer.write(RECORD);
+        }
+        assertIndexMatchesSpelEvaluation(MAPPER.readTree(RECORD), encrypt);
+    }
+
+    @Test
+    public void testIndexEntries() throws Exception {
+        FcliVariableHelper.save("x", "id", MAPPER.readTree(RECORD), true, false);
+        var index = readIndex("x");
+        // Only textual, numeric and boolean values with valid property names, up to the maximum depth, are indexed
+        assertTrue(index.has("application.owner.email"));
+        assertTrue(index.has("l1.l2.l3.l4.l5.v"));
+        assertFalse(index.has("l1.l2.l3.l4.l5.l6.v"));
+        assertFalse(index.has("l1.l2.l3.l4.l5.l6.l7.v"));
+        assertFalse(index.has("application"));
+        assertFalse(index.has("nullValue"));
+        assertFalse(index.has("array"));
+        assertFalse(index.has("a-b"));
+    }
+
+    @Test
+    public void testIndexUsedForResolution() throws Exception {
+        FcliVariableHelper.save("x", "id", MAPPER.readTree(RECORD), true, false);
+        // Simple property paths are resolved from the index, without reading the contents
+        Files.writeString(getVariablePath("x").resolve("contents.json"), "{\"id\": 456, \"application\": {\"id\": 8}}");
+        assertEquals("123", FcliVariableHelper.resolveVariable("::x::"));
+        assertEquals("7", FcliVariableHelper.resolveVariable("::x::application?.id"));
+        // Other property paths are evaluated on the variable contents
+        assertEquals("8", FcliVariableHelper.resolveVariable("::x::application['id']"));
+    }
+
+    @Test
+    public void testIndexReplacedWhenStoredAsSingular() throws Exception {
+        FcliVariableHelper.save("x", "id", MAPPER.readTree(RECORD), true, false);
+        FcliVariableHelper.save("x", "id", MAPPER.readTree("{\"id\": 456}"), true, false);
+        assertEquals("456", FcliVariableHelper.resolveVariable("::x::id"));
+        assertFalse(readIndex("x").has("name"));
+        assertThrows(IllegalArgumentException.class, ()->FcliVariableHelper.resolveVariable("::x::name"));
+    }
+
+    @Test
+    public void testIndexRemovedWhenStoredAsNonSingular() throws Exception {
+        FcliVariableHelper.save("x", "id", MAPPER.readTree(RECORD), true, false);
+        assertTrue(Files.exists(getIndexPath("x")));
+        FcliVariableHelper.save("x", "id", MAPPER.readTree("[{\"id\": 456}]"), false, false);
+        assertFalse(Files.exists(getIndexPath("x")));
+        assertEquals("456", FcliVariableHelper.resolveVariable("::x::get(0).id"));
+        assertEquals("1", FcliVariableHelper.resolveVariable("::x::size()"));
+    }
+
+    @Test
+    public void testIndexRemovedWhenWrittenAsNonSingular() throws Exception {
+        FcliVariableHelper.save("x", "id", MAPPER.readTree(RECORD), true, false);
+        try ( var writer = FcliVariableHelper.getVariableContentsWriter("x", "id", false, false) ) {
+            writer.write("[{\"id\": 456}]");
+        }
+        assertFalse(Files.exists(getIndexPath("x")));
+        assertEquals("456", FcliVariableHelper.resolveVariable("::x::[0].id"));
+    }
+
+    @Test
+    public void testStaleIndexIgnoredForNonSingular() throws Exception {
+        FcliVariableHelper.save("x", "id", MAPPER.readTree("[{\"id\": 456}]"), false, false);
+        // Any index left behind, for example by an older fcli version, is ignored for non-singular variables
+        Files.writeString(getIndexPath("x"), "{\"id\": \"123\"}");
+        assertNull(FcliVariableHelper.readVariableIndex(FcliVariableHelper.getVariableDescriptor("x", true)));
+        assertEquals("456", FcliVariableHelper.resolveVariable("::x::get(0).id"));
+    }
+
+    private static final void assertIndexMatchesSpelEvaluation(JsonNode record, boolean encrypt) throws Exception {
+        var index = readIndex("x");
+        assertNotNull(index);
+        assertEquals(encrypt, !Files.readString(getIndexPath("x")).trim().startsWith("{"));
+        // Every indexed value must match the value returned by evaluating the contents
+        index.fields().forEachRemaining(e->
+            assertEquals(JsonHelper.evaluateSpelExpression(record, e.getKey(), String.class), e.getValue().asText(), e.getKey()));
+        // Resolved values must match, independent of whether they are resolved from the index
+        for ( var path : PATHS ) {
+            var expected = JsonHelper.evaluateSpelExpression(record, path, String.class);
+            assertEquals(expected, FcliVariableHelper.resolveVariable("::x::"+path), path);
+            assertEquals("--opt="+expected, FcliVariableHelper.resolveVariable("--opt=::x::"+path), path);
+        }
+        // Same results without index
+        Files.delete(getIndexPath("x"));
+        for ( var path : PATHS ) {
+            assertEquals(JsonHelper.evaluateSpelExpression(record, path, String.class), FcliVariableHelper.resolveVariable("::x::"+path), path);
+        }
+    }
+
+    private static final JsonNode readIndex(String variableName) {
+        return FcliVariableHelper.readVariableIndex(FcliVariableHelper.getVariableDescriptor(variableName, true));
+    }
+
+    private static final Path getVariablePath(String variableName) {
+        return FcliVariableHelper.getVariablesPath().resolve(variableName);
+    }
+
+    private static final Path getIndexPath(String variableName) {
+        return getVariablePath(variableName).resolve("index.json");
+    }
+}
@@ -12,28 +12,33 @@
  *******************************************************************************/
 package com.fortify.cli.fod._common.cli.mixin;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fortify.cli.common.cli.mixin.CommandHelperMixin;
-import com.fortify.cli.common.output.transform.IRecordTransformer;
+import com.fortify.cli.common.output.transform.IInputTransformer;
 import com.fortify.cli.common.rest.unirest.IUnirestInstanceSupplier;
+import com.fortify.cli.common.session.helper.MultiSessionHelper;
 import com.fortify.cli.fod._common.rest.embed.FoDEmbedder;
 import com.fortify.cli.fod._common.rest.embed.IFoDEntityEmbedderSupplier;
 
 import kong.unirest.UnirestInstance;
 import picocli.CommandLine.Mixin;
 
-public abstract class AbstractFoDEmbedMixin implements IRecordTransformer {
+public abstract class AbstractFoDEmbedMixin implements IInputTransformer {
     @Mixin private CommandHelperMixin commandHelper;
-    private FoDEmbedder embedder;
+    /** Embedders may cache server data, so we need a separate embedder for every session */
+    private final Map<String, FoDEmbedder> embeddersBySessionName = new ConcurrentHashMap<>();
     
     @Override
-    public final JsonNode transformRecord(JsonNode record) {
-        if ( embedder==null ) { embedder = new FoDEmbedder(getEmbedSuppliers()); }
+    public final JsonNode transformInput(JsonNode input) {
+        var embedder = MultiSessionHelper.getOrCreateForCurrentSession(embeddersBySessionName, ()->new FoDEmbedder(getEmbedSuppliers()));
         UnirestInstance unirest = commandHelper
                 .getCommandAs(IUnirestInstanceSupplier.class)
                 .orElseThrow().getUnirestInstance();
-        embedder.transformRecord(unirest, record);
-        return record;
+        embedder.transformInput(unirest, input);
+        return input;
     }
     
     protected abstract IFoDEntityEmbedderSupplier[] getEmbedSuppliers();
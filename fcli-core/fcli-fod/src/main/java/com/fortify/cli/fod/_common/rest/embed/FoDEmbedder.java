@@ -12,25 +12,43 @@
  *******************************************************************************/
 package com.fortify.cli.fod._common.rest.embed;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.fod._common.rest.helper.FoDInputTransformer;
+import com.fortify.cli.fod._common.rest.helper.FoDRateLimiter;
 
 import kong.unirest.UnirestInstance;
+import lombok.SneakyThrows;
 
 /**
  * This class takes zero or more {@link IFoDEntityEmbedderSupplier} instances
  * as constructor argument(s), storing the {@link IFoDEntityEmbedder} instances
- * generated by these suppliers, to provide the {@link #transformRecord(UnirestInstance, JsonNode)}
- * method that embeds the requested data into a given record.
+ * generated by these suppliers, to provide the {@link #transformInput(UnirestInstance, JsonNode)}
+ * and {@link #transformRecord(UnirestInstance, JsonNode)} methods that embed the
+ * requested data into the given records.<br/>
+ * <br/>
+ * As FoD doesn't provide any bulk endpoints for retrieving the embedded data, 
+ * {@link #transformInput(UnirestInstance, JsonNode)} executes the embed requests
+ * for all records on a page concurrently, using at most {@link #MAX_THREADS} threads.
+ * Note that FoD rate limits are taken care of by {@link FoDRateLimiter}, which is
+ * consulted before every request issued through an FoD {@link UnirestInstance}.
  *  
  * @author rsenden
  *
  */
 public class FoDEmbedder {
+    private static final int MAX_THREADS = 8;
     private final Collection<IFoDEntityEmbedder> embedders;
     
     public FoDEmbedder(IFoDEntityEmbedderSupplier... suppliers) {
@@ -41,11 +59,69 @@ public class FoDEmbedder {
     
     public JsonNode transformRecord(UnirestInstance unirest, JsonNode record) {
         if ( embedders!=null ) {
-            if ( !(record instanceof ObjectNode) ) {
-                throw new RuntimeException("Can't embed data in records of type "+record.getNodeType());
-            }
-            embedders.forEach(e->e.embed(unirest, (ObjectNode)record));
+            embedders.forEach(e->e.embed(unirest, asObjectNode(record)));
         }
         return record;
     }
+    
+    public JsonNode transformInput(UnirestInstance unirest, JsonNode input) {
+        var items = FoDInputTransformer.getItems(input);
+        if ( embedders!=null && items!=null ) {
+            var records = items.isArray() 
+                    ? JsonHelper.stream((ArrayNode)items).map(FoDEmbedder::asObjectNode).collect(Collectors.toList())
+                    : List.of(asObjectNode(items));
+            if ( records.size()*embedders.size()<=1 ) {
+                records.forEach(r->transformRecord(unirest, r));
+            } else {
+                embedConcurrently(unirest, records);
+            }
+        }
+        return input;
+    }
+
+    @SneakyThrows
+    private void embedConcurrently(UnirestInstance unirest, List<ObjectNode> records) {
+        var executor = Executors.newFixedThreadPool(Math.min(MAX_THREADS, records.size()*embedders.size()));
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for ( var record : records ) {
+                for ( var embedder : embedders ) {
+                    futures.add(executor.submit(()->embedConcurrently(unirest, embedder, record)));
+                }
+            }
+            for ( var future : futures ) {
+                try {
+                    future.get();
+                } catch ( ExecutionException e ) {
+                    throw e.getCause();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private static void embedConcurrently(UnirestInstance unirest, IFoDEntityEmbedder embedder, ObjectNode record) {
+        // Embedders may add one or more properties to the record, so we have each 
+        // embedder operate on a shallow copy of the record to avoid concurrent 
+        // modifications, and then copy any new or replaced properties to the 
+        // original record.
+        ObjectNode copy = JsonHelper.getObjectMapper().createObjectNode();
+        synchronized (record) { copy.setAll(record); }
+        embedder.embed(unirest, copy);
+        synchronized (record) {
+            copy.fields().forEachRemaining(e->{
+                if ( e.getValue()!=record.get(e.getKey()) ) {
+                    record.set(e.getKey(), e.getValue());
+                }
+            });
+        }
+    }
+    
+    private static ObjectNode asObjectNode(JsonNode record) {
+        if ( !(record instanceof ObjectNode) ) {
+            throw new RuntimeException("Can't embed data in records of type "+record.getNodeType());
+        }
+        return (ObjectNode)record;
+    }
 }
@@ -18,11 +18,15 @@ import java.io.FileInputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fortify.cli.common.progress.helper.IProgressWriter;
 import com.fortify.cli.common.progress.helper.ProgressWriterType;
+import com.fortify.cli.common.rest.unirest.StreamingMultipartUploadHelper;
 import com.fortify.cli.common.rest.unirest.URIHelper;
 import com.fortify.cli.fod._common.util.FoDConstants;
 
@@ -40,34 +44,63 @@ public final class FoDFileTransferHelper {
     private static int chunkSize = FoDConstants.DEFAULT_CHUNK_SIZE;
     public static void setChunkSize(int chunkSize) { FoDFileTransferHelper.chunkSize = chunkSize; }
 
-    @SneakyThrows
+    /**
+     * Create a {@link BatchUpload} instance for uploading the given number of files
+     * with the given total size concurrently. Upload progress for all uploads that
+     * are passed this instance is reported as a single aggregated progress message 
+     * through the given progress writer, rather than having every upload write its 
+     * own progress messages, such that concurrent uploads don't overwrite each 
+     * other's progress messages. If the given maximum upload rate is larger than 
+     * zero, the combined upload rate of all chunked uploads that are passed this 
+     * instance is limited to the given number of bytes per second. Other uploads 
+     * are not affected by the returned instance.
+     */
+    public static BatchUpload startBatchUpload(IProgressWriter progressWriter, int fileCount, long totalBytes, long maxBytesPerSecond) {
+        return new BatchUpload(progressWriter, fileCount, totalBytes, 
+                maxBytesPerSecond>0 ? new UploadRateLimiter(maxBytesPerSecond) : null);
+    }
+
     public static final JsonNode upload(UnirestInstance unirest, HttpRequest<?> baseRequest, File f) {
+        return upload(unirest, baseRequest, f, null);
+    }
+
+    /**
+     * Upload the given file, reporting progress through the given {@link BatchUpload}
+     * if not null.
+     */
+    @SneakyThrows
+    public static final JsonNode upload(UnirestInstance unirest, HttpRequest<?> baseRequest, File f, BatchUpload batchUpload) {
         if (!f.exists() || !f.canRead()) {
             throw new IllegalArgumentException("Could not read file: " + f.getPath());
         }
         String body = null;
-        try ( FoDProgressMonitor uploadMonitor = new FoDProgressMonitor("Upload") ) {
-            body =  unirest.request(baseRequest.getHttpMethod().name(), baseRequest.getUrl())
-                    .noCharset()
-                    .multiPartContent()
-                    .field("file", f)
-                    .uploadMonitor(uploadMonitor)
-                    .asString()
-                    .getBody();
+        try ( FoDProgressMonitor uploadMonitor = new FoDProgressMonitor("Upload", batchUpload) ) {
+            body = StreamingMultipartUploadHelper.upload(
+                    unirest.request(baseRequest.getHttpMethod().name(), baseRequest.getUrl()).noCharset(), 
+                    f, uploadMonitor, r->r.asString().getBody());
         } catch (Exception e) {
             throw new RuntimeException("Error uploading file", e);
         }
         return new ObjectMapper().readTree(body);
     }
 
-    @SneakyThrows
     public static final JsonNode uploadChunked(UnirestInstance unirest, HttpRequest<?> baseRequest, File f) {
+        return uploadChunked(unirest, baseRequest, f, null);
+    }
+
+    /**
+     * Upload the given file in chunks, reporting progress and limiting the upload
+     * rate through the given {@link BatchUpload} if not null.
+     */
+    @SneakyThrows
+    public static final JsonNode uploadChunked(UnirestInstance unirest, HttpRequest<?> baseRequest, File f, BatchUpload batchUpload) {
         if (!f.exists() || !f.canRead()) {
             throw new IllegalArgumentException("Could not read file: " + f.getPath());
         }
         long fileLen = f.length();
+        var rateLimiter = batchUpload==null ? null : batchUpload.rateLimiter;
         String lastBody = null;
-        try (var fs = new FileInputStream(f); var progressMonitor = new FoDProgressMonitor("Upload"); ) {
+        try (var fs = new FileInputStream(f); var progressMonitor = new FoDProgressMonitor("Upload", batchUpload); ) {
             byte[] readByteArray = new byte[chunkSize];
             byte[] sendByteArray;
             int fragmentNumber = 0;
@@ -84,6 +117,7 @@ public final class FoDFileTransferHelper {
                     sendByteArray = readByteArray;
                 }
 
+                if ( rateLimiter!=null ) { rateLimiter.acquire(byteCount); }
                 lastBody = unirest.request(
                                 String.valueOf(baseRequest.getHttpMethod()),
                                 getUri(baseRequest, fragmentNumber++, offset))
@@ -110,17 +144,93 @@ public final class FoDFileTransferHelper {
         return uri.toString();
     }
 
+    /**
+     * Simple rate limiter shared between concurrent uploads; every chunk reserves
+     * the next available time slot based on its size, and waits until that slot
+     * has been reached before being sent.
+     */
+    @RequiredArgsConstructor
+    private static final class UploadRateLimiter {
+        private final long bytesPerSecond;
+        private long nextSlotNanos = System.nanoTime();
+        
+        public void acquire(long bytes) throws InterruptedException {
+            long waitNanos;
+            synchronized (this) {
+                var now = System.nanoTime();
+                var slot = Math.max(now, nextSlotNanos);
+                nextSlotNanos = slot + TimeUnit.SECONDS.toNanos(1)*bytes/bytesPerSecond;
+                waitNanos = slot-now;
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Aggregated progress and upload rate limit for concurrent uploads, as started 
+     * through {@link FoDFileTransferHelper#startBatchUpload(IProgressWriter, int, long, long)}.
+     * Every upload is considered finished once its progress monitor is closed, 
+     * independent of whether the upload succeeded or failed.
+     */
     @RequiredArgsConstructor
+    public static final class BatchUpload implements AutoCloseable {
+        private final IProgressWriter progressWriter;
+        private final int fileCount;
+        private final long totalBytes;
+        private final UploadRateLimiter rateLimiter;
+        private final Map<FoDProgressMonitor, Long> activeBytesWritten = new HashMap<>();
+        private int finishedFileCount;
+        private long finishedBytesWritten;
+
+        private synchronized void update(FoDProgressMonitor monitor, long bytesWritten) {
+            activeBytesWritten.put(monitor, bytesWritten);
+            writeProgress();
+        }
+
+        private synchronized void finish(FoDProgressMonitor monitor) {
+            var bytesWritten = activeBytesWritten.remove(monitor);
+            finishedBytesWritten += bytesWritten==null ? 0 : bytesWritten;
+            finishedFileCount++;
+            writeProgress();
+        }
+
+        private void writeProgress() {
+            var bytesWritten = finishedBytesWritten + activeBytesWritten.values().stream().mapToLong(Long::longValue).sum();
+            progressWriter.writeProgress("Upload: %d of %d files finished, %d of %d bytes complete", 
+                    finishedFileCount, fileCount, bytesWritten, totalBytes);
+        }
+
+        @Override
+        public void close() {
+            progressWriter.clearProgress();
+        }
+    }
+
     private static final class FoDProgressMonitor implements ProgressMonitor, AutoCloseable {
-        private final IProgressWriter progressWriter = ProgressWriterType.auto.create();
         private final String action;
+        private final BatchUpload batchProgress;
+        private final IProgressWriter progressWriter;
+        
+        FoDProgressMonitor(String action, BatchUpload batchProgress) {
+            this.action = action;
+            this.batchProgress = batchProgress;
+            this.progressWriter = batchProgress!=null ? null : ProgressWriterType.auto.create();
+        }
 
         @Override
         public void accept(String field, String fileName, Long bytesWritten, Long totalBytes) {
-            progressWriter.writeProgress(String.format("\r%s %s: %d of %d bytes complete", action, fileName, bytesWritten, totalBytes));
+            if ( batchProgress!=null ) {
+                batchProgress.update(this, bytesWritten);
+            } else {
+                progressWriter.writeProgress(String.format("\r%s %s: %d of %d bytes complete", action, fileName, bytesWritten, totalBytes));
+            }
         }
         public void close() {
-            progressWriter.clearProgress();
+            if ( batchProgress!=null ) {
+                batchProgress.finish(this);
+            } else {
+                progressWriter.clearProgress();
+            }
         }
     }
 }
@@ -41,7 +41,7 @@ public class FoDProductHelper implements IProductHelper, IInputTransformer, INex
     @SneakyThrows
     public String getApiUrl(String url) {
         var uri = new URI(url);
-        if ( !uri.getHost().startsWith("api.") ) {
+        if ( !uri.getHost().startsWith("api.") && !isLocalOrIpAddress(uri.getHost()) ) {
             uri = new URI(uri.getScheme(), uri.getUserInfo(), "api."+uri.getHost(), uri.getPort(), 
                     uri.getPath(), uri.getQuery(), uri.getFragment());
         }
@@ -57,4 +57,10 @@ public class FoDProductHelper implements IProductHelper, IInputTransformer, INex
         }
         return uri.toString().replaceAll("/+$", "");
     }
+    
+    // Host names like api.127.0.0.1 are invalid, so we don't add the api. prefix
+    // for IP addresses or localhost, for example when running against a mock server.
+    private static final boolean isLocalOrIpAddress(String host) {
+        return host.equals("localhost") || host.matches("[\\d.]+") || host.startsWith("[");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.fod._common.rest.helper;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.formkiq.graalvm.annotations.Reflectable;
+import com.fortify.cli.common.metrics.helper.FcliMetricsHelper;
+import com.fortify.cli.common.util.FcliDataHelper;
+
+import lombok.SneakyThrows;
+
+/**
+ * This class implements a token bucket for FoD API requests, driven by the
+ * X-Rate-Limit-Remaining and X-Rate-Limit-Reset headers returned by FoD. The
+ * number of available tokens is updated from the X-Rate-Limit-Remaining header
+ * on every response that includes this header, and is set to zero on HTTP 429
+ * responses; tokens are refilled once the X-Rate-Limit-Reset period has expired.
+ * The {@link #acquire()} method is invoked before every request issued through
+ * an FoD {@link kong.unirest.UnirestInstance}, blocking until a token is available,
+ * such that requests wait for the rate limit to be reset rather than being
+ * rejected and retried by {@link FoDRetryStrategy}.<br/>
+ * <br/>
+ * As FoD rate limits apply per tenant or API client, token buckets are keyed
+ * by FoD URL and session identity (tenant or client id), such that sessions
+ * for different tenants or API clients don't throttle each other. With
+ * {@link Mode#shared}, used by default, the token bucket state is stored in
+ * a memory-mapped file in the fcli state directory, one file per key, with
+ * access to this file being guarded by a file lock, to coordinate multiple
+ * fcli processes running on the same host, like parallel CI builds. If this
+ * file cannot be accessed, or with {@link Mode#local}, a process-local token
+ * bucket is used instead. Within a process, instances are shared between all
+ * FoD sessions with the same mode and key.
+ */
+public final class FoDRateLimiter {
+    private static final Log LOG = LogFactory.getLog(FoDRateLimiter.class);
+    private static final Map<String, FoDRateLimiter> INSTANCES = new ConcurrentHashMap<>();
+    /** Offset of the number of remaining requests in the state buffer, or -1 if unknown */
+    private static final int REMAINING_OFFSET = 0;
+    /** Offset of the time at which the rate limit will be reset in the state buffer, or 0 if unknown */
+    private static final int RESET_AT_OFFSET = Long.BYTES;
+    private static final int STATE_SIZE = 2*Long.BYTES;
+    private final FileChannel channel;
+    private final ByteBuffer state;
+
+    /**
+     * Rate limiter modes that can be configured on FoD session login.
+     */
+    @Reflectable
+    public static enum Mode {
+        /** Token bucket shared between all fcli processes on the same host */
+        shared, 
+        /** Process-local token bucket */
+        local, 
+        /** Don't throttle requests, relying on {@link FoDRetryStrategy} only */
+        none
+    }
+
+    private FoDRateLimiter(FileChannel channel, ByteBuffer state) {
+        this.channel = channel;
+        this.state = state;
+    }
+
+    private static final FoDRateLimiter createLocal() {
+        return new FoDRateLimiter(null, ByteBuffer.allocate(STATE_SIZE));
+    }
+
+    private static final FoDRateLimiter createShared(Path stateFile) {
+        FileChannel channel = null;
+        try {
+            Files.createDirectories(stateFile.getParent());
+            channel = FileChannel.open(stateFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new FoDRateLimiter(channel, channel.map(MapMode.READ_WRITE, 0, STATE_SIZE));
+        } catch ( Exception e ) {
+            LOG.debug("Unable to access shared FoD rate limiter state "+stateFile+", using process-local rate limiter", e);
+            closeQuietly(channel);
+            return createLocal();
+        }
+    }
+
+    /**
+     * Get the rate limiter for the given mode, FoD URL and session identity,
+     * returning null if mode is {@link Mode#none}. If mode is null, like for
+     * sessions created by older fcli versions, {@link Mode#shared} is used.
+     * If identity is null, the token bucket is shared between all sessions
+     * for the given FoD URL.
+     */
+    public static final FoDRateLimiter forSession(Mode mode, String url, String identity) {
+        var effectiveMode = mode==null ? Mode.shared : mode;
+        if ( effectiveMode==Mode.none ) { return null; }
+        var key = String.format("%s|%s", url==null ? "" : url, identity==null ? "" : identity);
+        return INSTANCES.computeIfAbsent(effectiveMode.name()+":"+key, 
+                k->effectiveMode==Mode.shared ? createShared(getStateFile(key)) : createLocal());
+    }
+
+    /**
+     * Wait until a token is available, then consume it.
+     */
+    @SneakyThrows
+    public final void acquire() {
+        long waitMillis;
+        while ( (waitMillis = tryAcquire())>0 ) {
+            LOG.debug("FoD rate limit reached, waiting "+waitMillis+" ms");
+            FcliMetricsHelper.recordMillis("fod.rateLimit.wait", waitMillis);
+            Thread.sleep(waitMillis);
+        }
+    }
+
+    /**
+     * Update the token bucket based on the given X-Rate-Limit-Remaining
+     * and X-Rate-Limit-Reset header values, either of which may be null.
+     */
+    public final void update(Integer remaining, Integer resetSeconds) {
+        if ( remaining!=null || resetSeconds!=null ) {
+            withLock(()->{
+                var now = System.currentTimeMillis();
+                if ( resetSeconds!=null ) {
+                    state.putLong(RESET_AT_OFFSET, now+resetSeconds*1000L);
+                } else if ( state.getLong(RESET_AT_OFFSET)<=now ) {
+                    // Previous reset time has expired, and the remaining number of requests 
+                    // applies to a period for which we don't know the reset time
+                    state.putLong(RESET_AT_OFFSET, 0);
+                }
+                if ( remaining!=null ) {
+                    state.putLong(REMAINING_OFFSET, remaining);
+                }
+                return 0L;
+            });
+        }
+    }
+
+    /**
+     * Register an HTTP 429 response, blocking any subsequent requests until
+     * the given reset period has expired.
+     */
+    public final void rateLimited(int resetSeconds) {
+        update(0, resetSeconds);
+    }
+
+    /**
+     * Consume a token if available, returning 0, or return the number
+     * of milliseconds to wait until tokens will be refilled. If the reset
+     * time is unknown, we keep counting down the remaining number of requests
+     * as reported by FoD, but we can't determine how long to wait once no
+     * requests are remaining, so in that case, requests are not throttled
+     * until FoD returns a new reset time, for example on HTTP 429 responses.
+     */
+    private final long tryAcquire() {
+        return withLock(()->{
+            var now = System.currentTimeMillis();
+            var resetAtMillis = state.getLong(RESET_AT_OFFSET);
+            var remaining = state.getLong(REMAINING_OFFSET);
+            if ( resetAtMillis>0 && now>=resetAtMillis ) {
+                // Rate limit period has expired, so remaining number of requests and reset time are unknown
+                state.putLong(REMAINING_OFFSET, -1);
+                state.putLong(RESET_AT_OFFSET, 0);
+            } else if ( remaining==0 && resetAtMillis>0 ) {
+                return resetAtMillis-now;
+            } else if ( remaining>0 ) {
+                state.putLong(REMAINING_OFFSET, remaining-1);
+            }
+            return 0L;
+        });
+    }
+
+    /**
+     * Run the given operation while holding both the monitor for this instance 
+     * (as file locks are held on behalf of the JVM, not individual threads), and
+     * the lock on the shared state file if available.
+     */
+    @SneakyThrows
+    private final synchronized long withLock(LongSupplierWithException op) {
+        FileLock lock = null;
+        try {
+            if ( channel!=null ) { lock = channel.lock(); }
+            return op.get();
+        } finally {
+            if ( lock!=null ) { lock.release(); }
+        }
+    }
+
+    private static final Path getStateFile(String key) {
+        return FcliDataHelper.getFcliStatePath().resolve("fod").resolve("rate-limit").resolve(sha256(key));
+    }
+
+    @SneakyThrows
+    private static final String sha256(String s) {
+        var digest = MessageDigest.getInstance("SHA-256").digest(s.getBytes(StandardCharsets.UTF_8));
+        return String.format("%064x", new BigInteger(1, digest));
+    }
+
+    private static final void closeQuietly(FileChannel channel) {
+        try {
+            if ( channel!=null ) { channel.close(); }
+        } catch ( Exception e ) {
+            LOG.debug("Error closing channel", e);
+        }
+    }
+
+    @FunctionalInterface
+    private static interface LongSupplierWithException {
+        long get() throws Exception;
+    }
+}
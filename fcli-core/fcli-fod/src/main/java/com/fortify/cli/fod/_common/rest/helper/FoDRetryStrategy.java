@@ -30,6 +30,8 @@ import org.apache.http.HttpResponse;
 import org.apache.http.client.ServiceUnavailableRetryStrategy;
 import org.apache.http.protocol.HttpContext;
 
+import com.fortify.cli.common.metrics.helper.FcliMetricsHelper;
+
 /**
  * This class implements an Apache HttpClient 4.x {@link ServiceUnavailableRetryStrategy}
  * that will retry a request if the server responds with an HTTP 429 (TOO_MANY_REQUESTS)
@@ -38,33 +40,66 @@ import org.apache.http.protocol.HttpContext;
 public final class FoDRetryStrategy implements ServiceUnavailableRetryStrategy {
 	private static final Log LOG = LogFactory.getLog(FoDRetryStrategy.class);
 	private final String HEADER_NAME = "X-Rate-Limit-Reset";
+	private final String HEADER_NAME_REMAINING = "X-Rate-Limit-Remaining";
 	private int maxRetries = 2;
+	private FoDRateLimiter rateLimiter;
 	private final ThreadLocal<Long> interval = new ThreadLocal<Long>();
 	
 	public FoDRetryStrategy maxRetries(int maxRetries) {
 		this.maxRetries = maxRetries;
 		return this;
 	}
+	
+	public FoDRetryStrategy rateLimiter(FoDRateLimiter rateLimiter) {
+	    this.rateLimiter = rateLimiter;
+	    return this;
+	}
 
 	public boolean retryRequest(HttpResponse response, int executionCount, HttpContext context) {
+	    updateRateLimiter(response);
 	    if ( executionCount < maxRetries+1 ) {
 	        if ( response.getStatusLine().getStatusCode()==404 ) {
 	            // Sometimes it can take a bit of time for FoD to properly register a scan request and
 	            // possibly other newly created resources, hence we also retry on 404 errors.
-	            interval.set((long)5000);
-	            return true;
+	            return retry(5000);
 	        } else if ( response.getStatusLine().getStatusCode()==429 ) {
     			int retrySeconds = Integer.parseInt(response.getFirstHeader(HEADER_NAME).getValue());
     			LOG.debug("Rate-limited request will be retried after "+retrySeconds+" seconds");
-    			interval.set((long)retrySeconds*1000);
-    			return true;
+    			return retry((long)retrySeconds*1000);
     		}
 	    }
 		return false;
 	}
 
+	private boolean retry(long intervalMillis) {
+	    interval.set(intervalMillis);
+	    FcliMetricsHelper.increment("http.retries");
+	    FcliMetricsHelper.recordMillis("http.retry.wait", intervalMillis);
+	    return true;
+	}
+
 	public long getRetryInterval() {
 		Long result = interval.get();
 		return result==null ? -1 : result;
 	}
+	
+	private void updateRateLimiter(HttpResponse response) {
+	    if ( rateLimiter!=null ) {
+	        var reset = getIntHeader(response, HEADER_NAME);
+	        if ( response.getStatusLine().getStatusCode()==429 && reset!=null ) {
+	            rateLimiter.rateLimited(reset);
+	        } else {
+	            rateLimiter.update(getIntHeader(response, HEADER_NAME_REMAINING), reset);
+	        }
+	    }
+	}
+	
+	private static Integer getIntHeader(HttpResponse response, String name) {
+	    var header = response.getFirstHeader(name);
+	    try {
+	        return header==null ? null : Integer.valueOf(header.getValue().trim());
+	    } catch ( NumberFormatException e ) {
+	        return null;
+	    }
+	}
 }
@@ -12,12 +12,11 @@
  *******************************************************************************/
 package com.fortify.cli.fod._common.scan.cli.cmd;
 
-import java.nio.file.StandardCopyOption;
-
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fortify.cli.common.cli.mixin.CommonOptionMixins;
 import com.fortify.cli.common.cli.util.CommandGroup;
 import com.fortify.cli.common.output.transform.IActionCommandResultSupplier;
+import com.fortify.cli.common.rest.unirest.RangedDownloadHelper;
 import com.fortify.cli.fod._common.cli.mixin.FoDDelimiterMixin;
 import com.fortify.cli.fod._common.output.cli.cmd.AbstractFoDJsonNodeOutputCommand;
 import com.fortify.cli.fod._common.scan.helper.FoDScanDescriptor;
@@ -44,17 +43,17 @@ public abstract class AbstractFoDScanDownloadLatestCommand extends AbstractFoDJs
         FoDScanDescriptor scanDescriptor = FoDScanHelper.getLatestScanDescriptor(unirest, releaseDescriptor.getReleaseId(),
                 getScanType(), false);
         FoDScanHelper.validateScanDate(scanDescriptor, FoDScanHelper.MAX_RETENTION_PERIOD);
-        var file = outputFileMixin.getFile().getAbsolutePath();
-        GetRequest request = getDownloadRequest(unirest, releaseDescriptor, scanDescriptor);
+        var file = outputFileMixin.getFile().getAbsoluteFile();
+        var downloader = RangedDownloadHelper.builder()
+                .requestSupplier(()->getDownloadRequest(unirest, releaseDescriptor, scanDescriptor))
+                .build();
 
         int status = 202;
         while ( status==202 ) {
-            status = request
-                .asFile(file, StandardCopyOption.REPLACE_EXISTING)
-                .getStatus();
+            status = downloader.download(file);
             if ( status==202 ) { Thread.sleep(30000L); }
         }
-        return scanDescriptor.asObjectNode().put("file", file);
+        return scanDescriptor.asObjectNode().put("file", file.getPath());
     }
 
     protected abstract GetRequest getDownloadRequest(UnirestInstance unirest, FoDReleaseDescriptor releaseDescriptor, FoDScanDescriptor scanDescriptor);
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+
+package com.fortify.cli.fod._common.scan.cli.cmd;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fortify.cli.common.cli.util.CommandGroup;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.output.transform.IActionCommandResultSupplier;
+import com.fortify.cli.common.progress.cli.mixin.ProgressWriterFactoryMixin;
+import com.fortify.cli.common.util.BatchHelper;
+import com.fortify.cli.common.util.StringUtils;
+import com.fortify.cli.fod._common.cli.mixin.FoDDelimiterMixin;
+import com.fortify.cli.fod._common.output.cli.cmd.AbstractFoDJsonNodeOutputCommand;
+import com.fortify.cli.fod._common.rest.helper.FoDFileTransferHelper;
+import com.fortify.cli.fod._common.rest.helper.FoDFileTransferHelper.BatchUpload;
+import com.fortify.cli.fod._common.scan.helper.FoDScanDescriptor;
+import com.fortify.cli.fod._common.scan.helper.FoDScanStartBatchEntry;
+import com.fortify.cli.fod.release.helper.FoDReleaseDescriptor;
+import com.fortify.cli.fod.release.helper.FoDReleaseHelper;
+
+import kong.unirest.UnirestInstance;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParameterException;
+import picocli.CommandLine.Spec;
+
+/**
+ * Base class for commands that start scans on multiple releases, as listed in a 
+ * YAML or JSON manifest file. All releases are resolved and validated concurrently
+ * before uploading any payload, such that errors in the manifest or release setup
+ * are reported before any scan has been started. Payloads are then uploaded and
+ * scans started concurrently, limited by the --max-concurrent-uploads option and 
+ * the combined upload rate specified through the --max-upload-rate option. 
+ * Requests are subject to the same FoD rate limiting as any other FoD request.
+ * Upload progress for all concurrent uploads is reported as a single aggregated
+ * progress message.
+ */
+@CommandGroup("*-scan-start")
+public abstract class AbstractFoDScanStartBatchCommand extends AbstractFoDJsonNodeOutputCommand implements IActionCommandResultSupplier {
+    @Spec private CommandSpec spec;
+    @Mixin private FoDDelimiterMixin delimiterMixin;
+    @Mixin private ProgressWriterFactoryMixin progressWriterFactory;
+    @Option(names = {"--manifest"}, required = true, paramLabel = "<file>", descriptionKey = "fcli.fod.scan.start-batch.manifest")
+    private File manifestFile;
+    @Option(names = {"--max-concurrent-uploads"}, defaultValue = "4", paramLabel = "<count>", descriptionKey = "fcli.fod.scan.start-batch.max-concurrent-uploads")
+    private int maxConcurrentUploads;
+    @Option(names = {"--max-upload-rate"}, paramLabel = "<KB/s>", descriptionKey = "fcli.fod.scan.start-batch.max-upload-rate")
+    private Integer maxUploadRate;
+
+    @Override
+    public final JsonNode getJsonNode(UnirestInstance unirest) {
+        if ( maxUploadRate!=null && maxUploadRate<1 ) {
+            throw new ParameterException(spec.commandLine(), "Invalid option value: --max-upload-rate must be a positive number");
+        }
+        var entries = BatchHelper.loadManifest(manifestFile, FoDScanStartBatchEntry[].class);
+        checkDuplicates(entries.stream().map(FoDScanStartBatchEntry::getRelease).filter(StringUtils::isNotBlank));
+        var batchEntries = resolveEntries(unirest, entries);
+        checkDuplicates(batchEntries.stream().map(e->e.getReleaseDescriptor().getReleaseId()));
+        return startScans(unirest, batchEntries);
+    }
+
+    /**
+     * Validate the scan setup for the given release; this method is invoked for
+     * every manifest entry before any payload is uploaded. By default, this method
+     * doesn't perform any validation.
+     */
+    protected void validateScanSetup(UnirestInstance unirest, FoDReleaseDescriptor releaseDescriptor) {}
+
+    /**
+     * Start a scan for the given manifest entry, uploading the given scan file. Upload
+     * progress must be reported, and the upload rate limited, through the given 
+     * {@link BatchUpload}.
+     */
+    protected abstract FoDScanDescriptor startScan(UnirestInstance unirest, FoDReleaseDescriptor releaseDescriptor, FoDScanStartBatchEntry entry, File scanFile, BatchUpload batchUpload);
+
+    @Override
+    public final String getActionCommandResult() {
+        return "STARTED";
+    }
+
+    @Override
+    public final boolean isSingular() {
+        return false;
+    }
+
+    /**
+     * Starting multiple scans on the same release would fail or interfere with each
+     * other, so we reject manifests that list the same release multiple times, either
+     * by the same release name or id, or, after resolving releases, by release id.
+     */
+    private static final void checkDuplicates(Stream<String> releases) {
+        var seen = new HashSet<String>();
+        releases.map(String::trim).filter(r->!seen.add(r)).findFirst().ifPresent(r->{
+            throw new IllegalArgumentException("Manifest file contains multiple entries for release "+r);
+        });
+    }
+
+    private final List<BatchEntry> resolveEntries(UnirestInstance unirest, List<FoDScanStartBatchEntry> entries) {
+        return BatchHelper.resolveEntries(entries, e->resolveEntry(unirest, e));
+    }
+
+    private final BatchEntry resolveEntry(UnirestInstance unirest, FoDScanStartBatchEntry entry) {
+        if ( StringUtils.isBlank(entry.getRelease()) || StringUtils.isBlank(entry.getFile()) ) {
+            throw new IllegalArgumentException("Each manifest entry must specify both 'release' and 'file' properties");
+        }
+        var scanFile = BatchHelper.resolveFile(manifestFile, "release "+entry.getRelease(), entry.getFile());
+        var releaseDescriptor = FoDReleaseHelper.getReleaseDescriptor(unirest, entry.getRelease(), delimiterMixin.getDelimiter(), true);
+        validateScanSetup(unirest, releaseDescriptor);
+        return new BatchEntry(entry, scanFile, releaseDescriptor);
+    }
+
+    private final ArrayNode startScans(UnirestInstance unirest, List<BatchEntry> batchEntries) {
+        var totalBytes = batchEntries.stream().mapToLong(e->e.getScanFile().length()).sum();
+        try ( var progressWriter = progressWriterFactory.create();
+              var batchUpload = FoDFileTransferHelper.startBatchUpload(progressWriter, batchEntries.size(), totalBytes, 
+                      maxUploadRate==null ? 0 : maxUploadRate*1024L) ) {
+            return BatchHelper.processEntries(batchEntries, maxConcurrentUploads, 
+                    e->startScan(unirest, e.getReleaseDescriptor(), e.getEntry(), e.getScanFile(), batchUpload),
+                    e->e.getEntry().getRelease(), FoDScanDescriptor::getReleaseAndScanId,
+                    "Error starting %d of %d scans:\n  %s\nSuccessfully started scans: %s")
+                .stream().map(FoDScanDescriptor::asJsonNode).collect(JsonHelper.arrayNodeCollector());
+        }
+    }
+
+    @RequiredArgsConstructor @Getter
+    private static final class BatchEntry {
+        private final FoDScanStartBatchEntry entry;
+        private final File scanFile;
+        private final FoDReleaseDescriptor releaseDescriptor;
+    }
+}
@@ -108,7 +108,7 @@ public class FoDScanResolverMixin {
     }
 
     public static class PositionalParameterMulti extends AbstractFoDMultiScanResolverMixin {
-        @EnvSuffix("SCANS") @Parameters(index = "0", arity = "1..", paramLabel = "scan-id's", descriptionKey = "fcli.fod.scan.scan-ids")
+        @EnvSuffix("SCANS") @Parameters(index = "0", arity = "1..", split = ",", paramLabel = "scan-id's", descriptionKey = "fcli.fod.scan.scan-ids")
         @Getter private String[] releaseQualifiedScanOrIds;
     }
 
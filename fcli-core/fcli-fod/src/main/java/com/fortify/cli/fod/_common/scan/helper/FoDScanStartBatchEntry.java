@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+
+package com.fortify.cli.fod._common.scan.helper;
+
+import com.formkiq.graalvm.annotations.Reflectable;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single entry in a scan start batch manifest, identifying the release to be 
+ * scanned, the payload file to be uploaded, and optional scan notes that override
+ * any notes specified on the command line.
+ */
+@Reflectable @NoArgsConstructor
+@Data
+public class FoDScanStartBatchEntry {
+    private String release;
+    private String file;
+    private String notes;
+}
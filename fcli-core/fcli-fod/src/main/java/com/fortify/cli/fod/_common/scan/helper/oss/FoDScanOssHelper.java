@@ -21,6 +21,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fortify.cli.common.json.JsonHelper;
 import com.fortify.cli.fod._common.rest.FoDUrls;
 import com.fortify.cli.fod._common.rest.helper.FoDFileTransferHelper;
+import com.fortify.cli.fod._common.rest.helper.FoDFileTransferHelper.BatchUpload;
 import com.fortify.cli.fod._common.scan.helper.FoDScanDescriptor;
 import com.fortify.cli.fod._common.scan.helper.FoDScanHelper;
 import com.fortify.cli.fod._common.scan.helper.FoDScanType;
@@ -39,13 +40,22 @@ public class FoDScanOssHelper extends FoDScanHelper {
 
     public static final FoDScanDescriptor startScanWithDefaults(UnirestInstance unirest, FoDReleaseDescriptor releaseDescriptor,
                                                                 FoDScanOssStartRequest req, File scanFile) {
+        return startScanWithDefaults(unirest, releaseDescriptor, req, scanFile, null);
+    }
+
+    /**
+     * Same as {@link #startScanWithDefaults(UnirestInstance, FoDReleaseDescriptor, FoDScanOssStartRequest, File)},
+     * but reporting upload progress and limiting the upload rate through the given {@link BatchUpload}.
+     */
+    public static final FoDScanDescriptor startScanWithDefaults(UnirestInstance unirest, FoDReleaseDescriptor releaseDescriptor,
+                                                                FoDScanOssStartRequest req, File scanFile, BatchUpload batchUpload) {
         var relId = releaseDescriptor.getReleaseId();
         HttpRequest<?> request = unirest.post(FoDUrls.OSS_SCANS_START).routeParam("relId", relId);
-        return startScan(unirest, releaseDescriptor, request, scanFile);
+        return startScan(unirest, releaseDescriptor, request, scanFile, batchUpload);
     }
 
-    private static FoDScanDescriptor startScan(UnirestInstance unirest, FoDReleaseDescriptor releaseDescriptor, HttpRequest<?> request, File scanFile) {
-        JsonNode response = FoDFileTransferHelper.uploadChunked(unirest, request, scanFile);
+    private static FoDScanDescriptor startScan(UnirestInstance unirest, FoDReleaseDescriptor releaseDescriptor, HttpRequest<?> request, File scanFile, BatchUpload batchUpload) {
+        JsonNode response = FoDFileTransferHelper.uploadChunked(unirest, request, scanFile, batchUpload);
         FoDStartScanResponse startScanResponse = JsonHelper.treeToValue(response, FoDStartScanResponse.class);
         if (startScanResponse == null || startScanResponse.getScanId() <= 0) {
             throw new RuntimeException("Unable to retrieve scan id from response when starting OSS scan.");
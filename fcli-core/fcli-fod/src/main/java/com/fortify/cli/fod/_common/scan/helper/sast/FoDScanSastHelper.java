@@ -22,6 +22,7 @@ import com.fortify.cli.common.json.JsonHelper;
 import com.fortify.cli.common.util.StringUtils;
 import com.fortify.cli.fod._common.rest.FoDUrls;
 import com.fortify.cli.fod._common.rest.helper.FoDFileTransferHelper;
+import com.fortify.cli.fod._common.rest.helper.FoDFileTransferHelper.BatchUpload;
 import com.fortify.cli.fod._common.scan.helper.FoDScanDescriptor;
 import com.fortify.cli.fod._common.scan.helper.FoDScanHelper;
 import com.fortify.cli.fod._common.scan.helper.FoDScanType;
@@ -42,6 +43,15 @@ public class FoDScanSastHelper extends FoDScanHelper {
 
     public static final FoDScanDescriptor startScanWithDefaults(UnirestInstance unirest, FoDReleaseDescriptor releaseDescriptor,
                                                                 FoDScanSastStartRequest req, File scanFile) {
+        return startScanWithDefaults(unirest, releaseDescriptor, req, scanFile, null);
+    }
+
+    /**
+     * Same as {@link #startScanWithDefaults(UnirestInstance, FoDReleaseDescriptor, FoDScanSastStartRequest, File)},
+     * but reporting upload progress and limiting the upload rate through the given {@link BatchUpload}.
+     */
+    public static final FoDScanDescriptor startScanWithDefaults(UnirestInstance unirest, FoDReleaseDescriptor releaseDescriptor,
+                                                                FoDScanSastStartRequest req, File scanFile, BatchUpload batchUpload) {
         var relId = releaseDescriptor.getReleaseId();
         HttpRequest<?> request = unirest.post(FoDUrls.STATIC_SCAN_START_WITH_DEFAULTS).routeParam("relId", relId)
                 .queryString("isRemediationScan", req.getIsRemediationScan())
@@ -52,7 +62,7 @@ public class FoDScanSastHelper extends FoDScanHelper {
             String truncatedNotes = StringUtils.abbreviate(req.getNotes(), FoDConstants.MAX_NOTES_LENGTH);
             request = request.queryString("notes", truncatedNotes);
         }
-        return startScan(unirest, releaseDescriptor, request, scanFile);
+        return startScan(unirest, releaseDescriptor, request, scanFile, batchUpload);
     }
 
     public static final FoDScanDescriptor startScanAdvanced(UnirestInstance unirest, FoDReleaseDescriptor releaseDescriptor, FoDScanSastStartRequest req,
@@ -76,11 +86,11 @@ public class FoDScanSastHelper extends FoDScanHelper {
             String truncatedNotes = StringUtils.abbreviate(req.getNotes(), FoDConstants.MAX_NOTES_LENGTH);
             request = request.queryString("notes", truncatedNotes);
         }
-        return startScan(unirest, releaseDescriptor, request, scanFile);
+        return startScan(unirest, releaseDescriptor, request, scanFile, null);
     }
 
-    private static FoDScanDescriptor startScan(UnirestInstance unirest, FoDReleaseDescriptor releaseDescriptor, HttpRequest<?> request, File scanFile) {
-        JsonNode response = FoDFileTransferHelper.uploadChunked(unirest, request, scanFile);
+    private static FoDScanDescriptor startScan(UnirestInstance unirest, FoDReleaseDescriptor releaseDescriptor, HttpRequest<?> request, File scanFile, BatchUpload batchUpload) {
+        JsonNode response = FoDFileTransferHelper.uploadChunked(unirest, request, scanFile, batchUpload);
         FoDStartScanResponse startScanResponse = JsonHelper.treeToValue(response, FoDStartScanResponse.class);
         if (startScanResponse == null || startScanResponse.getScanId() <= 0) {
             throw new RuntimeException("Unable to retrieve scan id from response when starting Static scan.");
@@ -104,6 +114,19 @@ public class FoDScanSastHelper extends FoDScanHelper {
         return JsonHelper.treeToValue(setup, FoDScanConfigSastDescriptor.class);
     }
 
+    public static final void validateScanSetup(UnirestInstance unirest, String relId) {
+        // get current setup and check if its valid
+        FoDScanConfigSastDescriptor currentSetup = getSetupDescriptor(unirest, relId);
+        if (currentSetup.getEntitlementId() == null || currentSetup.getEntitlementId() <= 0) {
+            throw new IllegalStateException("The static scan configuration for release with id '" + relId +
+                    "' has not been setup correctly - 'Entitlement' is missing or empty.");
+        }
+        if (StringUtils.isBlank(currentSetup.getTechnologyStack())) {
+            throw new IllegalStateException("The static scan configuration for release with id '" + relId +
+                    "' has not been setup correctly - 'Technology Stack/Language Level' is missing or empty.");
+        }
+    }
+
     public static final FoDScanConfigSastDescriptor getSetupDescriptorWithAppRel(UnirestInstance unirest, FoDReleaseDescriptor releaseDescriptor) {
         GetRequest request = unirest.get(FoDUrls.STATIC_SCANS + "/scan-setup")
                 .routeParam("relId", releaseDescriptor.getReleaseId());
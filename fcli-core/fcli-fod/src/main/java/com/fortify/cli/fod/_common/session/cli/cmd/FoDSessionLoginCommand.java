@@ -43,12 +43,15 @@ public class FoDSessionLoginCommand extends AbstractSessionLoginCommand<FoDSessi
         if ( loginOptions.hasClientCredentials() ) {
             FoDTokenCreateResponse createTokenResponse = FoDOAuthHelper.createToken(urlConfig, loginOptions.getClientCredentialOptions(), loginOptions.getAuthOptions().getScopes());
             sessionDescriptor = new FoDSessionDescriptor(urlConfig, createTokenResponse);
+            sessionDescriptor.setRateLimitIdentity("client:"+loginOptions.getClientCredentialOptions().getClientId());
         } else if ( loginOptions.hasUserCredentialsConfig() ) {
             FoDTokenCreateResponse createTokenResponse = FoDOAuthHelper.createToken(urlConfig, loginOptions.getUserCredentialOptions(), loginOptions.getAuthOptions().getScopes());
             sessionDescriptor = new FoDSessionDescriptor(urlConfig, createTokenResponse);
+            sessionDescriptor.setRateLimitIdentity("tenant:"+loginOptions.getUserCredentialOptions().getTenant());
         } else {
             throw new IllegalArgumentException("Either FoD client or user credentials must be provided");
         }
+        sessionDescriptor.setRateLimitMode(loginOptions.getRateLimitMode());
         return sessionDescriptor;
     }
 }
@@ -12,6 +12,7 @@
  *******************************************************************************/
 package com.fortify.cli.fod._common.session.cli.mixin;
 
+import org.apache.http.HttpRequestInterceptor;
 import org.apache.http.impl.client.HttpClientBuilder;
 
 import com.fortify.cli.common.http.proxy.helper.ProxyHelper;
@@ -19,6 +20,7 @@ import com.fortify.cli.common.rest.unirest.config.UnirestJsonHeaderConfigurer;
 import com.fortify.cli.common.rest.unirest.config.UnirestUnexpectedHttpResponseConfigurer;
 import com.fortify.cli.common.rest.unirest.config.UnirestUrlConfigConfigurer;
 import com.fortify.cli.common.session.cli.mixin.AbstractSessionUnirestInstanceSupplierMixin;
+import com.fortify.cli.fod._common.rest.helper.FoDRateLimiter;
 import com.fortify.cli.fod._common.rest.helper.FoDRetryStrategy;
 import com.fortify.cli.fod._common.session.helper.FoDSessionDescriptor;
 import com.fortify.cli.fod._common.session.helper.FoDSessionHelper;
@@ -41,7 +43,10 @@ public final class FoDUnirestInstanceSupplierMixin extends AbstractSessionUnires
         // As such, we use a custom ApacheClient with custom ServiceUnavailableRetryStrategy to handle
         // rate-limited requests. Note that newer Unirest versions are no longer based on Apache HttpClient,
         // so we'll likely need to find an alternative approach if we ever wish to upgrade to Unirest 4.x.
-        unirest.config().httpClient(this::createClient);
+        // Unless disabled on session login, the same custom ApacheClient also consults the FoDRateLimiter
+        // for the current session before every request, to avoid hitting FoD rate limits in the first place.
+        var rateLimiter = sessionDescriptor.getRateLimiter();
+        unirest.config().httpClient(config->createClient(config, rateLimiter));
         UnirestUnexpectedHttpResponseConfigurer.configure(unirest);
         UnirestJsonHeaderConfigurer.configure(unirest);
         UnirestUrlConfigConfigurer.configure(unirest, sessionDescriptor.getUrlConfig());
@@ -50,11 +55,14 @@ public final class FoDUnirestInstanceSupplierMixin extends AbstractSessionUnires
         unirest.config().setDefaultHeader("Authorization", authHeader);
     }
     
-    private ApacheClient createClient(Config config) {
-        return new ApacheClient(config, this::configureClient);
+    private ApacheClient createClient(Config config, FoDRateLimiter rateLimiter) {
+        return new ApacheClient(config, cb->configureClient(cb, rateLimiter));
     }
     
-    private void configureClient(HttpClientBuilder cb) {
-        cb.setServiceUnavailableRetryStrategy(new FoDRetryStrategy());
+    private void configureClient(HttpClientBuilder cb, FoDRateLimiter rateLimiter) {
+        if ( rateLimiter!=null ) {
+            cb.addInterceptorFirst((HttpRequestInterceptor)(request, context)->rateLimiter.acquire());
+        }
+        cb.setServiceUnavailableRetryStrategy(new FoDRetryStrategy().rateLimiter(rateLimiter));
     }
 }
\ No newline at end of file
@@ -20,6 +20,7 @@ import com.formkiq.graalvm.annotations.Reflectable;
 import com.fortify.cli.common.rest.unirest.config.IUrlConfig;
 import com.fortify.cli.common.session.helper.AbstractSessionDescriptorWithSingleUrlConfig;
 import com.fortify.cli.common.session.helper.SessionSummary;
+import com.fortify.cli.fod._common.rest.helper.FoDRateLimiter;
 import com.fortify.cli.fod._common.session.helper.oauth.FoDTokenCreateResponse;
 
 import lombok.Data;
@@ -30,12 +31,20 @@ import lombok.NoArgsConstructor;
 @Reflectable @NoArgsConstructor
 public class FoDSessionDescriptor extends AbstractSessionDescriptorWithSingleUrlConfig {
     private FoDTokenCreateResponse cachedTokenResponse;
+    private FoDRateLimiter.Mode rateLimitMode;
+    /** Tenant or client id, used to share rate limiters between sessions for the same identity */
+    private String rateLimitIdentity;
     
     public FoDSessionDescriptor(IUrlConfig urlConfig, FoDTokenCreateResponse tokenResponse) {
         super(urlConfig);
         this.cachedTokenResponse = tokenResponse;
     }
     
+    @JsonIgnore
+    public FoDRateLimiter getRateLimiter() {
+        return FoDRateLimiter.forSession(rateLimitMode, getUrlConfig().getUrl(), rateLimitIdentity);
+    }
+    
     @JsonIgnore
     public final boolean hasActiveCachedTokenResponse() {
         return getCachedTokenResponse()!=null && cachedTokenResponse.isActive(); 
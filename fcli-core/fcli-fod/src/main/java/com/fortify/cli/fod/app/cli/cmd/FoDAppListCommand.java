@@ -36,7 +36,7 @@ public class FoDAppListCommand extends AbstractFoDBaseRequestOutputCommand imple
     @Getter private IServerSideQueryParamValueGenerator serverSideQueryParamGenerator = new FoDFiltersParamGenerator()
             .add("id","applicationId")
             .add("name","applicationName")
-            .add("criticality", "businessCriticalityType")
+            .add("criticality", "businessCriticalityType", "High", "Medium", "Low")
             .add("type", "applicationType");
 
     @Override
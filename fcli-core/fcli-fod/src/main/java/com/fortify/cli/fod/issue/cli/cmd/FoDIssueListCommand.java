@@ -13,6 +13,9 @@
 package com.fortify.cli.fod.issue.cli.cmd;
 
 import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
+import com.fortify.cli.common.rest.fields.IServerSideFieldsParamGeneratorSupplier;
+import com.fortify.cli.common.rest.fields.ServerSideFieldsParamGenerator;
+import com.fortify.cli.common.rest.fields.cli.mixin.ServerSideFieldsParamMixin;
 import com.fortify.cli.common.rest.query.IServerSideQueryParamGeneratorSupplier;
 import com.fortify.cli.common.rest.query.IServerSideQueryParamValueGenerator;
 import com.fortify.cli.fod._common.cli.mixin.FoDDelimiterMixin;
@@ -30,18 +33,34 @@ import picocli.CommandLine.Command;
 import picocli.CommandLine.Mixin;
 
 @Command(name = OutputHelperMixins.List.CMD_NAME)
-public class FoDIssueListCommand extends AbstractFoDBaseRequestOutputCommand implements IServerSideQueryParamGeneratorSupplier {
+public class FoDIssueListCommand extends AbstractFoDBaseRequestOutputCommand implements IServerSideQueryParamGeneratorSupplier, IServerSideFieldsParamGeneratorSupplier {
     @Getter @Mixin private OutputHelperMixins.List outputHelper;
     @Mixin private FoDDelimiterMixin delimiterMixin; // Is automatically injected in resolver mixins
     @Mixin private FoDReleaseByQualifiedNameOrIdResolverMixin.RequiredOption releaseResolver;
     @Mixin private FoDFiltersParamMixin filterParamMixin;
+    @Mixin private ServerSideFieldsParamMixin fieldsParamMixin;
     @Mixin private FoDIssueEmbedMixin embedMixin;
     @Mixin private FoDIssueIncludeMixin includeMixin;
-    @Getter private IServerSideQueryParamValueGenerator serverSideQueryParamGenerator = new FoDFiltersParamGenerator();
-    //        .add("id","applicationId")
-    //        .add("name","applicationName")
-    //        .add("criticality", "businessCriticalityType")
-    //        .add("type", "applicationType");
+    // Severity is always one of 1 (Low) to 4 (Critical), allowing for range and != 
+    // comparisons on severity to be pushed down as well.
+    @Getter private IServerSideQueryParamValueGenerator serverSideQueryParamGenerator = new FoDFiltersParamGenerator()
+            .addNonNull("severity", "severity", "1", "2", "3", "4")
+            .addNonNull("severityString", "severityString", "Critical", "High", "Medium", "Low")
+            .add("category")
+            .add("status");
+    
+    // Only retrieve the vulnerability fields required for producing the output. Visibility
+    // properties are generated by FoDIssueIncludeMixin based on the isSuppressed and 
+    // closedStatus fields, and releaseId and vulnId are required by FoDIssueEmbedMixin.
+    @Getter private ServerSideFieldsParamGenerator serverSideFieldsParamGenerator = new ServerSideFieldsParamGenerator()
+        .always("id", "releaseId", "vulnId", "isSuppressed", "closedStatus")
+        .add("visibility", "isSuppressed", "closedStatus")
+        .add("visibilityMarker", "isSuppressed", "closedStatus")
+        .addDirect("id", "releaseId", "vulnId", "fisma", "severityString", "severity", "category", "kingdom", 
+                "owasp2004", "owasp2007", "owasp2010", "owasp2013", "owasp2017", "cwe", "package", "primaryLocation",
+                "primaryLocationFull", "lineNumber", "introducedDate", "closedDate", "scantype", "status",
+                "developerStatus", "auditorStatus", "assignedUser", "timeToFixDays", "hasComments", "hasAttachments",
+                "bugSubmitted", "bugLink", "source", "sink", "scanId", "isSuppressed", "closedStatus", "instanceId");
 
     @Override
     public HttpRequest<?> getBaseRequest(UnirestInstance unirest) {
@@ -29,6 +29,7 @@ import picocli.CommandLine;
                 //FoDOssScanGetConfigCommand.class,
                 //FoDOssScanSetupCommand.class,
                 FoDOssScanStartCommand.class,
+                FoDOssScanStartBatchCommand.class,
                 //FoDOssScanCancelCommand.class,
                 FoDOssScanWaitForCommand.class,
         }
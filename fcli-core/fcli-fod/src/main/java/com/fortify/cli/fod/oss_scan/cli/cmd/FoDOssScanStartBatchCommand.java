@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+
+package com.fortify.cli.fod.oss_scan.cli.cmd;
+
+import java.io.File;
+
+import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
+import com.fortify.cli.fod._common.rest.helper.FoDFileTransferHelper.BatchUpload;
+import com.fortify.cli.fod._common.scan.cli.cmd.AbstractFoDScanStartBatchCommand;
+import com.fortify.cli.fod._common.scan.helper.FoDScanDescriptor;
+import com.fortify.cli.fod._common.scan.helper.FoDScanStartBatchEntry;
+import com.fortify.cli.fod._common.scan.helper.oss.FoDScanOssHelper;
+import com.fortify.cli.fod._common.scan.helper.oss.FoDScanOssStartRequest;
+import com.fortify.cli.fod.release.helper.FoDReleaseDescriptor;
+
+import kong.unirest.UnirestInstance;
+import lombok.Getter;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+
+@Command(name = OutputHelperMixins.StartBatch.CMD_NAME, hidden = false)
+public class FoDOssScanStartBatchCommand extends AbstractFoDScanStartBatchCommand {
+    @Getter @Mixin private OutputHelperMixins.StartBatch outputHelper;
+    
+    @Override
+    protected FoDScanDescriptor startScan(UnirestInstance unirest, FoDReleaseDescriptor releaseDescriptor, FoDScanStartBatchEntry entry, File scanFile, BatchUpload batchUpload) {
+        FoDScanOssStartRequest startScanRequest = FoDScanOssStartRequest.builder().build();
+        return FoDScanOssHelper.startScanWithDefaults(unirest, releaseDescriptor, startScanRequest, scanFile, batchUpload);
+    }
+}
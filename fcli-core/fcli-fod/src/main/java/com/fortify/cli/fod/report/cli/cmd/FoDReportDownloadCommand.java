@@ -12,19 +12,17 @@
  *******************************************************************************/
 package com.fortify.cli.fod.report.cli.cmd;
 
-import java.nio.file.StandardCopyOption;
-
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fortify.cli.common.cli.mixin.CommonOptionMixins;
 import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
 import com.fortify.cli.common.output.transform.IActionCommandResultSupplier;
+import com.fortify.cli.common.rest.unirest.RangedDownloadHelper;
 import com.fortify.cli.fod._common.output.cli.cmd.AbstractFoDJsonNodeOutputCommand;
 import com.fortify.cli.fod._common.rest.FoDUrls;
 import com.fortify.cli.fod.report.cli.mixin.FoDReportResolverMixin;
 import com.fortify.cli.fod.report.helper.FoDReportDescriptor;
 import com.fortify.cli.fod.report.helper.FoDReportHelper;
 
-import kong.unirest.GetRequest;
 import kong.unirest.UnirestInstance;
 import lombok.Getter;
 import lombok.SneakyThrows;
@@ -41,18 +39,18 @@ public class FoDReportDownloadCommand extends AbstractFoDJsonNodeOutputCommand i
     @Override @SneakyThrows
     public JsonNode getJsonNode(UnirestInstance unirest) {
         FoDReportDescriptor reportDescriptor = FoDReportHelper.getReportDescriptor(unirest, reportResolver.getReportId());
-        var file = outputFileMixin.getFile().getAbsolutePath();
-        GetRequest request = unirest.get(FoDUrls.REPORT + "/download")
-                .routeParam("reportId", reportResolver.getReportId())
-                .accept("application/octet-stream");
+        var file = outputFileMixin.getFile().getAbsoluteFile();
+        var downloader = RangedDownloadHelper.builder()
+                .requestSupplier(()->unirest.get(FoDUrls.REPORT + "/download")
+                        .routeParam("reportId", reportResolver.getReportId())
+                        .accept("application/octet-stream"))
+                .build();
         int status = 202;
         while ( status==202 ) {
-            status = request
-                    .asFile(file, StandardCopyOption.REPLACE_EXISTING)
-                    .getStatus();
+            status = downloader.download(file);
             if ( status==202 ) { Thread.sleep(30000L); }
         }
-        return reportDescriptor.asObjectNode().put("file", file);
+        return reportDescriptor.asObjectNode().put("file", file.getPath());
     }
 
     @Override
@@ -29,6 +29,7 @@ import picocli.CommandLine;
                 FoDSastScanListCommand.class,
                 FoDSastScanSetupCommand.class,
                 FoDSastScanStartCommand.class,
+                FoDSastScanStartBatchCommand.class,
                 FoDSastScanWaitForCommand.class,
         }
 )
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ *******************************************************************************/
+
+package com.fortify.cli.fod.sast_scan.cli.cmd;
+
+import java.io.File;
+import java.util.Properties;
+
+import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
+import com.fortify.cli.common.util.FcliBuildPropertiesHelper;
+import com.fortify.cli.common.util.StringUtils;
+import com.fortify.cli.fod._common.rest.helper.FoDFileTransferHelper.BatchUpload;
+import com.fortify.cli.fod._common.scan.cli.cmd.AbstractFoDScanStartBatchCommand;
+import com.fortify.cli.fod._common.scan.cli.mixin.FoDRemediationScanPreferenceTypeMixins;
+import com.fortify.cli.fod._common.scan.helper.FoDScanDescriptor;
+import com.fortify.cli.fod._common.scan.helper.FoDScanStartBatchEntry;
+import com.fortify.cli.fod._common.scan.helper.sast.FoDScanSastHelper;
+import com.fortify.cli.fod._common.scan.helper.sast.FoDScanSastStartRequest;
+import com.fortify.cli.fod._common.util.FoDEnums;
+import com.fortify.cli.fod.release.helper.FoDReleaseDescriptor;
+
+import kong.unirest.UnirestInstance;
+import lombok.Getter;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Option;
+
+@Command(name = OutputHelperMixins.StartBatch.CMD_NAME, hidden = false)
+public class FoDSastScanStartBatchCommand extends AbstractFoDScanStartBatchCommand {
+    @Getter @Mixin private OutputHelperMixins.StartBatch outputHelper;
+
+    @Option(names = {"--notes"})
+    private String notes;
+
+    @Mixin private FoDRemediationScanPreferenceTypeMixins.OptionalOption remediationScanType;
+
+    @Override
+    protected void validateScanSetup(UnirestInstance unirest, FoDReleaseDescriptor releaseDescriptor) {
+        FoDScanSastHelper.validateScanSetup(unirest, releaseDescriptor.getReleaseId());
+    }
+
+    @Override
+    protected FoDScanDescriptor startScan(UnirestInstance unirest, FoDReleaseDescriptor releaseDescriptor, FoDScanStartBatchEntry entry, File scanFile, BatchUpload batchUpload) {
+        Properties fcliProperties = FcliBuildPropertiesHelper.getBuildProperties();
+        String scanNotes = StringUtils.isNotBlank(entry.getNotes()) ? entry.getNotes() : notes;
+        FoDScanSastStartRequest startScanRequest = FoDScanSastStartRequest.builder()
+                .isRemediationScan(isRemediation())
+                .scanMethodType("Other")
+                .notes(scanNotes != null ? scanNotes : "")
+                .scanTool(fcliProperties.getProperty("projectName", "fcli"))
+                .scanToolVersion(fcliProperties.getProperty("projectVersion", "unknown"))
+                .build();
+        return FoDScanSastHelper.startScanWithDefaults(unirest, releaseDescriptor, startScanRequest, scanFile, batchUpload);
+    }
+
+    private boolean isRemediation() {
+        var preference = remediationScanType == null ? null : remediationScanType.getRemediationScanPreferenceType();
+        return FoDEnums.RemediationScanPreferenceType.RemediationScanIfAvailable.equals(preference) ||
+                FoDEnums.RemediationScanPreferenceType.RemediationScanOnly.equals(preference);
+    }
+}
@@ -18,7 +18,6 @@ import java.util.Properties;
 import com.fortify.cli.common.cli.mixin.CommonOptionMixins;
 import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
 import com.fortify.cli.common.util.FcliBuildPropertiesHelper;
-import com.fortify.cli.common.util.StringUtils;
 import com.fortify.cli.fod._common.scan.cli.cmd.AbstractFoDScanStartCommand;
 import com.fortify.cli.fod._common.scan.cli.mixin.FoDRemediationScanPreferenceTypeMixins;
 import com.fortify.cli.fod._common.scan.helper.FoDScanDescriptor;
@@ -26,7 +25,6 @@ import com.fortify.cli.fod._common.scan.helper.sast.FoDScanSastHelper;
 import com.fortify.cli.fod._common.scan.helper.sast.FoDScanSastStartRequest;
 import com.fortify.cli.fod._common.util.FoDEnums;
 import com.fortify.cli.fod.release.helper.FoDReleaseDescriptor;
-import com.fortify.cli.fod.sast_scan.helper.FoDScanConfigSastDescriptor;
 
 import kong.unirest.UnirestInstance;
 import lombok.Getter;
@@ -58,7 +56,7 @@ public class FoDSastScanStartCommand extends AbstractFoDScanStartCommand {
             }
         }
 
-        validateScanSetup(unirest, relId);
+        FoDScanSastHelper.validateScanSetup(unirest, relId);
 
         FoDScanSastStartRequest startScanRequest = FoDScanSastStartRequest.builder()
                 .isRemediationScan(isRemediation)
@@ -71,17 +69,4 @@ public class FoDSastScanStartCommand extends AbstractFoDScanStartCommand {
         return FoDScanSastHelper.startScanWithDefaults(unirest, releaseDescriptor, startScanRequest, scanFileMixin.getFile());
     }
 
-    private void validateScanSetup(UnirestInstance unirest, String relId) {
-        // get current setup and check if its valid
-        FoDScanConfigSastDescriptor currentSetup = FoDScanSastHelper.getSetupDescriptor(unirest, relId);
-        if (currentSetup.getEntitlementId() == null || currentSetup.getEntitlementId() <= 0) {
-            throw new IllegalStateException("The static scan configuration for release with id '" + relId +
-                    "' has not been setup correctly - 'Entitlement' is missing or empty.");
-        }
-        if (StringUtils.isBlank(currentSetup.getTechnologyStack())) {
-            throw new IllegalStateException("The static scan configuration for release with id '" + relId +
-                    "' has not been setup correctly - 'Technology Stack/Language Level' is missing or empty.");
-        }
-    }
-
 }
@@ -0,0 +1,179 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.fod._common.rest.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fortify.cli.common.progress.helper.IProgressWriter;
+import com.fortify.cli.common.rest.unirest.StreamingMultipartUploadHelper;
+import com.fortify.cli.fod._common.util.FoDConstants;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import kong.unirest.Unirest;
+import kong.unirest.UnirestInstance;
+
+public class FoDFileTransferHelperTest {
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private HttpServer server;
+    private UnirestInstance unirest;
+    @TempDir Path tempDir;
+
+    @BeforeEach
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/upload", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        unirest = Unirest.spawnInstance();
+        unirest.config().defaultBaseUrl("http://127.0.0.1:"+server.getAddress().getPort());
+        StreamingMultipartUploadHelper.configure(unirest);
+    }
+
+    @AfterEach
+    public void stop() {
+        FoDFileTransferHelper.setChunkSize(FoDConstants.DEFAULT_CHUNK_SIZE);
+        unirest.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testBatchUploadProgress() throws Exception {
+        FoDFileTransferHelper.setChunkSize(1000);
+        var files = List.of(createFile("1.zip", 5000), createFile("2.zip", 3000), createFile("3.zip", 2500), createFile("4.zip", 100));
+        var totalBytes = files.stream().mapToLong(File::length).sum();
+        var progressWriter = new RecordingProgressWriter();
+        var stdout = new ByteArrayOutputStream();
+        var originalStdout = System.out;
+        System.setOut(new PrintStream(stdout, true, StandardCharsets.UTF_8));
+        try ( var batchUpload = FoDFileTransferHelper.startBatchUpload(progressWriter, files.size(), totalBytes, 0) ) {
+            var executor = Executors.newFixedThreadPool(files.size());
+            try {
+                var results = new ArrayList<Future<JsonNode>>();
+                for ( int i=0 ; i<files.size() ; i++ ) {
+                    var file = files.get(i);
+                    Callable<JsonNode> upload = i%2==0
+                        ? ()->FoDFileTransferHelper.upload(unirest, unirest.post("/upload"), file, batchUpload)
+                        : ()->FoDFileTransferHelper.uploadChunked(unirest, unirest.post("/upload"), file, batchUpload);
+                    results.add(executor.submit(upload));
+                }
+                for ( var result : results ) { assertTrue(result.get().get("ok").asBoolean()); }
+            } finally {
+                executor.shutdown();
+            }
+        } finally {
+            System.setOut(originalStdout);
+        }
+        // Progress of all uploads is reported through the batch progress writer only
+        assertFalse(stdout.toString(StandardCharsets.UTF_8).contains("Upload"), stdout.toString(StandardCharsets.UTF_8));
+        var messages = progressWriter.getMessages();
+        assertEquals(String.format("Upload: 4 of 4 files finished, %d of %d bytes complete", totalBytes, totalBytes), messages.get(messages.size()-1));
+        assertTrue(messages.stream().allMatch(m->m.startsWith("Upload: ")), messages.toString());
+        assertTrue(progressWriter.isCleared());
+        assertTrue(bytesReceived.get()>=totalBytes);
+    }
+
+    @Test
+    public void testUploadWithoutBatchUpload() throws Exception {
+        FoDFileTransferHelper.setChunkSize(1000);
+        var progressWriter = new RecordingProgressWriter();
+        var file = createFile("1.zip", 5000);
+        var stdout = new ByteArrayOutputStream();
+        var originalStdout = System.out;
+        System.setOut(new PrintStream(stdout, true, StandardCharsets.UTF_8));
+        // Uploads that aren't passed an active batch upload aren't affected by that batch upload
+        try ( var batchUpload = FoDFileTransferHelper.startBatchUpload(progressWriter, 1, file.length(), 1) ) {
+            var start = System.currentTimeMillis();
+            FoDFileTransferHelper.upload(unirest, unirest.post("/upload"), file);
+            FoDFileTransferHelper.uploadChunked(unirest, unirest.post("/upload"), file);
+            assertTrue(System.currentTimeMillis()-start<5000, "Upload shouldn't be rate-limited");
+        } finally {
+            System.setOut(originalStdout);
+        }
+        assertTrue(progressWriter.getMessages().isEmpty());
+        assertTrue(stdout.toString(StandardCharsets.UTF_8).contains("Upload 1.zip: 5000 of 5000 bytes complete"));
+    }
+
+    private File createFile(String name, int size) throws IOException {
+        var file = tempDir.resolve(name);
+        Files.write(file, new byte[size]);
+        return file.toFile();
+    }
+
+    private void handle(HttpExchange e) throws IOException {
+        try ( var is = e.getRequestBody() ) {
+            bytesReceived.addAndGet(is.readAllBytes().length);
+        }
+        var response = "{\"ok\": true}".getBytes(StandardCharsets.UTF_8);
+        e.sendResponseHeaders(200, response.length);
+        try ( var os = e.getResponseBody() ) { os.write(response); }
+    }
+
+    private static final class RecordingProgressWriter implements IProgressWriter {
+        private final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean cleared;
+
+        @Override
+        public boolean isMultiLineSupported() {
+            return false;
+        }
+
+        @Override
+        public void writeProgress(String message, Object... args) {
+            messages.add(String.format(message, args));
+        }
+
+        @Override
+        public void writeWarning(String message, Object... args) {}
+
+        @Override
+        public void clearProgress() {
+            cleared = true;
+        }
+
+        @Override
+        public void close() {}
+
+        public List<String> getMessages() {
+            synchronized (messages) { return new ArrayList<>(messages); }
+        }
+
+        public boolean isCleared() {
+            return cleared;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.fod._common.rest.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fortify.cli.common.util.EnvHelper;
+import com.fortify.cli.fod._common.rest.helper.FoDRateLimiter.Mode;
+
+public class FoDRateLimiterTest {
+    private static final String STATE_DIR_PROPERTY = EnvHelper.envSystemPropertyName("FCLI_STATE_DIR");
+    @TempDir Path tempDir;
+    // Rate limiters are cached per JVM, so we use a unique URL for every test
+    private final String url = "https://"+UUID.randomUUID()+".example.com/";
+
+    @BeforeEach
+    public void setStateDir() {
+        System.setProperty(STATE_DIR_PROPERTY, tempDir.toString());
+    }
+
+    @AfterEach
+    public void clearStateDir() {
+        System.clearProperty(STATE_DIR_PROPERTY);
+    }
+
+    @Test
+    public void testKeyedBySession() {
+        var tenant1 = FoDRateLimiter.forSession(Mode.shared, url, "tenant:t1");
+        assertSame(tenant1, FoDRateLimiter.forSession(Mode.shared, url, "tenant:t1"));
+        assertSame(tenant1, FoDRateLimiter.forSession(null, url, "tenant:t1"));
+        assertNotSame(tenant1, FoDRateLimiter.forSession(Mode.shared, url, "tenant:t2"));
+        assertNotSame(tenant1, FoDRateLimiter.forSession(Mode.shared, url, "client:t1"));
+        assertNotSame(tenant1, FoDRateLimiter.forSession(Mode.local, url, "tenant:t1"));
+        assertNotSame(tenant1, FoDRateLimiter.forSession(Mode.shared, url+"other", "tenant:t1"));
+        assertNull(FoDRateLimiter.forSession(Mode.none, url, "tenant:t1"));
+    }
+
+    @Test
+    public void testSessionsDontThrottleEachOther() {
+        var tenant1 = FoDRateLimiter.forSession(Mode.shared, url, "tenant:t1");
+        var tenant2 = FoDRateLimiter.forSession(Mode.shared, url, "tenant:t2");
+        tenant1.rateLimited(60);
+        // Would block for 60 seconds if tenant2 shared the token bucket with tenant1
+        assertTimeoutPreemptively(Duration.ofSeconds(10), ()->tenant2.acquire());
+    }
+
+    @Test
+    public void testRemainingWithoutReset() {
+        var limiter = FoDRateLimiter.forSession(Mode.local, url, "tenant:t1");
+        // Without reset time, we can't wait for tokens to be refilled, but we
+        // should still count down the remaining number of requests
+        limiter.update(2, null);
+        assertTimeoutPreemptively(Duration.ofSeconds(10), ()->{ limiter.acquire(); limiter.acquire(); limiter.acquire(); });
+        // Once the reset time is known, we should wait for it as no requests are remaining
+        limiter.update(null, 2);
+        var start = System.currentTimeMillis();
+        assertTimeoutPreemptively(Duration.ofSeconds(10), ()->limiter.acquire());
+        assertTrue(System.currentTimeMillis()-start>=1000, "Expected acquire() to wait for rate limit reset");
+    }
+
+    @Test
+    public void testSharedAndLocalState() throws Exception {
+        var rateLimitDir = tempDir.resolve("fod").resolve("rate-limit");
+        FoDRateLimiter.forSession(Mode.local, url, "tenant:t1").update(10, 60);
+        assertFalse(Files.exists(rateLimitDir));
+        FoDRateLimiter.forSession(Mode.shared, url, "tenant:t1").update(10, 60);
+        FoDRateLimiter.forSession(Mode.shared, url, "tenant:t2").update(10, 60);
+        assertTrue(Files.exists(rateLimitDir));
+        try ( var files = Files.list(rateLimitDir) ) {
+            assertEquals(2, files.count());
+        }
+    }
+}
@@ -25,7 +25,10 @@ public class FoDFilterParamGeneratorTest {
     private IServerSideQueryParamValueGenerator generator = new FoDFiltersParamGenerator()
             .add("prop")
             .add("nested.nested.prop")
-            .add("nested.reword.prop", "rewordProp");
+            .add("nested.reword.prop", "rewordProp")
+            .add("domainProp", "domainFilter", "High", "Medium", "Low")
+            .add("numProp", "numFilter", "1", "2", "3", "4")
+            .addNonNull("nonNullProp", "nonNullFilter", "1", "2", "3", "4");
     
     @ParameterizedTest
     @CsvFileSource(resources = "/com/fortify/cli/fod/rest/query/filterparam.csv", nullValues = "null")
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.fod._common.scan.cli.cmd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ResourceBundle;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fortify.cli.fod.sast_scan.cli.cmd.FoDSastScanStartBatchCommand;
+
+import picocli.CommandLine;
+import picocli.CommandLine.ParameterException;
+
+public class AbstractFoDScanStartBatchCommandTest {
+    @TempDir Path tempDir;
+
+    @Test
+    public void testInvalidMaxUploadRate() throws Exception {
+        var manifest = tempDir.resolve("manifest.yaml");
+        Files.writeString(manifest, "- release: app:rel\n  file: package.zip\n");
+        for ( var rate : new String[] {"-1", "0"} ) {
+            var command = new FoDSastScanStartBatchCommand();
+            var commandLine = new CommandLine(command);
+            commandLine.setResourceBundle(ResourceBundle.getBundle("com.fortify.cli.fod.i18n.FoDMessages"));
+            commandLine.parseArgs("--manifest", manifest.toString(), "--max-upload-rate="+rate);
+            // Validation fails before any request is made, so we don't need a Unirest instance
+            var e = assertThrows(ParameterException.class, ()->command.getJsonNode(null));
+            assertTrue(e.getMessage().contains("--max-upload-rate"));
+        }
+    }
+
+    @Test
+    public void testDuplicateRelease() throws Exception {
+        var manifest = tempDir.resolve("manifest.yaml");
+        Files.writeString(manifest, "- release: app:rel\n  file: package1.zip\n- release: ' app:rel'\n  file: package2.zip\n");
+        var command = new FoDSastScanStartBatchCommand();
+        var commandLine = new CommandLine(command);
+        commandLine.setResourceBundle(ResourceBundle.getBundle("com.fortify.cli.fod.i18n.FoDMessages"));
+        commandLine.parseArgs("--manifest", manifest.toString());
+        // Duplicates are detected before any request is made, so we don't need a Unirest instance
+        var e = assertThrows(IllegalArgumentException.class, ()->command.getJsonNode(null));
+        assertEquals("Manifest file contains multiple entries for release app:rel", e.getMessage());
+    }
+}
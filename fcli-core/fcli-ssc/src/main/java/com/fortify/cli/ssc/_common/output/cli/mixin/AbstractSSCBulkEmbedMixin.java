@@ -12,10 +12,14 @@
  *******************************************************************************/
 package com.fortify.cli.ssc._common.output.cli.mixin;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fortify.cli.common.cli.mixin.CommandHelperMixin;
 import com.fortify.cli.common.output.transform.IInputTransformer;
 import com.fortify.cli.common.rest.unirest.IUnirestInstanceSupplier;
+import com.fortify.cli.common.session.helper.MultiSessionHelper;
 import com.fortify.cli.ssc._common.rest.bulk.ISSCEntityEmbedderSupplier;
 import com.fortify.cli.ssc._common.rest.bulk.SSCBulkEmbedder;
 
@@ -24,11 +28,12 @@ import picocli.CommandLine.Mixin;
 
 public abstract class AbstractSSCBulkEmbedMixin implements IInputTransformer {
     @Mixin private CommandHelperMixin commandHelper;
-    private SSCBulkEmbedder bulkEmbedder;
+    /** Embedders may cache server data, so we need a separate embedder for every session */
+    private final Map<String, SSCBulkEmbedder> bulkEmbeddersBySessionName = new ConcurrentHashMap<>();
     
     @Override
     public final JsonNode transformInput(JsonNode input) {
-        if ( bulkEmbedder==null ) { bulkEmbedder = new SSCBulkEmbedder(getEmbedSuppliers()); }
+        var bulkEmbedder = MultiSessionHelper.getOrCreateForCurrentSession(bulkEmbeddersBySessionName, ()->new SSCBulkEmbedder(getEmbedSuppliers()));
         UnirestInstance unirest = commandHelper
                 .getCommandAs(IUnirestInstanceSupplier.class)
                 .orElseThrow().getUnirestInstance();
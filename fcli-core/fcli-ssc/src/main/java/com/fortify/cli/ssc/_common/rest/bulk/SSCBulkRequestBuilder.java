@@ -24,6 +24,7 @@ import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.util.RawValue;
 import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.metrics.helper.FcliMetricsHelper;
 
 import kong.unirest.Body;
 import kong.unirest.HttpRequest;
@@ -128,6 +129,8 @@ public class SSCBulkRequestBuilder {
     public SSCBulkResponse execute(UnirestInstance unirest) {
         ObjectNode bulkRequest = objectMapper.createObjectNode();
         bulkRequest.set("requests", this.requests);
+        FcliMetricsHelper.increment("ssc.bulk.requests");
+        FcliMetricsHelper.increment("ssc.bulk.subrequests", requests.size());
         var result = new SSCBulkResponse(nameToIndexMap, 
                 unirest.post("/api/v1/bulk").body(bulkRequest)
                 .asObject(JsonNode.class).getBody().get("data"));
@@ -14,24 +14,29 @@ package com.fortify.cli.ssc._common.rest.query;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.expression.Expression;
-import org.springframework.expression.spel.SpelNode;
-import org.springframework.expression.spel.ast.OpAnd;
-import org.springframework.expression.spel.ast.OpEQ;
 
 import com.fortify.cli.common.rest.query.IServerSideQueryParamValueGenerator;
-import com.fortify.cli.common.spring.expression.AbstractSpelNodeVisitor;
-import com.fortify.cli.common.spring.expression.SpelNodeHelper;
-import com.fortify.cli.common.util.JavaHelper;
+import com.fortify.cli.common.rest.query.ServerSideQueryPlan;
+import com.fortify.cli.common.rest.query.ServerSideQueryPlan.Term;
 
+/**
+ * This class generates the SSC 'q' parameter from the {@link ServerSideQueryPlan}
+ * for a given query expression. As SSC doesn't support 'or' operations in the 'q'
+ * parameter, only terms that match a single value are pushed down to SSC, i.e.
+ * equality comparisons, single-value inline lists or regular expressions, and 
+ * != comparisons against boolean literals. Range comparisons (&gt;, &gt;=, &lt;, &lt;=)
+ * are pushed down for numeric properties registered through the 
+ * {@link #addRange(String, String, String, String)} method.
+ */
 public final class SSCQParamGenerator implements IServerSideQueryParamValueGenerator {
-    private static final Logger LOG = LoggerFactory.getLogger(SSCQParamGenerator.class);
     private final Map<String, String> qNamesByPropertyPaths = new HashMap<>();
     private final Map<String, Function<String,String>> valueGeneratorsByPropertyPaths = new HashMap<>();
+    private final Map<String, String[]> rangesByPropertyPaths = new HashMap<>();
     
     public SSCQParamGenerator add(String propertyPath, String qName, Function<String,String> valueGenerator) {
         qNamesByPropertyPaths.put(propertyPath, qName);
@@ -45,57 +50,50 @@ public final class SSCQParamGenerator implements IServerSideQueryParamValueGener
         return this;
     }
     
+    /**
+     * Add the given property path and corresponding q name for a numeric property
+     * that always has a value between the given minimum and maximum values. Range 
+     * comparisons on such properties are converted into the Fortify search syntax
+     * for ranges, for example <code>severity:[3,5]</code> for <code>severity>=3</code>,
+     * using '(' or ')' to exclude the lower or upper bound. Note that not all SSC 
+     * endpoints support this syntax, so this should only be used for endpoints that
+     * do, like the issues endpoint.
+     */
+    public SSCQParamGenerator addRange(String propertyPath, String qName, String min, String max) {
+        rangesByPropertyPaths.put(propertyPath, new String[] {min, max});
+        return add(propertyPath, qName, SSCQParamValueGenerators::plain);
+    }
+    
     @Override
     public final String getServerSideQueryParamValue(Expression expression) {
-        return new SSCQParamSpELNodeVisitor(expression).getQParamValue();
+        var result = ServerSideQueryPlan.plan(expression).getTerms().stream()
+                .map(this::getQuery)
+                .filter(Objects::nonNull)
+                .collect(Collectors.joining("+and+"));
+        return result.isEmpty() ? null : result;
     }
     
-    private final class SSCQParamSpELNodeVisitor extends AbstractSpelNodeVisitor {
-        private StringBuffer qParamValue = new StringBuffer();
-        
-        public SSCQParamSpELNodeVisitor(Expression expression) {
-            super(expression); visit();
-        }
-
-        public String getQParamValue() {
-            return qParamValue.isEmpty() ? null : qParamValue.toString();
-        }
-        
-        @Override
-        protected void visit(SpelNode node) {
-            LOG.trace("Visiting node: "+node);
-            JavaHelper.as(node, OpAnd.class).ifPresent(this::visitAnd);
-            JavaHelper.as(node, OpEQ.class).ifPresent(this::visitEQ);
-        }
-        
-        private void visitAnd(OpAnd node) {
-            LOG.trace("Processing OpAnd node: "+node);
-            visitChildren(node);
-        }
-
-        private void visitEQ(OpEQ node) {
-            var propertyName = SpelNodeHelper.operand(node, SpelNodeHelper::qualifiedPropertyName).orElse(null);
-            var literalString = SpelNodeHelper.operand(node, SpelNodeHelper::literalString).orElse(null);
-            LOG.trace("OpEQ property: {}, literal: {}", propertyName, literalString);
-            if ( propertyName!=null && literalString!=null ) {
-                addEQ(propertyName, literalString);
-            }
-        }
-        
-        private void addEQ(String propertyName, String value) {
-            String qName = qNamesByPropertyPaths.get(propertyName);
-            if ( qName!=null ) {
-                Function<String, String> valueGenerator = valueGeneratorsByPropertyPaths.get(propertyName);
-                addQuery(String.format("%s:%s", qName, valueGenerator.apply(value)));
-            }
-        }
-
-        private void addQuery(String query) {
-            qParamValue.append(
-                qParamValue.isEmpty()
-                    ? query
-                    : ("+and+"+query)
-            );
+    private String getQuery(Term term) {
+        String qName = qNamesByPropertyPaths.get(term.propertyPath());
+        if ( qName==null ) { return null; }
+        var range = getRange(term);
+        if ( range!=null ) { return String.format("%s:%s", qName, range); }
+        var values = term.getMatchingValues(null).orElse(null);
+        if ( values==null || values.size()!=1 ) { return null; }
+        Function<String, String> valueGenerator = valueGeneratorsByPropertyPaths.get(term.propertyPath());
+        return String.format("%s:%s", qName, valueGenerator.apply(values.get(0)));
+    }
+    
+    private String getRange(Term term) {
+        var range = rangesByPropertyPaths.get(term.propertyPath());
+        var value = term.values().get(0);
+        if ( range==null || !(value instanceof Number) ) { return null; }
+        switch (term.operator()) {
+        case GT: return String.format("(%s,%s]", value, range[1]);
+        case GE: return String.format("[%s,%s]", value, range[1]);
+        case LT: return String.format("[%s,%s)", range[0], value);
+        case LE: return String.format("[%s,%s]", range[0], value);
+        default: return null;
         }
     }
 }
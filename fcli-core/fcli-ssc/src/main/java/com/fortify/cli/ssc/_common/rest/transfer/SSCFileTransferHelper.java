@@ -13,7 +13,6 @@
 package com.fortify.cli.ssc._common.rest.transfer;
 
 import java.io.File;
-import java.nio.file.StandardCopyOption;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 
@@ -22,6 +21,8 @@ import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.fortify.cli.common.json.JsonHelper;
 import com.fortify.cli.common.progress.helper.IProgressWriter;
 import com.fortify.cli.common.progress.helper.ProgressWriterType;
+import com.fortify.cli.common.rest.unirest.RangedDownloadHelper;
+import com.fortify.cli.common.rest.unirest.StreamingMultipartUploadHelper;
 
 import kong.unirest.GetRequest;
 import kong.unirest.HttpRequest;
@@ -40,10 +41,10 @@ public class SSCFileTransferHelper {
     public static final File download(UnirestInstance unirest, String endpoint, File downloadPath, SSCFileTransferTokenType tokenType, ISSCAddDownloadTokenFunction addTokenFunction) {
         try ( SSCFileTransferTokenSupplier tokenSupplier = new SSCFileTransferTokenSupplier(unirest, tokenType); ) {
             try ( SSCProgressMonitor downloadMonitor = new SSCProgressMonitor("Download") ) {
-                return addTokenFunction.apply(tokenSupplier.get(), unirest.get(endpoint))
-                    .downloadMonitor(downloadMonitor)
-                    .asFile(downloadPath.getAbsolutePath(), StandardCopyOption.REPLACE_EXISTING)
-                    .getBody();
+                // File tokens are single-use, so we request a new token for every (partial) request
+                return RangedDownloadHelper.download(
+                        ()->addTokenFunction.apply(tokenSupplier.get(), unirest.get(endpoint)), 
+                        downloadMonitor, downloadPath);
             }
         }
     }
@@ -56,22 +57,17 @@ public class SSCFileTransferHelper {
     @SneakyThrows
     public static final <T> T upload(UnirestInstance unirest, String endpoint, File filePath, ISSCAddUploadTokenFunction addTokenFunction, Class<T> returnType) {
         try ( SSCFileTransferTokenSupplier tokenSupplier = new SSCFileTransferTokenSupplier(unirest, SSCFileTransferTokenType.UPLOAD); ) {
-            String acceptHeaderValue = unirest.config().getDefaultHeaders().getFirst("Accept");
-            ObjectMapper objectMapper = unirest.config().getObjectMapper();
-            if ( endpoint.startsWith("/upload") ) {
-                // SSC always returns XML data on these endpoints, so we use the appropriate Accept header and ObjectMapper
-                acceptHeaderValue = "application/xml";
-                objectMapper = XMLMAPPER;
-            }
+            // SSC always returns XML data on /upload endpoints, so we use the appropriate Accept header and ObjectMapper
+            boolean isXmlEndpoint = endpoint.startsWith("/upload");
+            String acceptHeaderValue = isXmlEndpoint ? "application/xml" : unirest.config().getDefaultHeaders().getFirst("Accept");
+            ObjectMapper objectMapper = isXmlEndpoint ? XMLMAPPER : unirest.config().getObjectMapper();
             
             try ( SSCProgressMonitor uploadMonitor = new SSCProgressMonitor("Upload") ) {
-                return addTokenFunction.apply(tokenSupplier.get(), unirest.post(endpoint))
-                    .multiPartContent() // Force multipart request with correct Content-Type header
-                    .field("file", filePath)
-                    .uploadMonitor(uploadMonitor)
-                    .headerReplace("Accept", acceptHeaderValue) 
-                    .withObjectMapper(objectMapper)
-                    .asObject(returnType).getBody();
+                return StreamingMultipartUploadHelper.upload(
+                        addTokenFunction.apply(tokenSupplier.get(), unirest.post(endpoint)), filePath, uploadMonitor,
+                        request->request.headerReplace("Accept", acceptHeaderValue)
+                            .withObjectMapper(objectMapper)
+                            .asObject(returnType).getBody());
             }
         }
     }
@@ -119,24 +115,24 @@ public class SSCFileTransferHelper {
         REPORT_FILE
     }
     
+    /**
+     * Supplier for SSC file transfer tokens; every invocation of the {@link #get()} method
+     * requests a new token. All tokens are deleted when this supplier is closed.
+     */
+    @RequiredArgsConstructor
     public static final class SSCFileTransferTokenSupplier implements AutoCloseable, Supplier<String> {
         private final UnirestInstance unirest;
-        private final String token;
+        private final SSCFileTransferTokenType tokenType;
         
-        public SSCFileTransferTokenSupplier(UnirestInstance unirest, SSCFileTransferTokenType tokenType) {
-            this.unirest = unirest;
+        @Override
+        public String get() {
             ObjectNode response = unirest.post("/api/v1/fileTokens")
                     .body(String.format("{ \"fileTokenType\": \"%s\"}", tokenType.name()))
                     .accept("application/json")
                     .contentType("application/json")
                     .asObject(ObjectNode.class)
                     .getBody();
-            this.token = JsonHelper.evaluateSpelExpression(response, "data.token", String.class);
-        }
-        
-        @Override
-        public String get() {
-            return token;
+            return JsonHelper.evaluateSpelExpression(response, "data.token", String.class);
         }
         
         @Override
@@ -64,7 +64,13 @@ public final class SSCAppVersionUserUpdateBuilder {
         return new SSCAppVersionAuthEntitiesUpdater(authEntitiesToAdd, authEntitiesToRemove, updateRequest);
     }
     
+    /**
+     * Build the request for updating the users assigned to the given application
+     * version, or return null if no users are to be added or removed, thereby
+     * avoiding an unnecessary request for loading the current users.
+     */
     public final HttpRequest<?> buildRequest(String appVersionId) {
+        if ( authEntitiesToAdd.isEmpty() && authEntitySpecsToRemove.isEmpty() ) { return null; }
         ArrayNode currentAuthEntities = (ArrayNode)unirest.get(SSCUrls.PROJECT_VERSION_AUTH_ENTITIES(appVersionId))
                 .queryString("limit","-1").asObject(JsonNode.class).getBody().get("data");
         return unirest
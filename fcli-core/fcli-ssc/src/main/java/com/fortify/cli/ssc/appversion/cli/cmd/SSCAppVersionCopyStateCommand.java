@@ -20,6 +20,7 @@ import com.fortify.cli.common.output.cli.cmd.IJsonNodeSupplier;
 import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
 import com.fortify.cli.common.output.transform.IActionCommandResultSupplier;
 import com.fortify.cli.common.output.transform.IRecordTransformer;
+import com.fortify.cli.common.util.ConcurrentTasks;
 import com.fortify.cli.ssc._common.output.cli.cmd.AbstractSSCJsonNodeOutputCommand;
 import com.fortify.cli.ssc._common.rest.SSCUrls;
 import com.fortify.cli.ssc.appversion.cli.mixin.SSCAppVersionRefreshOptions;
@@ -54,8 +55,14 @@ public class SSCAppVersionCopyStateCommand extends AbstractSSCJsonNodeOutputComm
     @Override
     public JsonNode getJsonNode(UnirestInstance unirest) {
         ObjectMapper mapper = new ObjectMapper();
-        SSCAppVersionDescriptor fromAppVersionDescriptor = SSCAppVersionHelper.getRequiredAppVersion(unirest, getFromAppVersionNameOrId(), delimiterMixin.getDelimiter());
-        SSCAppVersionDescriptor toAppVersionDescriptor = SSCAppVersionHelper.getRequiredAppVersion(unirest, getToAppVersionNameOrId(), delimiterMixin.getDelimiter());
+        SSCAppVersionDescriptor fromAppVersionDescriptor;
+        SSCAppVersionDescriptor toAppVersionDescriptor;
+        try ( var tasks = new ConcurrentTasks(2) ) {
+            var fromTask = tasks.submit(()->SSCAppVersionHelper.getRequiredAppVersion(unirest, getFromAppVersionNameOrId(), delimiterMixin.getDelimiter()));
+            var toTask = tasks.submit(()->SSCAppVersionHelper.getRequiredAppVersion(unirest, getToAppVersionNameOrId(), delimiterMixin.getDelimiter()));
+            fromAppVersionDescriptor = fromTask.get();
+            toAppVersionDescriptor = toTask.get();
+        }
 
         if(refreshOptions.isRefresh() && fromAppVersionDescriptor.isRefreshRequired()){
             SSCJobDescriptor refreshJobDesc = SSCAppVersionHelper.refreshMetrics(unirest, fromAppVersionDescriptor);
@@ -29,6 +29,7 @@ import com.fortify.cli.common.json.JsonHelper;
 import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
 import com.fortify.cli.common.output.transform.IActionCommandResultSupplier;
 import com.fortify.cli.common.output.transform.IRecordTransformer;
+import com.fortify.cli.common.util.ConcurrentTasks;
 import com.fortify.cli.ssc._common.output.cli.cmd.AbstractSSCJsonNodeOutputCommand;
 import com.fortify.cli.ssc._common.rest.SSCUrls;
 import com.fortify.cli.ssc._common.rest.bulk.SSCBulkRequestBuilder;
@@ -58,6 +59,7 @@ import picocli.CommandLine.Option;
 
 @Command(name = OutputHelperMixins.Create.CMD_NAME)
 public class SSCAppVersionCreateCommand extends AbstractSSCJsonNodeOutputCommand implements IRecordTransformer, IActionCommandResultSupplier {
+    private static final int MAX_LOOKUP_THREADS = 4;
     private final ObjectMapper objectMapper = new ObjectMapper();
     @Getter @Mixin private OutputHelperMixins.Create outputHelper;
     @Mixin private SSCAppAndVersionNameResolverMixin.PositionalParameter sscAppAndVersionNameResolver;
@@ -81,10 +83,21 @@ public class SSCAppVersionCreateCommand extends AbstractSSCJsonNodeOutputCommand
             if ( existingDescriptor!=null ) { return existingDescriptor.asObjectNode().put(IActionCommandResultSupplier.actionFieldName, "SKIPPED_EXISTING"); }
         }
         var copyFromDescriptor = copyFromMixin.getCopyFromDescriptor(unirest);
-        var attrUpdateBuilder = getAttrUpdateBuilder(unirest, copyFromDescriptor);
-        var authUpdateBuilder = getAuthUpdateBuilder(unirest, copyFromDescriptor);
-        
-        var descriptor = createUncommittedAppVersion(unirest, copyFromDescriptor);
+        SSCAttributeUpdateBuilder attrUpdateBuilder;
+        SSCAppVersionUserUpdateBuilder authUpdateBuilder;
+        SSCAppVersionDescriptor descriptor;
+        // Definition lookups don't depend on each other, so we run them concurrently
+        // before creating the uncommitted version. All requests that depend on the
+        // new version id are then submitted through a single bulk request below.
+        try ( var tasks = new ConcurrentTasks(MAX_LOOKUP_THREADS) ) {
+            var attrUpdateBuilderTask = tasks.submit(()->getAttrUpdateBuilder(unirest, copyFromDescriptor));
+            var authUpdateBuilderTask = tasks.submit(()->getAuthUpdateBuilder(unirest, copyFromDescriptor));
+            var issueTemplateIdTask = tasks.submit(()->getIssueTemplateId(unirest, copyFromDescriptor));
+            var appDescriptorTask = tasks.submit(()->SSCAppHelper.getApp(unirest, getAppName(), false, "id"));
+            attrUpdateBuilder = attrUpdateBuilderTask.get();
+            authUpdateBuilder = authUpdateBuilderTask.get();
+            descriptor = createUncommittedAppVersion(unirest, copyFromDescriptor, issueTemplateIdTask.get(), appDescriptorTask.get());
+        }
 
         SSCBulkResponse bulkResponse = new SSCBulkRequestBuilder()
             .request("attrUpdate", attrUpdateBuilder.buildRequest(descriptor.getVersionId()))
@@ -173,8 +186,7 @@ public class SSCAppVersionCreateCommand extends AbstractSSCJsonNodeOutputCommand
         return values;
     }
 
-    private SSCAppVersionDescriptor createUncommittedAppVersion(UnirestInstance unirest, SSCAppVersionCopyFromDescriptor copyFromDescriptor) {
-        String issueTemplateId = getIssueTemplateId(unirest, copyFromDescriptor);
+    private SSCAppVersionDescriptor createUncommittedAppVersion(UnirestInstance unirest, SSCAppVersionCopyFromDescriptor copyFromDescriptor, String issueTemplateId, SSCAppDescriptor appDescriptor) {
         SSCAppAndVersionNameDescriptor appAndVersionNameDescriptor = sscAppAndVersionNameResolver.getAppAndVersionNameDescriptor();
         var description = this.description;
         if ( StringUtils.isBlank(description) && copyFromDescriptor.isCopyRequested() ) {
@@ -186,7 +198,7 @@ public class SSCAppVersionCreateCommand extends AbstractSSCJsonNodeOutputCommand
             .put("active", active)
             .put("committed", false)
             .put("issueTemplateId", issueTemplateId)
-            .set("project", getProjectNode(unirest, appAndVersionNameDescriptor.getAppName(), issueTemplateId));
+            .set("project", getProjectNode(appDescriptor, appAndVersionNameDescriptor.getAppName(), issueTemplateId));
         JsonNode response = unirest.post(SSCUrls.PROJECT_VERSIONS).body(body).asObject(JsonNode.class).getBody().get("data");
         return JsonHelper.treeToValue(response, SSCAppVersionDescriptor.class);
     }
@@ -203,8 +215,11 @@ public class SSCAppVersionCreateCommand extends AbstractSSCJsonNodeOutputCommand
         return issueTemplateDescriptor.getId();
     }
 
-    private JsonNode getProjectNode(UnirestInstance unirest, String appName, String issueTemplateId) {
-        SSCAppDescriptor appDescriptor = SSCAppHelper.getApp(unirest, appName, false, "id");
+    private String getAppName() {
+        return sscAppAndVersionNameResolver.getAppAndVersionNameDescriptor().getAppName();
+    }
+
+    private JsonNode getProjectNode(SSCAppDescriptor appDescriptor, String appName, String issueTemplateId) {
         if ( appDescriptor!=null ) {
             return appDescriptor.asJsonNode();
         } else {
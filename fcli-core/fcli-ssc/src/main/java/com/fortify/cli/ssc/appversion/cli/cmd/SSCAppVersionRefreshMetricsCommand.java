@@ -12,6 +12,10 @@
  *******************************************************************************/
 package com.fortify.cli.ssc.appversion.cli.cmd;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fortify.cli.common.json.JsonHelper;
 import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
@@ -21,25 +25,43 @@ import com.fortify.cli.common.variable.DefaultVariablePropertyName;
 import com.fortify.cli.ssc._common.output.cli.cmd.AbstractSSCJsonNodeOutputCommand;
 import com.fortify.cli.ssc.appversion.cli.mixin.SSCAppVersionBulkEmbedMixin;
 import com.fortify.cli.ssc.appversion.cli.mixin.SSCAppVersionResolverMixin;
+import com.fortify.cli.ssc.appversion.helper.SSCAppVersionDescriptor;
 import com.fortify.cli.ssc.appversion.helper.SSCAppVersionHelper;
 import com.fortify.cli.ssc.system_state.helper.SSCJobDescriptor;
+import com.fortify.cli.ssc.system_state.helper.SSCJobHelper;
 
 import kong.unirest.UnirestInstance;
 import lombok.Getter;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Option;
 
 @Command(name = "refresh-metrics")
 @DefaultVariablePropertyName("job.jobName")
 public class SSCAppVersionRefreshMetricsCommand extends AbstractSSCJsonNodeOutputCommand implements IRecordTransformer, IActionCommandResultSupplier {
     @Getter @Mixin private OutputHelperMixins.TableNoQuery outputHelper; 
-    @Mixin private SSCAppVersionResolverMixin.PositionalParameter appVersionResolver;
+    @Mixin private SSCAppVersionResolverMixin.PositionalParameterMulti appVersionResolver;
     @Mixin private SSCAppVersionBulkEmbedMixin bulkEmbedMixin;
+    @Option(names = "--wait")
+    private boolean wait;
+    @Option(names = "--wait-timeout", paramLabel = "<timeoutPeriod>", defaultValue = "60s")
+    private String waitTimeout;
     
     @Override
     public JsonNode getJsonNode(UnirestInstance unirest) {
-        var descriptor = appVersionResolver.getAppVersionDescriptor(unirest);
-        SSCJobDescriptor refreshJobDescriptor = SSCAppVersionHelper.refreshMetrics(unirest, descriptor);
+        var descriptors = appVersionResolver.getAppVersionDescriptors(unirest);
+        var refreshJobDescriptors = SSCAppVersionHelper.refreshMetrics(unirest, descriptors);
+        if ( wait && !refreshJobDescriptors.isEmpty() ) {
+            refreshJobDescriptors = waitForJobs(unirest, refreshJobDescriptors);
+        }
+        var result = JsonHelper.getObjectMapper().createArrayNode();
+        for ( var descriptor : descriptors ) {
+            result.add(getResult(descriptor, refreshJobDescriptors.get(descriptor.getVersionId())));
+        }
+        return appVersionResolver.isSingleAppVersion() ? result.get(0) : result;
+    }
+    
+    private JsonNode getResult(SSCAppVersionDescriptor descriptor, SSCJobDescriptor refreshJobDescriptor) {
         if(refreshJobDescriptor == null){
             return descriptor.asObjectNode()
                     .put(IActionCommandResultSupplier.actionFieldName, "NO_REFRESH_REQUIRED")
@@ -47,7 +69,20 @@ public class SSCAppVersionRefreshMetricsCommand extends AbstractSSCJsonNodeOutpu
         } else {
             return descriptor.asObjectNode().set("job", refreshJobDescriptor.asJsonNode());
         }
-
+    }
+    
+    /**
+     * Wait for all refresh jobs to complete, and return the updated job descriptors
+     * indexed by application version id. As multiple application versions may share
+     * the same refresh job, we load every distinct job only once.
+     */
+    private Map<String, SSCJobDescriptor> waitForJobs(UnirestInstance unirest, Map<String, SSCJobDescriptor> refreshJobDescriptors) {
+        SSCJobHelper.waitForJobs(unirest, refreshJobDescriptors.values(), waitTimeout);
+        Map<String, SSCJobDescriptor> updatedJobDescriptors = new HashMap<>();
+        Map<String, SSCJobDescriptor> result = new LinkedHashMap<>();
+        refreshJobDescriptors.forEach((versionId, job)->result.put(versionId, 
+                updatedJobDescriptors.computeIfAbsent(job.getJobName(), n->SSCJobHelper.getJobDescriptor(unirest, n))));
+        return result;
     }
     
     @Override
@@ -62,6 +97,6 @@ public class SSCAppVersionRefreshMetricsCommand extends AbstractSSCJsonNodeOutpu
     
     @Override
     public boolean isSingular() {
-        return true;
+        return appVersionResolver.isSingleAppVersion();
     }
 }
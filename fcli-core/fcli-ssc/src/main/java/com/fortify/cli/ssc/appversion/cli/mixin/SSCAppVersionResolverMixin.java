@@ -12,7 +12,13 @@
  *******************************************************************************/
 package com.fortify.cli.ssc.appversion.cli.mixin;
 
+import java.util.List;
+
 import com.fortify.cli.common.cli.util.EnvSuffix;
+import com.fortify.cli.common.output.query.QueryExpression;
+import com.fortify.cli.common.output.query.QueryExpressionTypeConverter;
+import com.fortify.cli.common.util.DisableTest;
+import com.fortify.cli.common.util.DisableTest.TestType;
 import com.fortify.cli.ssc.appversion.helper.SSCAppVersionDescriptor;
 import com.fortify.cli.ssc.appversion.helper.SSCAppVersionHelper;
 
@@ -36,13 +42,50 @@ public class SSCAppVersionResolverMixin {
         }
     }
     
+    public static abstract class AbstractSSCAppVersionMultiResolverMixin {
+        @Getter @Mixin private SSCDelimiterMixin delimiterMixin;
+        @Option(names = "--all-matching", converter = QueryExpressionTypeConverter.class, paramLabel = "<SpEL expression>", descriptionKey = "fcli.ssc.appversion.resolver.all-matching")
+        @Getter private QueryExpression allMatchingQuery;
+        public abstract String[] getAppVersionNameOrIds();
+        
+        public List<SSCAppVersionDescriptor> getAppVersionDescriptors(UnirestInstance unirest) {
+            var nameOrIds = getAppVersionNameOrIds();
+            if ( (nameOrIds==null || nameOrIds.length==0) && allMatchingQuery==null ) {
+                throw new IllegalArgumentException("Either one or more application versions, or the --all-matching option must be specified");
+            }
+            return SSCAppVersionHelper.getRequiredAppVersions(unirest, nameOrIds, allMatchingQuery, delimiterMixin.getDelimiter());
+        }
+        
+        /**
+         * @return true if a single application version name or id was specified, 
+         *         without --all-matching option, false otherwise
+         */
+        public boolean isSingleAppVersion() {
+            var nameOrIds = getAppVersionNameOrIds();
+            return allMatchingQuery==null && nameOrIds!=null && nameOrIds.length==1;
+        }
+    }
+    
     public static class RequiredOption extends AbstractSSCAppVersionResolverMixin {
         @Option(names = {"--appversion", "--av"}, required = true, descriptionKey = "fcli.ssc.appversion.resolver.nameOrId")
         @Getter private String appVersionNameOrId;
     }
     
+    public static class OptionMulti extends AbstractSSCAppVersionMultiResolverMixin {
+        // Application version names may contain commas, so instead of splitting, 
+        // this option may be repeated to specify multiple application versions.
+        @DisableTest({TestType.MULTI_OPT_PLURAL_NAME, TestType.MULTI_OPT_SPLIT})
+        @Option(names = {"--appversion", "--av"}, descriptionKey = "fcli.ssc.appversion.resolver.multi.nameOrId")
+        @Getter private String[] appVersionNameOrIds;
+    }
+    
     public static class PositionalParameter extends AbstractSSCAppVersionResolverMixin {
         @EnvSuffix("APPVERSION") @Parameters(index = "0", arity = "1", descriptionKey = "fcli.ssc.appversion.resolver.nameOrId")
         @Getter private String appVersionNameOrId;
     }
+    
+    public static class PositionalParameterMulti extends AbstractSSCAppVersionMultiResolverMixin {
+        @EnvSuffix("APPVERSION") @Parameters(index = "0", arity = "0..", paramLabel = "appversions", descriptionKey = "fcli.ssc.appversion.resolver.multi.nameOrIds")
+        @Getter private String[] appVersionNameOrIds;
+    }
 }
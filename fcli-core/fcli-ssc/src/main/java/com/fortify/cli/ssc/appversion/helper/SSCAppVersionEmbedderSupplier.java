@@ -12,6 +12,10 @@
  *******************************************************************************/
 package com.fortify.cli.ssc.appversion.helper;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -50,17 +54,87 @@ public enum SSCAppVersionEmbedderSupplier implements ISSCEntityEmbedderSupplier
     private static abstract class AbstractSSCAppVersionEmbedder implements ISSCEntityEmbedder {
         @Override
         public void addEmbedRequests(SSCBulkRequestBuilder builder, UnirestInstance unirest, JsonNode record) {
-            var id = record.get("id").asText();
-            builder.request(getBaseRequest(unirest)
-                    .routeParam("id", id)
-                    .queryString("limit", "-1"), 
+            builder.request(getRequest(unirest, record), 
                 response->process((ObjectNode)record, SSCInputTransformer.getDataOrSelf(response)));
         }
+        
+        protected final HttpRequest<?> getRequest(UnirestInstance unirest, JsonNode record) {
+            return getBaseRequest(unirest)
+                    .routeParam("id", record.get("id").asText())
+                    .queryString("limit", "-1");
+        }
 
         protected abstract HttpRequest<?> getBaseRequest(UnirestInstance unirest);
         protected abstract void process(ObjectNode record, JsonNode response);
     }
     
+    /**
+     * Filter sets and folders are defined by the issue template, so these are 
+     * identical for all application versions that share the same issue template.
+     * Note that this doesn't apply to custom tags; although the initial set of 
+     * custom tags is defined by the issue template, custom tags can be added to
+     * or removed from individual application versions. This embedder executes a 
+     * single request per issue template and issue template modification time, 
+     * sharing the response data between all records for that issue template 
+     * (also across pages). As the response contains some application version-specific
+     * properties, shared data doesn't include any 'id' properties (filter sets and
+     * folders are identified by their 'guid'), and any 'projectVersionId' properties 
+     * are set to the id of the record being processed. Each record gets a separate 
+     * copy of the shared data, so updating the embedded data for one record doesn't
+     * affect other records. Application versions that have a stale issue template, 
+     * or for which issue template data isn't available, are handled through 
+     * individual requests.
+     */
+    private static abstract class AbstractSSCAppVersionIssueTemplateEmbedder extends AbstractSSCAppVersionEmbedder {
+        private final Map<String, JsonNode> dataByIssueTemplateKey = new HashMap<>();
+        private final Map<String, List<ObjectNode>> pendingRecordsByIssueTemplateKey = new HashMap<>();
+        
+        @Override
+        public void addEmbedRequests(SSCBulkRequestBuilder builder, UnirestInstance unirest, JsonNode record) {
+            var key = getIssueTemplateKey(record);
+            if ( key==null ) {
+                super.addEmbedRequests(builder, unirest, record);
+            } else if ( dataByIssueTemplateKey.containsKey(key) ) {
+                processShared((ObjectNode)record, dataByIssueTemplateKey.get(key));
+            } else if ( pendingRecordsByIssueTemplateKey.containsKey(key) ) {
+                pendingRecordsByIssueTemplateKey.get(key).add((ObjectNode)record);
+            } else {
+                var pendingRecords = new ArrayList<ObjectNode>(List.of((ObjectNode)record));
+                pendingRecordsByIssueTemplateKey.put(key, pendingRecords);
+                builder.request(getRequest(unirest, record), response->{
+                    var data = removeIds(SSCInputTransformer.getDataOrSelf(response).deepCopy());
+                    dataByIssueTemplateKey.put(key, data);
+                    pendingRecordsByIssueTemplateKey.remove(key);
+                    pendingRecords.forEach(r->processShared(r, data));
+                });
+            }
+        }
+        
+        private void processShared(ObjectNode record, JsonNode sharedData) {
+            process(record, setProjectVersionId(sharedData.deepCopy(), record.get("id")));
+        }
+        
+        private static final JsonNode removeIds(JsonNode node) {
+            if ( node instanceof ObjectNode ) { ((ObjectNode)node).remove("id"); }
+            node.forEach(AbstractSSCAppVersionIssueTemplateEmbedder::removeIds);
+            return node;
+        }
+        
+        private static final JsonNode setProjectVersionId(JsonNode node, JsonNode projectVersionId) {
+            if ( node instanceof ObjectNode && node.has("projectVersionId") ) {
+                ((ObjectNode)node).set("projectVersionId", projectVersionId);
+            }
+            node.forEach(n->setProjectVersionId(n, projectVersionId));
+            return node;
+        }
+        
+        private static final String getIssueTemplateKey(JsonNode record) {
+            var issueTemplateId = record.path("issueTemplateId");
+            if ( !issueTemplateId.isValueNode() || issueTemplateId.isNull() || record.path("staleIssueTemplate").asBoolean(false) ) { return null; }
+            return issueTemplateId.asText()+":"+record.path("issueTemplateModifiedTime").asText();
+        }
+    }
+    
     private static final class SSCAppVersionBugTrackerEmbedder extends AbstractSSCAppVersionEmbedder {
         @Override
         protected HttpRequest<?> getBaseRequest(UnirestInstance unirest) {
@@ -83,7 +157,7 @@ public enum SSCAppVersionEmbedderSupplier implements ISSCEntityEmbedderSupplier
         }
     }
     
-    private static final class SSCAppVersionFilterSetsEmbedder extends AbstractSSCAppVersionEmbedder {
+    private static final class SSCAppVersionFilterSetsEmbedder extends AbstractSSCAppVersionIssueTemplateEmbedder {
         @Override
         protected HttpRequest<?> getBaseRequest(UnirestInstance unirest) {
             return unirest.get("/api/v1/projectVersions/{id}/filterSets");
@@ -94,7 +168,7 @@ public enum SSCAppVersionEmbedderSupplier implements ISSCEntityEmbedderSupplier
         }
     }
     
-    private static final class SSCAppVersionFoldersEmbedder extends AbstractSSCAppVersionEmbedder {
+    private static final class SSCAppVersionFoldersEmbedder extends AbstractSSCAppVersionIssueTemplateEmbedder {
         @Override
         protected HttpRequest<?> getBaseRequest(UnirestInstance unirest) {
             return unirest.get("/api/v1/projectVersions/{id}/folders");
@@ -12,12 +12,22 @@
  *******************************************************************************/
 package com.fortify.cli.ssc.appversion.helper;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.formkiq.graalvm.annotations.Reflectable;
 import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.output.query.QueryExpression;
 import com.fortify.cli.common.output.transform.fields.RenameFieldsTransformer;
 import com.fortify.cli.ssc._common.rest.SSCUrls;
+import com.fortify.cli.ssc._common.rest.helper.SSCPagingHelper;
 import com.fortify.cli.ssc.system_state.helper.SSCJobDescriptor;
 import com.fortify.cli.ssc.system_state.helper.SSCJobHelper;
 
@@ -27,6 +37,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 
 public class SSCAppVersionHelper {
+    private static final int REFRESH_BATCH_SIZE = 100;
+    
     public static final JsonNode renameFields(JsonNode record) {
         return new RenameFieldsTransformer(new String[] {"project:application"}).transform(record);
     }
@@ -59,6 +71,40 @@ public class SSCAppVersionHelper {
         return getOptionalDescriptor(request);
     }
 
+    /**
+     * Resolve the given application version names or id's, and/or all application versions 
+     * matching the given query. For a single application version name or id without query, 
+     * this simply calls {@link #getRequiredAppVersion(UnirestInstance, String, String, String...)}.
+     * Otherwise, all application versions are resolved from a single paged listing of all
+     * application versions, to avoid a separate request for every name or id. The query is 
+     * evaluated on application version records as returned by the 'ssc appversion list' command.
+     * An {@link IllegalArgumentException} is thrown if any of the given names or id's cannot
+     * be found.
+     */
+    public static final List<SSCAppVersionDescriptor> getRequiredAppVersions(UnirestInstance unirest, String[] appVersionNameOrIds, QueryExpression query, String delimiter) {
+        var nameOrIds = appVersionNameOrIds==null ? new LinkedHashSet<String>() : new LinkedHashSet<>(List.of(appVersionNameOrIds));
+        if ( query==null && nameOrIds.size()==1 ) {
+            return List.of(getRequiredAppVersion(unirest, nameOrIds.iterator().next(), delimiter));
+        }
+        Map<String, SSCAppVersionDescriptor> result = new LinkedHashMap<>();
+        var request = unirest.get(SSCUrls.PROJECT_VERSIONS).queryString("includeInactive", "true").queryString("limit", "200");
+        for ( var page : SSCPagingHelper.pagedRequest(request) ) {
+            for ( var record : page.getBody().get("data") ) {
+                var descriptor = JsonHelper.treeToValue(record, SSCAppVersionDescriptor.class);
+                var appAndVersionName = descriptor.getApplicationName()+delimiter+descriptor.getVersionName();
+                boolean requested = nameOrIds.remove(descriptor.getVersionId());
+                requested |= nameOrIds.remove(appAndVersionName);
+                if ( requested || (query!=null && query.matches(renameFields(record.deepCopy()))) ) {
+                    result.putIfAbsent(descriptor.getVersionId(), descriptor);
+                }
+            }
+        }
+        if ( !nameOrIds.isEmpty() ) {
+            throw new IllegalArgumentException("No application version found for application version name(s) or id(s): "+String.join(", ", nameOrIds));
+        }
+        return new ArrayList<>(result.values());
+    }
+
     private static GetRequest getBaseRequest(UnirestInstance unirest, String... fields) {
         GetRequest request = unirest.get("/api/v1/projectVersions?includeInactive=true&limit=2");
         if ( fields!=null && fields.length>0 ) {
@@ -90,24 +136,36 @@ public class SSCAppVersionHelper {
     }
     
     public static final SSCJobDescriptor refreshMetrics(UnirestInstance unirest, SSCAppVersionDescriptor descriptor) {
-        if ( !descriptor.isRefreshRequired() ) {
-            return null;
-        } else {
+        return refreshMetrics(unirest, List.of(descriptor)).get(descriptor.getVersionId());
+    }
+    
+    /**
+     * Request a metrics refresh for all given application versions that require a refresh,
+     * submitting at most {@link #REFRESH_BATCH_SIZE} application version id's per refresh
+     * request. The returned map contains the refresh job descriptor for every application
+     * version for which a refresh was requested, indexed by application version id.
+     */
+    public static final Map<String, SSCJobDescriptor> refreshMetrics(UnirestInstance unirest, Collection<SSCAppVersionDescriptor> descriptors) {
+        var versionIds = descriptors.stream()
+                .filter(SSCAppVersionDescriptor::isRefreshRequired)
+                .map(SSCAppVersionDescriptor::getVersionId)
+                .collect(Collectors.toList());
+        Map<String, SSCJobDescriptor> result = new LinkedHashMap<>();
+        for ( int i=0; i<versionIds.size(); i+=REFRESH_BATCH_SIZE ) {
+            var batch = versionIds.subList(i, Math.min(i+REFRESH_BATCH_SIZE, versionIds.size()));
             JsonNode response = unirest.post(SSCUrls.PROJECT_VERSIONS_ACTION_REFRESH)
-                .body(new SSCAppVersionRefreshRequest(descriptor.getVersionId()))
+                .body(new SSCAppVersionRefreshRequest(batch.toArray(String[]::new)))
                 .asObject(ObjectNode.class)
                 .getBody();
-            return SSCJobHelper.getJobDescriptor(unirest, response.get("data").get("data").get("id").textValue());
+            var jobDescriptor = SSCJobHelper.getJobDescriptor(unirest, response.get("data").get("data").get("id").textValue());
+            batch.forEach(id->result.put(id, jobDescriptor));
         }
+        return result;
     }
     
     @Data
     @Reflectable @AllArgsConstructor
     private static final class SSCAppVersionRefreshRequest {
         private final String[] projectVersionIds;
-        
-        public SSCAppVersionRefreshRequest(String appVersionId) {
-            this.projectVersionIds = new String[] {appVersionId};
-        }
     }
 }
@@ -14,18 +14,15 @@ package com.fortify.cli.ssc.artifact.cli.cmd;
 
 import java.io.File;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fortify.cli.common.json.JsonHelper;
 import com.fortify.cli.common.output.cli.cmd.IBaseRequestSupplier;
 import com.fortify.cli.common.progress.cli.mixin.ProgressWriterFactoryMixin;
 import com.fortify.cli.common.progress.helper.IProgressWriterI18n;
-import com.fortify.cli.common.util.StringUtils;
 import com.fortify.cli.ssc._common.rest.SSCUrls;
 import com.fortify.cli.ssc.appversion.cli.mixin.SSCAppVersionResolverMixin;
 import com.fortify.cli.ssc.appversion.helper.SSCAppVersionDescriptor;
+import com.fortify.cli.ssc.artifact.helper.SSCArtifactHelper;
 
 import kong.unirest.HttpRequest;
-import kong.unirest.HttpRequestWithBody;
 import kong.unirest.UnirestInstance;
 import picocli.CommandLine.Mixin;
 
@@ -39,18 +36,10 @@ public abstract class AbstractSSCArtifactUploadCommand extends AbstractSSCArtifa
             var unirest = getUnirestInstance();
         	String engineType = getEngineType();
             SSCAppVersionDescriptor av = parentResolver.getAppVersionDescriptor(unirest);
-            HttpRequestWithBody request = unirest.post(SSCUrls.PROJECT_VERSION_ARTIFACTS(av.getVersionId()));
-            if ( StringUtils.isNotBlank(engineType) ) {
-            	// TODO Check parser plugin is enabled in SSC
-            	request = request.queryString("engineType", engineType);
-            }
             File file = getFile();
             preUpload(unirest, progressWriter, file);
-            JsonNode uploadResponse = request.multiPartContent()
-            		.field("file", file)
-            		.asObject(JsonNode.class).getBody();
+            String artifactId = SSCArtifactHelper.upload(unirest, av.getVersionId(), file, engineType);
             postUpload(unirest, progressWriter, file);
-            String artifactId = JsonHelper.evaluateSpelExpression(uploadResponse, "data.id", String.class);
             // TODO Do we actually show any scan data from the embedded scans?
             return unirest.get(SSCUrls.ARTIFACT(artifactId)).queryString("embed","scans");
         }
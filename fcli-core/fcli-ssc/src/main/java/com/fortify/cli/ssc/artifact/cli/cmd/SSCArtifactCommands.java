@@ -28,6 +28,7 @@ import picocli.CommandLine.Command;
             SSCArtifactListCommand.class,
             SSCArtifactPurgeCommand.class,
             SSCArtifactUploadCommand.class,
+            SSCArtifactUploadBatchCommand.class,
             SSCArtifactWaitForCommand.class
         }
 )
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.ssc.artifact.cli.cmd;
+
+import java.io.File;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.output.cli.cmd.IJsonNodeSupplier;
+import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
+import com.fortify.cli.common.output.transform.IActionCommandResultSupplier;
+import com.fortify.cli.common.util.BatchHelper;
+import com.fortify.cli.common.util.StringUtils;
+import com.fortify.cli.ssc.appversion.cli.mixin.SSCDelimiterMixin;
+import com.fortify.cli.ssc.appversion.helper.SSCAppVersionDescriptor;
+import com.fortify.cli.ssc.appversion.helper.SSCAppVersionHelper;
+import com.fortify.cli.ssc.artifact.helper.SSCArtifactDescriptor;
+import com.fortify.cli.ssc.artifact.helper.SSCArtifactHelper;
+import com.fortify.cli.ssc.artifact.helper.SSCArtifactUploadBatchEntry;
+
+import kong.unirest.UnirestInstance;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Option;
+
+@Command(name = OutputHelperMixins.UploadBatch.CMD_NAME)
+public class SSCArtifactUploadBatchCommand extends AbstractSSCArtifactOutputCommand implements IJsonNodeSupplier, IActionCommandResultSupplier {
+    @Getter @Mixin private OutputHelperMixins.UploadBatch outputHelper;
+    @Mixin private SSCDelimiterMixin delimiterMixin;
+    @Option(names = {"--manifest"}, required = true, paramLabel = "<file>")
+    private File manifestFile;
+    @Option(names = {"-e", "--engine-type"})
+    private String engineType;
+    @Option(names = {"--max-concurrent-uploads"}, defaultValue = "4", paramLabel = "<count>")
+    private int maxConcurrentUploads;
+    
+    @Override
+    public JsonNode getJsonNode() {
+        var unirest = getUnirestInstance();
+        var entries = BatchHelper.loadManifest(manifestFile, SSCArtifactUploadBatchEntry[].class);
+        var batchEntries = BatchHelper.resolveEntries(entries, e->resolveEntry(unirest, e));
+        var artifactIds = uploadArtifacts(unirest, batchEntries);
+        return Stream.of(SSCArtifactHelper.getArtifactDescriptors(unirest, artifactIds))
+                .map(SSCArtifactDescriptor::asJsonNode)
+                .collect(JsonHelper.arrayNodeCollector());
+    }
+    
+    @Override
+    public String getActionCommandResult() {
+        return "UPLOADED";
+    }
+    
+    @Override
+    public boolean isSingular() {
+        return false;
+    }
+    
+    private final BatchEntry resolveEntry(UnirestInstance unirest, SSCArtifactUploadBatchEntry entry) {
+        if ( StringUtils.isBlank(entry.getAppversion()) || StringUtils.isBlank(entry.getFile()) ) {
+            throw new IllegalArgumentException("Each manifest entry must specify both 'appversion' and 'file' properties");
+        }
+        var file = BatchHelper.resolveFile(manifestFile, "application version "+entry.getAppversion(), entry.getFile());
+        var av = SSCAppVersionHelper.getRequiredAppVersion(unirest, entry.getAppversion(), delimiterMixin.getDelimiter(), "id");
+        return new BatchEntry(entry, file, av);
+    }
+    
+    private final String[] uploadArtifacts(UnirestInstance unirest, List<BatchEntry> batchEntries) {
+        return BatchHelper.processEntries(batchEntries, maxConcurrentUploads, 
+                e->SSCArtifactHelper.upload(unirest, e.getAppVersionDescriptor().getVersionId(), e.getFile(), getEngineType(e.getEntry())),
+                e->e.getEntry().getAppversion(), id->id,
+                "Error uploading %d of %d artifacts:\n  %s\nSuccessfully uploaded artifacts: %s")
+            .toArray(String[]::new);
+    }
+    
+    private final String getEngineType(SSCArtifactUploadBatchEntry entry) {
+        return StringUtils.isNotBlank(entry.getEngineType()) ? entry.getEngineType() : engineType;
+    }
+    
+    @RequiredArgsConstructor @Getter
+    private static final class BatchEntry {
+        private final SSCArtifactUploadBatchEntry entry;
+        private final File file;
+        private final SSCAppVersionDescriptor appVersionDescriptor;
+    }
+}
@@ -42,7 +42,7 @@ public class SSCArtifactResolverMixin {
         public abstract String[] getArtifactIds();
 
         public SSCArtifactDescriptor[] getArtifactDescriptors(UnirestInstance unirest){
-            return Stream.of(getArtifactIds()).map(id->SSCArtifactHelper.getArtifactDescriptor(unirest, id)).toArray(SSCArtifactDescriptor[]::new);
+            return SSCArtifactHelper.getArtifactDescriptors(unirest, getArtifactIds());
         }
         
         public Collection<JsonNode> getArtifactDescriptorJsonNodes(UnirestInstance unirest){
@@ -60,7 +60,7 @@ public class SSCArtifactResolverMixin {
     }
     
     public static class PositionalParameterMulti extends AbstractSSCAppVersionMultiArtifactResolverMixin {
-        @EnvSuffix("ARTIFACTS") @Parameters(index = "0", arity = "1..", paramLabel = "artifact-id's", descriptionKey = "fcli.ssc.artifact.resolver.ids")
+        @EnvSuffix("ARTIFACTS") @Parameters(index = "0", arity = "1..", split = ",", paramLabel = "artifact-id's", descriptionKey = "fcli.ssc.artifact.resolver.ids")
         @Getter private String[] artifactIds;
     }
 }
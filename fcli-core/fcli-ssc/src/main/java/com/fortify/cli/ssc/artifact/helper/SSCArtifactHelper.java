@@ -12,9 +12,11 @@
  *******************************************************************************/
 package com.fortify.cli.ssc.artifact.helper;
 
+import java.io.File;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -22,8 +24,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.formkiq.graalvm.annotations.Reflectable;
 import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.common.rest.unirest.StreamingMultipartUploadHelper;
+import com.fortify.cli.common.util.StringUtils;
 import com.fortify.cli.ssc._common.rest.SSCUrls;
+import com.fortify.cli.ssc._common.rest.bulk.SSCBulkRequestBuilder;
 
+import kong.unirest.GetRequest;
+import kong.unirest.HttpRequestWithBody;
 import kong.unirest.UnirestInstance;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -32,6 +39,7 @@ import lombok.NoArgsConstructor;
 
 public final class SSCArtifactHelper {
     public static final int DEFAULT_POLL_INTERVAL_SECONDS = 1;
+    private static final int MAX_BULK_ARTIFACT_REQUESTS = 50;
     
     private SSCArtifactHelper() {}
     
@@ -39,12 +47,67 @@ public final class SSCArtifactHelper {
         return getDescriptor(getArtifactJsonNode(unirest, artifactId));
     }
 
+    /**
+     * Get the descriptors for the given artifact id's. If multiple artifact id's 
+     * are given, artifacts are retrieved through SSC bulk requests, each containing
+     * up to {@value #MAX_BULK_ARTIFACT_REQUESTS} artifact requests, rather than 
+     * issuing a separate request for each artifact. If any of the artifacts cannot
+     * be retrieved, an {@link IllegalArgumentException} is thrown.
+     */
+    public static final SSCArtifactDescriptor[] getArtifactDescriptors(UnirestInstance unirest, String... artifactIds) {
+        if ( artifactIds.length==1 ) {
+            return new SSCArtifactDescriptor[] { getArtifactDescriptor(unirest, artifactIds[0]) };
+        }
+        var result = new SSCArtifactDescriptor[artifactIds.length];
+        for ( int start=0; start<artifactIds.length; start+=MAX_BULK_ARTIFACT_REQUESTS ) {
+            var bulkRequest = new SSCBulkRequestBuilder();
+            var end = Math.min(artifactIds.length, start+MAX_BULK_ARTIFACT_REQUESTS);
+            IntStream.range(start, end).forEach(i->bulkRequest.request(getBulkRequestName(i), getArtifactRequest(unirest, artifactIds[i])));
+            var bulkResponse = bulkRequest.execute(unirest);
+            IntStream.range(start, end).forEach(i->result[i]=getDescriptor(bulkResponse.body(getBulkRequestName(i)), artifactIds[i]));
+        }
+        return result;
+    }
+    
+    private static final String getBulkRequestName(int index) {
+        return "artifact_"+index;
+    }
+    
+    private static final SSCArtifactDescriptor getDescriptor(JsonNode bulkResponseBody, String artifactId) {
+        var data = bulkResponseBody==null ? null : bulkResponseBody.get("data");
+        if ( data==null || !data.isObject() ) {
+            var responseCode = bulkResponseBody==null ? null : bulkResponseBody.get("responseCode");
+            throw new IllegalArgumentException(String.format("Artifact %s not found%s", artifactId,
+                    responseCode==null ? "" : " (response code "+responseCode.asText()+")"));
+        }
+        return getDescriptor(data);
+    }
+    
+    /**
+     * Upload the given file to the given application version, optionally specifying
+     * the engine type, returning the id of the uploaded artifact.
+     */
+    public static final String upload(UnirestInstance unirest, String appVersionId, File file, String engineType) {
+        HttpRequestWithBody request = unirest.post(SSCUrls.PROJECT_VERSION_ARTIFACTS(appVersionId));
+        if ( StringUtils.isNotBlank(engineType) ) {
+            // TODO Check parser plugin is enabled in SSC
+            request = request.queryString("engineType", engineType);
+        }
+        JsonNode uploadResponse = StreamingMultipartUploadHelper.upload(request, file, null, 
+                r->r.asObject(JsonNode.class).getBody());
+        return JsonHelper.evaluateSpelExpression(uploadResponse, "data.id", String.class);
+    }
+
     private static JsonNode getArtifactJsonNode(UnirestInstance unirest, String artifactId) {
-        return unirest.get(SSCUrls.ARTIFACT(artifactId))
-                .queryString("embed","scans")
+        return getArtifactRequest(unirest, artifactId)
                 .asObject(JsonNode.class).getBody().get("data");
     }
     
+    private static GetRequest getArtifactRequest(UnirestInstance unirest, String artifactId) {
+        return unirest.get(SSCUrls.ARTIFACT(artifactId))
+                .queryString("embed","scans");
+    }
+    
     public static final SSCArtifactDescriptor delete(UnirestInstance unirest, SSCArtifactDescriptor descriptor) {
         unirest.delete(SSCUrls.ARTIFACT(descriptor.getId())).asObject(JsonNode.class).getBody();
         return descriptor;
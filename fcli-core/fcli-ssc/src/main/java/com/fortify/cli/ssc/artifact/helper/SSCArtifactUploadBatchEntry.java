@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright 2021, 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text 
+ * and its affiliates and licensors ("Open Text") are as may 
+ * be set forth in the express warranty statements accompanying 
+ * such products and services. Nothing herein should be construed 
+ * as constituting an additional warranty. Open Text shall not be 
+ * liable for technical or editorial errors or omissions contained 
+ * herein. The information contained herein is subject to change 
+ * without notice.
+ *******************************************************************************/
+package com.fortify.cli.ssc.artifact.helper;
+
+import com.formkiq.graalvm.annotations.Reflectable;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single entry in an artifact upload batch manifest, identifying the application
+ * version to upload to, the file to be uploaded, and an optional engine type that
+ * overrides any engine type specified on the command line.
+ */
+@Reflectable @NoArgsConstructor
+@Data
+public class SSCArtifactUploadBatchEntry {
+    private String appversion;
+    private String file;
+    private String engineType;
+}
@@ -12,10 +12,15 @@
  *******************************************************************************/
 package com.fortify.cli.ssc.attribute.cli.cmd;
 
+import java.util.stream.Collectors;
+
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fortify.cli.common.json.JsonHelper;
 import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
 import com.fortify.cli.ssc._common.output.cli.cmd.AbstractSSCJsonNodeOutputCommand;
 import com.fortify.cli.ssc.appversion.cli.mixin.SSCAppVersionResolverMixin;
+import com.fortify.cli.ssc.appversion.helper.SSCAppVersionDescriptor;
 import com.fortify.cli.ssc.attribute.cli.mixin.SSCAttributeUpdateMixin;
 import com.fortify.cli.ssc.attribute.helper.SSCAttributeDefinitionHelper;
 import com.fortify.cli.ssc.attribute.helper.SSCAttributeListHelper;
@@ -30,20 +35,43 @@ import picocli.CommandLine.Mixin;
 public class SSCAttributeUpdateCommand extends AbstractSSCJsonNodeOutputCommand {
     @Getter @Mixin private OutputHelperMixins.Update outputHelper;
     @Mixin private SSCAttributeUpdateMixin.RequiredAttrOption attrUpdateMixin;
-    @Mixin private SSCAppVersionResolverMixin.RequiredOption parentResolver;
+    @Mixin private SSCAppVersionResolverMixin.OptionMulti parentResolver;
     
     @Override
     public JsonNode getJsonNode(UnirestInstance unirest) {
         SSCAttributeDefinitionHelper attrDefHelper = new SSCAttributeDefinitionHelper(unirest);
         SSCAttributeUpdateBuilder attrUpdateHelper = new SSCAttributeUpdateBuilder(unirest, attrDefHelper)
                 .add(attrUpdateMixin.getAttributes());
-        String applicationVersionId = parentResolver.getAppVersionId(unirest);
-        
-        return new SSCAttributeListHelper()
+        var attrListHelper = new SSCAttributeListHelper()
                 .attributeDefinitionHelper(attrDefHelper)
-                .request("attrUpdate", attrUpdateHelper.buildRequest(applicationVersionId))
-                .attrIdsToInclude(attrUpdateHelper.getAttributeIds())
-                .execute(unirest, applicationVersionId);
+                .attrIdsToInclude(attrUpdateHelper.getAttributeIds());
+        if ( parentResolver.isSingleAppVersion() ) {
+            String applicationVersionId = parentResolver.getAppVersionDescriptors(unirest).get(0).getVersionId();
+            return attrListHelper
+                    .request("attrUpdate", attrUpdateHelper.buildRequest(applicationVersionId))
+                    .execute(unirest, applicationVersionId);
+        } else {
+            return updateMultiple(unirest, attrUpdateHelper, attrListHelper);
+        }
+    }
+    
+    /**
+     * Update attributes on all application versions identified by our parent resolver, 
+     * returning the updated attributes for every application version, with each attribute 
+     * record being tagged with the corresponding application version id and name.
+     */
+    private JsonNode updateMultiple(UnirestInstance unirest, SSCAttributeUpdateBuilder attrUpdateHelper, SSCAttributeListHelper attrListHelper) {
+        var descriptors = parentResolver.getAppVersionDescriptors(unirest);
+        var attrsByAppVersionId = attrListHelper.execute(unirest, 
+                descriptors.stream().map(SSCAppVersionDescriptor::getVersionId).collect(Collectors.toList()), 
+                attrUpdateHelper::buildRequest);
+        var result = JsonHelper.getObjectMapper().createArrayNode();
+        for ( var descriptor : descriptors ) {
+            attrsByAppVersionId.get(descriptor.getVersionId()).forEach(attr->result.add(
+                ((ObjectNode)attr).put("appVersionId", descriptor.getVersionId())
+                    .put("appVersionName", descriptor.getAppAndVersionName())));
+        }
+        return result;
     }
     
     @Override
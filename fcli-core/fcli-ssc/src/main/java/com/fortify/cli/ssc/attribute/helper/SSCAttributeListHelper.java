@@ -13,8 +13,10 @@
 package com.fortify.cli.ssc.attribute.helper;
 
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -35,6 +37,7 @@ import kong.unirest.UnirestInstance;
  * @author rsenden
  */
 public final class SSCAttributeListHelper {
+    private static final int MAX_BULK_APP_VERSIONS = 50;
     private ArrayNode cachedAttributeDefinitions;
     private Map<String, HttpRequest<?>> requests = new LinkedHashMap<>();
     private Set<String> attrIdsToInclude = null;
@@ -95,6 +98,39 @@ public final class SSCAttributeListHelper {
                 .mergeAttributeDefinitions(attributesBody);
     }
 
+    /**
+     * Similar to {@link #execute(UnirestInstance, String)}, but for multiple application
+     * versions. For every application version id, the request returned by the given 
+     * function (if not null) is added to the bulk request, together with the request 
+     * for querying attribute data. Application versions are processed in chunks, with
+     * every bulk request covering at most {@link #MAX_BULK_APP_VERSIONS} application 
+     * versions. Requests added through {@link #request(String, HttpRequest)} are not 
+     * supported by this method.
+     *  
+     * @param unirest
+     * @param applicationVersionIds
+     * @param requestFunction
+     * @return Combined attribute definition and attribute data, indexed by application version id
+     */
+    public Map<String, JsonNode> execute(UnirestInstance unirest, List<String> applicationVersionIds, Function<String, HttpRequest<?>> requestFunction) {
+        if ( cachedAttributeDefinitions==null ) {
+            cachedAttributeDefinitions = new SSCAttributeDefinitionHelper(unirest).getAttributeDefinitions();
+        }
+        var attributeHelper = new SSCAttributeHelper(cachedAttributeDefinitions, attrIdsToInclude);
+        Map<String, JsonNode> result = new LinkedHashMap<>();
+        for ( int i=0; i<applicationVersionIds.size(); i+=MAX_BULK_APP_VERSIONS ) {
+            var chunk = applicationVersionIds.subList(i, Math.min(i+MAX_BULK_APP_VERSIONS, applicationVersionIds.size()));
+            var bulkRequest = new SSCBulkRequestBuilder();
+            for ( var applicationVersionId : chunk ) {
+                bulkRequest.request("_request."+applicationVersionId, requestFunction.apply(applicationVersionId));
+                bulkRequest.request("_attrs."+applicationVersionId, getAttributesRequest(unirest, applicationVersionId));
+            }
+            var bulkResponse = bulkRequest.execute(unirest);
+            chunk.forEach(id->result.put(id, attributeHelper.mergeAttributeDefinitions(bulkResponse.body("_attrs."+id))));
+        }
+        return result;
+    }
+
     /**
      * Build the SSC bulk request, adding any requests added through the {@link #request(String, HttpRequest)}
      * method, and the necessary requests to query attribute and attribute definition data. 
@@ -108,7 +144,11 @@ public final class SSCAttributeListHelper {
         if ( cachedAttributeDefinitions==null ) {
             bulkRequest.request("_attrDefs", unirest.get("/api/v1/attributeDefinitions?limit=-1&fields=id,guid,name,category&orderby=category,name"));
         }
-        bulkRequest.request("_attrs", unirest.get("/api/v1/projectVersions/{id}/attributes").routeParam("id", applicationVersionId));
+        bulkRequest.request("_attrs", getAttributesRequest(unirest, applicationVersionId));
         return bulkRequest;
     }
+
+    private HttpRequest<?> getAttributesRequest(UnirestInstance unirest, String applicationVersionId) {
+        return unirest.get("/api/v1/projectVersions/{id}/attributes").routeParam("id", applicationVersionId);
+    }
 }
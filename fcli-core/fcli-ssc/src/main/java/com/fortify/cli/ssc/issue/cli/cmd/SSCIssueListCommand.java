@@ -13,6 +13,9 @@
 package com.fortify.cli.ssc.issue.cli.cmd;
 
 import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
+import com.fortify.cli.common.rest.fields.IServerSideFieldsParamGeneratorSupplier;
+import com.fortify.cli.common.rest.fields.ServerSideFieldsParamGenerator;
+import com.fortify.cli.common.rest.fields.cli.mixin.ServerSideFieldsParamMixin;
 import com.fortify.cli.common.rest.query.IServerSideQueryParamGeneratorSupplier;
 import com.fortify.cli.common.rest.query.IServerSideQueryParamValueGenerator;
 import com.fortify.cli.ssc._common.output.cli.cmd.AbstractSSCBaseRequestOutputCommand;
@@ -35,20 +38,40 @@ import picocli.CommandLine.Mixin;
 import picocli.CommandLine.Option;
 
 @Command(name = OutputHelperMixins.List.CMD_NAME)
-public class SSCIssueListCommand extends AbstractSSCBaseRequestOutputCommand implements IServerSideQueryParamGeneratorSupplier {
+public class SSCIssueListCommand extends AbstractSSCBaseRequestOutputCommand implements IServerSideQueryParamGeneratorSupplier, IServerSideFieldsParamGeneratorSupplier {
     @Getter @Mixin private OutputHelperMixins.List outputHelper; 
     @Mixin private SSCAppVersionResolverMixin.RequiredOption parentResolver;
     @Mixin private SSCIssueFilterSetResolverMixin.FilterSetOption filterSetResolver;
     @Mixin private SSCQParamMixin qParamMixin;
+    @Mixin private ServerSideFieldsParamMixin fieldsParamMixin;
     @Mixin private SSCIssueBulkEmbedMixin bulkEmbedMixin;
     @Option(names="--filter", required=false) private String filter;
     @Mixin private SSCIssueIncludeMixin includeMixin;
     
     // For some reason, SSC q param doesn't use same property names as returned by SSC,
-    // so we list the proper mappings below. TODO Any other useful server-side queries?
+    // so we list the proper mappings below. Issue search supports range queries on the
+    // numeric issue properties, which always have a value between 0 and 5. 
+    // TODO Any other useful server-side queries?
     @Getter private IServerSideQueryParamValueGenerator serverSideQueryParamGenerator = new SSCQParamGenerator()
         .add("issueName", "category", SSCQParamValueGenerators::wrapInQuotes)
-        .add("fullFileName", "file", SSCQParamValueGenerators::wrapInQuotes);
+        .add("fullFileName", "file", SSCQParamValueGenerators::wrapInQuotes)
+        .addRange("severity", "severity", "0", "5")
+        .addRange("confidence", "confidence", "0", "5")
+        .addRange("likelihood", "likelihood", "0", "5")
+        .addRange("impact", "impact", "0", "5");
+    
+    // Only retrieve the issue fields required for producing the output. Visibility 
+    // properties are generated by SSCIssueIncludeMixin based on the hidden, removed
+    // and suppressed fields, and the id field is required for bulk embedding.
+    @Getter private ServerSideFieldsParamGenerator serverSideFieldsParamGenerator = new ServerSideFieldsParamGenerator()
+        .always("id", "hidden", "removed", "suppressed")
+        .add("visibility", "hidden", "removed", "suppressed")
+        .add("visibilityMarker", "hidden", "removed", "suppressed")
+        .addDirect("id", "issueInstanceId", "issueName", "friority", "severity", "confidence", "likelihood", "impact",
+                "kingdom", "analyzer", "engineType", "engineCategory", "primaryLocation", "lineNumber", "fullFileName", 
+                "folderId", "folderGuid", "folderName", "primaryTag", "primaryRuleGuid", "reviewed", "audited", 
+                "issueStatus", "hasComments", "hasAttachments", "foundDate", "removedDate", "scanStatus",
+                "projectVersionId", "projectVersionName", "projectName", "displayEngineType", "bugURL", "externalBugId");
     
     @Override
     public HttpRequest<?> getBaseRequest(UnirestInstance unirest) {
@@ -18,6 +18,7 @@ import com.fortify.cli.common.cli.mixin.CommonOptionMixins;
 import com.fortify.cli.common.cli.util.CommandGroup;
 import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
 import com.fortify.cli.common.output.transform.IActionCommandResultSupplier;
+import com.fortify.cli.common.rest.unirest.StreamingMultipartUploadHelper;
 import com.fortify.cli.ssc._common.output.cli.cmd.AbstractSSCJsonNodeOutputCommand;
 import com.fortify.cli.ssc._common.rest.SSCUrls;
 import com.fortify.cli.ssc._common.rest.bulk.SSCBulkRequestBuilder;
@@ -40,13 +41,11 @@ public class SSCIssueTemplateCreateCommand extends AbstractSSCJsonNodeOutputComm
     
     @Override
     public JsonNode getJsonNode(UnirestInstance unirest) {
-        JsonNode body = unirest.post(SSCUrls.ISSUE_TEMPLATES)
+        JsonNode body = StreamingMultipartUploadHelper.upload(unirest.post(SSCUrls.ISSUE_TEMPLATES)
                 .queryString("name", issueTemplateName)
                 .queryString("description", description)
-                .queryString("confirmIgnoreCustomTagUpdates", "true")
-                .multiPartContent()
-                .field("file", fileMixin.getFile())
-                .asObject(JsonNode.class).getBody();
+                .queryString("confirmIgnoreCustomTagUpdates", "true"), 
+                fileMixin.getFile(), null, r->r.asObject(JsonNode.class).getBody());
         if ( setAsDefault ) {
             ObjectNode data = (ObjectNode)body.get("data").deepCopy();
             data.put("defaultTemplate", true);
@@ -18,6 +18,7 @@ import com.fortify.cli.common.cli.mixin.CommonOptionMixins;
 import com.fortify.cli.common.cli.util.CommandGroup;
 import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
 import com.fortify.cli.common.output.transform.IActionCommandResultSupplier;
+import com.fortify.cli.common.rest.unirest.StreamingMultipartUploadHelper;
 import com.fortify.cli.ssc._common.output.cli.cmd.AbstractSSCJsonNodeOutputCommand;
 import com.fortify.cli.ssc._common.rest.SSCUrls;
 
@@ -33,10 +34,8 @@ public class SSCStateSeedBundleUploadCommand extends AbstractSSCJsonNodeOutputCo
     
     @Override
     public JsonNode getJsonNode(UnirestInstance unirest) {
-        unirest.post(SSCUrls.SEED_BUNDLES)
-            .multiPartContent()
-            .field("file", fileMixin.getFile())
-            .asObject(JsonNode.class).getBody();
+        StreamingMultipartUploadHelper.upload(unirest.post(SSCUrls.SEED_BUNDLES), fileMixin.getFile(), null,
+            r->r.asObject(JsonNode.class).getBody());
         return new ObjectMapper().createObjectNode()
                 .put("type", "SeedBundle")
                 .put("file", fileMixin.getFile().getAbsolutePath());
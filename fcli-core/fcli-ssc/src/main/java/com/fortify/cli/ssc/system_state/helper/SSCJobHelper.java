@@ -13,8 +13,11 @@
 package com.fortify.cli.ssc.system_state.helper;
 
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -54,6 +57,19 @@ public final class SSCJobHelper   {
     }
 
     public final static SSCJobDescriptor waitForJob(UnirestInstance unirest, SSCJobDescriptor descriptor, String timeout){
+        waitForJobs(unirest, List.of(descriptor), timeout);
+        return descriptor;
+    }
+
+    /**
+     * Wait until all of the given jobs have completed, using a single {@link WaitHelper}
+     * that polls the state of all jobs that are being waited for. Duplicate job
+     * descriptors, for example if multiple application versions share a single
+     * refresh job, are only polled once.
+     */
+    public final static void waitForJobs(UnirestInstance unirest, Collection<SSCJobDescriptor> descriptors, String timeout){
+        var jobNames = descriptors.stream().map(SSCJobDescriptor::getJobName).collect(Collectors.toCollection(LinkedHashSet::new));
+        if ( jobNames.isEmpty() ) { return; }
         WaitHelperBuilder builder = WaitHelper.builder()
                 .waitType(new WaitType(WaitType.LoopType.Until, WaitType.AnyOrAll.all_match))
                 .timeoutPeriod(StringUtils.isBlank(timeout)?"60s":timeout)
@@ -63,15 +79,13 @@ public final class SSCJobHelper   {
                 .onUnknownState(null)
                 .onUnknownStateRequested(null);
 
-        builder .recordsSupplier(u->Collections.singletonList(getJobJsonNode(u, descriptor.getJobName())))
+        builder .recordsSupplier(u->jobNames.stream().map(jobName->getJobJsonNode(u, jobName)).collect(Collectors.toList()))
                 .currentStateProperty("state")
                 .knownStates(SSCJobStatus.getKnownStateNames())
                 .failureStates(SSCJobStatus.getFailureStateNames())
                 .matchStates(new HashSet<>(Arrays.asList(SSCJobStatus.getDefaultCompleteStateNames())));
 
         builder.build().wait(unirest);
-
-        return descriptor;
     }
 
 }
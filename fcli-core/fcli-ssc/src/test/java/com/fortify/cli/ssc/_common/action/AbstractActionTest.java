@@ -12,11 +12,15 @@
  */
 package com.fortify.cli.ssc._common.action;
 
+import java.nio.file.Path;
 import java.util.function.BiConsumer;
 
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
@@ -27,12 +31,27 @@ import com.fortify.cli.common.action.helper.ActionLoaderHelper.ActionValidationH
 import com.fortify.cli.common.action.helper.ActionLoaderHelper.ActionValidationHandler.ActionInvalidSignatureHandler;
 import com.fortify.cli.common.action.model.Action.ActionMetadata;
 import com.fortify.cli.common.crypto.helper.SignatureHelper.SignedTextDescriptor;
+import com.fortify.cli.common.util.EnvHelper;
 
 // TODO Move this class to a common test utility module; currently
 //      exact copies of this class are available in every module 
 //      that performs action tests.
 @TestInstance(Lifecycle.PER_CLASS)
 public abstract class AbstractActionTest {
+    private static final String STATE_DIR_PROPERTY = EnvHelper.envSystemPropertyName("FCLI_STATE_DIR");
+    // Avoid writing action catalog cache entries to the actual fcli state directory
+    @TempDir static Path stateDir;
+    
+    @BeforeAll
+    public void setStateDir() {
+        System.setProperty(STATE_DIR_PROPERTY, stateDir.toString());
+    }
+    
+    @AfterAll
+    public void clearStateDir() {
+        System.clearProperty(STATE_DIR_PROPERTY);
+    }
+    
     @ParameterizedTest
     @MethodSource("getActions")
     public void testLoadAction(String name) {
@@ -26,7 +26,8 @@ public class SSCQParamGeneratorTest {
             .add("nested.nested.plain", SSCQParamValueGenerators::plain)
             .add("nested.nested.wrapped", SSCQParamValueGenerators::wrapInQuotes)
             .add("nested.reword.plain", "rewordPlain", SSCQParamValueGenerators::plain)
-            .add("nested.reword.wrapped", "rewordWrapped", SSCQParamValueGenerators::wrapInQuotes);
+            .add("nested.reword.wrapped", "rewordWrapped", SSCQParamValueGenerators::wrapInQuotes)
+            .addRange("range", "rangeQ", "0", "5");
     @ParameterizedTest
     @CsvFileSource(resources = "/com/fortify/cli/ssc/rest/query/qparam.csv", nullValues = "null")
     public void testQParamGenerator(String expressionString, String expectedQParam) {
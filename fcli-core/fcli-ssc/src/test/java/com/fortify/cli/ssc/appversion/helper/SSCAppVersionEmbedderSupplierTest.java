@@ -0,0 +1,132 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.ssc.appversion.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fortify.cli.common.json.JsonHelper;
+import com.fortify.cli.ssc._common.rest.bulk.SSCBulkEmbedder;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import kong.unirest.Unirest;
+import kong.unirest.UnirestInstance;
+import kong.unirest.jackson.JacksonObjectMapper;
+
+public class SSCAppVersionEmbedderSupplierTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Pattern URI_PATTERN = Pattern.compile(".*/api/v1/projectVersions/(\\d+)/(\\w+)\\?.*");
+    private final List<String> subRequestUris = Collections.synchronizedList(new ArrayList<>());
+    private HttpServer server;
+    private UnirestInstance unirest;
+
+    @BeforeEach
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/bulk", this::handleBulk);
+        server.start();
+        unirest = Unirest.spawnInstance();
+        unirest.config()
+            .defaultBaseUrl("http://127.0.0.1:"+server.getAddress().getPort())
+            .setObjectMapper(new JacksonObjectMapper(JsonHelper.getObjectMapper()));
+    }
+
+    @AfterEach
+    public void stop() {
+        unirest.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testIssueTemplateDataSharedButCustomTagsPerVersion() {
+        var records = MAPPER.createArrayNode();
+        records.add(createRecord(1, false));
+        records.add(createRecord(2, false));
+        records.add(createRecord(3, true));
+        new SSCBulkEmbedder(SSCAppVersionEmbedderSupplier.customTags, SSCAppVersionEmbedderSupplier.filterSets)
+            .transformInput(unirest, records);
+        for ( var record : records ) {
+            var id = record.get("id").asText();
+            assertEquals("customTag"+id, record.get("customTags").get(0).get("name").asText());
+        }
+        // Filter sets are shared between versions 1 and 2 with the same, non-stale issue template
+        assertEquals("filterSets1", records.get(0).get("filterSets").get(0).get("name").asText());
+        assertEquals("filterSets1", records.get(1).get("filterSets").get(0).get("name").asText());
+        assertEquals("filterSets3", records.get(2).get("filterSets").get(0).get("name").asText());
+        // Shared data doesn't contain version-specific data, and isn't shared between records
+        for ( int i=0; i<2; i++ ) {
+            var filterSet = records.get(i).get("filterSets").get(0);
+            assertEquals(false, filterSet.has("id"));
+            assertEquals(i+1, filterSet.get("projectVersionId").asInt());
+            assertEquals(false, filterSet.get("folders").get(0).has("id"));
+            assertEquals("folderGuid", filterSet.get("folders").get(0).get("guid").asText());
+        }
+        ((ObjectNode)records.get(0).get("filterSets").get(0)).put("name", "updated");
+        assertEquals("filterSets1", records.get(1).get("filterSets").get(0).get("name").asText());
+        assertEquals(103, records.get(2).get("filterSets").get(0).get("id").asInt());
+        assertEquals(5, subRequestUris.size());
+        assertEquals(2, subRequestUris.stream().filter(uri->uri.contains("/filterSets")).count());
+        assertEquals(3, subRequestUris.stream().filter(uri->uri.contains("/customTags")).count());
+    }
+
+    private static final ObjectNode createRecord(int id, boolean staleIssueTemplate) {
+        return MAPPER.createObjectNode()
+                .put("id", id)
+                .put("issueTemplateId", "template1")
+                .put("issueTemplateModifiedTime", "2024-01-01T00:00:00.000+0000")
+                .put("staleIssueTemplate", staleIssueTemplate);
+    }
+
+    private void handleBulk(HttpExchange e) throws IOException {
+        JsonNode request;
+        try ( var is = e.getRequestBody() ) {
+            request = MAPPER.readTree(is);
+        }
+        var responseData = MAPPER.createArrayNode();
+        for ( var subRequest : request.get("requests") ) {
+            var uri = subRequest.get("uri").asText();
+            subRequestUris.add(uri);
+            var matcher = URI_PATTERN.matcher(uri);
+            var data = MAPPER.createArrayNode();
+            if ( matcher.matches() ) {
+                var type = matcher.group(2);
+                var entry = data.addObject()
+                    .put("id", 100+Integer.parseInt(matcher.group(1)))
+                    .put("name", ("customTags".equals(type) ? "customTag" : type)+matcher.group(1))
+                    .put("projectVersionId", Integer.parseInt(matcher.group(1)));
+                entry.putArray("folders").addObject()
+                    .put("id", 200+Integer.parseInt(matcher.group(1)))
+                    .put("guid", "folderGuid");
+            }
+            responseData.addObject().putArray("responses").addObject().putObject("body").set("data", data);
+        }
+        var response = MAPPER.writeValueAsBytes(MAPPER.createObjectNode().set("data", responseData));
+        e.getResponseHeaders().add("Content-Type", "application/json");
+        e.sendResponseHeaders(200, response.length);
+        try ( var os = e.getResponseBody() ) { os.write(response); }
+    }
+}
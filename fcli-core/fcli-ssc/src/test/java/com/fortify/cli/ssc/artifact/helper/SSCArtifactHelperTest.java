@@ -0,0 +1,111 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.ssc.artifact.helper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fortify.cli.common.json.JsonHelper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import kong.unirest.Unirest;
+import kong.unirest.UnirestInstance;
+import kong.unirest.jackson.JacksonObjectMapper;
+
+public class SSCArtifactHelperTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Pattern URI_PATTERN = Pattern.compile(".*/api/v1/artifacts/(\\d+)\\?.*");
+    private static final Set<String> MISSING_ARTIFACT_IDS = Set.of("2", "70");
+    private final AtomicInteger bulkRequestCount = new AtomicInteger();
+    private HttpServer server;
+    private UnirestInstance unirest;
+
+    @BeforeEach
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/bulk", this::handleBulk);
+        server.start();
+        unirest = Unirest.spawnInstance();
+        unirest.config()
+            .defaultBaseUrl("http://127.0.0.1:"+server.getAddress().getPort())
+            .setObjectMapper(new JacksonObjectMapper(JsonHelper.getObjectMapper()));
+    }
+
+    @AfterEach
+    public void stop() {
+        unirest.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testGetArtifactDescriptors() {
+        var artifactIds = IntStream.range(100, 160).mapToObj(String::valueOf).toArray(String[]::new);
+        var descriptors = SSCArtifactHelper.getArtifactDescriptors(unirest, artifactIds);
+        assertEquals(2, bulkRequestCount.get());
+        assertEquals(Stream.of(artifactIds).toList(), Stream.of(descriptors).map(SSCArtifactDescriptor::getId).toList());
+    }
+
+    @Test
+    public void testGetArtifactDescriptorsNotFound() {
+        var e = assertThrows(IllegalArgumentException.class,
+                ()->SSCArtifactHelper.getArtifactDescriptors(unirest, "1", "2", "3"));
+        assertEquals("Artifact 2 not found (response code 404)", e.getMessage());
+    }
+
+    @Test
+    public void testGetArtifactDescriptorsNotFoundInSecondBulkRequest() {
+        // Artifact 70 is requested in the second bulk request
+        var artifactIds = IntStream.range(10, 80).mapToObj(String::valueOf).toArray(String[]::new);
+        var e = assertThrows(IllegalArgumentException.class,
+                ()->SSCArtifactHelper.getArtifactDescriptors(unirest, artifactIds));
+        assertEquals("Artifact 70 not found (response code 404)", e.getMessage());
+    }
+
+    private void handleBulk(HttpExchange e) throws IOException {
+        bulkRequestCount.incrementAndGet();
+        JsonNode request;
+        try ( var is = e.getRequestBody() ) {
+            request = MAPPER.readTree(is);
+        }
+        var responseData = MAPPER.createArrayNode();
+        for ( var subRequest : request.get("requests") ) {
+            var matcher = URI_PATTERN.matcher(subRequest.get("uri").asText());
+            var id = matcher.matches() ? matcher.group(1) : null;
+            var body = responseData.addObject().putArray("responses").addObject().putObject("body");
+            if ( id==null || MISSING_ARTIFACT_IDS.contains(id) ) {
+                body.put("responseCode", 404).put("message", "Artifact not found");
+            } else {
+                body.put("responseCode", 200).putObject("data").put("id", id).put("status", "PROCESS_COMPLETE");
+            }
+        }
+        var response = MAPPER.writeValueAsBytes(MAPPER.createObjectNode().set("data", responseData));
+        e.getResponseHeaders().add("Content-Type", "application/json");
+        e.sendResponseHeaders(200, response.length);
+        try ( var os = e.getResponseBody() ) { os.write(response); }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.ssc.issue.cli.cmd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fortify.cli.common.output.cli.mixin.AbstractOutputHelperMixin;
+import com.fortify.cli.common.rest.fields.cli.mixin.ServerSideFieldsParamMixin;
+
+import kong.unirest.Unirest;
+import kong.unirest.UnirestInstance;
+import picocli.CommandLine;
+
+public class SSCIssueListCommandTest {
+    private UnirestInstance unirest;
+
+    @BeforeEach
+    public void createUnirest() {
+        unirest = Unirest.spawnInstance();
+    }
+
+    @AfterEach
+    public void closeUnirest() {
+        unirest.close();
+    }
+
+    @Test
+    public void testRequiredRecordPropertyNames() {
+        assertEquals(Set.of("issueName", "severity"), getOutputHelper("-o", "json=issueName,severity").getRequiredRecordPropertyNames());
+        assertEquals(Set.of("issueName", "primaryLocation", "lineNumber"),
+                getOutputHelper("-o", "expr={issueName} ({primaryLocation}:{lineNumber})").getRequiredRecordPropertyNames());
+        assertEquals(Set.of("issueName", "friority"),
+                getOutputHelper("-o", "json=issueName", "-q", "friority=='Critical'").getRequiredRecordPropertyNames());
+        // All properties may be required when outputting all properties, storing records, or using #root
+        assertNull(getOutputHelper("-o", "json").getRequiredRecordPropertyNames());
+        assertNull(getOutputHelper("-o", "json=issueName", "--store", "issues").getRequiredRecordPropertyNames());
+        assertNull(getOutputHelper("-o", "json=issueName", "-q", "#root.size()>0").getRequiredRecordPropertyNames());
+    }
+
+    @Test
+    public void testFieldsParam() {
+        assertEquals("id,hidden,removed,suppressed,issueName,severity", getFieldsParam("-o", "json=issueName,severity,issueName"));
+        assertEquals("id,hidden,removed,suppressed,issueName,friority", getFieldsParam("-o", "json=issueName", "-q", "friority=='Critical'"));
+        assertNull(getFieldsParam("-o", "json"));
+        assertNull(getFieldsParam("-o", "json=issueName,unknownProperty"));
+    }
+
+    @Test
+    public void testFieldsParamWithTransform() {
+        // Visibility properties are generated client-side from the hidden, removed and suppressed fields
+        assertEquals("id,hidden,removed,suppressed,issueName", getFieldsParam("-o", "json=issueName,visibility", "--include", "visible,hidden"));
+        assertEquals("id,hidden,removed,suppressed", getFieldsParam("-o", "json=visibilityMarker"));
+    }
+
+    @Test
+    public void testFieldsParamWithEmbed() {
+        // The id field required for embedding is always retrieved
+        assertEquals("id,hidden,removed,suppressed,issueName", getFieldsParam("-o", "json=issueName", "--embed", "details"));
+        // Embedded properties are not registered, so all fields are retrieved when outputting these
+        assertNull(getFieldsParam("-o", "json=issueName,details.brief", "--embed", "details"));
+    }
+
+    private String getFieldsParam(String... args) {
+        var commandLine = parse(args);
+        var fieldsParamMixin = (ServerSideFieldsParamMixin)commandLine.getCommandSpec().mixins().get("fieldsParamMixin").userObject();
+        var url = fieldsParamMixin.updateRequest(unirest.get("http://localhost/api/v1/projectVersions/1/issues")).getUrl();
+        var query = url.contains("?") ? url.substring(url.indexOf('?')+1) : "";
+        return Stream.of(query.split("&"))
+                .filter(p->p.startsWith("fields="))
+                .map(p->URLDecoder.decode(p.substring("fields=".length()), StandardCharsets.UTF_8))
+                .findFirst().orElse(null);
+    }
+
+    private AbstractOutputHelperMixin getOutputHelper(String... args) {
+        return ((SSCIssueListCommand)parse(args).getCommand()).getOutputHelper();
+    }
+
+    private CommandLine parse(String... args) {
+        var command = new TestSSCIssueListCommand();
+        var commandLine = new CommandLine(command);
+        commandLine.setResourceBundle(ResourceBundle.getBundle("com.fortify.cli.ssc.i18n.SSCMessages"));
+        commandLine.parseArgs(Stream.concat(Stream.of("--av", "1"), Stream.of(args)).toArray(String[]::new));
+        command.init();
+        return commandLine;
+    }
+
+    private static final class TestSSCIssueListCommand extends SSCIssueListCommand {
+        // Normally invoked on command execution
+        private void init() { initMixins(); }
+    }
+}
@@ -14,10 +14,10 @@ package com.fortify.cli.tool._common.helper;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -27,10 +27,12 @@ import java.util.function.Function;
 import java.util.function.Supplier;
 
 import com.fortify.cli.common.crypto.helper.SignatureHelper;
+import com.fortify.cli.common.crypto.helper.SignatureHelper.SignatureStatus;
 import com.fortify.cli.common.progress.helper.IProgressWriterI18n;
 import com.fortify.cli.common.rest.unirest.UnirestHelper;
 import com.fortify.cli.common.util.FileUtils;
 import com.fortify.cli.common.util.StringUtils;
+import com.fortify.cli.tool.cache.helper.ToolCacheHelper;
 import com.fortify.cli.tool.definitions.helper.ToolDefinitionArtifactDescriptor;
 import com.fortify.cli.tool.definitions.helper.ToolDefinitionRootDescriptor;
 import com.fortify.cli.tool.definitions.helper.ToolDefinitionVersionDescriptor;
@@ -211,35 +213,45 @@ public final class ToolInstaller {
     }
 
     private void downloadAndExtract(ToolDefinitionArtifactDescriptor artifactDescriptor) throws IOException {
-        progressWriter.writeProgress("Downloading tool binaries");
-        File downloadedFile = download(artifactDescriptor);
-        progressWriter.writeProgress("Verifying signature");
-        SignatureHelper.fortifySignatureVerifier()
-            .verify(downloadedFile, artifactDescriptor.getRsa_sha256())
-            .throwIfNotValid(onDigestMismatch == DigestMismatchAction.fail);
-        progressWriter.writeProgress("Installing tool binaries");
-        copyOrExtract(artifactDescriptor, downloadedFile);
+        File cachedFile = ToolCacheHelper.getCachedFile(artifactDescriptor);
+        if ( cachedFile!=null ) {
+            progressWriter.writeProgress("Installing cached tool binaries");
+            copyOrExtract(artifactDescriptor, cachedFile);
+        } else {
+            progressWriter.writeProgress("Downloading tool binaries");
+            // Signature is verified while downloading, to avoid reading the downloaded file again
+            var verifier = SignatureHelper.fortifySignatureVerifier().incrementalVerifier(artifactDescriptor.getRsa_sha256());
+            File downloadedFile = download(artifactDescriptor, verifier);
+            var signatureStatus = verifier.verify();
+            signatureStatus.throwIfNotValid(onDigestMismatch == DigestMismatchAction.fail);
+            // Only verified artifacts are cached
+            cachedFile = signatureStatus==SignatureStatus.VALID 
+                    ? ToolCacheHelper.add(artifactDescriptor, downloadedFile) 
+                    : null;
+            progressWriter.writeProgress("Installing tool binaries");
+            copyOrExtract(artifactDescriptor, cachedFile!=null ? cachedFile : downloadedFile);
+            downloadedFile.delete();
+        }
     }
     
-    private static final File download(ToolDefinitionArtifactDescriptor artifactDescriptor) throws IOException {
+    private static final File download(ToolDefinitionArtifactDescriptor artifactDescriptor, Consumer<ByteBuffer> contentListener) throws IOException {
         File tempDownloadFile = File.createTempFile("fcli-tool-download", null);
         tempDownloadFile.deleteOnExit();
-        UnirestHelper.download("tool", artifactDescriptor.getDownloadUrl(), tempDownloadFile);
+        UnirestHelper.download("tool", artifactDescriptor.getDownloadUrl(), tempDownloadFile, contentListener);
         return tempDownloadFile;
     }
     
-    private final void copyOrExtract(ToolDefinitionArtifactDescriptor artifactDescriptor, File downloadedFile) throws IOException {
+    private final void copyOrExtract(ToolDefinitionArtifactDescriptor artifactDescriptor, File file) throws IOException {
         Path targetPath = getTargetPath();
         Files.createDirectories(targetPath);
         var artifactName = artifactDescriptor.getName();
         if (artifactName.endsWith("gz") || artifactName.endsWith(".tar.gz")) {
-            FileUtils.extractTarGZ(downloadedFile, targetPath);
+            FileUtils.extractTarGZ(file, targetPath);
         } else if (artifactDescriptor.getName().endsWith("zip")) {
-            FileUtils.extractZip(downloadedFile, targetPath); 
+            FileUtils.extractZip(file, targetPath); 
         } else {
-            Files.copy(downloadedFile.toPath(), targetPath.resolve(artifactDescriptor.getName()), StandardCopyOption.REPLACE_EXISTING);
+            ToolCacheHelper.copy(file, targetPath.resolve(artifactDescriptor.getName()));
         }
-        downloadedFile.delete();
     }
     
     private final ToolInstallationDescriptor createAndSaveInstallationDescriptor() {
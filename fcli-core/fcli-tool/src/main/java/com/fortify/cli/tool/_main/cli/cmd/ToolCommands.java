@@ -14,6 +14,7 @@ package com.fortify.cli.tool._main.cli.cmd;
 
 import com.fortify.cli.common.cli.cmd.AbstractContainerCommand;
 import com.fortify.cli.tool.bugtracker_utility.cli.cmd.ToolBugTrackerUtilityCommands;
+import com.fortify.cli.tool.cache.cli.cmd.ToolCacheCommands;
 import com.fortify.cli.tool.debricked_cli.cli.cmd.ToolDebrickedCliCommands;
 import com.fortify.cli.tool.definitions.cli.cmd.ToolDefinitionsCommands;
 import com.fortify.cli.tool.fcli.cli.cmd.ToolFcliCommands;
@@ -33,7 +34,8 @@ import picocli.CommandLine.Command;
             ToolFoDUploaderCommands.class,
             ToolSCClientCommands.class,
             ToolVulnExporterCommands.class, 
-            ToolDefinitionsCommands.class
+            ToolDefinitionsCommands.class,
+            ToolCacheCommands.class
         }
 )
 public class ToolCommands extends AbstractContainerCommand {}
@@ -0,0 +1,39 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.tool.cache.helper;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.formkiq.graalvm.annotations.Reflectable;
+
+import lombok.Data;
+
+@Reflectable // We only serialize, not deserialize, so no no-args contructor
+@Data
+public final class ToolCacheEntryDescriptor {
+    private final String key;
+    private final String name;
+    private final long size;
+    private final String lastUsed;
+    @JsonIgnore private final long lastUsedMillis;
+
+    public ToolCacheEntryDescriptor(String key, String name, long size, long lastUsedMillis) {
+        this.key = key;
+        this.name = name;
+        this.size = size;
+        this.lastUsed = new SimpleDateFormat("yyyy-MM-dd HH:mm").format(new Date(lastUsedMillis));
+        this.lastUsedMillis = lastUsedMillis;
+    }
+}
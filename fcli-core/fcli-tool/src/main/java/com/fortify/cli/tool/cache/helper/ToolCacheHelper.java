@@ -0,0 +1,229 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.tool.cache.helper;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fortify.cli.common.crypto.helper.SignatureHelper;
+import com.fortify.cli.common.crypto.helper.SignatureHelper.SignatureStatus;
+import com.fortify.cli.common.util.EnvHelper;
+import com.fortify.cli.common.util.FcliDataHelper;
+import com.fortify.cli.common.util.FileUtils;
+import com.fortify.cli.common.util.StringUtils;
+import com.fortify.cli.tool.definitions.helper.ToolDefinitionArtifactDescriptor;
+
+import lombok.SneakyThrows;
+
+/**
+ * This class manages a content-addressed cache of downloaded tool artifacts. Cache
+ * entries are keyed by a hash of the artifact signature from the tool definitions,
+ * which uniquely identifies the artifact contents. As such, the same artifact is only
+ * downloaded once, independent of tool name, version alias or installation directory.
+ * Cached artifacts are re-verified against the artifact signature before use.<br/>
+ * <br/>
+ * By default, the cache is stored in the fcli state directory, but the FCLI_TOOL_CACHE_DIR
+ * environment variable can be used to specify an alternative (possibly shared) directory.
+ * Least recently used entries are evicted if the total cache size exceeds the size
+ * specified through the FCLI_TOOL_CACHE_MAX_SIZE_MB environment variable (default 2048);
+ * setting this to 0 disables the cache.
+ */
+public final class ToolCacheHelper {
+    private static final Logger LOG = LoggerFactory.getLogger(ToolCacheHelper.class);
+    private static final String ENVNAME_CACHE_DIR = "FCLI_TOOL_CACHE_DIR";
+    private static final String ENVNAME_CACHE_MAX_SIZE_MB = "FCLI_TOOL_CACHE_MAX_SIZE_MB";
+    private static final long DEFAULT_CACHE_MAX_SIZE_MB = 2048;
+    private ToolCacheHelper() {}
+
+    public static final Path getCacheDir() {
+        var cacheDir = EnvHelper.env(ENVNAME_CACHE_DIR);
+        return StringUtils.isNotBlank(cacheDir)
+                ? Path.of(cacheDir).toAbsolutePath()
+                : FcliDataHelper.getFcliStatePath().resolve("tool").resolve("cache");
+    }
+
+    /**
+     * Get the cached file for the given artifact, or null if not available. If the
+     * cached file doesn't match the artifact signature, it is removed from the cache
+     * and null is returned.
+     */
+    public static final File getCachedFile(ToolDefinitionArtifactDescriptor artifactDescriptor) {
+        var entryPath = getEntryPath(artifactDescriptor);
+        if ( entryPath==null || !Files.isRegularFile(entryPath) ) { return null; }
+        try {
+            var status = SignatureHelper.fortifySignatureVerifier().verify(entryPath.toFile(), artifactDescriptor.getRsa_sha256());
+            if ( status!=SignatureStatus.VALID ) {
+                LOG.debug("Removing invalid tool cache entry {}", entryPath);
+                deleteEntry(entryPath.getParent());
+                return null;
+            }
+            // Update last modified time for LRU eviction
+            Files.setLastModifiedTime(entryPath, FileTime.fromMillis(System.currentTimeMillis()));
+            return entryPath.toFile();
+        } catch ( Exception e ) {
+            LOG.debug("Error accessing tool cache entry "+entryPath, e);
+            return null;
+        }
+    }
+
+    /**
+     * Copy the given, verified, downloaded file into the cache, evicting least
+     * recently used entries if the cache exceeds its maximum size. This method
+     * returns the cached file, or null if the cache is disabled or the file 
+     * couldn't be added to the cache. In the latter case, the cache is left 
+     * unmodified, and the downloaded file can still be used for installation.
+     */
+    public static final File add(ToolDefinitionArtifactDescriptor artifactDescriptor, File downloadedFile) {
+        var entryPath = getEntryPath(artifactDescriptor);
+        if ( entryPath==null ) { return null; }
+        // Copy to temporary file in cache directory first, to allow atomic move
+        // even if other processes are accessing a shared cache directory.
+        var tmpPath = entryPath.resolveSibling(entryPath.getFileName()+"."+UUID.randomUUID()+".tmp");
+        try {
+            Files.createDirectories(entryPath.getParent());
+            Files.copy(downloadedFile.toPath(), tmpPath, StandardCopyOption.REPLACE_EXISTING);
+            try {
+                Files.move(tmpPath, entryPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch ( AtomicMoveNotSupportedException e ) {
+                Files.move(tmpPath, entryPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch ( Exception e ) {
+            LOG.debug("Error adding tool cache entry "+entryPath, e);
+            deleteTmpFile(tmpPath);
+            return null;
+        }
+        try {
+            evict(entryPath.getParent());
+        } catch ( Exception e ) {
+            LOG.debug("Error evicting tool cache entries", e);
+        }
+        return entryPath.toFile();
+    }
+
+    /**
+     * Copy the given cached file to the given target path. Cached files are always
+     * copied rather than linked, to make sure that any modifications to the installed
+     * file don't affect the cache entry, and vice versa.
+     */
+    @SneakyThrows
+    public static final void copy(File cachedFile, Path target) {
+        Files.copy(cachedFile.toPath(), target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public static final List<ToolCacheEntryDescriptor> list() {
+        return listEntryDirs().stream()
+                .map(ToolCacheHelper::getEntryDescriptor)
+                .filter(d->d!=null)
+                .sorted(Comparator.comparingLong(ToolCacheEntryDescriptor::getLastUsedMillis).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public static final List<ToolCacheEntryDescriptor> clear() {
+        var result = list();
+        listEntryDirs().forEach(ToolCacheHelper::deleteEntry);
+        return result;
+    }
+
+    private static final void evict(Path currentEntryDir) {
+        var maxSize = getMaxSizeBytes();
+        var entries = new ArrayList<>(list());
+        var totalSize = entries.stream().mapToLong(ToolCacheEntryDescriptor::getSize).sum();
+        // Evict least recently used entries first, but never the current entry
+        for ( int i=entries.size()-1; i>=0 && totalSize>maxSize; i-- ) {
+            var entry = entries.get(i);
+            var entryDir = getCacheDir().resolve(entry.getKey());
+            if ( !entryDir.equals(currentEntryDir) ) {
+                deleteEntry(entryDir);
+                totalSize -= entry.getSize();
+            }
+        }
+    }
+
+    private static final ToolCacheEntryDescriptor getEntryDescriptor(Path entryDir) {
+        try ( var files = Files.list(entryDir) ) {
+            var file = files.filter(p->Files.isRegularFile(p) && !p.getFileName().toString().endsWith(".tmp")).findFirst().orElse(null);
+            return file==null ? null : new ToolCacheEntryDescriptor(
+                    entryDir.getFileName().toString(), file.getFileName().toString(),
+                    Files.size(file), Files.getLastModifiedTime(file).toMillis());
+        } catch ( IOException e ) {
+            LOG.debug("Error reading tool cache entry "+entryDir, e);
+            return null;
+        }
+    }
+
+    private static final List<Path> listEntryDirs() {
+        var cacheDir = getCacheDir();
+        if ( !Files.isDirectory(cacheDir) ) { return new ArrayList<>(); }
+        try ( var dirs = Files.list(cacheDir) ) {
+            return dirs.filter(Files::isDirectory).collect(Collectors.toList());
+        } catch ( IOException e ) {
+            throw new RuntimeException("Error listing tool cache directory "+cacheDir, e);
+        }
+    }
+
+    private static final void deleteTmpFile(Path tmpPath) {
+        try {
+            Files.deleteIfExists(tmpPath);
+        } catch ( IOException e ) {
+            LOG.debug("Error deleting temporary tool cache file "+tmpPath, e);
+        }
+    }
+
+    private static final void deleteEntry(Path entryDir) {
+        try {
+            FileUtils.deleteRecursive(entryDir);
+        } catch ( Exception e ) {
+            LOG.debug("Error deleting tool cache entry "+entryDir, e);
+        }
+    }
+
+    private static final Path getEntryPath(ToolDefinitionArtifactDescriptor artifactDescriptor) {
+        var signature = artifactDescriptor.getRsa_sha256();
+        if ( getMaxSizeBytes()<=0 || StringUtils.isBlank(signature) || StringUtils.isBlank(artifactDescriptor.getName()) ) {
+            return null;
+        }
+        var name = Path.of(artifactDescriptor.getName()).getFileName();
+        return getCacheDir().resolve(getKey(signature)).resolve(name);
+    }
+
+    @SneakyThrows
+    private static final String getKey(String signature) {
+        var digest = MessageDigest.getInstance("SHA-256").digest(signature.getBytes(StandardCharsets.UTF_8));
+        return String.format("%064x", new BigInteger(1, digest));
+    }
+
+    private static final long getMaxSizeBytes() {
+        try {
+            var value = EnvHelper.envOrDefault(ENVNAME_CACHE_MAX_SIZE_MB, ()->String.valueOf(DEFAULT_CACHE_MAX_SIZE_MB));
+            return Long.parseLong(value.trim())*1024*1024;
+        } catch ( NumberFormatException e ) {
+            return DEFAULT_CACHE_MAX_SIZE_MB*1024*1024;
+        }
+    }
+}
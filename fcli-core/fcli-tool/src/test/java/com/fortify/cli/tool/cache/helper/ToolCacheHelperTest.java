@@ -0,0 +1,156 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.tool.cache.helper;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fortify.cli.common.util.EnvHelper;
+import com.fortify.cli.tool.definitions.helper.ToolDefinitionArtifactDescriptor;
+
+public class ToolCacheHelperTest {
+    private static final String CACHE_DIR_PROPERTY = EnvHelper.envSystemPropertyName("FCLI_TOOL_CACHE_DIR");
+    private static final String CACHE_MAX_SIZE_PROPERTY = EnvHelper.envSystemPropertyName("FCLI_TOOL_CACHE_MAX_SIZE_MB");
+    @TempDir Path tempDir;
+    private Path cacheDir;
+
+    @BeforeEach
+    public void setCacheDir() {
+        cacheDir = tempDir.resolve("cache");
+        System.setProperty(CACHE_DIR_PROPERTY, cacheDir.toString());
+    }
+
+    @AfterEach
+    public void clearProperties() {
+        System.clearProperty(CACHE_DIR_PROPERTY);
+        System.clearProperty(CACHE_MAX_SIZE_PROPERTY);
+    }
+
+    @Test
+    public void testAdd() throws Exception {
+        var contents = randomBytes(1000);
+        var downloadedFile = createFile("download.tmp", contents);
+        var cachedFile = ToolCacheHelper.add(artifact("tool.zip", "sig1"), downloadedFile);
+        assertNotNull(cachedFile);
+        assertTrue(cachedFile.toPath().startsWith(cacheDir));
+        assertEquals("tool.zip", cachedFile.getName());
+        assertArrayEquals(contents, Files.readAllBytes(cachedFile.toPath()));
+        // Downloaded file is left in place, and can be deleted by the caller
+        assertArrayEquals(contents, Files.readAllBytes(downloadedFile.toPath()));
+        assertNoTmpFiles(cachedFile.toPath().getParent());
+        var entries = ToolCacheHelper.list();
+        assertEquals(1, entries.size());
+        assertEquals(1000, entries.get(0).getSize());
+    }
+
+    @Test
+    public void testAddFailure() throws Exception {
+        var artifact = artifact("tool.zip", "sig1");
+        var entryPath = ToolCacheHelper.add(artifact, createFile("download1.tmp", randomBytes(10))).toPath();
+        // Replace the cache entry with a non-empty directory, causing subsequent moves to fail
+        Files.delete(entryPath);
+        Files.createDirectories(entryPath);
+        Files.write(entryPath.resolve("file"), randomBytes(10));
+        var contents = randomBytes(1000);
+        var downloadedFile = createFile("download2.tmp", contents);
+        assertNull(ToolCacheHelper.add(artifact, downloadedFile));
+        assertArrayEquals(contents, Files.readAllBytes(downloadedFile.toPath()));
+        assertNoTmpFiles(entryPath.getParent());
+    }
+
+    @Test
+    public void testDisabledCache() throws Exception {
+        System.setProperty(CACHE_MAX_SIZE_PROPERTY, "0");
+        var downloadedFile = createFile("download.tmp", randomBytes(10));
+        assertNull(ToolCacheHelper.add(artifact("tool.zip", "sig1"), downloadedFile));
+        assertTrue(downloadedFile.exists());
+        assertFalse(Files.exists(cacheDir));
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws Exception {
+        System.setProperty(CACHE_MAX_SIZE_PROPERTY, "1");
+        var first = ToolCacheHelper.add(artifact("tool1.zip", "sig1"), createFile("download1.tmp", randomBytes(600*1024)));
+        Files.setLastModifiedTime(first.toPath(), FileTime.fromMillis(System.currentTimeMillis()-60000));
+        var second = ToolCacheHelper.add(artifact("tool2.zip", "sig2"), createFile("download2.tmp", randomBytes(600*1024)));
+        assertFalse(first.exists());
+        assertTrue(second.exists());
+        var entries = ToolCacheHelper.list();
+        assertEquals(1, entries.size());
+        assertEquals("tool2.zip", entries.get(0).getName());
+    }
+
+    @Test
+    public void testInstalledFileIndependentOfCacheEntry() throws Exception {
+        var artifact = artifact("tool.jar", "sig1");
+        var contents = randomBytes(1000);
+        var cachedFile = ToolCacheHelper.add(artifact, createFile("download1.tmp", contents));
+        var installedFile = tempDir.resolve("install").resolve("tool.jar");
+        Files.createDirectories(installedFile.getParent());
+        Files.write(installedFile, randomBytes(10));
+        ToolCacheHelper.copy(cachedFile, installedFile);
+        assertArrayEquals(contents, Files.readAllBytes(installedFile));
+        // Modifying the installed file doesn't affect the cache entry
+        Files.write(installedFile, randomBytes(10), StandardOpenOption.APPEND);
+        assertArrayEquals(contents, Files.readAllBytes(cachedFile.toPath()));
+        // Updating or clearing the cache doesn't affect the installed file
+        var installedContents = Files.readAllBytes(installedFile);
+        ToolCacheHelper.add(artifact, createFile("download2.tmp", randomBytes(1000)));
+        assertArrayEquals(installedContents, Files.readAllBytes(installedFile));
+        ToolCacheHelper.clear();
+        assertTrue(ToolCacheHelper.list().isEmpty());
+        assertArrayEquals(installedContents, Files.readAllBytes(installedFile));
+    }
+
+    private File createFile(String name, byte[] contents) throws IOException {
+        var result = tempDir.resolve(name);
+        Files.write(result, contents);
+        return result.toFile();
+    }
+
+    private static final void assertNoTmpFiles(Path dir) throws IOException {
+        try ( var files = Files.list(dir) ) {
+            assertFalse(files.anyMatch(p->p.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
+    private static final ToolDefinitionArtifactDescriptor artifact(String name, String signature) {
+        var result = new ToolDefinitionArtifactDescriptor();
+        result.setName(name);
+        result.setRsa_sha256(signature);
+        return result;
+    }
+
+    private static final byte[] randomBytes(int size) {
+        var result = new byte[size];
+        new Random().nextBytes(result);
+        return result;
+    }
+}
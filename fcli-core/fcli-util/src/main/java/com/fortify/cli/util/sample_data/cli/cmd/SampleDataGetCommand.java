@@ -16,7 +16,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fortify.cli.common.output.cli.cmd.AbstractOutputCommand;
 import com.fortify.cli.common.output.cli.cmd.IJsonNodeSupplier;
 import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
-import com.fortify.cli.util.sample_data.helper.SampleDataHelper;
+import com.fortify.cli.util.sample_data.cli.mixin.SampleDataGeneratorMixin;
 
 import lombok.Getter;
 import picocli.CommandLine.Command;
@@ -27,11 +27,12 @@ import picocli.CommandLine.Parameters;
 public final class SampleDataGetCommand extends AbstractOutputCommand implements IJsonNodeSupplier {
     @Getter @Mixin private OutputHelperMixins.Get outputHelper;
     @Parameters(index = "0", descriptionKey = "fcli.util.sample-data.id")
-    @Getter private int id;
+    @Getter private long id;
+    @Mixin private SampleDataGeneratorMixin generator;
     
     @Override
     public JsonNode getJsonNode() {
-        return SampleDataHelper.getSampleData().get(id);
+        return generator.get(id);
     }
     
     @Override
@@ -12,23 +12,26 @@
  *******************************************************************************/
 package com.fortify.cli.util.sample_data.cli.cmd;
 
+import java.util.stream.Stream;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fortify.cli.common.output.cli.cmd.AbstractOutputCommand;
-import com.fortify.cli.common.output.cli.cmd.IJsonNodeSupplier;
+import com.fortify.cli.common.output.cli.cmd.IJsonNodeStreamSupplier;
 import com.fortify.cli.common.output.cli.mixin.OutputHelperMixins;
-import com.fortify.cli.util.sample_data.helper.SampleDataHelper;
+import com.fortify.cli.util.sample_data.cli.mixin.SampleDataGeneratorMixin;
 
 import lombok.Getter;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Mixin;
 
 @Command(name = OutputHelperMixins.List.CMD_NAME)
-public final class SampleDataListCommand extends AbstractOutputCommand implements IJsonNodeSupplier {
+public final class SampleDataListCommand extends AbstractOutputCommand implements IJsonNodeStreamSupplier {
     @Getter @Mixin private OutputHelperMixins.List outputHelper;
+    @Mixin private SampleDataGeneratorMixin generator;
     
     @Override
-    public JsonNode getJsonNode() {
-        return SampleDataHelper.getSampleData();
+    public Stream<JsonNode> getJsonNodeStream() {
+        return generator.stream();
     }
     
     @Override
@@ -0,0 +1,47 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.util.sample_data.cli.mixin;
+
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fortify.cli.util.sample_data.helper.SampleDataHelper;
+import com.fortify.cli.util.sample_data.helper.SampleDataHelper.SampleDataShape;
+
+import lombok.Getter;
+import picocli.CommandLine.Option;
+
+public class SampleDataGeneratorMixin {
+    @Option(names = {"--shape"}, defaultValue = "combinations", descriptionKey = "fcli.util.sample-data.shape")
+    @Getter private SampleDataShape shape;
+    @Option(names = {"--size"}, descriptionKey = "fcli.util.sample-data.size")
+    private Long size;
+    @Option(names = {"--seed"}, defaultValue = "0", descriptionKey = "fcli.util.sample-data.seed")
+    @Getter private long seed;
+    
+    public long getSize() {
+        return size!=null ? size : SampleDataHelper.getDefaultSize(shape);
+    }
+    
+    public Stream<JsonNode> stream() {
+        return SampleDataHelper.stream(shape, getSize(), seed);
+    }
+    
+    /**
+     * Return the sample data record with the given id, or null if the given
+     * id is outside of the configured number of records.
+     */
+    public JsonNode get(long id) {
+        return id<0 || id>=getSize() ? null : SampleDataHelper.generate(shape, id, seed);
+    }
+}
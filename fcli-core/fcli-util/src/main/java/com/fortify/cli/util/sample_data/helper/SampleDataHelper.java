@@ -12,61 +12,227 @@
  */
 package com.fortify.cli.util.sample_data.helper;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
 
-import lombok.Getter;
-
+/**
+ * This class generates deterministic sample data records. Records are generated
+ * on demand based on record id, shape and seed, such that arbitrary numbers of
+ * records can be streamed to the output without holding them in memory, and any
+ * individual record can be retrieved without generating preceding records.
+ */
 public final class SampleDataHelper {
     private static final ObjectMapper objectMapper = new ObjectMapper();
-    @Getter(lazy = true)
-    private static final ArrayNode sampleData = generateSampleData();
+    private static final List<List<?>> combinationValues = Arrays.asList(
+            stringValues(), longValues(), doubleValues(), booleanValues(), dateValues(), 
+            dateTimeValues(), nestedObjectValues(), nestedObjectArrayValues(), nestedStringArrayValues());
+    private static final long combinationCount = combinationValues.stream().mapToLong(List::size).reduce(1, (a,b)->a*b);
+    private static final String[] ISSUE_CATEGORIES = {"SQL Injection", "Cross-Site Scripting: Reflected", 
+            "Path Manipulation", "Password Management: Hardcoded Password", "Command Injection", 
+            "Insecure Randomness", "Log Forging", "Privacy Violation", "Unreleased Resource: Streams", 
+            "Weak Cryptographic Hash"};
+    private static final String[] ISSUE_KINGDOMS = {"Input Validation and Representation", "Security Features", 
+            "Encapsulation", "Code Quality", "Errors"};
+    private static final String[] ISSUE_FRIORITIES = {"Critical", "High", "Medium", "Low"};
+    private static final String[] ISSUE_SCAN_STATUSES = {"NEW", "UPDATED", "REINTRODUCED", "REMOVED"};
+    private static final String[] ISSUE_ENGINE_TYPES = {"SCA", "WEBINSPECT", "SONATYPE", "DEBRICKED"};
+    private static final LocalDate BASE_DATE = LocalDate.of(2020, 1, 1);
+    
+    private SampleDataHelper() {}
+    
+    /**
+     * Shapes of sample data records that can be generated:
+     * <ul>
+     *  <li>combinations: Records containing all combinations of various data 
+     *      types and null values; this is the default shape used by fcli 
+     *      functional tests, and doesn't depend on the seed</li>
+     *  <li>flat: Records containing only scalar properties</li>
+     *  <li>nested: Records containing deeply nested objects and arrays</li>
+     *  <li>issues: Records resembling SSC/FoD issue data</li>
+     * </ul>
+     */
+    public static enum SampleDataShape {
+        combinations, flat, nested, issues
+    }
+    
+    /**
+     * Return the default number of records for the given shape.
+     */
+    public static final long getDefaultSize(SampleDataShape shape) {
+        return shape==SampleDataShape.combinations ? combinationCount : 1000;
+    }
+    
+    /**
+     * Return a lazily evaluated {@link Stream} of the given number of records
+     * of the given shape, generated using the given seed.
+     */
+    public static final Stream<JsonNode> stream(SampleDataShape shape, long size, long seed) {
+        return LongStream.range(0, size).mapToObj(id->generate(shape, id, seed));
+    }
+    
+    /**
+     * Generate the record with the given id for the given shape and seed. Each
+     * record only depends on these parameters, so the same record will be 
+     * returned on each invocation for a given fcli version.
+     */
+    public static final JsonNode generate(SampleDataShape shape, long id, long seed) {
+        var random = new SplittableRandom(seed ^ (id * 0x9E3779B97F4A7C15L));
+        switch (shape) {
+        case flat: return generateFlat(id, random);
+        case nested: return generateNested(id, random);
+        case issues: return generateIssue(id, random);
+        default: return generateCombination(id);
+        }
+    }
     
     // IMPORTANT: Any changes to this method may have an impact on fcli 
     //            functional tests, potentially causing test failures.
     //            After updating this method, please run the core functional 
     //            tests and adjust to match the sample data changes if 
     //            necessary.
-    private static final ArrayNode generateSampleData() {
-        ArrayNode result = objectMapper.createArrayNode();
-        var id = 0;
-        for ( var stringValue : stringValues() ) {
-            for ( var longValue : longValues() ) {
-                for ( var doubleValue : doubleValues() ) {
-                    for ( var booleanValue : booleanValues() ) {
-                        for ( var dateValue : dateValues() ) {
-                            for ( var dateTimeValue : dateTimeValues() ) {
-                                for ( var nestedObject : nestedObjectValues() ) {
-                                    for ( var nestedObjectArray : nestedObjectArrayValues() ) {
-                                        for ( var nestedStringArray : nestedStringArrayValues() ) {
-                                            var obj = objectMapper.createObjectNode()
-                                                    .put("id", id++)
-                                                    .put("stringValue", stringValue)
-                                                    .put("longValue", longValue)
-                                                    .put("doubleValue", doubleValue)
-                                                    .put("booleanValue", booleanValue)
-                                                    .put("dateValue", dateValue)
-                                                    .put("dateTimeValue", dateTimeValue);
-                                            obj.set("nestedObject", nestedObject);
-                                            obj.set("nestedObjectArray", nestedObjectArray);
-                                            obj.set("nestedStringArray", nestedStringArray);
-                                            result.add(obj);
-                                        }
-                                    }
-                                }
-                            }
-                        }
-                    }
-                }
+    /**
+     * Generate the record for the given id, with property values taken from
+     * the combination of values for the given id. The last value list varies
+     * fastest, so records are generated in the same order as a set of nested 
+     * loops over all value lists. Ids beyond the number of combinations wrap 
+     * around to the first combination.
+     */
+    private static final JsonNode generateCombination(long id) {
+        var values = new Object[combinationValues.size()];
+        var remainder = id % combinationCount;
+        for ( int i=combinationValues.size()-1; i>=0; i-- ) {
+            var list = combinationValues.get(i);
+            values[i] = list.get((int)(remainder % list.size()));
+            remainder /= list.size();
+        }
+        var obj = createRecord(id)
+                .put("stringValue", (String)values[0])
+                .put("longValue", (Long)values[1])
+                .put("doubleValue", (Double)values[2])
+                .put("booleanValue", (Boolean)values[3])
+                .put("dateValue", (String)values[4])
+                .put("dateTimeValue", (String)values[5]);
+        // Nested values are copied, as records may be updated while being written 
+        obj.set("nestedObject", deepCopy((JsonNode)values[6]));
+        obj.set("nestedObjectArray", deepCopy((JsonNode)values[7]));
+        obj.set("nestedStringArray", deepCopy((JsonNode)values[8]));
+        return obj;
+    }
+    
+    /**
+     * Create a new record with the given id; ids are stored as int values if possible,
+     * for consistency with sample data generated by earlier fcli versions.
+     */
+    private static final ObjectNode createRecord(long id) {
+        var obj = objectMapper.createObjectNode();
+        return id<=Integer.MAX_VALUE ? obj.put("id", (int)id) : obj.put("id", id);
+    }
+    
+    private static final JsonNode deepCopy(JsonNode node) {
+        return node==null ? null : node.deepCopy();
+    }
+    
+    private static final JsonNode generateFlat(long id, SplittableRandom random) {
+        var obj = createRecord(id);
+        for ( int i=1; i<=5; i++ ) {
+            obj.put("stringValue"+i, randomString(random, 4+random.nextInt(12)));
+            obj.put("longValue"+i, random.nextLong(-1_000_000, 1_000_000));
+            obj.put("doubleValue"+i, Math.round(random.nextDouble(-1000, 1000)*100)/100.0);
+            obj.put("booleanValue"+i, random.nextBoolean());
+            obj.put("dateValue"+i, randomDate(random).toString());
+        }
+        return obj;
+    }
+    
+    private static final JsonNode generateNested(long id, SplittableRandom random) {
+        return createRecord(id).setAll(generateNestedLevel(random, 0));
+    }
+    
+    private static final ObjectNode generateNestedLevel(SplittableRandom random, int level) {
+        var obj = objectMapper.createObjectNode()
+                .put("level", level)
+                .put("name", randomString(random, 8))
+                .put("value", random.nextInt(1000));
+        if ( level<4 ) {
+            obj.set("child", generateNestedLevel(random, level+1));
+            var items = obj.putArray("items");
+            for ( int i=0; i<2; i++ ) {
+                items.addObject()
+                    .put("name", randomString(random, 6))
+                    .put("enabled", random.nextBoolean())
+                    .putArray("tags").add(randomString(random, 4)).add(randomString(random, 4));
             }
         }
-        return result;
+        return obj;
+    }
+    
+    private static final JsonNode generateIssue(long id, SplittableRandom random) {
+        var categoryIndex = random.nextInt(ISSUE_CATEGORIES.length);
+        var friority = ISSUE_FRIORITIES[random.nextInt(ISSUE_FRIORITIES.length)];
+        var fileName = "Class"+random.nextInt(500)+".java";
+        var fullFileName = "src/main/java/com/example/module"+random.nextInt(20)+"/"+fileName;
+        var lineNumber = 1+random.nextInt(2000);
+        var obj = createRecord(id)
+                .put("issueInstanceId", randomHex(random, 32))
+                .put("issueName", ISSUE_CATEGORIES[categoryIndex])
+                .put("primaryRuleGuid", String.format("%08X-0000-0000-0000-%012X", categoryIndex, categoryIndex))
+                .put("kingdom", ISSUE_KINGDOMS[categoryIndex % ISSUE_KINGDOMS.length])
+                .put("friority", friority)
+                .put("severity", (double)(1+random.nextInt(5)))
+                .put("likelihood", Math.round(random.nextDouble(5)*10)/10.0)
+                .put("impact", Math.round(random.nextDouble(5)*10)/10.0)
+                .put("engineType", ISSUE_ENGINE_TYPES[random.nextInt(ISSUE_ENGINE_TYPES.length)])
+                .put("fileName", fileName)
+                .put("fullFileName", fullFileName)
+                .put("lineNumber", lineNumber)
+                .put("scanStatus", ISSUE_SCAN_STATUSES[random.nextInt(ISSUE_SCAN_STATUSES.length)])
+                .put("foundDate", randomDate(random)+"T00:00:00.000+0000")
+                .put("suppressed", random.nextInt(20)==0)
+                .put("removed", random.nextInt(10)==0)
+                .put("hasComments", random.nextBoolean())
+                .putNull("primaryTag");
+        var details = obj.putObject("details")
+                .put("brief", "Sample "+ISSUE_CATEGORIES[categoryIndex]+" issue in "+fileName+" at line "+lineNumber+".");
+        var traceNodes = details.putArray("traceNodes");
+        var traceNodeCount = 1+random.nextInt(4);
+        for ( int i=0; i<traceNodeCount; i++ ) {
+            traceNodes.addObject()
+                .put("fullPath", fullFileName)
+                .put("line", 1+random.nextInt(2000))
+                .put("text", randomString(random, 12));
+        }
+        return obj;
+    }
+    
+    private static final String randomString(SplittableRandom random, int length) {
+        var sb = new StringBuilder(length);
+        for ( int i=0; i<length; i++ ) {
+            sb.append((char)('a'+random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+    
+    private static final String randomHex(SplittableRandom random, int length) {
+        var sb = new StringBuilder(length);
+        for ( int i=0; i<length; i++ ) {
+            sb.append(Character.toUpperCase(Character.forDigit(random.nextInt(16), 16)));
+        }
+        return sb.toString();
+    }
+    
+    private static final LocalDate randomDate(SplittableRandom random) {
+        return BASE_DATE.plusDays(random.nextInt(3650));
     }
     
     private static final List<String> stringValues() {
@@ -12,9 +12,11 @@
  *******************************************************************************/
 package com.fortify.cli.util.variable.cli.cmd;
 
+import java.util.stream.Stream;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fortify.cli.common.output.cli.cmd.AbstractOutputCommand;
-import com.fortify.cli.common.output.cli.cmd.IJsonNodeSupplier;
+import com.fortify.cli.common.output.cli.cmd.IJsonNodeStreamSupplier;
 import com.fortify.cli.common.util.DisableTest;
 import com.fortify.cli.common.util.DisableTest.TestType;
 import com.fortify.cli.util.variable.cli.mixin.VariableOutputHelperMixins;
@@ -26,13 +28,13 @@ import picocli.CommandLine.Mixin;
 
 @Command(name = VariableOutputHelperMixins.Contents.CMD_NAME)
 @DisableTest(TestType.CMD_DEFAULT_TABLE_OPTIONS_PRESENT) // Output columns depend on variable contents
-public class VariableContentsCommand extends AbstractOutputCommand implements IJsonNodeSupplier {
+public class VariableContentsCommand extends AbstractOutputCommand implements IJsonNodeStreamSupplier {
     @Getter @Mixin private VariableOutputHelperMixins.Contents outputHelper;
     @Mixin private VariableResolverMixin.PositionalParameter variableResolver;
 
     @Override
-    public JsonNode getJsonNode() {
-        return variableResolver.getVariableContents();
+    public Stream<JsonNode> getJsonNodeStream() {
+        return variableResolver.getVariableContentsStream();
     }
     
     @Override
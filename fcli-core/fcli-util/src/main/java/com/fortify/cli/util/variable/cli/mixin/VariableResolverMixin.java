@@ -12,6 +12,8 @@
  *******************************************************************************/
 package com.fortify.cli.util.variable.cli.mixin;
 
+import java.util.stream.Stream;
+
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fortify.cli.common.variable.FcliVariableHelper;
 import com.fortify.cli.common.variable.FcliVariableHelper.VariableDescriptor;
@@ -32,6 +34,10 @@ public class VariableResolverMixin {
         public JsonNode getVariableContents(){
             return FcliVariableHelper.getVariableContents(getVariableName(), isRequired());
         }
+        
+        public Stream<JsonNode> getVariableContentsStream(){
+            return FcliVariableHelper.getVariableContentsStream(getVariableName(), isRequired());
+        }
     }
     
     public static abstract class AbstractRequiredVariableResolverMixin extends AbstractVariableResolverMixin {
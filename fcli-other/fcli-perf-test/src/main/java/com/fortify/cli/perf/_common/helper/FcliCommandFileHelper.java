@@ -0,0 +1,82 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.perf._common.helper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Helper methods for loading fcli command files like benchmark workloads and
+ * performance test scenarios. Each non-empty line that doesn't start with '#'
+ * represents the arguments for a single fcli invocation, optionally containing
+ * ${name} placeholders and double-quoted arguments containing spaces.
+ */
+public final class FcliCommandFileHelper {
+    private FcliCommandFileHelper() {}
+
+    /**
+     * Load the commands from the given file, or from the given
+     * classpath resource if file is null.
+     */
+    public static final List<String> loadCommands(Path file, String defaultResource) throws IOException {
+        try ( var reader = file!=null
+                ? Files.newBufferedReader(file)
+                : new BufferedReader(new InputStreamReader(FcliCommandFileHelper.class.getResourceAsStream(defaultResource), StandardCharsets.UTF_8)) ) {
+            return reader.lines()
+                    .map(String::trim)
+                    .filter(l->!l.isEmpty() && !l.startsWith("#"))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Replace all ${name} placeholders in the given command with the
+     * corresponding values from the given context.
+     */
+    public static final String substitute(String command, Map<String, String> context) {
+        var result = command;
+        for ( var e : context.entrySet() ) {
+            result = result.replace("${"+e.getKey()+"}", e.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Split the given command line on whitespace, keeping double-quoted
+     * strings together (without the quotes).
+     */
+    public static final List<String> tokenize(String commandLine) {
+        var result = new ArrayList<String>();
+        var current = new StringBuilder();
+        boolean inQuotes = false, hasToken = false;
+        for ( var c : commandLine.toCharArray() ) {
+            if ( c=='"' ) {
+                inQuotes = !inQuotes; hasToken = true;
+            } else if ( Character.isWhitespace(c) && !inQuotes ) {
+                if ( hasToken ) { result.add(current.toString()); current.setLength(0); hasToken = false; }
+            } else {
+                current.append(c); hasToken = true;
+            }
+        }
+        if ( hasToken ) { result.add(current.toString()); }
+        return result;
+    }
+}
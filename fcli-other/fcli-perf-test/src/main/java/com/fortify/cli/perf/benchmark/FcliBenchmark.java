@@ -0,0 +1,193 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.perf.benchmark;
+
+import static com.fortify.cli.perf._common.helper.FcliCommandFileHelper.loadCommands;
+import static com.fortify.cli.perf._common.helper.FcliCommandFileHelper.substitute;
+import static com.fortify.cli.perf._common.helper.FcliCommandFileHelper.tokenize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fortify.cli.perf.mock.MockServer;
+
+/**
+ * This class runs a workload of fcli commands against a {@link MockServer} for
+ * one or more fcli variants, like the fcli JVM jar, a default native image and
+ * a PGO-optimized native image. Each variant is specified as name=command, for
+ * example <code>jar=java -jar build/libs/fcli.jar</code>. Commands are run in
+ * a separate process with a variant-specific FCLI_DATA_DIR, after logging in
+ * to the mock SSC and FoD sessions.<br/>
+ * <br/>
+ * In benchmark mode (default), this class reports startup latency (fcli --version),
+ * median and p90 wall time and peak RSS for every workload command. As every
+ * command is run in a new process, wall time includes process startup; steady-state
+ * in-process performance is reported by FcliPerfTestSuite instead. Peak RSS is obtained from /proc/&lt;pid&gt;/status and is therefore only
+ * reported on Linux. In training mode (--train), every workload command is run
+ * once; if --profile-dir is specified, each invocation is passed a
+ * -XX:ProfilesDumpFile option such that profiles collected by a PGO-instrumented
+ * native image aren't overwritten by subsequent invocations.
+ */
+public final class FcliBenchmark {
+    private static final String DEFAULT_WORKLOAD = "/com/fortify/cli/perf/benchmark/workload.txt";
+    private final Map<String, List<String>> variants = new LinkedHashMap<>();
+    private final AtomicInteger profileCounter = new AtomicInteger();
+    private int iterations = 10;
+    private boolean train = false;
+    private Path profileDir = null;
+    private Path workloadFile = null;
+    private Path reportFile = null;
+    private Path workDir;
+
+    public static void main(String[] args) throws Exception {
+        var benchmark = new FcliBenchmark();
+        benchmark.parseArgs(args);
+        System.exit(benchmark.run());
+    }
+
+    private void parseArgs(String[] args) {
+        for ( int i=0; i<args.length; i++ ) {
+            switch (args[i]) {
+            case "--variant":
+                var spec = args[++i];
+                var idx = spec.indexOf('=');
+                variants.put(spec.substring(0, idx), tokenize(spec.substring(idx+1)));
+                break;
+            case "--iterations": iterations = Integer.parseInt(args[++i]); break;
+            case "--train": train = true; break;
+            case "--profile-dir": profileDir = Path.of(args[++i]).toAbsolutePath(); break;
+            case "--workload": workloadFile = Path.of(args[++i]); break;
+            case "--report": reportFile = Path.of(args[++i]); break;
+            default: throw new IllegalArgumentException("Unknown argument: "+args[i]);
+            }
+        }
+        if ( variants.isEmpty() ) {
+            throw new IllegalArgumentException("At least one --variant name=command must be specified");
+        }
+    }
+
+    private int run() throws Exception {
+        workDir = Files.createTempDirectory("fcli-perf");
+        if ( profileDir!=null ) { Files.createDirectories(profileDir); }
+        var workload = loadCommands(workloadFile, DEFAULT_WORKLOAD);
+        var report = new StringBuilder();
+        var failures = 0;
+        try ( var server = MockServer.builderFromSystemProperties().build().start() ) {
+            report.append("| Variant | Command | Median (ms) | P90 (ms) | Peak RSS (MB) |\n");
+            report.append("|---|---|---:|---:|---:|\n");
+            for ( var variant : variants.entrySet() ) {
+                var name = variant.getKey();
+                var cmd = variant.getValue();
+                var dataDir = workDir.resolve(name);
+                var context = Map.of("url", server.getUrl(), "tmp", workDir.toString());
+                for ( var login : List.of(
+                        "ssc session login --url ${url} -t 00000000-0000-0000-0000-000000000000",
+                        "fod session login --url ${url} --client-id mock --client-secret mock") ) {
+                    failures += runCommand(cmd, dataDir, substitute(login, context)).exitCode()==0 ? 0 : 1;
+                }
+                if ( train ) {
+                    for ( var command : workload ) {
+                        var result = runCommand(cmd, dataDir, substitute(command, context));
+                        if ( result.exitCode()!=0 ) { failures++; System.err.println("FAILED ("+result.exitCode()+"): "+command); }
+                    }
+                } else {
+                    failures += benchmark(report, name, cmd, dataDir, "--version");
+                    for ( var command : workload ) {
+                        failures += benchmark(report, name, cmd, dataDir, substitute(command, context));
+                    }
+                }
+            }
+        }
+        if ( !train ) {
+            System.out.println(report);
+            if ( reportFile!=null ) { Files.writeString(reportFile, report.toString()); }
+        }
+        return failures==0 ? 0 : 1;
+    }
+
+    private int benchmark(StringBuilder report, String variantName, List<String> cmd, Path dataDir, String command) throws Exception {
+        var durations = new ArrayList<Long>();
+        long peakRssKb = -1;
+        int failures = 0;
+        // Warm-up run, not included in statistics; this primes OS caches for
+        // the executable, and fcli caches like action zips
+        runCommand(cmd, dataDir, command);
+        for ( int i=0; i<iterations; i++ ) {
+            var result = runCommand(cmd, dataDir, command);
+            if ( result.exitCode()!=0 ) { failures++; }
+            durations.add(result.durationMillis());
+            peakRssKb = Math.max(peakRssKb, result.peakRssKb());
+        }
+        Collections.sort(durations);
+        var median = durations.get(durations.size()/2);
+        var p90 = durations.get(Math.min(durations.size()-1, (int)Math.ceil(durations.size()*0.9)-1));
+        report.append(String.format("| %s | %s%s | %d | %d | %s |%n", variantName, command,
+                failures==0 ? "" : " (FAILED "+failures+"x)", median, p90,
+                peakRssKb<0 ? "n/a" : String.format("%.1f", peakRssKb/1024.0)));
+        return failures;
+    }
+
+    private RunResult runCommand(List<String> cmd, Path dataDir, String command) throws IOException, InterruptedException {
+        var fullCommand = new ArrayList<>(cmd);
+        if ( profileDir!=null ) {
+            fullCommand.add("-XX:ProfilesDumpFile="+profileDir.resolve("fcli-"+profileCounter.incrementAndGet()+".iprof"));
+        }
+        fullCommand.addAll(tokenize(command));
+        var pb = new ProcessBuilder(fullCommand)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD);
+        pb.environment().put("FCLI_DATA_DIR", dataDir.toString());
+        var start = System.nanoTime();
+        var process = pb.start();
+        var peakRssKb = new AtomicLong(-1);
+        var rssMonitor = new Thread(()->monitorRss(process, peakRssKb));
+        rssMonitor.setDaemon(true);
+        rssMonitor.start();
+        var exitCode = process.waitFor();
+        var durationMillis = (System.nanoTime()-start)/1_000_000;
+        rssMonitor.join(100);
+        return new RunResult(exitCode, durationMillis, peakRssKb.get());
+    }
+
+    /**
+     * Poll VmHWM (peak resident set size) from /proc/&lt;pid&gt;/status while the
+     * given process is alive. As the process status is no longer available once
+     * the process has exited, this returns the last value read before exit.
+     */
+    private static void monitorRss(Process process, AtomicLong peakRssKb) {
+        var status = Path.of("/proc", String.valueOf(process.pid()), "status");
+        while ( process.isAlive() ) {
+            try {
+                for ( var line : Files.readAllLines(status) ) {
+                    if ( line.startsWith("VmHWM:") ) {
+                        var kb = Long.parseLong(line.replaceAll("[^0-9]", ""));
+                        peakRssKb.accumulateAndGet(kb, Math::max);
+                    }
+                }
+                Thread.sleep(2);
+            } catch ( Exception e ) {
+                return;
+            }
+        }
+    }
+
+    private static record RunResult(int exitCode, long durationMillis, long peakRssKb) {}
+}
@@ -0,0 +1,608 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.perf.mock;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import lombok.Builder;
+
+/**
+ * In-process HTTP server that serves synthetic SSC (/api/v1) and FoD (/api/v3)
+ * responses, allowing fcli commands to be exercised without a live server, for
+ * example for collecting native image profiles or running benchmarks. Data is
+ * generated on the fly based on the configured number of application versions,
+ * releases, issues and artifacts, so response sizes can easily be scaled. Requests
+ * for unknown endpoints return an empty SSC or FoD collection, such that commands
+ * and actions that access additional endpoints still complete successfully.<br/>
+ * <br/>
+ * Apart from SSC links.next and FoD offset/totalCount paging, this server supports
+ * SSC bulk requests, SSC artifact uploads, FoD chunked scan imports, FoD SAST and
+ * OSS scan starts and the SSC endpoints used by the license msp-report command. If a FoD rate limit is configured,
+ * FoD responses include X-Rate-Limit-Remaining and X-Rate-Limit-Reset headers, and
+ * requests exceeding the limit are rejected with HTTP 429, like FoD does. Request
+ * counts, rate-limited request counts and uploaded bytes are tracked for use in
+ * performance tests.
+ */
+@Builder
+public final class MockServer implements AutoCloseable {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] SEVERITIES = {"Critical", "High", "Medium", "Low"};
+    private static final String[] CATEGORIES = {"SQL Injection", "Cross-Site Scripting: Reflected", "Path Manipulation", "Password Management: Hardcoded Password", "Log Forging"};
+    private static final Pattern SSC_AV_ID_QUERY = Pattern.compile("id:(\\d+)");
+    private static final Pattern SSC_AV_NAME_QUERY = Pattern.compile("project\\.name:\"App(\\d+)\",name:\"1\\.0\"");
+    private static final Pattern FOD_RELEASE_ID_FILTER = Pattern.compile("releaseId:(\\d+)");
+    @Builder.Default private final int sscAppVersions = 20;
+    @Builder.Default private final int sscIssuesPerAppVersion = 1000;
+    @Builder.Default private final int fodReleases = 20;
+    @Builder.Default private final int fodIssuesPerRelease = 1000;
+    @Builder.Default private final int sscArtifactsPerAppVersion = 10;
+    /** Artificial latency added to every response */
+    @Builder.Default private final long latencyMillis = 0;
+    /** Maximum number of FoD requests per rate limit window, 0 for no rate limiting */
+    @Builder.Default private final int fodRateLimit = 0;
+    @Builder.Default private final int fodRateLimitWindowSeconds = 1;
+    @Builder.Default private final int threads = 16;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger rateLimitedCount = new AtomicInteger();
+    private final AtomicLong uploadedBytes = new AtomicLong();
+    private final AtomicInteger startedScanCount = new AtomicInteger();
+    private final Object rateLimitLock = new Object();
+    private long rateLimitWindowStart;
+    private int rateLimitWindowCount;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Return a builder configured from the perf.ssc.appversions, perf.ssc.issues,
+     * perf.ssc.artifacts, perf.fod.releases, perf.fod.issues, perf.fod.rateLimit
+     * and perf.latency system properties, using default values for any properties
+     * that haven't been set.
+     */
+    public static final MockServerBuilder builderFromSystemProperties() {
+        return MockServer.builder()
+                .sscAppVersions(Integer.getInteger("perf.ssc.appversions", 20))
+                .sscIssuesPerAppVersion(Integer.getInteger("perf.ssc.issues", 1000))
+                .sscArtifactsPerAppVersion(Integer.getInteger("perf.ssc.artifacts", 10))
+                .fodReleases(Integer.getInteger("perf.fod.releases", 20))
+                .fodIssuesPerRelease(Integer.getInteger("perf.fod.issues", 1000))
+                .fodRateLimit(Integer.getInteger("perf.fod.rateLimit", 0))
+                .latencyMillis(Long.getLong("perf.latency", 0));
+    }
+
+    public final MockServer start() throws IOException {
+        // Avoid Nagle/delayed ACK interaction adding ~40ms to every response
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        return this;
+    }
+
+    public final String getUrl() {
+        return "http://127.0.0.1:"+server.getAddress().getPort();
+    }
+
+    public final int getRequestCount() {
+        return requestCount.get();
+    }
+
+    /** Number of FoD requests that were rejected with HTTP 429 */
+    public final int getRateLimitedCount() {
+        return rateLimitedCount.get();
+    }
+
+    /** Total number of bytes received through SSC artifact uploads and FoD chunked uploads */
+    public final long getUploadedBytes() {
+        return uploadedBytes.get();
+    }
+
+    @Override
+    public final void close() {
+        if ( server!=null ) { server.stop(0); }
+        if ( executor!=null ) { executor.shutdownNow(); }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        try ( InputStream is = exchange.getRequestBody() ) {
+            var body = is.readAllBytes();
+            if ( latencyMillis>0 ) { Thread.sleep(latencyMillis); }
+            var path = exchange.getRequestURI().getPath();
+            var query = parseQuery(exchange.getRequestURI().getRawQuery());
+            var method = exchange.getRequestMethod();
+            if ( path.startsWith("/api/v1/") ) {
+                send(exchange, 200, handleSsc(method, path, query, body));
+            } else if ( path.startsWith("/api/v3/") && !acquireFoDRateLimit(exchange) ) {
+                rateLimitedCount.incrementAndGet();
+                send(exchange, 429, null);
+            } else if ( path.startsWith("/api/v3/") || path.startsWith("/oauth/") ) {
+                send(exchange, 200, handleFoD(method, path, query, body));
+            } else {
+                send(exchange, 404, null);
+            }
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Check whether the current FoD request is allowed based on the configured
+     * rate limit, using a fixed window like FoD, and add the FoD rate limit
+     * headers to the response.
+     */
+    private boolean acquireFoDRateLimit(HttpExchange exchange) {
+        if ( fodRateLimit<=0 ) { return true; }
+        long resetSeconds; int remaining;
+        synchronized (rateLimitLock) {
+            var now = System.currentTimeMillis();
+            var windowMillis = fodRateLimitWindowSeconds*1000L;
+            if ( now-rateLimitWindowStart>=windowMillis ) {
+                rateLimitWindowStart = now;
+                rateLimitWindowCount = 0;
+            }
+            resetSeconds = Math.max(1, (rateLimitWindowStart+windowMillis-now+999)/1000);
+            remaining = fodRateLimit-(++rateLimitWindowCount);
+        }
+        exchange.getResponseHeaders().add("X-Rate-Limit-Remaining", String.valueOf(Math.max(0, remaining)));
+        exchange.getResponseHeaders().add("X-Rate-Limit-Reset", String.valueOf(resetSeconds));
+        return remaining>=0;
+    }
+
+    private JsonNode handleSsc(String method, String path, Map<String, String> query, byte[] body) throws IOException {
+        Matcher m;
+        if ( "POST".equals(method) && path.equals("/api/v1/bulk") ) {
+            return sscBulk(body);
+        } else if ( "POST".equals(method) && (m=match("/api/v1/projectVersions/(\\d+)/artifacts", path))!=null ) {
+            uploadedBytes.addAndGet(body.length);
+            var avId = Integer.parseInt(m.group(1));
+            return sscSingle(sscArtifact(avId, avId*1000+sscArtifactsPerAppVersion));
+        } else if ( !"GET".equals(method) ) {
+            // Token data endpoint not supported, as if we're running against an older SSC version
+            return path.equals("/api/v1/userSession/tokenData") ? null : sscSingle(MAPPER.createObjectNode());
+        } else if ( path.equals("/api/v1/projectVersions") ) {
+            return sscAppVersions(path, query);
+        } else if ( (m=match("/api/v1/projectVersions/(\\d+)", path))!=null ) {
+            return sscSingle(sscAppVersion(Integer.parseInt(m.group(1))));
+        } else if ( (m=match("/api/v1/projectVersions/(\\d+)/issues", path))!=null ) {
+            var avId = Integer.parseInt(m.group(1));
+            return sscPage(path, query, sscIssuesPerAppVersion, i->sscIssue(avId, i));
+        } else if ( (m=match("/api/v1/projectVersions/(\\d+)/filterSets", path))!=null ) {
+            var filterSet = MAPPER.createObjectNode()
+                .put("guid", "a243b195-0a59-3f8b-1403-d55b7a7d78e6")
+                .put("title", "Security Auditor View")
+                .put("defaultFilterSet", true);
+            filterSet.putArray("folders");
+            return sscList(MAPPER.createArrayNode().add(filterSet));
+        } else if ( (m=match("/api/v1/issueDetails/(\\d+)", path))!=null ) {
+            return sscSingle(sscIssueDetails(Integer.parseInt(m.group(1))));
+        } else if ( (m=match("/api/v1/projectVersions/(\\d+)/artifacts", path))!=null ) {
+            var avId = Integer.parseInt(m.group(1));
+            return sscPage(path, query, sscArtifactsPerAppVersion, i->sscArtifact(avId, avId*1000+i));
+        } else if ( (m=match("/api/v1/artifacts/(\\d+)", path))!=null ) {
+            var id = Integer.parseInt(m.group(1));
+            return sscSingle(sscArtifact(id/1000, id));
+        } else if ( (m=match("/api/v1/projectVersions/(\\d+)/attributes", path))!=null ) {
+            return sscList(sscAttributes());
+        } else if ( path.equals("/api/v1/attributeDefinitions") ) {
+            return sscList(sscAttributeDefinitions());
+        } else if ( path.equals("/api/v1/projects") ) {
+            return sscPage(path, query, sscAppVersions, i->sscApp(i+1));
+        } else if ( (m=match("/api/v1/projects/(\\d+)/versions", path))!=null ) {
+            return sscList(MAPPER.createArrayNode().add(sscAppVersion(Integer.parseInt(m.group(1)))));
+        } else {
+            return sscList(MAPPER.createArrayNode());
+        }
+    }
+
+    private JsonNode handleFoD(String method, String path, Map<String, String> query, byte[] body) {
+        Matcher m;
+        if ( path.equals("/oauth/token") ) {
+            return MAPPER.createObjectNode().put("access_token", "mock-token").put("expires_in", 3600).put("token_type", "bearer");
+        } else if ( "PUT".equals(method) && path.endsWith("/import-scan") ) {
+            // Chunked upload; fragNo -1 indicates the last fragment
+            uploadedBytes.addAndGet(body.length);
+            return MAPPER.createObjectNode().put("fragNo", getInt(query, "fragNo", 0)).put("offset", getInt(query, "offset", 0));
+        } else if ( "POST".equals(method) && (m=match("/api/v3/releases/(\\d+)/(static|open-source)-scans/start-scan(-with-defaults)?", path))!=null ) {
+            // Chunked upload; scan id is returned with the last fragment
+            uploadedBytes.addAndGet(body.length);
+            var result = MAPPER.createObjectNode().put("fragNo", getInt(query, "fragNo", 0)).put("offset", getInt(query, "offset", 0));
+            return getInt(query, "fragNo", 0)!=-1 ? result : result.put("scanId", startedScanCount.incrementAndGet());
+        } else if ( !"GET".equals(method) ) {
+            return MAPPER.createObjectNode();
+        } else if ( path.equals("/api/v3/releases") ) {
+            return fodReleases(query);
+        } else if ( (m=match("/api/v3/releases/(\\d+)", path))!=null ) {
+            return fodRelease(Integer.parseInt(m.group(1)));
+        } else if ( (m=match("/api/v3/releases/(\\d+)/vulnerabilities", path))!=null ) {
+            var releaseId = Integer.parseInt(m.group(1));
+            return fodPage(query, fodIssuesPerRelease, i->fodIssue(releaseId, i));
+        } else if ( (m=match("/api/v3/releases/(\\d+)/vulnerabilities/([^/]+)/(details|summary|recommendations)", path))!=null ) {
+            return fodIssueDetails(m.group(2));
+        } else if ( (m=match("/api/v3/releases/(\\d+)/import-scan-session-id", path))!=null ) {
+            return MAPPER.createObjectNode().put("importScanSessionId", "mock-session-"+m.group(1));
+        } else if ( (m=match("/api/v3/releases/(\\d+)/static-scans/scan-setup", path))!=null ) {
+            return MAPPER.createObjectNode().put("releaseId", Integer.parseInt(m.group(1)))
+                    .put("entitlementId", 1).put("technologyStack", "JAVA/J2EE").put("languageLevel", "17");
+        } else if ( (m=match("/api/v3/releases/(\\d+)/scans/(\\d+)/polling-summary", path))!=null ) {
+            return MAPPER.createObjectNode().put("releaseId", Integer.parseInt(m.group(1)))
+                    .put("scanId", Integer.parseInt(m.group(2))).put("analysisStatusType", "Completed");
+        } else if ( (m=match("/api/v3/scans/(\\d+)/summary", path))!=null ) {
+            return MAPPER.createObjectNode().put("scanId", Integer.parseInt(m.group(1)))
+                    .set("staticScanSummaryDetails", MAPPER.createObjectNode()
+                            .put("engineVersion", "23.1.0").put("rulePackVersion", "2023.2.0"));
+        } else {
+            return fodPage(query, 0, null);
+        }
+    }
+
+    private JsonNode sscAppVersions(String path, Map<String, String> query) {
+        var q = query.getOrDefault("q", "");
+        Matcher m;
+        if ( (m=SSC_AV_ID_QUERY.matcher(q)).find() || (m=SSC_AV_NAME_QUERY.matcher(q)).find() ) {
+            var id = Integer.parseInt(m.group(1));
+            var data = MAPPER.createArrayNode();
+            if ( id>=1 && id<=sscAppVersions ) { data.add(sscAppVersion(id)); }
+            return sscList(data);
+        }
+        return sscPage(path, query, sscAppVersions, i->sscAppVersion(i+1));
+    }
+
+    private ObjectNode sscAppVersion(int id) {
+        var result = MAPPER.createObjectNode()
+            .put("id", id)
+            .put("name", "1.0")
+            .put("description", "Synthetic application version "+id)
+            .put("active", true)
+            .put("committed", true)
+            .put("createdBy", "admin")
+            .put("creationDate", "2024-01-01T00:00:00.000+0000")
+            .put("issueTemplateId", "Prioritized-HighRisk-Project-Template")
+            .put("issueTemplateModifiedTime", 1700000000000L)
+            .put("staleIssueTemplate", false)
+            .put("currentState", (String)null);
+        result.putObject("project").put("id", id).put("name", "App"+id).put("issueTemplateId", "Prioritized-HighRisk-Project-Template");
+        return result;
+    }
+
+    private ObjectNode sscIssue(int avId, int index) {
+        var id = avId*1_000_000+index;
+        var severity = SEVERITIES[index%SEVERITIES.length];
+        return MAPPER.createObjectNode()
+            .put("id", id)
+            .put("projectVersionId", avId)
+            .put("issueInstanceId", String.format("%032X", (long)id))
+            .put("issueName", CATEGORIES[index%CATEGORIES.length])
+            .put("friority", severity)
+            .put("severity", 4.0-index%SEVERITIES.length)
+            .put("confidence", 5.0)
+            .put("likelihood", 2.5)
+            .put("impact", 3.0)
+            .put("kingdom", "Input Validation and Representation")
+            .put("analyzer", "Dataflow")
+            .put("engineType", "SCA")
+            .put("primaryLocation", "File"+(index%100)+".java")
+            .put("lineNumber", 10+index%500)
+            .put("fullFileName", "src/main/java/com/example/File"+(index%100)+".java")
+            .put("folderName", severity)
+            .put("foundDate", "2024-01-01T00:00:00.000+0000")
+            .putNull("removedDate")
+            .put("hidden", false)
+            .put("removed", false)
+            .put("suppressed", false)
+            .put("reviewed", (String)null)
+            .put("audited", false)
+            .put("issueStatus", "Unreviewed")
+            .put("hasComments", false)
+            .putNull("primaryTag")
+            .put("scanStatus", "UPDATED");
+    }
+
+    private ObjectNode sscApp(int id) {
+        return MAPPER.createObjectNode()
+            .put("id", id)
+            .put("name", "App"+id)
+            .put("description", "Synthetic application "+id)
+            .put("creationDate", "2024-01-01T00:00:00.000+0000")
+            .put("issueTemplateId", "Prioritized-HighRisk-Project-Template");
+    }
+
+    private ObjectNode sscArtifact(int avId, int id) {
+        var uploadDate = String.format("2024-%02d-15T10:00:00.000+0000", 1+id%12);
+        var result = MAPPER.createObjectNode()
+            .put("id", id)
+            .put("projectVersionId", avId)
+            .put("originalFileName", "scan-"+id+".fpr")
+            .put("uploadDate", uploadDate)
+            .put("lastScanDate", uploadDate)
+            .put("status", "PROCESS_COMPLETE")
+            .put("purged", false)
+            .put("scaStatus", "PROCESSED")
+            .put("webInspectStatus", "NONE")
+            .put("runtimeStatus", "NONE")
+            .put("otherStatus", "NONE");
+        result.putObject("_embed").putArray("scans").addObject()
+            .put("id", id)
+            .put("type", "SCA")
+            .put("uploadDate", uploadDate);
+        return result;
+    }
+
+    /**
+     * Return the attribute definitions required by the license msp-report command;
+     * application versions return an Application license type for these attributes.
+     */
+    private ArrayNode sscAttributeDefinitions() {
+        var result = MAPPER.createArrayNode();
+        var licenseType = sscAttributeDefinition(result, 1, "MSP_License_Type", "SINGLE").put("required", true);
+        var options = licenseType.putArray("options");
+        for ( var option : new String[] {"Application", "Scan", "Demo"} ) {
+            options.addObject().put("guid", "MSP_License_Type_"+option).put("name", option);
+        }
+        sscAttributeDefinition(result, 2, "MSP_End_Customer_Name", "TEXT");
+        sscAttributeDefinition(result, 3, "MSP_End_Customer_Location", "TEXT");
+        return result;
+    }
+
+    private ObjectNode sscAttributeDefinition(ArrayNode target, int id, String name, String type) {
+        return target.addObject()
+            .put("id", id)
+            .put("guid", name)
+            .put("name", name)
+            .put("category", "BUSINESS")
+            .put("type", type)
+            .put("required", false)
+            .put("hidden", false)
+            .put("hasDefault", false);
+    }
+
+    private ArrayNode sscAttributes() {
+        var result = MAPPER.createArrayNode();
+        result.addObject().put("attributeDefinitionId", 1).put("guid", "MSP_License_Type")
+            .putArray("values").addObject().put("guid", "MSP_License_Type_Application").put("name", "Application");
+        result.addObject().put("attributeDefinitionId", 2).put("guid", "MSP_End_Customer_Name").put("value", "Customer");
+        result.addObject().put("attributeDefinitionId", 3).put("guid", "MSP_End_Customer_Location").put("value", "Location");
+        return result;
+    }
+
+    private ObjectNode sscIssueDetails(int id) {
+        return MAPPER.createObjectNode()
+            .put("id", id)
+            .put("brief", "<p>Synthetic issue <b>brief</b> for issue "+id+".</p>")
+            .put("detail", "<p>Synthetic issue <b>details</b> for issue "+id+".</p>")
+            .put("recommendation", "<p>Synthetic <i>recommendation</i>.</p>")
+            .put("tips", "")
+            .put("references", "");
+    }
+
+    /**
+     * Process an SSC bulk request by dispatching every request contained in the
+     * bulk request body, returning the individual responses in the format
+     * returned by SSC.
+     */
+    private JsonNode sscBulk(byte[] body) throws IOException {
+        var data = MAPPER.createArrayNode();
+        for ( var request : MAPPER.readTree(body).path("requests") ) {
+            var uri = URI.create(request.path("uri").asText());
+            var method = request.path("httpVerb").asText("GET");
+            var response = handleSsc(method, uri.getPath(), parseQuery(uri.getRawQuery()), new byte[0]);
+            var entry = data.addObject();
+            entry.set("request", request);
+            entry.putArray("responses").addObject().set("body", response==null ? MAPPER.createObjectNode() : response);
+        }
+        var result = MAPPER.createObjectNode();
+        result.set("data", data);
+        return result;
+    }
+
+    private JsonNode fodReleases(Map<String, String> query) {
+        var filters = query.getOrDefault("filters", "");
+        var m = FOD_RELEASE_ID_FILTER.matcher(filters);
+        if ( m.find() ) {
+            var id = Integer.parseInt(m.group(1));
+            var items = MAPPER.createArrayNode();
+            if ( id>=1 && id<=fodReleases ) { items.add(fodRelease(id)); }
+            return fodList(items, 0, 50, items.size());
+        }
+        return fodPage(query, fodReleases, i->fodRelease(i+1));
+    }
+
+    private ObjectNode fodRelease(int id) {
+        return MAPPER.createObjectNode()
+            .put("releaseId", id)
+            .put("releaseName", "1.0")
+            .put("releaseDescription", "Synthetic release "+id)
+            .put("applicationId", id)
+            .put("applicationName", "App"+id)
+            .put("sdlcStatusType", "Development")
+            .put("rating", 3)
+            .put("critical", fodIssuesPerRelease/4)
+            .put("high", fodIssuesPerRelease/4)
+            .put("medium", fodIssuesPerRelease/4)
+            .put("low", fodIssuesPerRelease/4)
+            .put("currentStaticScanId", id)
+            .put("staticAnalysisStatusType", "Completed")
+            .put("isPassed", true)
+            .put("suspended", false);
+    }
+
+    private ObjectNode fodIssue(int releaseId, int index) {
+        var id = releaseId*1_000_000+index;
+        var severity = SEVERITIES[index%SEVERITIES.length];
+        return MAPPER.createObjectNode()
+            .put("id", id)
+            .put("releaseId", releaseId)
+            .put("vulnId", String.format("%08x-0000-0000-0000-%012x", releaseId, index))
+            .put("instanceId", String.format("%032X", (long)id))
+            .put("checkId", "rule-"+index%CATEGORIES.length)
+            .put("category", CATEGORIES[index%CATEGORIES.length])
+            .put("severityString", severity)
+            .put("severity", 4-index%SEVERITIES.length)
+            .put("kingdom", "Input Validation and Representation")
+            .put("primaryLocation", "File"+(index%100)+".java")
+            .put("primaryLocationFull", "src/main/java/com/example/File"+(index%100)+".java")
+            .put("lineNumber", 10+index%500)
+            .put("scantype", "Static")
+            .put("status", "New")
+            .put("developerStatus", "Open")
+            .put("auditorStatus", "Pending Review")
+            .put("introducedDate", "2024-01-01T00:00:00")
+            .put("isSuppressed", false)
+            .put("closedStatus", false)
+            .put("hasComments", false);
+    }
+
+    private ObjectNode fodIssueDetails(String vulnId) {
+        return MAPPER.createObjectNode()
+            .put("vulnId", vulnId)
+            .put("summary", "<p>Synthetic vulnerability <b>summary</b> for "+vulnId+".</p>")
+            .put("explanation", "<p>Synthetic <i>explanation</i>.</p>")
+            .put("ruleId", "rule-"+Math.abs(vulnId.hashCode()%50))
+            .put("recommendations", "<p>Synthetic recommendation.</p>");
+    }
+
+    /**
+     * Return a page of SSC records, honoring the start and limit request
+     * parameters, including a links.next.href property if there are more
+     * records available.
+     */
+    private JsonNode sscPage(String path, Map<String, String> query, int total, IntFunctionToNode generator) {
+        var start = getInt(query, "start", 0);
+        var limit = getInt(query, "limit", 200);
+        var end = limit<0 ? total : Math.min(total, start+limit);
+        var data = MAPPER.createArrayNode();
+        for ( int i=start; i<end; i++ ) { data.add(generator.apply(i)); }
+        var result = sscList(data).put("count", total);
+        if ( end<total ) {
+            var params = new LinkedHashMap<>(query);
+            params.put("start", String.valueOf(end));
+            params.put("limit", String.valueOf(limit));
+            var nextQuery = params.entrySet().stream()
+                    .map(e->e.getKey()+"="+URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                    .reduce((a,b)->a+"&"+b).orElse("");
+            result.putObject("links").putObject("next").put("href", getUrl()+path+"?"+nextQuery);
+        }
+        return result;
+    }
+
+    private ObjectNode sscList(ArrayNode data) {
+        var result = MAPPER.createObjectNode();
+        result.set("data", data);
+        result.put("count", data.size()).put("responseCode", 200);
+        return result;
+    }
+
+    private ObjectNode sscSingle(ObjectNode data) {
+        var result = MAPPER.createObjectNode();
+        result.set("data", data);
+        result.put("responseCode", 200);
+        return result;
+    }
+
+    /**
+     * Return a page of FoD records, honoring the offset and limit request
+     * parameters, including the offset, limit and totalCount properties
+     * used by FoD for paging.
+     */
+    private JsonNode fodPage(Map<String, String> query, int total, IntFunctionToNode generator) {
+        var offset = getInt(query, "offset", 0);
+        var limit = Math.min(50, Math.max(1, getInt(query, "limit", 50)));
+        var end = Math.min(total, offset+limit);
+        var items = MAPPER.createArrayNode();
+        for ( int i=offset; i<end; i++ ) { items.add(generator.apply(i)); }
+        return fodList(items, offset, limit, total);
+    }
+
+    private ObjectNode fodList(ArrayNode items, int offset, int limit, int total) {
+        var result = MAPPER.createObjectNode();
+        result.set("items", items);
+        return result.put("offset", offset).put("limit", limit).put("totalCount", total);
+    }
+
+    private static Matcher match(String regex, String path) {
+        var m = Pattern.compile(regex).matcher(path);
+        return m.matches() ? m : null;
+    }
+
+    private static void send(HttpExchange exchange, int status, JsonNode response) throws IOException {
+        if ( response==null ) {
+            exchange.sendResponseHeaders(status==200 ? 404 : status, -1);
+        } else {
+            var bytes = MAPPER.writeValueAsBytes(response);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        var result = new LinkedHashMap<String, String>();
+        if ( rawQuery!=null ) {
+            for ( var param : rawQuery.split("&") ) {
+                var idx = param.indexOf('=');
+                var name = URLDecoder.decode(idx<0 ? param : param.substring(0, idx), StandardCharsets.UTF_8);
+                var value = idx<0 ? "" : URLDecoder.decode(param.substring(idx+1), StandardCharsets.UTF_8);
+                result.put(name, value);
+            }
+        }
+        return result;
+    }
+
+    private static int getInt(Map<String, String> query, String name, int defaultValue) {
+        try {
+            return query.containsKey(name) ? Integer.parseInt(query.get(name)) : defaultValue;
+        } catch ( NumberFormatException e ) {
+            return defaultValue;
+        }
+    }
+
+    @FunctionalInterface
+    private static interface IntFunctionToNode {
+        ObjectNode apply(int index);
+    }
+
+    /**
+     * Allow for running the mock server standalone, for example for manual
+     * testing of fcli commands.
+     */
+    public static void main(String[] args) throws Exception {
+        try ( var server = MockServer.builder().build().start() ) {
+            System.out.println("Mock server running at "+server.getUrl()+", press Enter to stop");
+            System.in.read();
+        }
+    }
+}
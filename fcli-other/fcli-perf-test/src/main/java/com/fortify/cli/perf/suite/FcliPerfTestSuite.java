@@ -0,0 +1,203 @@
+/**
+ * Copyright 2023 Open Text.
+ *
+ * The only warranties for products and services of Open Text
+ * and its affiliates and licensors ("Open Text") are as may
+ * be set forth in the express warranty statements accompanying
+ * such products and services. Nothing herein should be construed
+ * as constituting an additional warranty. Open Text shall not be
+ * liable for technical or editorial errors or omissions contained
+ * herein. The information contained herein is subject to change
+ * without notice.
+ */
+package com.fortify.cli.perf.suite;
+
+import static com.fortify.cli.perf._common.helper.FcliCommandFileHelper.loadCommands;
+import static com.fortify.cli.perf._common.helper.FcliCommandFileHelper.substitute;
+import static com.fortify.cli.perf._common.helper.FcliCommandFileHelper.tokenize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.fortify.cli.app.runner.DefaultFortifyCLIRunner;
+import com.fortify.cli.perf.mock.MockServer;
+
+/**
+ * This class runs a set of end-to-end performance test scenarios in-process
+ * against a {@link MockServer}, allowing changes to paging, embedding, uploads
+ * and other request-intensive functionality to be verified for performance
+ * without requiring a live SSC or FoD instance. For every scenario, this class
+ * reports median wall time, the number of HTTP requests received by the mock
+ * server, the number of rate-limited FoD requests, uploaded bytes, and peak heap
+ * usage. Scenarios are run after a single warm-up run, such that class loading
+ * and other one-time initialization isn't included in the measurements.<br/>
+ * <br/>
+ * Mock server data sizes, latency and FoD rate limits can be configured through
+ * the system properties documented in {@link MockServer#builderFromSystemProperties()},
+ * and the size of the synthetic upload file through the perf.upload.sizeMb system
+ * property. Peak heap usage is the sum of the peak usage of all heap memory pools
+ * after an explicit GC before running each scenario, so this should be treated as
+ * an approximation that's mostly useful for comparing different fcli versions.<br/>
+ * <br/>
+ * The process exits with a non-zero exit code if any of the scenarios fail.
+ */
+public final class FcliPerfTestSuite {
+    private static final String DEFAULT_SCENARIOS = "/com/fortify/cli/perf/suite/scenarios.txt";
+    private static final PrintStream ORIGINAL_OUT = System.out;
+    private static final PrintStream ORIGINAL_ERR = System.err;
+    private int iterations = 3;
+    private Path scenariosFile = null;
+    private Path reportFile = null;
+
+    public static void main(String[] args) throws Exception {
+        var suite = new FcliPerfTestSuite();
+        suite.parseArgs(args);
+        System.exit(suite.run());
+    }
+
+    private void parseArgs(String[] args) {
+        for ( int i=0; i<args.length; i++ ) {
+            switch (args[i]) {
+            case "--iterations": iterations = Integer.parseInt(args[++i]); break;
+            case "--scenarios": scenariosFile = Path.of(args[++i]); break;
+            case "--report": reportFile = Path.of(args[++i]); break;
+            default: throw new IllegalArgumentException("Unknown argument: "+args[i]);
+            }
+        }
+    }
+
+    private int run() throws Exception {
+        var workDir = Files.createTempDirectory("fcli-perf-suite");
+        // Use separate fcli data directory to avoid interfering with regular fcli sessions
+        System.setProperty("fcli.env.FCLI_DATA_DIR", workDir.resolve("fcli-data").toString());
+        var scenarios = loadCommands(scenariosFile, DEFAULT_SCENARIOS);
+        var report = new StringBuilder();
+        var failures = 0;
+        try ( var server = MockServer.builderFromSystemProperties().build().start();
+              var runner = new DefaultFortifyCLIRunner() ) {
+            var uploadFile = createUploadFile(workDir);
+            var context = Map.of(
+                    "url", server.getUrl(),
+                    "tmp", workDir.toString(),
+                    "upload", uploadFile.toString(),
+                    "manifest", createScanManifest(workDir, uploadFile).toString(),
+                    "msp", createMspReportConfig(workDir, server.getUrl()).toString());
+            for ( var login : List.of(
+                    "ssc session login --url ${url} -t 00000000-0000-0000-0000-000000000000",
+                    "fod session login --url ${url} --client-id mock --client-secret mock") ) {
+                failures += run(runner, substitute(login, context))==0 ? 0 : 1;
+            }
+            report.append("| Scenario | Median (ms) | Requests | Rate-limited | Uploaded (MB) | Peak heap (MB) |\n");
+            report.append("|---|---:|---:|---:|---:|---:|\n");
+            for ( var scenario : scenarios ) {
+                failures += runScenario(report, server, runner, scenario, substitute(scenario, context));
+            }
+        }
+        ORIGINAL_OUT.println(report);
+        if ( reportFile!=null ) { Files.writeString(reportFile, report.toString()); }
+        return failures==0 ? 0 : 1;
+    }
+
+    private int runScenario(StringBuilder report, MockServer server, DefaultFortifyCLIRunner runner, String name, String command) {
+        var durations = new ArrayList<Long>();
+        int failures = 0, requests = 0, rateLimited = 0;
+        long uploadedBytes = 0, peakHeap = 0;
+        // Warm-up run, not included in statistics
+        run(runner, command);
+        for ( int i=0; i<iterations; i++ ) {
+            var heapPools = resetHeapPeakUsage();
+            var requestsBefore = server.getRequestCount();
+            var rateLimitedBefore = server.getRateLimitedCount();
+            var uploadedBytesBefore = server.getUploadedBytes();
+            var start = System.nanoTime();
+            if ( run(runner, command)!=0 ) { failures++; }
+            durations.add((System.nanoTime()-start)/1_000_000);
+            peakHeap = Math.max(peakHeap, heapPools.stream().mapToLong(p->p.getPeakUsage().getUsed()).sum());
+            // Request counts should be the same for every iteration, so we just report the last one
+            requests = server.getRequestCount()-requestsBefore;
+            rateLimited = server.getRateLimitedCount()-rateLimitedBefore;
+            uploadedBytes = server.getUploadedBytes()-uploadedBytesBefore;
+        }
+        Collections.sort(durations);
+        report.append(String.format("| %s%s | %d | %d | %d | %.1f | %.1f |%n", name,
+                failures==0 ? "" : " (FAILED "+failures+"x)", durations.get(durations.size()/2),
+                requests, rateLimited, uploadedBytes/1048576.0, peakHeap/1048576.0));
+        return failures;
+    }
+
+    /**
+     * Run the given fcli command in-process, discarding any output unless the
+     * command fails, in which case stderr output is written to our own stderr.
+     */
+    private static int run(DefaultFortifyCLIRunner runner, String command) {
+        var err = new ByteArrayOutputStream();
+        int exitCode;
+        try {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            System.setErr(new PrintStream(err));
+            exitCode = runner.run(tokenize(command));
+        } finally {
+            System.setOut(ORIGINAL_OUT);
+            System.setErr(ORIGINAL_ERR);
+        }
+        if ( exitCode!=0 ) {
+            ORIGINAL_ERR.println("FAILED ("+exitCode+"): "+command);
+            ORIGINAL_ERR.print(err);
+        }
+        return exitCode;
+    }
+
+    private static List<MemoryPoolMXBean> resetHeapPeakUsage() {
+        System.gc();
+        var result = new ArrayList<MemoryPoolMXBean>();
+        for ( var pool : ManagementFactory.getMemoryPoolMXBeans() ) {
+            if ( pool.getType()==MemoryType.HEAP && pool.isValid() ) {
+                pool.resetPeakUsage();
+                result.add(pool);
+            }
+        }
+        return result;
+    }
+
+    private static Path createUploadFile(Path workDir) throws IOException {
+        var file = workDir.resolve("upload.fpr");
+        try ( var raf = new RandomAccessFile(file.toFile(), "rw") ) {
+            raf.setLength(Long.getLong("perf.upload.sizeMb", 50)*1024*1024);
+        }
+        return file;
+    }
+
+    private static Path createScanManifest(Path workDir, Path uploadFile) throws IOException {
+        var file = workDir.resolve("scan-manifest.yml");
+        var entries = new StringBuilder();
+        for ( int i=1; i<=Integer.getInteger("perf.fod.batchSize", 10); i++ ) {
+            entries.append("- release: ").append(i).append("\n  file: ").append(uploadFile).append("\n");
+        }
+        Files.writeString(file, entries);
+        return file;
+    }
+
+    private static Path createMspReportConfig(Path workDir, String url) throws IOException {
+        var file = workDir.resolve("MspReportConfig.yml");
+        Files.writeString(file, String.join("\n",
+                "mspName: Perf Test MSP",
+                "contractStartDate: 2021-01-01",
+                "sources:",
+                "  ssc:",
+                "  - baseUrl: "+url,
+                "    tokenExpression: \"'00000000-0000-0000-0000-000000000000'\""));
+        return file;
+    }
+}